@@ -0,0 +1,66 @@
+package com.seismiq.common.cdc;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of change events in stream order, with the consumer's checkpoint in it.
+ *
+ * <p>A consumer that handles events one by one checkpoints each as it is done; if it then
+ * fails, only the events after the checkpoint are delivered again. A consumer that returns
+ * normally has handled the whole batch, checkpointed or not.</p>
+ */
+public final class ChangeBatch {
+    private final List<ChangeEvent> events;
+    private int checkpointed;
+
+    public ChangeBatch(List<ChangeEvent> events) {
+        this.events = Collections.unmodifiableList(events);
+    }
+
+    /**
+     * @return The events, oldest first
+     */
+    public List<ChangeEvent> getEvents() {
+        return events;
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    /**
+     * Marks the event and every event before it as handled.
+     *
+     * @param event An event of this batch
+     * @throws IllegalArgumentException if the event is not in the batch
+     */
+    public void checkpoint(ChangeEvent event) {
+        int index = events.indexOf(event);
+        if (index < 0) {
+            throw new IllegalArgumentException("Event is not part of this batch: " + event);
+        }
+        checkpointed = Math.max(checkpointed, index + 1);
+    }
+
+    /**
+     * Marks the whole batch as handled.
+     */
+    public void checkpointAll() {
+        checkpointed = events.size();
+    }
+
+    /**
+     * @return The number of events from the start of the batch that are handled
+     */
+    public int getCheckpointed() {
+        return checkpointed;
+    }
+
+    /**
+     * @return The first event that is not handled yet, or null if all are
+     */
+    public ChangeEvent firstPending() {
+        return checkpointed < events.size() ? events.get(checkpointed) : null;
+    }
+}
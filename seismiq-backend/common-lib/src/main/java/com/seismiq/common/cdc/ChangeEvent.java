@@ -0,0 +1,97 @@
+package com.seismiq.common.cdc;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+import com.seismiq.common.codec.ItemCodec;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * One change to one item of a table, as a DynamoDB stream record describes it: the item's
+ * key, and its image before (MODIFY, REMOVE) and after (INSERT, MODIFY) the change. Which
+ * images are present depends on the stream's view type.
+ */
+public final class ChangeEvent {
+
+    public enum Type {
+        INSERT, MODIFY, REMOVE
+    }
+
+    private final String sequenceNumber;
+    private final String table;
+    private final Type type;
+    private final Map<String, AttributeValue> keys;
+    private final Map<String, AttributeValue> oldImage;
+    private final Map<String, AttributeValue> newImage;
+    private final Instant createdAt;
+
+    /**
+     * @param sequenceNumber Position in the stream; later changes to the same item have larger numbers
+     * @param table The table name, e.g. "seismiq-Reports"
+     * @param type What happened to the item
+     * @param keys The item's key attributes
+     * @param oldImage The item before the change, or null
+     * @param newImage The item after the change, or null
+     * @param createdAt When the change was made
+     */
+    public ChangeEvent(String sequenceNumber, String table, Type type, Map<String, AttributeValue> keys,
+                       Map<String, AttributeValue> oldImage, Map<String, AttributeValue> newImage,
+                       Instant createdAt) {
+        this.sequenceNumber = sequenceNumber;
+        this.table = table;
+        this.type = type;
+        this.keys = keys != null ? Collections.unmodifiableMap(keys) : Collections.emptyMap();
+        this.oldImage = oldImage != null ? Collections.unmodifiableMap(oldImage) : null;
+        this.newImage = newImage != null ? Collections.unmodifiableMap(newImage) : null;
+        this.createdAt = createdAt;
+    }
+
+    public String getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Map<String, AttributeValue> getKeys() {
+        return keys;
+    }
+
+    public Map<String, AttributeValue> getOldImage() {
+        return oldImage;
+    }
+
+    public Map<String, AttributeValue> getNewImage() {
+        return newImage;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return The item before the change decoded with the codec, or null if there is no old image
+     */
+    public <T> T decodeOld(ItemCodec<T> codec) {
+        return oldImage != null ? codec.decode(oldImage) : null;
+    }
+
+    /**
+     * @return The item after the change decoded with the codec, or null if there is no new image
+     */
+    public <T> T decodeNew(ItemCodec<T> codec) {
+        return newImage != null ? codec.decode(newImage) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" + table + " " + type + " " + keys + " #" + sequenceNumber + "}";
+    }
+}
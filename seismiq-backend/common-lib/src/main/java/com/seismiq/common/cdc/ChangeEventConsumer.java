@@ -0,0 +1,15 @@
+package com.seismiq.common.cdc;
+
+/**
+ * Handles change events in batches. Changes to one item arrive in the order they were made;
+ * events can be delivered more than once, so consumers must be idempotent. Throwing makes
+ * every event after the batch's checkpoint be delivered again.
+ */
+@FunctionalInterface
+public interface ChangeEventConsumer {
+
+    /**
+     * @param batch The events to handle, oldest first
+     */
+    void accept(ChangeBatch batch);
+}
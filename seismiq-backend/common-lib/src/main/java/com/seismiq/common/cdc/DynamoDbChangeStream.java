@@ -0,0 +1,149 @@
+package com.seismiq.common.cdc;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Feeds the DynamoDB stream batches a Lambda function receives to a {@link ChangeEventConsumer}.
+ * The function's event source mapping must report batch item failures
+ * (FunctionResponseTypes: ReportBatchItemFailures): a failure is reported at the first event
+ * after the consumer's checkpoint, and the stream retries the shard from there.
+ */
+public final class DynamoDbChangeStream {
+
+    private DynamoDbChangeStream() {}
+
+    /**
+     * Converts the records of a stream invocation and hands them to the consumer as one batch.
+     *
+     * @param event The Lambda stream event
+     * @param consumer Handles the changes
+     * @param log Receives a line when the consumer fails
+     * @return The response telling the stream where to resume
+     */
+    public static StreamsEventResponse deliver(DynamodbEvent event, ChangeEventConsumer consumer, Consumer<String> log) {
+        ChangeBatch batch = new ChangeBatch(toChangeEvents(event));
+        if (batch.isEmpty()) {
+            return new StreamsEventResponse();
+        }
+
+        try {
+            consumer.accept(batch);
+            return new StreamsEventResponse();
+        } catch (RuntimeException e) {
+            ChangeEvent resumeAt = batch.firstPending();
+            log.accept("Change batch failed after " + batch.getCheckpointed() + " of " + batch.getEvents().size()
+                + " events: " + e.getMessage());
+            if (resumeAt == null) {
+                return new StreamsEventResponse();
+            }
+            return new StreamsEventResponse(List.of(
+                new StreamsEventResponse.BatchItemFailure(resumeAt.getSequenceNumber())));
+        }
+    }
+
+    /**
+     * @return The records of a stream invocation as change events, in stream order
+     */
+    public static List<ChangeEvent> toChangeEvents(DynamodbEvent event) {
+        List<ChangeEvent> events = new ArrayList<>();
+        if (event.getRecords() == null) {
+            return events;
+        }
+        for (DynamodbEvent.DynamodbStreamRecord record : event.getRecords()) {
+            StreamRecord change = record.getDynamodb();
+            if (change == null || record.getEventName() == null) {
+                continue;
+            }
+            events.add(new ChangeEvent(
+                change.getSequenceNumber(),
+                tableName(record.getEventSourceARN()),
+                ChangeEvent.Type.valueOf(record.getEventName()),
+                convert(change.getKeys()),
+                convert(change.getOldImage()),
+                convert(change.getNewImage()),
+                change.getApproximateCreationDateTime() != null
+                    ? change.getApproximateCreationDateTime().toInstant()
+                    : Instant.now()));
+        }
+        return events;
+    }
+
+    // arn:aws:dynamodb:<region>:<account>:table/<name>/stream/<label>
+    static String tableName(String eventSourceArn) {
+        if (eventSourceArn == null) {
+            return null;
+        }
+        int start = eventSourceArn.indexOf(":table/");
+        if (start < 0) {
+            return null;
+        }
+        start += ":table/".length();
+        int end = eventSourceArn.indexOf('/', start);
+        return end < 0 ? eventSourceArn.substring(start) : eventSourceArn.substring(start, end);
+    }
+
+    private static Map<String, AttributeValue> convert(
+            Map<String, com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue> image) {
+        if (image == null) {
+            return null;
+        }
+        Map<String, AttributeValue> item = new HashMap<>();
+        for (Map.Entry<String, com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue> attribute
+                : image.entrySet()) {
+            item.put(attribute.getKey(), convert(attribute.getValue()));
+        }
+        return item;
+    }
+
+    private static AttributeValue convert(com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue value) {
+        if (value.getS() != null) {
+            return AttributeValue.fromS(value.getS());
+        }
+        if (value.getN() != null) {
+            return AttributeValue.fromN(value.getN());
+        }
+        if (value.getBOOL() != null) {
+            return AttributeValue.fromBool(value.getBOOL());
+        }
+        if (value.getM() != null) {
+            return AttributeValue.fromM(convert(value.getM()));
+        }
+        if (value.getL() != null) {
+            List<AttributeValue> list = new ArrayList<>(value.getL().size());
+            for (com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue element : value.getL()) {
+                list.add(convert(element));
+            }
+            return AttributeValue.fromL(list);
+        }
+        if (value.getSS() != null) {
+            return AttributeValue.fromSs(value.getSS());
+        }
+        if (value.getNS() != null) {
+            return AttributeValue.fromNs(value.getNS());
+        }
+        if (value.getB() != null) {
+            return AttributeValue.fromB(SdkBytes.fromByteBuffer(value.getB()));
+        }
+        if (value.getBS() != null) {
+            List<SdkBytes> bytes = new ArrayList<>(value.getBS().size());
+            for (ByteBuffer buffer : value.getBS()) {
+                bytes.add(SdkBytes.fromByteBuffer(buffer));
+            }
+            return AttributeValue.fromBs(bytes);
+        }
+        return AttributeValue.fromNul(true);
+    }
+}
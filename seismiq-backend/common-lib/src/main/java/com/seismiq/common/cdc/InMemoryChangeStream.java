@@ -0,0 +1,131 @@
+package com.seismiq.common.cdc;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * A process-local change stream for running without DynamoDB streams (SAM local, test runners).
+ * Changes are recorded by the code that makes them and handed to every subscribed consumer in
+ * batches on a single background thread, in the order they were recorded.
+ *
+ * <p>Each subscription keeps its own checkpoint: when a consumer fails, the events after its
+ * checkpoint are delivered again, up to {@link #MAX_ATTEMPTS} times before they are dropped.
+ * Events are lost if the process exits first.</p>
+ */
+public class InMemoryChangeStream {
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final Logger LOGGER = Logger.getLogger(InMemoryChangeStream.class.getName());
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final int batchSize;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-stream-consumer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param batchSize The largest batch handed to a consumer at once
+     */
+    public InMemoryChangeStream(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds a consumer; it receives the changes recorded from now on.
+     */
+    public InMemoryChangeStream subscribe(ChangeEventConsumer consumer) {
+        subscriptions.add(new Subscription(consumer));
+        return this;
+    }
+
+    /**
+     * Records a change made to a table.
+     *
+     * @param table The table name
+     * @param type What happened to the item
+     * @param keys The item's key attributes
+     * @param oldImage The item before the change, or null for an insert
+     * @param newImage The item after the change, or null for a removal
+     * @return The recorded event
+     */
+    public ChangeEvent record(String table, ChangeEvent.Type type, Map<String, AttributeValue> keys,
+                              Map<String, AttributeValue> oldImage, Map<String, AttributeValue> newImage) {
+        // Zero-padded so sequence numbers sort as strings, like DynamoDB's
+        String sequenceNumber = String.format("%021d", sequence.incrementAndGet());
+        ChangeEvent event = new ChangeEvent(sequenceNumber, table, type, keys, oldImage, newImage, Instant.now());
+        worker.execute(() -> {
+            for (Subscription subscription : subscriptions) {
+                subscription.pending.add(event);
+            }
+            drain();
+        });
+        return event;
+    }
+
+    // Runs on the worker thread only, which also owns every subscription's pending queue
+    private void drain() {
+        for (Subscription subscription : subscriptions) {
+            while (!subscription.pending.isEmpty()) {
+                deliver(subscription);
+            }
+        }
+    }
+
+    private void deliver(Subscription subscription) {
+        List<ChangeEvent> events = new ArrayList<>(Math.min(batchSize, subscription.pending.size()));
+        for (ChangeEvent event : subscription.pending) {
+            if (events.size() == batchSize) {
+                break;
+            }
+            events.add(event);
+        }
+
+        ChangeBatch batch = new ChangeBatch(events);
+        try {
+            subscription.consumer.accept(batch);
+            batch.checkpointAll();
+            subscription.attempts = 0;
+        } catch (RuntimeException e) {
+            subscription.attempts = batch.getCheckpointed() > 0 ? 1 : subscription.attempts + 1;
+            LOGGER.log(Level.WARNING, "Change batch of " + events.size() + " failed after "
+                + batch.getCheckpointed() + " events, attempt " + subscription.attempts, e);
+        }
+
+        for (int i = 0; i < batch.getCheckpointed(); i++) {
+            subscription.pending.poll();
+        }
+        if (subscription.attempts >= MAX_ATTEMPTS) {
+            LOGGER.severe("Dropping change batch of " + (events.size() - batch.getCheckpointed())
+                + " after " + MAX_ATTEMPTS + " attempts");
+            for (int i = batch.getCheckpointed(); i < events.size(); i++) {
+                subscription.pending.poll();
+            }
+            subscription.attempts = 0;
+        }
+    }
+
+    private static final class Subscription {
+        final ChangeEventConsumer consumer;
+        final Deque<ChangeEvent> pending = new ArrayDeque<>();
+        int attempts;
+
+        Subscription(ChangeEventConsumer consumer) {
+            this.consumer = consumer;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.seismiq.common.codec;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the timestamps the repositories store. Almost all of them have the plain
+ * "yyyy-MM-ddTHH:mm[:ss[.fffffffff]]" shape written by ISO_DATE_TIME and
+ * LocalDateTime.toString(); those are read by fixed offsets, which is several times faster
+ * than going through a DateTimeFormatter. Anything else (offsets, zone ids, odd years)
+ * falls back to ISO_DATE_TIME.
+ */
+final class IsoDateTimes {
+    private static final DateTimeFormatter FALLBACK = DateTimeFormatter.ISO_DATE_TIME;
+    private static final int[] NANO_SCALE = {
+        0, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1
+    };
+
+    private IsoDateTimes() {}
+
+    static LocalDateTime parse(String text) {
+        LocalDateTime parsed = parseLocal(text);
+        return parsed != null ? parsed : LocalDateTime.parse(text, FALLBACK);
+    }
+
+    private static LocalDateTime parseLocal(String text) {
+        int length = text.length();
+        if (length < 16 || text.charAt(4) != '-' || text.charAt(7) != '-'
+                || text.charAt(10) != 'T' || text.charAt(13) != ':') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        int hour = digits(text, 11, 13);
+        int minute = digits(text, 14, 16);
+        int second = 0;
+        int nano = 0;
+
+        if (length > 16) {
+            if (length < 19 || text.charAt(16) != ':') {
+                return null;
+            }
+            second = digits(text, 17, 19);
+            if (length > 19) {
+                int fractionDigits = length - 20;
+                if (text.charAt(19) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    return null;
+                }
+                int fraction = digits(text, 20, length);
+                nano = fraction < 0 ? -1 : fraction * NANO_SCALE[fractionDigits];
+            }
+        }
+
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            throw new DateTimeParseException(e.getMessage(), text, 0, e);
+        }
+    }
+
+    // Returns -1 if any character is not a digit
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,289 @@
+package com.seismiq.common.codec;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Converts between a model object and its DynamoDB item.
+ * The mapping is declared once per model with the {@link Builder} as a list of attribute
+ * bindings (getter and setter method references), so decoding an item is a single pass over
+ * precompiled bindings with no reflection and no per-item lookups of the mapping itself.
+ * Codecs are immutable and thread-safe; keep them in static finals (see {@link ModelCodecs}).
+ *
+ * <p>Decoding is tolerant: missing attributes, attributes of the wrong type and values that
+ * fail to parse are skipped, leaving the field at whatever the factory set. This keeps
+ * projected reads (fields=) and older items without newer attributes working.
+ * Encoding skips null values.</p>
+ *
+ * @param <T> The model type
+ */
+public final class ItemCodec<T> {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+
+    private final Supplier<T> factory;
+    private final Binding<T>[] bindings;
+    private final Consumer<T> afterDecode;
+
+    @SuppressWarnings("unchecked")
+    private ItemCodec(Builder<T> builder) {
+        this.factory = builder.factory;
+        this.bindings = builder.bindings.toArray(new Binding[0]);
+        this.afterDecode = builder.afterDecode;
+    }
+
+    /**
+     * Starts a codec definition.
+     *
+     * @param factory Creates the empty object every item is decoded into
+     * @return The builder
+     */
+    public static <T> Builder<T> builder(Supplier<T> factory) {
+        return new Builder<>(factory);
+    }
+
+    /**
+     * Decodes an item.
+     *
+     * @param item The DynamoDB item, may be null
+     * @return The decoded object, or null if the item is null
+     */
+    public T decode(Map<String, AttributeValue> item) {
+        if (item == null) {
+            return null;
+        }
+        T target = factory.get();
+        for (Binding<T> binding : bindings) {
+            AttributeValue value = item.get(binding.attribute);
+            if (value != null) {
+                binding.decoder.accept(target, value);
+            }
+        }
+        if (afterDecode != null) {
+            afterDecode.accept(target);
+        }
+        return target;
+    }
+
+    /**
+     * Encodes an object. Null fields are left out of the item.
+     *
+     * @param source The object to encode
+     * @return A new, mutable item
+     */
+    public Map<String, AttributeValue> encode(T source) {
+        Map<String, AttributeValue> item = new HashMap<>(bindings.length * 2);
+        for (Binding<T> binding : bindings) {
+            AttributeValue value = binding.encoder.apply(source);
+            if (value != null) {
+                item.put(binding.attribute, value);
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Setter for a primitive boolean field, so that method references like
+     * {@code Report::setCurrentLocation} bind without boxing.
+     */
+    @FunctionalInterface
+    public interface BooleanSetter<T> {
+        void set(T target, boolean value);
+    }
+
+    private static final class Binding<T> {
+        final String attribute;
+        final Function<T, AttributeValue> encoder;
+        final BiConsumer<T, AttributeValue> decoder;
+
+        Binding(String attribute, Function<T, AttributeValue> encoder, BiConsumer<T, AttributeValue> decoder) {
+            this.attribute = attribute;
+            this.encoder = encoder;
+            this.decoder = decoder;
+        }
+    }
+
+    /**
+     * Declares the attribute bindings of a model. Bindings are decoded in declaration order,
+     * which matters for setters with side effects (declare those before the fields they touch).
+     */
+    public static final class Builder<T> {
+        private final Supplier<T> factory;
+        private final List<Binding<T>> bindings = new ArrayList<>();
+        private Consumer<T> afterDecode;
+
+        private Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        public Builder<T> string(String attribute, Function<T, String> getter, BiConsumer<T, String> setter) {
+            return custom(attribute,
+                source -> {
+                    String value = getter.apply(source);
+                    return value == null ? null : AttributeValue.builder().s(value).build();
+                },
+                (target, value) -> {
+                    if (value.s() != null) {
+                        setter.accept(target, value.s());
+                    }
+                });
+        }
+
+        public Builder<T> number(String attribute, ToDoubleFunction<T> getter, ObjDoubleConsumer<T> setter) {
+            return custom(attribute,
+                source -> AttributeValue.builder().n(String.valueOf(getter.applyAsDouble(source))).build(),
+                (target, value) -> {
+                    if (value.n() != null) {
+                        try {
+                            setter.accept(target, Double.parseDouble(value.n()));
+                        } catch (NumberFormatException e) {
+                            // Leave the default
+                        }
+                    }
+                });
+        }
+
+        /**
+         * Binds a primitive int, such as a counter.
+         */
+        public Builder<T> integer(String attribute, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+            return custom(attribute,
+                source -> AttributeValue.builder().n(String.valueOf(getter.applyAsInt(source))).build(),
+                (target, value) -> {
+                    if (value.n() != null) {
+                        try {
+                            setter.accept(target, Integer.parseInt(value.n()));
+                        } catch (NumberFormatException e) {
+                            // Leave the default
+                        }
+                    }
+                });
+        }
+
+        /**
+         * Binds a nullable whole number, such as a version counter.
+         */
+        public Builder<T> longNumber(String attribute, Function<T, Long> getter, BiConsumer<T, Long> setter) {
+            return custom(attribute,
+                source -> {
+                    Long value = getter.apply(source);
+                    return value == null ? null : AttributeValue.builder().n(value.toString()).build();
+                },
+                (target, value) -> {
+                    if (value.n() != null) {
+                        try {
+                            setter.accept(target, Long.parseLong(value.n()));
+                        } catch (NumberFormatException e) {
+                            // Leave the default
+                        }
+                    }
+                });
+        }
+
+        public Builder<T> bool(String attribute, Predicate<T> getter, BooleanSetter<T> setter) {
+            return custom(attribute,
+                source -> AttributeValue.builder().bool(getter.test(source)).build(),
+                (target, value) -> {
+                    if (value.bool() != null) {
+                        setter.set(target, value.bool());
+                    }
+                });
+        }
+
+        /**
+         * Binds a timestamp stored as an ISO-8601 string.
+         */
+        public Builder<T> dateTime(String attribute, Function<T, LocalDateTime> getter, BiConsumer<T, LocalDateTime> setter) {
+            return custom(attribute,
+                source -> {
+                    LocalDateTime value = getter.apply(source);
+                    return value == null ? null : AttributeValue.builder().s(value.format(DATE_FORMATTER)).build();
+                },
+                (target, value) -> {
+                    if (value.s() != null) {
+                        try {
+                            setter.accept(target, IsoDateTimes.parse(value.s()));
+                        } catch (DateTimeParseException e) {
+                            // Leave the default
+                        }
+                    }
+                });
+        }
+
+        /**
+         * Binds an enum stored by constant name. Unknown names are skipped.
+         */
+        public <E extends Enum<E>> Builder<T> enumValue(String attribute, Class<E> type,
+                                                        Function<T, E> getter, BiConsumer<T, E> setter) {
+            Map<String, E> constants = new HashMap<>();
+            for (E constant : type.getEnumConstants()) {
+                constants.put(constant.name(), constant);
+            }
+            return custom(attribute,
+                source -> {
+                    E value = getter.apply(source);
+                    return value == null ? null : AttributeValue.builder().s(value.name()).build();
+                },
+                (target, value) -> {
+                    E constant = value.s() == null ? null : constants.get(value.s());
+                    if (constant != null) {
+                        setter.accept(target, constant);
+                    }
+                });
+        }
+
+        /**
+         * Binds a nested object stored as a map attribute with its own codec.
+         */
+        public <V> Builder<T> map(String attribute, ItemCodec<V> codec, Function<T, V> getter, BiConsumer<T, V> setter) {
+            return custom(attribute,
+                source -> {
+                    V value = getter.apply(source);
+                    return value == null ? null : AttributeValue.builder().m(codec.encode(value)).build();
+                },
+                (target, value) -> {
+                    if (value.hasM()) {
+                        setter.accept(target, codec.decode(value.m()));
+                    }
+                });
+        }
+
+        /**
+         * Binds an attribute with hand-written conversions.
+         *
+         * @param encoder Builds the attribute value, or returns null to leave it out
+         * @param decoder Applies a present attribute value to the target
+         */
+        public Builder<T> custom(String attribute, Function<T, AttributeValue> encoder, BiConsumer<T, AttributeValue> decoder) {
+            bindings.add(new Binding<>(attribute, encoder, decoder));
+            return this;
+        }
+
+        /**
+         * Runs after every decode, for defaults that depend on several fields.
+         */
+        public Builder<T> afterDecode(Consumer<T> afterDecode) {
+            this.afterDecode = afterDecode;
+            return this;
+        }
+
+        public ItemCodec<T> build() {
+            return new ItemCodec<>(this);
+        }
+    }
+}
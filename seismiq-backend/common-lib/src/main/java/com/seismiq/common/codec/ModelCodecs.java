@@ -0,0 +1,155 @@
+package com.seismiq.common.codec;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.seismiq.common.model.Category;
+import com.seismiq.common.model.Earthquake;
+import com.seismiq.common.model.Landmark;
+import com.seismiq.common.model.Report;
+import com.seismiq.common.model.User;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * The item codecs of the SeismIQ models, built once per class load.
+ */
+public final class ModelCodecs {
+    /**
+     * The user summary embedded in report items. Credentials are never copied into reports.
+     */
+    public static final ItemCodec<User> REPORT_USER = ItemCodec.builder(User::new)
+        .string("userId", User::getUserId, User::setUserId)
+        .string("name", User::getName, User::setName)
+        .string("address", User::getAddress, User::setAddress)
+        .bool("isVolunteer", User::isVolunteer, User::setVolunteer)
+        .bool("isSocialWorker", User::isSocialWorker, User::setSocialWorker)
+        .build();
+
+    /**
+     * Items of the users table.
+     */
+    public static final ItemCodec<User> USER = ItemCodec.builder(User::new)
+        .string("userId", User::getUserId, User::setUserId)
+        .string("name", User::getName, User::setName)
+        .string("address", User::getAddress, User::setAddress)
+        .bool("isVolunteer", User::isVolunteer, User::setVolunteer)
+        .bool("isSocialWorker", User::isSocialWorker, User::setSocialWorker)
+        .string("email", User::getEmail, User::setEmail)
+        .string("passwordHash", User::getPasswordHash, User::setPasswordHash)
+        .build();
+
+    /**
+     * Items of the reports table, without the index-only attributes the repository derives.
+     * A missing status decodes as PENDING, a missing timestamp as now and a missing
+     * lastUpdated as the timestamp.
+     */
+    public static final ItemCodec<Report> REPORT = ItemCodec.builder(Report::new)
+        .string("reportId", Report::getReportId, Report::setReportId)
+        .map("user", REPORT_USER, Report::getUser, Report::setUser)
+        .custom("category", ModelCodecs::encodeReportCategory, ModelCodecs::decodeReportCategory)
+        .string("description", Report::getDescription, Report::setDescription)
+        .string("location", Report::getLocation, Report::setLocation)
+        .bool("isCurrentLocation", Report::isCurrentLocation, Report::setCurrentLocation)
+        .number("latitude", Report::getLatitude, Report::setLatitude)
+        .number("longitude", Report::getLongitude, Report::setLongitude)
+        .string("locationDescription", Report::getLocationDescription, Report::setLocationDescription)
+        .enumValue("status", Report.ReportStatus.class, Report::getStatus, ModelCodecs::restoreStatus)
+        .dateTime("timestamp", Report::getTimestamp, Report::setTimestamp)
+        .dateTime("lastUpdated", Report::getLastUpdated, Report::setLastUpdated)
+        .string("city", Report::getCity, Report::setCity)
+        .string("province", Report::getProvince, Report::setProvince)
+        .longNumber("version", Report::getVersion, Report::setVersion)
+        .integer("duplicateCount", Report::getDuplicateCount, Report::setDuplicateCount)
+        .enumValue("geocodeStatus", Report.GeocodeStatus.class, Report::getGeocodeStatus, Report::setGeocodeStatus)
+        .afterDecode(report -> {
+            if (report.getStatus() == null) {
+                restoreStatus(report, Report.ReportStatus.PENDING);
+            }
+            if (report.getTimestamp() == null) {
+                report.setTimestamp(LocalDateTime.now());
+            }
+            if (report.getLastUpdated() == null) {
+                report.setLastUpdated(report.getTimestamp());
+            }
+        })
+        .build();
+
+    /**
+     * Items of the landmarks table. Used for reads; landmarks are written by
+     * LandmarkRepository, which also stores createdAt and the geohash.
+     * isActive is declared before lastUpdated because setActive touches lastUpdated.
+     */
+    public static final ItemCodec<Landmark> LANDMARK = ItemCodec.builder(Landmark::new)
+        .string("landmarkId", Landmark::getLandmarkId, Landmark::setLandmarkId)
+        .string("name", Landmark::getName, Landmark::setName)
+        .string("location", Landmark::getLocation, Landmark::setLocation)
+        .custom("category",
+            landmark -> landmark.getCategoryType() == null ? null
+                : AttributeValue.builder().s(landmark.getCategoryType()).build(),
+            (landmark, value) -> {
+                if (value.s() != null && !value.s().isEmpty()) {
+                    landmark.setCategoryType(value.s());
+                }
+            })
+        .string("description", Landmark::getDescription, Landmark::setDescription)
+        .string("createdBy", Landmark::getCreatedBy, Landmark::setCreatedBy)
+        .number("latitude", Landmark::getLatitude, Landmark::setLatitude)
+        .number("longitude", Landmark::getLongitude, Landmark::setLongitude)
+        .bool("isActive", Landmark::isActive, Landmark::setActive)
+        .dateTime("lastUpdated", Landmark::getLastUpdated, Landmark::setLastUpdated)
+        .build();
+
+    /**
+     * Items of the earthquakes table. Earthquakes are active unless the item says otherwise.
+     */
+    public static final ItemCodec<Earthquake> EARTHQUAKE = ItemCodec.builder(ModelCodecs::newActiveEarthquake)
+        .string("earthquakeId", Earthquake::getEarthquakeId, Earthquake::setEarthquakeId)
+        .number("magnitude", Earthquake::getMagnitude, Earthquake::setMagnitude)
+        .number("latitude", Earthquake::getLatitude, Earthquake::setLatitude)
+        .number("longitude", Earthquake::getLongitude, Earthquake::setLongitude)
+        .number("depth", Earthquake::getDepth, Earthquake::setDepth)
+        .string("location", Earthquake::getLocation, Earthquake::setLocation)
+        .dateTime("timestamp", Earthquake::getTimestamp, Earthquake::setTimestamp)
+        .string("source", Earthquake::getSource, Earthquake::setSource)
+        .bool("isActive", Earthquake::isActive, Earthquake::setActive)
+        .build();
+
+    private ModelCodecs() {}
+
+    private static AttributeValue encodeReportCategory(Report report) {
+        Category category = report.getCategory();
+        if (category == null) {
+            return null;
+        }
+        Map<String, AttributeValue> categoryMap = new HashMap<>();
+        categoryMap.put("categoryID", AttributeValue.builder().s(category.getCategoryID()).build());
+        categoryMap.put("categoryType", AttributeValue.builder().s(category.getCategoryType()).build());
+        return AttributeValue.builder().m(categoryMap).build();
+    }
+
+    private static void decodeReportCategory(Report report, AttributeValue value) {
+        if (!value.hasM()) {
+            return;
+        }
+        AttributeValue id = value.m().get("categoryID");
+        AttributeValue type = value.m().get("categoryType");
+        if (id != null && type != null) {
+            report.setCategory(new Category(id.s(), type.s()));
+        }
+    }
+
+    // Report.setStatus stamps lastUpdated with the current time, which must not happen on a read
+    private static void restoreStatus(Report report, Report.ReportStatus status) {
+        LocalDateTime lastUpdated = report.getLastUpdated();
+        report.setStatus(status);
+        report.setLastUpdated(lastUpdated);
+    }
+
+    private static Earthquake newActiveEarthquake() {
+        Earthquake earthquake = new Earthquake();
+        earthquake.setActive(true);
+        return earthquake;
+    }
+}
@@ -0,0 +1,336 @@
+package com.seismiq.common.geocoding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.seismiq.common.util.GeoUtils;
+
+/**
+ * A gazetteer read straight from a memory-mapped file written by {@link BinaryGazetteerWriter}.
+ * Opening it maps the file and reads a header, so lookups work within milliseconds of a cold
+ * start, and the places stay in the page cache instead of on the heap.
+ *
+ * <p>The file is big-endian: a header of nine ints (magic, version, places, alternate name
+ * references, strings, string bytes, name keys, postings, key bytes), then one array per
+ * field ("struct of arrays"):</p>
+ * <ul>
+ *   <li>x, y and z of each place's unit vector, latitude and longitude, as floats</li>
+ *   <li>geonameId and population, as ints</li>
+ *   <li>name, ASCII name, feature code and admin1 code, as indexes into the string table</li>
+ *   <li>the alternate names: start offsets per place and string indexes</li>
+ *   <li>the string table: offsets into the UTF-8 bytes of every distinct string</li>
+ *   <li>the name index: normalized keys in sorted order, each with its places most important
+ *       first, as key offsets, posting offsets and postings</li>
+ *   <li>the string bytes and the key bytes</li>
+ * </ul>
+ *
+ * <p>Places are stored in {@link PlaceKdTree} layout: the place at the middle of every range
+ * splits that range, so nearest-place lookups walk the coordinate arrays directly.</p>
+ */
+public final class BinaryGazetteer {
+    private static final Logger LOGGER = Logger.getLogger(BinaryGazetteer.class.getName());
+
+    static final int MAGIC = 0x53514758;    // "SQGX"
+    static final int VERSION = 1;
+    static final String PATH_ENV = "GEONAMES_GAZETTEER_PATH";
+    private static final int HEADER_INTS = 9;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final FloatBuffer xs;
+    private final FloatBuffer ys;
+    private final FloatBuffer zs;
+    private final FloatBuffer latitudes;
+    private final FloatBuffer longitudes;
+    private final IntBuffer geonameIds;
+    private final IntBuffer populations;
+    private final IntBuffer names;
+    private final IntBuffer asciiNames;
+    private final IntBuffer featureCodes;
+    private final IntBuffer admin1Codes;
+    private final IntBuffer alternateStarts;
+    private final IntBuffer alternateRefs;
+    private final IntBuffer stringOffsets;
+    private final IntBuffer keyOffsets;
+    private final IntBuffer postingStarts;
+    private final IntBuffer postings;
+    private final int stringBytes;
+    private final int keyBytes;
+    private final int keyCount;
+
+    /**
+     * Reads a gazetteer from a buffer holding a whole file.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a gazetteer file of this version
+     */
+    public BinaryGazetteer(ByteBuffer file) {
+        this.buffer = file.duplicate();
+        if (buffer.capacity() < HEADER_INTS * 4 || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a gazetteer file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported gazetteer version " + buffer.getInt(4));
+        }
+        this.size = buffer.getInt(8);
+        int alternateCount = buffer.getInt(12);
+        int stringCount = buffer.getInt(16);
+        int stringByteCount = buffer.getInt(20);
+        this.keyCount = buffer.getInt(24);
+        int postingCount = buffer.getInt(28);
+        int keyByteCount = buffer.getInt(32);
+
+        long expected = 4L * HEADER_INTS + 4L * 11 * size + 4L * (size + 1) + 4L * alternateCount
+            + 4L * (stringCount + 1) + 8L * (keyCount + 1) + 4L * postingCount + stringByteCount + keyByteCount;
+        if (buffer.capacity() != expected) {
+            throw new IllegalArgumentException("Gazetteer file is " + buffer.capacity() + " bytes, expected " + expected);
+        }
+
+        int offset = HEADER_INTS * 4;
+        this.xs = floats(offset, size);
+        this.ys = floats(offset += 4 * size, size);
+        this.zs = floats(offset += 4 * size, size);
+        this.latitudes = floats(offset += 4 * size, size);
+        this.longitudes = floats(offset += 4 * size, size);
+        this.geonameIds = ints(offset += 4 * size, size);
+        this.populations = ints(offset += 4 * size, size);
+        this.names = ints(offset += 4 * size, size);
+        this.asciiNames = ints(offset += 4 * size, size);
+        this.featureCodes = ints(offset += 4 * size, size);
+        this.admin1Codes = ints(offset += 4 * size, size);
+        this.alternateStarts = ints(offset += 4 * size, size + 1);
+        this.alternateRefs = ints(offset += 4 * (size + 1), alternateCount);
+        this.stringOffsets = ints(offset += 4 * alternateCount, stringCount + 1);
+        this.keyOffsets = ints(offset += 4 * (stringCount + 1), keyCount + 1);
+        this.postingStarts = ints(offset += 4 * (keyCount + 1), keyCount + 1);
+        this.postings = ints(offset += 4 * (keyCount + 1), postingCount);
+        this.stringBytes = offset += 4 * postingCount;
+        this.keyBytes = offset + stringByteCount;
+    }
+
+    /**
+     * Maps a gazetteer file.
+     *
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if it is not a gazetteer file of this version
+     */
+    public static BinaryGazetteer open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new BinaryGazetteer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The gazetteer file named by the GEONAMES_GAZETTEER_PATH environment variable, mapped on
+     * first use.
+     *
+     * @return The gazetteer, or null if none is configured or it cannot be read
+     */
+    public static BinaryGazetteer shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static final class Shared {
+        static final BinaryGazetteer INSTANCE = openConfigured();
+    }
+
+    private static BinaryGazetteer openConfigured() {
+        String path = System.getenv(PATH_ENV);
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            BinaryGazetteer gazetteer = open(Path.of(path));
+            LOGGER.info("Mapped " + gazetteer.size() + " places from " + path);
+            return gazetteer;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not map gazetteer " + path, e);
+            return null;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getLatitude(int place) {
+        return latitudes.get(place);
+    }
+
+    public double getLongitude(int place) {
+        return longitudes.get(place);
+    }
+
+    /**
+     * Reads a place into a {@link GazetteerPlace}.
+     *
+     * @param place The index of the place in the file
+     */
+    public GazetteerPlace getPlace(int place) {
+        List<String> alternates = new ArrayList<>();
+        for (int i = alternateStarts.get(place); i < alternateStarts.get(place + 1); i++) {
+            alternates.add(string(alternateRefs.get(i)));
+        }
+        return new GazetteerPlace(
+            geonameIds.get(place),
+            string(names.get(place)),
+            string(asciiNames.get(place)),
+            alternates,
+            latitudes.get(place),
+            longitudes.get(place),
+            string(featureCodes.get(place)),
+            string(admin1Codes.get(place)),
+            populations.get(place));
+    }
+
+    /**
+     * Reads every place, in file order, for the lookups that need them on the heap.
+     */
+    public Gazetteer toGazetteer() {
+        List<GazetteerPlace> places = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            places.add(getPlace(i));
+        }
+        return new Gazetteer(places);
+    }
+
+    /**
+     * Finds the place nearest to a location.
+     *
+     * @return The index of the place, or -1 if the gazetteer is empty
+     */
+    public int nearest(double latitude, double longitude) {
+        if (size == 0) {
+            return -1;
+        }
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double[] query = {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+        double[] best = {-1, Double.MAX_VALUE};
+        search(0, size, 0, query, best);
+        return (int) best[0];
+    }
+
+    /**
+     * @return The distance from a location to a place in kilometers
+     */
+    public double distanceKm(int place, double latitude, double longitude) {
+        return GeoUtils.haversineKm(latitude, longitude, latitudes.get(place), longitudes.get(place));
+    }
+
+    /**
+     * Finds a place by its exact normalized name, ASCII name or alternate name, preferring
+     * places in the given province, then more important places, like the exact stage of
+     * {@link PlaceNameIndex#find}.
+     *
+     * @param name The city or district name
+     * @param province The province name for disambiguation, may be null
+     * @return The index of the place, or -1 if no name matches
+     */
+    public int find(String name, String province) {
+        int key = key(PlaceNameIndex.normalize(name));
+        if (key < 0) {
+            return -1;
+        }
+        String provinceKey = PlaceNameIndex.normalize(province);
+        int from = postingStarts.get(key);
+        int to = postingStarts.get(key + 1);
+        if (!provinceKey.isEmpty()) {
+            for (int i = from; i < to; i++) {
+                int place = postings.get(i);
+                String admin1 = string(admin1Codes.get(place));
+                if (PlaceNameIndex.normalize(Gazetteer.provinceName(admin1)).equals(provinceKey)) {
+                    return place;
+                }
+            }
+        }
+        return postings.get(from);
+    }
+
+    private void search(int from, int to, int depth, double[] query, double[] best) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        double dx = xs.get(mid) - query[0];
+        double dy = ys.get(mid) - query[1];
+        double dz = zs.get(mid) - query[2];
+        double distance = dx * dx + dy * dy + dz * dz;
+        if (distance < best[1]) {
+            best[0] = mid;
+            best[1] = distance;
+        }
+
+        int axis = depth % 3;
+        double diff = query[axis] - (axis == 0 ? xs.get(mid) : axis == 1 ? ys.get(mid) : zs.get(mid));
+        if (diff < 0) {
+            search(from, mid, depth + 1, query, best);
+            if (diff * diff < best[1]) {
+                search(mid + 1, to, depth + 1, query, best);
+            }
+        } else {
+            search(mid + 1, to, depth + 1, query, best);
+            if (diff * diff < best[1]) {
+                search(from, mid, depth + 1, query, best);
+            }
+        }
+    }
+
+    // Binary search over the sorted keys, comparing bytes in place
+    private int key(String key) {
+        if (key.isEmpty()) {
+            return -1;
+        }
+        int low = 0;
+        int high = keyCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareKey(int index, String key) {
+        int start = keyBytes + keyOffsets.get(index);
+        int length = keyOffsets.get(index + 1) - keyOffsets.get(index);
+        for (int i = 0; i < Math.min(length, key.length()); i++) {
+            int cmp = Character.compare((char) buffer.get(start + i), key.charAt(i));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length());
+    }
+
+    private String string(int index) {
+        int start = stringOffsets.get(index);
+        byte[] bytes = new byte[stringOffsets.get(index + 1) - start];
+        buffer.get(stringBytes + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private FloatBuffer floats(int offset, int count) {
+        return buffer.slice(offset, 4 * count).asFloatBuffer();
+    }
+
+    private IntBuffer ints(int offset, int count) {
+        return buffer.slice(offset, 4 * count).asIntBuffer();
+    }
+}
@@ -0,0 +1,207 @@
+package com.seismiq.common.geocoding;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Builds the binary gazetteer file that {@link BinaryGazetteer} maps, offline from a GeoNames
+ * dump:
+ * java com.seismiq.common.geocoding.BinaryGazetteerWriter cities5000.txt gazetteer.bin
+ *
+ * <p>Places are written in the order of the {@link PlaceKdTree} layout, so the file is the
+ * tree and the reader needs no index of its own. See {@link BinaryGazetteer} for the layout.</p>
+ */
+public final class BinaryGazetteerWriter {
+    private BinaryGazetteerWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryGazetteerWriter <GeoNames dump> <output file>");
+            System.exit(2);
+        }
+        Gazetteer gazetteer;
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            gazetteer = Gazetteer.read(reader);
+        }
+        try (OutputStream out = Files.newOutputStream(Path.of(args[1]))) {
+            write(gazetteer, out);
+        }
+        System.out.println("Wrote " + gazetteer.size() + " places (" + Files.size(Path.of(args[1])) + " bytes) to " + args[1]);
+    }
+
+    /**
+     * Writes a gazetteer in the binary format.
+     *
+     * @param gazetteer The places to write
+     * @param target Receives the file; not closed
+     * @throws IOException if writing fails
+     */
+    public static void write(Gazetteer gazetteer, OutputStream target) throws IOException {
+        List<GazetteerPlace> original = gazetteer.getPlaces();
+        int size = original.size();
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        double[] zs = new double[size];
+        for (int i = 0; i < size; i++) {
+            double lat = Math.toRadians(original.get(i).getLatitude());
+            double lon = Math.toRadians(original.get(i).getLongitude());
+            xs[i] = Math.cos(lat) * Math.cos(lon);
+            ys[i] = Math.cos(lat) * Math.sin(lon);
+            zs[i] = Math.sin(lat);
+        }
+        int[] order = PlaceKdTree.layout(xs, ys, zs);
+        List<GazetteerPlace> places = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            places.add(original.get(order[i]));
+        }
+
+        // Dictionary of every distinct string, in first-use order
+        Map<String, Integer> strings = new HashMap<>();
+        List<byte[]> stringBytes = new ArrayList<>();
+        int[][] refs = new int[4][size];
+        List<Integer> alternateRefs = new ArrayList<>();
+        int[] alternateStarts = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            GazetteerPlace place = places.get(i);
+            refs[0][i] = intern(place.getName(), strings, stringBytes);
+            refs[1][i] = intern(place.getAsciiName(), strings, stringBytes);
+            refs[2][i] = intern(place.getFeatureCode(), strings, stringBytes);
+            refs[3][i] = intern(place.getAdmin1Code(), strings, stringBytes);
+            alternateStarts[i] = alternateRefs.size();
+            for (String alternate : place.getAlternateNames()) {
+                alternateRefs.add(intern(alternate, strings, stringBytes));
+            }
+        }
+        alternateStarts[size] = alternateRefs.size();
+
+        // Normalized name keys, sorted, each with its places in order of importance
+        Comparator<Integer> importance = Comparator
+            .comparingInt((Integer place) -> PlaceNameIndex.featureRank(places.get(place).getFeatureCode()))
+            .thenComparing(place -> -places.get(place).getPopulation())
+            .thenComparingInt(place -> place);
+        TreeMap<String, List<Integer>> keys = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            GazetteerPlace place = places.get(i);
+            Set<String> placeKeys = new LinkedHashSet<>();
+            placeKeys.add(PlaceNameIndex.normalize(place.getName()));
+            placeKeys.add(PlaceNameIndex.normalize(place.getAsciiName()));
+            for (String alternate : place.getAlternateNames()) {
+                placeKeys.add(PlaceNameIndex.normalize(alternate));
+            }
+            for (String key : placeKeys) {
+                if (!key.isEmpty()) {
+                    keys.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+        int postingCount = 0;
+        int keyByteCount = 0;
+        for (Map.Entry<String, List<Integer>> key : keys.entrySet()) {
+            key.getValue().sort(importance);
+            postingCount += key.getValue().size();
+            keyByteCount += key.getKey().length();
+        }
+        int stringByteCount = 0;
+        for (byte[] bytes : stringBytes) {
+            stringByteCount += bytes.length;
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target));
+        out.writeInt(BinaryGazetteer.MAGIC);
+        out.writeInt(BinaryGazetteer.VERSION);
+        out.writeInt(size);
+        out.writeInt(alternateRefs.size());
+        out.writeInt(stringBytes.size());
+        out.writeInt(stringByteCount);
+        out.writeInt(keys.size());
+        out.writeInt(postingCount);
+        out.writeInt(keyByteCount);
+
+        // Coordinates: unit vectors for the tree, then degrees for results
+        for (double[] axis : new double[][] {xs, ys, zs}) {
+            for (int i = 0; i < size; i++) {
+                out.writeFloat((float) axis[order[i]]);
+            }
+        }
+        for (GazetteerPlace place : places) {
+            out.writeFloat((float) place.getLatitude());
+        }
+        for (GazetteerPlace place : places) {
+            out.writeFloat((float) place.getLongitude());
+        }
+        for (GazetteerPlace place : places) {
+            out.writeInt((int) place.getGeonameId());
+        }
+        for (GazetteerPlace place : places) {
+            out.writeInt(place.getPopulation());
+        }
+        for (int[] column : refs) {
+            for (int ref : column) {
+                out.writeInt(ref);
+            }
+        }
+        for (int start : alternateStarts) {
+            out.writeInt(start);
+        }
+        for (int ref : alternateRefs) {
+            out.writeInt(ref);
+        }
+
+        int offset = 0;
+        for (byte[] bytes : stringBytes) {
+            out.writeInt(offset);
+            offset += bytes.length;
+        }
+        out.writeInt(offset);
+
+        offset = 0;
+        for (String key : keys.keySet()) {
+            out.writeInt(offset);
+            offset += key.length();
+        }
+        out.writeInt(offset);
+        offset = 0;
+        for (List<Integer> keyPlaces : keys.values()) {
+            out.writeInt(offset);
+            offset += keyPlaces.size();
+        }
+        out.writeInt(offset);
+        for (List<Integer> keyPlaces : keys.values()) {
+            for (int place : keyPlaces) {
+                out.writeInt(place);
+            }
+        }
+
+        // Byte sections last, so every int and float above stays 4-byte aligned
+        for (byte[] bytes : stringBytes) {
+            out.write(bytes);
+        }
+        for (String key : keys.keySet()) {
+            out.write(key.getBytes(StandardCharsets.US_ASCII));
+        }
+        out.flush();
+    }
+
+    private static int intern(String value, Map<String, Integer> strings, List<byte[]> stringBytes) {
+        String text = value != null ? value : "";
+        return strings.computeIfAbsent(text, t -> {
+            stringBytes.add(t.getBytes(StandardCharsets.UTF_8));
+            return stringBytes.size() - 1;
+        });
+    }
+}
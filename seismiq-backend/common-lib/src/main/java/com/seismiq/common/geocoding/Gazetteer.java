@@ -0,0 +1,207 @@
+package com.seismiq.common.geocoding;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The GeoNames settlements the geocoder resolves against: Turkish populated places and
+ * districts, read from a GeoNames "cities" dump (tab-separated, the cities5000.txt layout).
+ *
+ * <p>The places are read from the {@link BinaryGazetteer} file named by the
+ * GEONAMES_GAZETTEER_PATH environment variable if there is one, which skips parsing, or from
+ * the dump named by the GEONAMES_CITIES_PATH environment variable, for example a Lambda
+ * layer path. Without either, or if it cannot be read, a bundled list of
+ * the major cities and districts is used, the same fallback the Python geocoder has. That list
+ * is far too coarse for production, so its use is logged as a warning.</p>
+ */
+public final class Gazetteer {
+    private static final Logger LOGGER = Logger.getLogger(Gazetteer.class.getName());
+
+    public static final Set<String> COUNTRY_CODES = Set.of("TR");
+    // Include districts (PPLA3, PPLA4) and administrative divisions (ADM2, ADM3)
+    public static final Set<String> FEATURE_CODES = Set.of(
+        "PPLA", "PPLA2", "PPLA3", "PPLA4", "PPLC", "PPL", "ADM2", "ADM3");
+
+    static final String PATH_ENV = "GEONAMES_CITIES_PATH";
+    private static final String FALLBACK_RESOURCE = "geocoding/fallback_cities.txt";
+
+    // GeoNames column positions
+    private static final int GEONAME_ID = 0;
+    private static final int NAME = 1;
+    private static final int ASCII_NAME = 2;
+    private static final int ALTERNATE_NAMES = 3;
+    private static final int LATITUDE = 4;
+    private static final int LONGITUDE = 5;
+    private static final int FEATURE_CODE = 7;
+    private static final int COUNTRY_CODE = 8;
+    private static final int ADMIN1_CODE = 10;
+    private static final int POPULATION = 14;
+
+    private static final Map<String, String> PROVINCES = provinces();
+
+    private final List<GazetteerPlace> places;
+
+    public Gazetteer(List<GazetteerPlace> places) {
+        this.places = List.copyOf(places);
+    }
+
+    /**
+     * @return The places, in file order
+     */
+    public List<GazetteerPlace> getPlaces() {
+        return places;
+    }
+
+    public int size() {
+        return places.size();
+    }
+
+    /**
+     * The gazetteer of this container, loaded on first use.
+     */
+    public static Gazetteer shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static final class Shared {
+        static final Gazetteer INSTANCE = load();
+    }
+
+    /**
+     * @return Whether a gazetteer file or GeoNames dump is configured, so the places do not
+     *         come from the bundled fallback list (unless that file cannot be read)
+     */
+    public static boolean isConfigured() {
+        return isSet(BinaryGazetteer.PATH_ENV) || isSet(PATH_ENV);
+    }
+
+    private static boolean isSet(String env) {
+        String value = System.getenv(env);
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * Loads the configured gazetteer file or GeoNames dump, or the bundled fallback list.
+     */
+    public static Gazetteer load() {
+        BinaryGazetteer binary = BinaryGazetteer.shared();
+        if (binary != null) {
+            return binary.toGazetteer();
+        }
+        String path = System.getenv(PATH_ENV);
+        if (path != null && !path.isBlank()) {
+            try (Reader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+                Gazetteer gazetteer = read(reader);
+                LOGGER.info("Loaded " + gazetteer.size() + " places from " + path);
+                return gazetteer;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Could not read gazetteer " + path + ", using fallback places", e);
+            }
+        }
+        try (InputStream in = Gazetteer.class.getClassLoader().getResourceAsStream(FALLBACK_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing resource " + FALLBACK_RESOURCE);
+            }
+            Gazetteer fallback = read(new InputStreamReader(in, StandardCharsets.UTF_8));
+            LOGGER.warning("No gazetteer configured (" + BinaryGazetteer.PATH_ENV + ", " + PATH_ENV + "); using the "
+                + fallback.size() + " bundled fallback places, so most locations resolve to a distant major city");
+            return fallback;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses a GeoNames dump, keeping the places of {@link #COUNTRY_CODES} with one of the
+     * {@link #FEATURE_CODES}. Lines that are malformed or lack coordinates are skipped.
+     *
+     * @param source The tab-separated dump
+     * @return The gazetteer
+     * @throws IOException if reading fails
+     */
+    public static Gazetteer read(Reader source) throws IOException {
+        List<GazetteerPlace> places = new ArrayList<>();
+        BufferedReader reader = source instanceof BufferedReader buffered ? buffered : new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t", -1);
+            if (columns.length <= POPULATION
+                    || !COUNTRY_CODES.contains(columns[COUNTRY_CODE])
+                    || !FEATURE_CODES.contains(columns[FEATURE_CODE])
+                    || columns[NAME].isBlank()) {
+                continue;
+            }
+            try {
+                places.add(new GazetteerPlace(
+                    Long.parseLong(columns[GEONAME_ID]),
+                    columns[NAME],
+                    columns[ASCII_NAME].isBlank() ? columns[NAME] : columns[ASCII_NAME],
+                    columns[ALTERNATE_NAMES].isBlank() ? List.of() : Arrays.asList(columns[ALTERNATE_NAMES].split(",")),
+                    Double.parseDouble(columns[LATITUDE]),
+                    Double.parseDouble(columns[LONGITUDE]),
+                    columns[FEATURE_CODE],
+                    columns[ADMIN1_CODE],
+                    columns[POPULATION].isBlank() ? 0 : (int) Math.min(Integer.MAX_VALUE, Long.parseLong(columns[POPULATION]))));
+            } catch (NumberFormatException e) {
+                // skip the line, like rows with unparseable coordinates in the Python loader
+            }
+        }
+        return new Gazetteer(places);
+    }
+
+    /**
+     * Converts an admin1 code to a province name, with the mapping of the Python geocoder.
+     *
+     * @return The province name, or the code itself if it is unknown
+     */
+    public static String provinceName(String admin1Code) {
+        return PROVINCES.getOrDefault(admin1Code, admin1Code);
+    }
+
+    /**
+     * @return The names of all provinces, by admin1 code
+     */
+    public static List<String> provinceNames() {
+        return List.copyOf(new TreeMap<>(PROVINCES).values());
+    }
+
+    private static Map<String, String> provinces() {
+        String[] names = {
+            "Adana", "Adıyaman", "Afyonkarahisar", "Ağrı", "Amasya", "Ankara", "Antalya", "Artvin",
+            "Aydın", "Balıkesir", "Bilecik", "Bingöl", "Bitlis", "Bolu", "Burdur", "Bursa",
+            "Çanakkale", "Çankırı", "Çorum", "Denizli", "Diyarbakır", "Edirne", "Elazığ", "Erzincan",
+            "Erzurum", "Eskişehir", "Gaziantep", "Giresun", "Gümüşhane", "Hakkâri", "Hatay", "Isparta",
+            "Mersin", "İstanbul", "İzmir", "Kars", "Kastamonu", "Kayseri", "Kırklareli", "Kırşehir",
+            "Kocaeli", "Konya", "Kütahya", "Malatya", "Manisa", "Kahramanmaraş", "Mardin", "Muğla",
+            "Muş", "Nevşehir", "Niğde", "Ordu", "Rize", "Sakarya", "Samsun", "Siirt",
+            "Sinop", "Sivas", "Tekirdağ", "Tokat", "Trabzon", "Tunceli", "Şanlıurfa", "Uşak",
+            "Van", "Yozgat", "Zonguldak", "Aksaray", "Bayburt", "Karaman", "Kırıkkale", "Batman",
+            "Şırnak", "Bartın", "Ardahan", "Iğdır", "Yalova", "Karabük", "Kilis", "Osmaniye", "Düzce"
+        };
+        // Codes are the two-digit plate numbers, in order
+        Map<String, String> provinces = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            provinces.put(String.format("%02d", i + 1), names[i]);
+        }
+        return provinces;
+    }
+}
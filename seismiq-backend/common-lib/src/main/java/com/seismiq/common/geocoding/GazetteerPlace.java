@@ -0,0 +1,61 @@
+package com.seismiq.common.geocoding;
+
+import java.util.List;
+
+/**
+ * A settlement from the GeoNames gazetteer.
+ */
+public final class GazetteerPlace {
+    private final long geonameId;
+    private final String name;
+    private final String asciiName;
+    private final List<String> alternateNames;
+    private final double latitude;
+    private final double longitude;
+    private final String featureCode;
+    private final String admin1Code;
+    private final int population;
+
+    public GazetteerPlace(long geonameId, String name, String asciiName, List<String> alternateNames,
+                          double latitude, double longitude, String featureCode, String admin1Code, int population) {
+        this.geonameId = geonameId;
+        this.name = name;
+        this.asciiName = asciiName;
+        this.alternateNames = alternateNames != null ? List.copyOf(alternateNames) : List.of();
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.featureCode = featureCode;
+        this.admin1Code = admin1Code;
+        this.population = population;
+    }
+
+    public long getGeonameId() { return geonameId; }
+
+    public String getName() { return name; }
+
+    public String getAsciiName() { return asciiName; }
+
+    public List<String> getAlternateNames() { return alternateNames; }
+
+    public double getLatitude() { return latitude; }
+
+    public double getLongitude() { return longitude; }
+
+    public String getFeatureCode() { return featureCode; }
+
+    public String getAdmin1Code() { return admin1Code; }
+
+    public int getPopulation() { return population; }
+
+    /**
+     * @return The name of the province the place is in
+     */
+    public String getProvince() {
+        return Gazetteer.provinceName(admin1Code);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + getProvince() + ")";
+    }
+}
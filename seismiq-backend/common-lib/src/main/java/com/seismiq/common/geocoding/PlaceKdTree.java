@@ -0,0 +1,156 @@
+package com.seismiq.common.geocoding;
+
+/**
+ * A static 3-d tree over points on the sphere, for nearest-neighbour lookups.
+ *
+ * <p>Each point is stored as a unit vector. The straight-line (chord) distance between unit
+ * vectors grows with the great-circle distance, so the nearest point by chord is the nearest
+ * by haversine too, and the tree can split on plain x, y and z coordinates without the
+ * wrap-around at the antimeridian that a latitude/longitude tree would have.</p>
+ *
+ * <p>The tree is implicit: {@link #layout} orders the points so that the median of every
+ * range [from, to) is the node splitting that range, on axis depth % 3. A lookup visits
+ * O(log n) nodes on average.</p>
+ */
+public final class PlaceKdTree {
+    private final int[] order;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    /**
+     * Builds the tree.
+     *
+     * @param latitudes The latitudes of the points in degrees
+     * @param longitudes The longitudes of the points in degrees, in the same order
+     */
+    public PlaceKdTree(double[] latitudes, double[] longitudes) {
+        int size = latitudes.length;
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.zs = new double[size];
+        for (int i = 0; i < size; i++) {
+            double lat = Math.toRadians(latitudes[i]);
+            double lon = Math.toRadians(longitudes[i]);
+            xs[i] = Math.cos(lat) * Math.cos(lon);
+            ys[i] = Math.cos(lat) * Math.sin(lon);
+            zs[i] = Math.sin(lat);
+        }
+        this.order = layout(xs, ys, zs);
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Finds the point nearest to a location.
+     *
+     * @return The index of the point in the arrays the tree was built from, or -1 if the tree is empty
+     */
+    public int nearest(double latitude, double longitude) {
+        if (order.length == 0) {
+            return -1;
+        }
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double[] query = {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+        Nearest best = new Nearest();
+        search(0, order.length, 0, query, best);
+        return order[best.position];
+    }
+
+    private void search(int from, int to, int depth, double[] query, Nearest best) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        int point = order[mid];
+        double dx = xs[point] - query[0];
+        double dy = ys[point] - query[1];
+        double dz = zs[point] - query[2];
+        double distance = dx * dx + dy * dy + dz * dz;
+        if (distance < best.distance) {
+            best.distance = distance;
+            best.position = mid;
+        }
+
+        double diff = query[depth % 3] - coordinate(point, depth % 3);
+        if (diff < 0) {
+            search(from, mid, depth + 1, query, best);
+            if (diff * diff < best.distance) {
+                search(mid + 1, to, depth + 1, query, best);
+            }
+        } else {
+            search(mid + 1, to, depth + 1, query, best);
+            if (diff * diff < best.distance) {
+                search(from, mid, depth + 1, query, best);
+            }
+        }
+    }
+
+    private double coordinate(int point, int axis) {
+        return axis == 0 ? xs[point] : axis == 1 ? ys[point] : zs[point];
+    }
+
+    /**
+     * Orders points into the implicit tree layout.
+     *
+     * @return A permutation of the point indexes; position mid of every range is its splitting node
+     */
+    static int[] layout(double[] xs, double[] ys, double[] zs) {
+        int[] order = new int[xs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        double[][] axes = {xs, ys, zs};
+        build(order, axes, 0, order.length, 0);
+        return order;
+    }
+
+    private static void build(int[] order, double[][] axes, int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        select(order, axes[depth % 3], from, to - 1, mid);
+        build(order, axes, from, mid, depth + 1);
+        build(order, axes, mid + 1, to, depth + 1);
+    }
+
+    // Quickselect: moves the k-th smallest value of [left, right] to k, smaller ones before it
+    private static void select(int[] order, double[] values, int left, int right, int k) {
+        while (left < right) {
+            double pivot = values[order[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[order[i]] < pivot) {
+                    i++;
+                }
+                while (values[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static final class Nearest {
+        private int position;
+        private double distance = Double.MAX_VALUE;
+    }
+}
@@ -0,0 +1,338 @@
+package com.seismiq.common.geocoding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.seismiq.common.util.TurkishText;
+
+/**
+ * Looks places up by name, in process: a trie over the normalized names, ASCII names and
+ * alternate names of the gazetteer, with exact, prefix and typo-tolerant matching.
+ *
+ * <p>Names are normalized like the Python geocoder does: Turkish casefolding, diacritic
+ * folding and removal of everything but letters and digits, so "İstanbul", "ISTANBUL" and
+ * "istanbul" share a key. Where several places match, the more important one wins: capitals
+ * and district centres before villages, then the larger population.</p>
+ *
+ * <p>Fuzzy matching walks the trie with one row of the Levenshtein table per node, pruning a
+ * branch as soon as every cell of its row exceeds the allowed distance, so a lookup only
+ * visits the prefixes that can still match.</p>
+ */
+public final class PlaceNameIndex {
+    /** Places kept per trie node for prefix lookups. */
+    static final int MAX_COMPLETIONS = 10;
+
+    // More important feature codes first; unknown codes rank last
+    private static final Map<String, Integer> FEATURE_RANKS = Map.of(
+        "PPLC", 0, "PPLA", 1, "PPLA2", 2, "ADM2", 3, "PPLA3", 4, "PPLA4", 5, "ADM3", 6, "PPL", 7);
+
+    private final List<GazetteerPlace> places;
+    private final Node root = new Node();
+    private final Comparator<Integer> importance;
+
+    public PlaceNameIndex(Gazetteer gazetteer) {
+        this.places = gazetteer.getPlaces();
+        this.importance = Comparator
+            .comparingInt((Integer place) -> featureRank(places.get(place).getFeatureCode()))
+            .thenComparing(place -> -places.get(place).getPopulation())
+            .thenComparingInt(place -> place);
+        for (int i = 0; i < places.size(); i++) {
+            GazetteerPlace place = places.get(i);
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(normalize(place.getName()));
+            keys.add(normalize(place.getAsciiName()));
+            for (String alternate : place.getAlternateNames()) {
+                keys.add(normalize(alternate));
+            }
+            for (String key : keys) {
+                if (!key.isEmpty()) {
+                    insert(key, i);
+                }
+            }
+        }
+        collectCompletions(root);
+    }
+
+    /**
+     * The name index over the shared gazetteer, built on first use.
+     */
+    public static PlaceNameIndex shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static final class Shared {
+        static final PlaceNameIndex INSTANCE = new PlaceNameIndex(Gazetteer.shared());
+    }
+
+    /**
+     * Normalizes a name to its index key.
+     *
+     * @return The key, empty if the name has no letters or digits
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String folded = TurkishText.foldDiacritics(TurkishText.casefold(name));
+        StringBuilder key = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * The most edits a name of the given key length may be away from a place name.
+     */
+    static int maxDistance(int keyLength) {
+        if (keyLength <= 3) {
+            return 0;
+        }
+        return keyLength <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Resolves a place name, preferring places in the given province. Tries an exact match
+     * in the province, then anywhere, then a fuzzy match in the province and anywhere, and
+     * finally the province name itself.
+     *
+     * @param name The city or district name
+     * @param province The province name for disambiguation, may be null
+     * @return The best match, or null if nothing matches
+     */
+    public GazetteerPlace find(String name, String province) {
+        String key = normalize(name);
+        String provinceKey = normalize(province);
+        if (!key.isEmpty()) {
+            List<Integer> exact = exact(key);
+            Integer best = best(exact, provinceKey);
+            if (best == null) {
+                best = best(fuzzy(key, maxDistance(key.length()), false), provinceKey);
+            }
+            if (best != null) {
+                return places.get(best);
+            }
+        }
+        if (!provinceKey.isEmpty() && !provinceKey.equals(key)) {
+            return find(province, null);
+        }
+        return null;
+    }
+
+    /**
+     * Suggests places for a partially typed name, most important first. Prefixes of four
+     * letters or more also match with one typo.
+     *
+     * @param prefix What the user typed so far
+     * @param limit The most suggestions to return, at most {@link #MAX_COMPLETIONS}
+     * @return The suggestions, without duplicates
+     */
+    public List<GazetteerPlace> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> matches = new LinkedHashSet<>();
+        Node node = walk(key);
+        if (node != null) {
+            for (int place : node.completions) {
+                matches.add(place);
+            }
+        }
+        if (matches.size() < limit && key.length() > 3) {
+            List<Integer> fuzzy = fuzzy(key, 1, true);
+            fuzzy.sort(importance);
+            matches.addAll(fuzzy);
+        }
+        List<GazetteerPlace> suggestions = new ArrayList<>();
+        for (int place : matches) {
+            if (suggestions.size() == Math.min(limit, MAX_COMPLETIONS)) {
+                break;
+            }
+            suggestions.add(places.get(place));
+        }
+        return suggestions;
+    }
+
+    private List<Integer> exact(String key) {
+        Node node = walk(key);
+        List<Integer> matches = new ArrayList<>();
+        if (node != null) {
+            for (int place : node.places) {
+                matches.add(place);
+            }
+        }
+        return matches;
+    }
+
+    // The most important place, from those in the province if there are any
+    private Integer best(List<Integer> candidates, String provinceKey) {
+        Integer best = null;
+        boolean bestInProvince = false;
+        for (int candidate : candidates) {
+            boolean inProvince = !provinceKey.isEmpty()
+                && normalize(places.get(candidate).getProvince()).equals(provinceKey);
+            if (best == null
+                    || (inProvince && !bestInProvince)
+                    || (inProvince == bestInProvince && importance.compare(candidate, best) < 0)) {
+                best = candidate;
+                bestInProvince = inProvince;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the places whose key is within maxDistance edits of the given key. Only the
+     * closest distance found is kept: a place one edit away beats any place two edits away.
+     * In prefix mode, keys that start with a string within maxDistance of the key match too,
+     * contributing the completions of their node.
+     */
+    private List<Integer> fuzzy(String key, int maxDistance, boolean prefix) {
+        int[] firstRow = new int[key.length() + 1];
+        for (int i = 0; i <= key.length(); i++) {
+            firstRow[i] = i;
+        }
+        Matches matches = new Matches(maxDistance);
+        for (int i = 0; i < root.labels.length; i++) {
+            fuzzy(root.children[i], root.labels[i], key, firstRow, matches, prefix);
+        }
+        return matches.places;
+    }
+
+    private void fuzzy(Node node, char label, String key, int[] previousRow, Matches matches, boolean prefix) {
+        int columns = key.length() + 1;
+        int[] row = new int[columns];
+        row[0] = previousRow[0] + 1;
+        int rowMinimum = row[0];
+        for (int i = 1; i < columns; i++) {
+            int substitution = previousRow[i - 1] + (key.charAt(i - 1) == label ? 0 : 1);
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), substitution);
+            rowMinimum = Math.min(rowMinimum, row[i]);
+        }
+
+        int distance = row[columns - 1];
+        if (distance <= matches.distance) {
+            int[] found = prefix ? node.completions : node.places;
+            if (found.length > 0) {
+                matches.add(distance, found);
+            }
+        }
+        if (rowMinimum <= matches.distance && !(prefix && distance <= matches.distance)) {
+            for (int i = 0; i < node.labels.length; i++) {
+                fuzzy(node.children[i], node.labels[i], key, row, matches, prefix);
+            }
+        }
+    }
+
+    private Node walk(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private void insert(String key, int place) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        node.places = append(node.places, place);
+    }
+
+    // Fills every node with the most important places at or below it
+    private int[] collectCompletions(Node node) {
+        Set<Integer> candidates = new LinkedHashSet<>();
+        for (int place : node.places) {
+            candidates.add(place);
+        }
+        for (Node child : node.children) {
+            for (int place : collectCompletions(child)) {
+                candidates.add(place);
+            }
+        }
+        node.completions = candidates.stream()
+            .sorted(importance)
+            .limit(MAX_COMPLETIONS)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        return node.completions;
+    }
+
+    static int featureRank(String featureCode) {
+        return FEATURE_RANKS.getOrDefault(featureCode, FEATURE_RANKS.size());
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] appended = Arrays.copyOf(values, values.length + 1);
+        appended[values.length] = value;
+        return appended;
+    }
+
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_PLACES = new int[0];
+
+        // Children sorted by label; names use at most 36 distinct characters
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int[] places = NO_PLACES;
+        private int[] completions = NO_PLACES;
+
+        Node child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = label;
+            newChildren[at] = new Node();
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[at];
+        }
+    }
+
+    // The places at the smallest edit distance seen so far
+    private static final class Matches {
+        private int distance;
+        private final List<Integer> places = new ArrayList<>();
+
+        Matches(int maxDistance) {
+            this.distance = maxDistance;
+        }
+
+        void add(int foundDistance, int[] found) {
+            if (foundDistance < distance) {
+                distance = foundDistance;
+                places.clear();
+            }
+            for (int place : found) {
+                if (!places.contains(place)) {
+                    places.add(place);
+                }
+            }
+        }
+    }
+}
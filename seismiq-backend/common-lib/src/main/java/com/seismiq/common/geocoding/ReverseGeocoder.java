@@ -0,0 +1,87 @@
+package com.seismiq.common.geocoding;
+
+import java.util.List;
+
+import com.seismiq.common.util.GeoUtils;
+
+/**
+ * Finds the gazetteer place nearest to a coordinate, in process. The spatial index is built
+ * once from the gazetteer, or read prebuilt from a {@link BinaryGazetteer} file; a lookup
+ * then takes microseconds, against the interpreter start and data load that every call to
+ * the Python geocoder costs.
+ */
+public final class ReverseGeocoder {
+    private final List<GazetteerPlace> places;
+    private final PlaceKdTree tree;
+    private final BinaryGazetteer binary;
+
+    public ReverseGeocoder(Gazetteer gazetteer) {
+        this.binary = null;
+        this.places = gazetteer.getPlaces();
+        double[] latitudes = new double[places.size()];
+        double[] longitudes = new double[places.size()];
+        for (int i = 0; i < places.size(); i++) {
+            latitudes[i] = places.get(i).getLatitude();
+            longitudes[i] = places.get(i).getLongitude();
+        }
+        this.tree = new PlaceKdTree(latitudes, longitudes);
+    }
+
+    /**
+     * Looks places up in a mapped gazetteer file, without loading them.
+     */
+    public ReverseGeocoder(BinaryGazetteer binary) {
+        this.binary = binary;
+        this.places = null;
+        this.tree = null;
+    }
+
+    /**
+     * The reverse geocoder over the mapped gazetteer file if one is configured, otherwise
+     * over the shared gazetteer, built on first use.
+     */
+    public static ReverseGeocoder shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static final class Shared {
+        static final ReverseGeocoder INSTANCE = BinaryGazetteer.shared() != null
+            ? new ReverseGeocoder(BinaryGazetteer.shared())
+            : new ReverseGeocoder(Gazetteer.shared());
+    }
+
+    /**
+     * A place and how far a coordinate is from it.
+     */
+    public static final class Match {
+        private final GazetteerPlace place;
+        private final double distanceKm;
+
+        Match(GazetteerPlace place, double distanceKm) {
+            this.place = place;
+            this.distanceKm = distanceKm;
+        }
+
+        public GazetteerPlace getPlace() { return place; }
+
+        public double getDistanceKm() { return distanceKm; }
+    }
+
+    /**
+     * @param latitude Latitude in decimal degrees
+     * @param longitude Longitude in decimal degrees
+     * @return The nearest place, or null if the gazetteer is empty
+     */
+    public Match nearest(double latitude, double longitude) {
+        if (binary != null) {
+            int place = binary.nearest(latitude, longitude);
+            return place < 0 ? null : new Match(binary.getPlace(place), binary.distanceKm(place, latitude, longitude));
+        }
+        int index = tree.nearest(latitude, longitude);
+        if (index < 0) {
+            return null;
+        }
+        GazetteerPlace place = places.get(index);
+        return new Match(place, GeoUtils.haversineKm(latitude, longitude, place.getLatitude(), place.getLongitude()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.seismiq.common.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+
+/**
+ * Helpers for reading API Gateway proxy requests.
+ */
+public final class ApiGatewayRequests {
+
+    private ApiGatewayRequests() {}
+
+    /**
+     * Looks up a request header, ignoring the case of its name.
+     *
+     * @return The header value, or null if the request does not have it
+     */
+    public static String header(APIGatewayProxyRequestEvent request, String name) {
+        Map<String, String> headers = request != null ? request.getHeaders() : null;
+        if (headers == null) {
+            return null;
+        }
+        String value = headers.get(name);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey() != null && header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replaces a base64-encoded request body with its text. With binary media types enabled
+     * for compressed responses, API Gateway also hands request bodies over base64-encoded.
+     */
+    public static void decodeBody(APIGatewayProxyRequestEvent request) {
+        if (Boolean.TRUE.equals(request.getIsBase64Encoded()) && request.getBody() != null) {
+            request.setBody(new String(Base64.getDecoder().decode(request.getBody()), StandardCharsets.UTF_8));
+            request.setIsBase64Encoded(false);
+        }
+    }
+}
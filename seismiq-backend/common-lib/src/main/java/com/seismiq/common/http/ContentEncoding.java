@@ -0,0 +1,88 @@
+package com.seismiq.common.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The response compressions a client can ask for with Accept-Encoding.
+ */
+public enum ContentEncoding {
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTITY(null);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String headerValue;
+
+    ContentEncoding(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    /**
+     * @return The Content-Encoding header value, or null for an uncompressed response
+     */
+    public String headerValue() {
+        return headerValue;
+    }
+
+    /**
+     * Wraps a stream so that what is written to it arrives compressed. Closing the
+     * returned stream finishes the compressed data, frees the compressor and closes the target.
+     */
+    public OutputStream wrap(OutputStream target) throws IOException {
+        return switch (this) {
+            case GZIP -> new GZIPOutputStream(target, BUFFER_SIZE);
+            // HTTP "deflate" is the zlib format, which is what Deflater writes by default
+            case DEFLATE -> new DeflaterOutputStream(target);
+            case IDENTITY -> target;
+        };
+    }
+
+    /**
+     * Picks the encoding for an Accept-Encoding header: gzip if acceptable, then deflate,
+     * otherwise none. Encodings listed with q=0 are refused; "*" accepts both.
+     *
+     * @param acceptEncoding The header value, may be null
+     * @return The encoding to respond with
+     */
+    public static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        Boolean gzip = null;
+        Boolean deflate = null;
+        Boolean any = null;
+        for (String entry : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        accepted = Double.parseDouble(parameter.substring(2).trim()) > 0;
+                    } catch (NumberFormatException e) {
+                        accepted = false;
+                    }
+                }
+            }
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = accepted;
+                case "deflate" -> deflate = accepted;
+                case "*" -> any = accepted;
+                default -> { }
+            }
+        }
+        if (gzip != null ? gzip : Boolean.TRUE.equals(any)) {
+            return GZIP;
+        }
+        if (deflate != null ? deflate : Boolean.TRUE.equals(any)) {
+            return DEFLATE;
+        }
+        return IDENTITY;
+    }
+}
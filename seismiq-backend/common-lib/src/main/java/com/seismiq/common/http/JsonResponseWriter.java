@@ -0,0 +1,198 @@
+package com.seismiq.common.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.seismiq.common.repository.Page;
+import com.seismiq.common.util.FieldSelection;
+
+/**
+ * Writes JSON responses item by item through a {@link JsonWriter}, compressed when the client
+ * sends Accept-Encoding. Lists and pages are never built up as one JSON string: each item is
+ * serialized into the output stream, and with compression only the compressed bytes are held.
+ *
+ * <p>For Lambda, {@link #respond} fills an API Gateway response, base64-encoding compressed
+ * bodies (the API must list binary media types). A server running outside Lambda calls
+ * {@link #write} with the response stream instead.</p>
+ */
+public class JsonResponseWriter {
+    /** Bodies smaller than this are sent uncompressed; gzip and base64 would only grow them. */
+    static final int MIN_COMPRESSED_BYTES = 1024;
+
+    private final Gson gson;
+
+    public JsonResponseWriter(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Builds an API Gateway response for a value.
+     *
+     * @param statusCode The HTTP status code
+     * @param value A model object, a list of them or a {@link Page}
+     * @param fields The selected fields, or null for all fields
+     * @param request The request, whose Accept-Encoding header picks the compression
+     * @param headers Extra response headers, may be null
+     * @return The response
+     */
+    public APIGatewayProxyResponseEvent respond(int statusCode, Object value, FieldSelection fields,
+                                                APIGatewayProxyRequestEvent request, Map<String, String> headers) {
+        Map<String, String> responseHeaders = new HashMap<>();
+        if (headers != null) {
+            responseHeaders.putAll(headers);
+        }
+        responseHeaders.put("Content-Type", "application/json; charset=utf-8");
+        responseHeaders.put("Vary", "Accept-Encoding");
+
+        ContentEncoding encoding = ContentEncoding.negotiate(ApiGatewayRequests.header(request, "Accept-Encoding"));
+        try {
+            if (encoding != ContentEncoding.IDENTITY) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                long length = write(value, fields, encoding, compressed);
+                if (length >= MIN_COMPRESSED_BYTES) {
+                    responseHeaders.put("Content-Encoding", encoding.headerValue());
+                    return new APIGatewayProxyResponseEvent()
+                        .withStatusCode(statusCode)
+                        .withHeaders(responseHeaders)
+                        .withIsBase64Encoded(true)
+                        .withBody(Base64.getEncoder().encodeToString(compressed.toByteArray()));
+                }
+            }
+
+            ByteArrayOutputStream plain = new ByteArrayOutputStream();
+            write(value, fields, ContentEncoding.IDENTITY, plain);
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(statusCode)
+                .withHeaders(responseHeaders)
+                .withBody(plain.toString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // Only reachable through a failing target stream; in-memory buffers do not fail
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams a value as JSON into a target, compressed with the given encoding.
+     * The target is flushed but not closed.
+     *
+     * @param value A model object, a list of them or a {@link Page}
+     * @param fields The selected fields, or null for all fields
+     * @param encoding The compression to apply
+     * @param target Receives the (compressed) JSON
+     * @return The length of the uncompressed JSON in bytes
+     * @throws IOException if writing to the target fails
+     */
+    public long write(Object value, FieldSelection fields, ContentEncoding encoding, OutputStream target) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream(encoding.wrap(new NonClosingOutputStream(target)));
+        try (JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8))) {
+            writeValue(writer, value, fields);
+        }
+        target.flush();
+        return counter.count;
+    }
+
+    private void writeValue(JsonWriter writer, Object value, FieldSelection fields) throws IOException {
+        if (value instanceof Page<?> page) {
+            writer.beginObject();
+            writer.name("items");
+            writeArray(writer, page.getItems(), fields);
+            if (page.getNextCursor() != null) {
+                writer.name("nextCursor").value(page.getNextCursor());
+            }
+            writer.endObject();
+        } else if (value instanceof Iterable<?> items) {
+            writeArray(writer, items, fields);
+        } else {
+            writeItem(writer, value, fields);
+        }
+    }
+
+    private void writeArray(JsonWriter writer, Iterable<?> items, FieldSelection fields) throws IOException {
+        writer.beginArray();
+        for (Object item : items) {
+            writeItem(writer, item, fields);
+        }
+        writer.endArray();
+    }
+
+    private void writeItem(JsonWriter writer, Object item, FieldSelection fields) throws IOException {
+        if (item == null) {
+            writer.nullValue();
+        } else if (fields == null) {
+            gson.toJson(item, item.getClass(), writer);
+        } else {
+            gson.toJson(fields.trim(gson.toJsonTree(item)), writer);
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream target;
+        private long count;
+
+        CountingOutputStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+    }
+
+    // Lets the writer chain be closed, which finishes and frees the compressor, without closing the target
+    private static final class NonClosingOutputStream extends OutputStream {
+        private final OutputStream target;
+
+        NonClosingOutputStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.flush();
+        }
+    }
+}
@@ -17,6 +17,12 @@ public class Report {
         CANCELLED
     }
 
+    public enum GeocodeStatus {
+        PENDING,
+        RESOLVED,
+        FAILED
+    }
+
     private String reportId;
     private User user;
     private Category category;
@@ -32,6 +38,9 @@ public class Report {
     private String additionalNotes;
     private String city;  //ilçe
     private String province;  //il
+    private Long version;  // bumped on every update, used for optimistic concurrency
+    private int duplicateCount;  // near-identical reports attached to this one instead of being created
+    private GeocodeStatus geocodeStatus;  // null unless the location is resolved in the background
 
     // Constructors
     public Report() {}
@@ -55,6 +64,9 @@ public class Report {
         this.timestamp = other.timestamp;
         this.lastUpdated = other.lastUpdated;
         this.additionalNotes = other.additionalNotes;
+        this.version = other.version;
+        this.duplicateCount = other.duplicateCount;
+        this.geocodeStatus = other.geocodeStatus;
     }
 
     public Report(String reportId, User user, Category category, String description, 
@@ -201,6 +213,15 @@ public class Report {
     public String getProvince() {return province;}
     public void setProvince(String province) {this.province = province;}
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public int getDuplicateCount() { return duplicateCount; }
+    public void setDuplicateCount(int duplicateCount) { this.duplicateCount = duplicateCount; }
+
+    public GeocodeStatus getGeocodeStatus() { return geocodeStatus; }
+    public void setGeocodeStatus(GeocodeStatus geocodeStatus) { this.geocodeStatus = geocodeStatus; }
+
     public boolean hasCoordinates() {
         return this.getLatitude() != 0 && this.getLongitude() != 0;
     }
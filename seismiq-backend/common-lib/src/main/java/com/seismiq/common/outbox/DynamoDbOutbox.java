@@ -0,0 +1,88 @@
+package com.seismiq.common.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.seismiq.common.repository.DynamoDBRepository;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+
+/**
+ * An outbox backed by the seismiq-Outbox table. Each message is one item; the table's
+ * stream delivers new items to the consumer function in batches, and a TTL on expiresAt
+ * removes handled messages after {@link #RETENTION}.
+ */
+public class DynamoDbOutbox extends DynamoDBRepository implements Outbox {
+    static final Duration RETENTION = Duration.ofDays(1);
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+
+    public DynamoDbOutbox() {
+        super("seismiq-Outbox");
+    }
+
+    @Override
+    public void publish(OutboxMessage message) {
+        putItem(toItem(message));
+    }
+
+    /**
+     * Builds the write of a message for a TransactWriteItems call, so the message is recorded
+     * if and only if the change that caused it is.
+     *
+     * @param message The message to record
+     * @return A Put of the message into the outbox table
+     */
+    public TransactWriteItem transactPut(OutboxMessage message) {
+        return TransactWriteItem.builder()
+            .put(Put.builder()
+                .tableName(this.tableName)
+                .item(toItem(message))
+                .build())
+            .build();
+    }
+
+    static Map<String, AttributeValue> toItem(OutboxMessage message) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("messageId", AttributeValue.builder().s(message.getMessageId()).build());
+        item.put("topic", AttributeValue.builder().s(message.getTopic()).build());
+        if (message.getKey() != null) {
+            item.put("messageKey", AttributeValue.builder().s(message.getKey()).build());
+        }
+        item.put("payload", AttributeValue.builder().s(message.getPayload()).build());
+        item.put("createdAt", AttributeValue.builder().s(message.getCreatedAt().format(DATE_FORMATTER)).build());
+        item.put("expiresAt", AttributeValue.builder()
+            .n(String.valueOf(Instant.now().plus(RETENTION).getEpochSecond()))
+            .build());
+        return item;
+    }
+
+    /**
+     * Reads a message back from an outbox item, as found in a stream record's new image.
+     *
+     * @param item The outbox item
+     * @return The message, or null if the item is not an outbox message
+     */
+    public static OutboxMessage fromItem(Map<String, AttributeValue> item) {
+        String messageId = string(item, "messageId");
+        String topic = string(item, "topic");
+        String payload = string(item, "payload");
+        if (messageId == null || topic == null || payload == null) {
+            return null;
+        }
+        String createdAt = string(item, "createdAt");
+        return new OutboxMessage(messageId, topic, string(item, "messageKey"), payload,
+            createdAt != null ? LocalDateTime.parse(createdAt, DATE_FORMATTER) : LocalDateTime.now());
+    }
+
+    private static String string(Map<String, AttributeValue> item, String attribute) {
+        AttributeValue value = item.get(attribute);
+        return value != null ? value.s() : null;
+    }
+}
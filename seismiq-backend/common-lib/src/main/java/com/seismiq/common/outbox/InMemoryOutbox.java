@@ -0,0 +1,79 @@
+package com.seismiq.common.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A process-local outbox for running without DynamoDB streams (SAM local, test runners).
+ * Messages are handed to every subscribed consumer in batches on a single background thread,
+ * like stream consumers each reading the outbox table, so the publisher still does not wait
+ * for them. Messages are lost if the process exits first.
+ */
+public class InMemoryOutbox implements Outbox {
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final Logger LOGGER = Logger.getLogger(InMemoryOutbox.class.getName());
+
+    private final List<OutboxConsumer> consumers = new CopyOnWriteArrayList<>();
+    private final int batchSize;
+    private final Queue<OutboxMessage> pending = new ConcurrentLinkedQueue<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-consumer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param batchSize The largest batch handed to a consumer at once
+     */
+    public InMemoryOutbox(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds a consumer; it receives the messages published from now on.
+     */
+    public InMemoryOutbox subscribe(OutboxConsumer consumer) {
+        consumers.add(consumer);
+        return this;
+    }
+
+    @Override
+    public void publish(OutboxMessage message) {
+        pending.add(message);
+        worker.execute(this::drain);
+    }
+
+    // Runs on the worker thread only; a publish burst is usually drained by its first task
+    private void drain() {
+        while (!pending.isEmpty()) {
+            List<OutboxMessage> batch = new ArrayList<>(batchSize);
+            OutboxMessage message;
+            while (batch.size() < batchSize && (message = pending.poll()) != null) {
+                batch.add(message);
+            }
+            for (OutboxConsumer consumer : consumers) {
+                deliver(consumer, batch);
+            }
+        }
+    }
+
+    private void deliver(OutboxConsumer consumer, List<OutboxMessage> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                consumer.accept(batch);
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Outbox batch of " + batch.size() + " failed, attempt " + attempt, e);
+            }
+        }
+        LOGGER.severe("Dropping outbox batch of " + batch.size() + " after " + MAX_ATTEMPTS + " attempts");
+    }
+}
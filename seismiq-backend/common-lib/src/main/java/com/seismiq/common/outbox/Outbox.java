@@ -0,0 +1,16 @@
+package com.seismiq.common.outbox;
+
+/**
+ * Records work for another stage to do later, so the request that caused it does not wait
+ * for it. {@link DynamoDbOutbox} is used when deployed; {@link InMemoryOutbox} stands in
+ * locally, where DynamoDB streams do not trigger functions.
+ */
+public interface Outbox {
+
+    /**
+     * Records a message. Returns once the message is durably queued, not once it is handled.
+     *
+     * @param message The message to record
+     */
+    void publish(OutboxMessage message);
+}
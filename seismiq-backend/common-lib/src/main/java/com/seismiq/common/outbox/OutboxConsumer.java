@@ -0,0 +1,16 @@
+package com.seismiq.common.outbox;
+
+import java.util.List;
+
+/**
+ * Handles outbox messages in batches. Messages can be delivered more than once, so
+ * consumers must be idempotent; throwing makes the whole batch be delivered again.
+ */
+@FunctionalInterface
+public interface OutboxConsumer {
+
+    /**
+     * @param messages The messages to handle, oldest first
+     */
+    void accept(List<OutboxMessage> messages);
+}
@@ -0,0 +1,42 @@
+package com.seismiq.common.outbox;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A unit of follow-up work recorded by one service for another, such as "create a landmark
+ * for this report". The payload is JSON owned by the topic's consumer.
+ */
+public class OutboxMessage {
+    private final String messageId;
+    private final String topic;
+    private final String key;
+    private final String payload;
+    private final LocalDateTime createdAt;
+
+    public OutboxMessage(String messageId, String topic, String key, String payload, LocalDateTime createdAt) {
+        this.messageId = messageId;
+        this.topic = topic;
+        this.key = key;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Creates a new message with a random id.
+     *
+     * @param topic What the consumer should do, for example "landmark.requested"
+     * @param key The entity the message is about, used by consumers to stay idempotent
+     * @param payload The JSON payload
+     * @return The message
+     */
+    public static OutboxMessage create(String topic, String key, String payload) {
+        return new OutboxMessage(UUID.randomUUID().toString(), topic, key, payload, LocalDateTime.now());
+    }
+
+    public String getMessageId() { return messageId; }
+    public String getTopic() { return topic; }
+    public String getKey() { return key; }
+    public String getPayload() { return payload; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
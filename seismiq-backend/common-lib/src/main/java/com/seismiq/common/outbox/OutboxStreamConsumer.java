@@ -0,0 +1,45 @@
+package com.seismiq.common.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.seismiq.common.cdc.ChangeBatch;
+import com.seismiq.common.cdc.ChangeEvent;
+import com.seismiq.common.cdc.ChangeEventConsumer;
+
+/**
+ * Reads the messages of one topic out of the seismiq-Outbox table's change stream and hands
+ * them to an {@link OutboxConsumer} as one batch. Only inserts are messages; the removals of
+ * expired items are skipped.
+ */
+public class OutboxStreamConsumer implements ChangeEventConsumer {
+    private final String topic;
+    private final OutboxConsumer consumer;
+
+    /**
+     * @param topic The topic to deliver
+     * @param consumer Handles that topic's messages
+     */
+    public OutboxStreamConsumer(String topic, OutboxConsumer consumer) {
+        this.topic = topic;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void accept(ChangeBatch batch) {
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (ChangeEvent event : batch.getEvents()) {
+            if (event.getType() != ChangeEvent.Type.INSERT || event.getNewImage() == null) {
+                continue;
+            }
+            OutboxMessage message = DynamoDbOutbox.fromItem(event.getNewImage());
+            if (message != null && topic.equals(message.getTopic())) {
+                messages.add(message);
+            }
+        }
+        if (!messages.isEmpty()) {
+            consumer.accept(messages);
+        }
+        batch.checkpointAll();
+    }
+}
@@ -5,7 +5,10 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 import software.amazon.awssdk.services.dynamodb.model.*;
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 /**
  * Base repository class for DynamoDB operations.
@@ -15,6 +18,11 @@ import java.util.Map;
  * @author Sıla Bozkurt
  */
 public abstract class DynamoDBRepository {
+    private static final int DEFAULT_SCAN_SEGMENTS = 8;
+    private static final int DEFAULT_SCAN_WORKERS = 4;
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 6;
+    private static final long BATCH_RETRY_BASE_MILLIS = 50;
+
     protected final DynamoDbClient dynamoDbClient;
     protected final String tableName;
 
@@ -23,6 +31,14 @@ public abstract class DynamoDBRepository {
         this.dynamoDbClient = createDynamoDbClient();
     }
 
+    /**
+     * Uses the given client instead of building one from the environment, for tests.
+     */
+    protected DynamoDBRepository(String tableName, DynamoDbClient dynamoDbClient) {
+        this.tableName = tableName;
+        this.dynamoDbClient = dynamoDbClient;
+    }
+
     private DynamoDbClient createDynamoDbClient() {
         DynamoDbClientBuilder builder = DynamoDbClient.builder();
         
@@ -68,4 +84,96 @@ public abstract class DynamoDBRepository {
                 .build();
         return dynamoDbClient.deleteItem(request);
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes to this table with BatchWriteItem, retrying the unprocessed items up to 5 times with
+     * exponential backoff and equal jitter: before retry n it waits between half and all of
+     * 50 ms * 2^n, so retries spread out without ever coming back immediately.
+     * An interrupt stops the retries and leaves the thread's interrupt flag set.
+     *
+     * @param writes The writes, at most 25 (the BatchWriteItem limit)
+     * @return The writes that were still unprocessed after the last attempt, empty if all were written
+     */
+    protected List<WriteRequest> batchWriteWithRetry(List<WriteRequest> writes) {
+        List<WriteRequest> pending = writes;
+        for (int attempt = 0; attempt < MAX_BATCH_WRITE_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            if (attempt > 0) {
+                long maxDelay = BATCH_RETRY_BASE_MILLIS << attempt;
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay / 2, maxDelay + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return pending;
+                }
+            }
+            BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                    .requestItems(Map.of(tableName, pending))
+                    .build());
+            Map<String, List<WriteRequest>> unprocessed = response.unprocessedItems();
+            pending = unprocessed == null || !unprocessed.containsKey(tableName)
+                    ? List.of()
+                    : unprocessed.get(tableName);
+        }
+        return pending;
+    }
+
+    /**
+     * Scans the whole table with a parallel segmented Scan and streams every item to the consumer.
+     * Segment count, worker count and read-capacity budget are taken from the SCAN_SEGMENTS,
+     * SCAN_WORKERS and SCAN_READ_CAPACITY environment variables. The consumer is called from
+     * several threads and must be thread-safe.
+     *
+     * @param request The Scan request to run (filter, projection and expression values are kept)
+     * @param consumer Receives every scanned item
+     * @return The number of items scanned
+     */
+    protected long parallelScan(ScanRequest request, Consumer<Map<String, AttributeValue>> consumer) {
+        ParallelScanner scanner = new ParallelScanner(
+                dynamoDbClient,
+                intFromEnv("SCAN_SEGMENTS", DEFAULT_SCAN_SEGMENTS),
+                intFromEnv("SCAN_WORKERS", DEFAULT_SCAN_WORKERS),
+                doubleFromEnv("SCAN_READ_CAPACITY", 0));
+        return scanner.scan(request, consumer);
+    }
+
+    /**
+     * Continues a resumable parallel scan until it is done or the deadline passes, with the
+     * settings of {@link #parallelScan(ScanRequest, Consumer)}.
+     *
+     * @param request The Scan request to run, the same for every part of one scan
+     * @param checkpoint Where the previous part stopped, or null to start a new scan
+     * @param deadlineMillis The wall-clock time, in epoch milliseconds, to stop at
+     * @param consumer Receives every scanned item
+     * @return Where this part stopped
+     */
+    protected ScanCheckpoint parallelScan(ScanRequest request, ScanCheckpoint checkpoint, long deadlineMillis,
+                                          Consumer<Map<String, AttributeValue>> consumer) {
+        ScanCheckpoint from = checkpoint != null
+            ? checkpoint
+            : ScanCheckpoint.start(intFromEnv("SCAN_SEGMENTS", DEFAULT_SCAN_SEGMENTS));
+        ParallelScanner scanner = new ParallelScanner(
+                dynamoDbClient,
+                from.getTotalSegments(),
+                intFromEnv("SCAN_WORKERS", DEFAULT_SCAN_WORKERS),
+                doubleFromEnv("SCAN_READ_CAPACITY", 0));
+        return scanner.resume(request, from, deadlineMillis, consumer);
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        try {
+            return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static double doubleFromEnv(String name, double defaultValue) {
+        String value = System.getenv(name);
+        try {
+            return value == null || value.isEmpty() ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
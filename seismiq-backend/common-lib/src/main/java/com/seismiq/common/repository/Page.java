@@ -0,0 +1,28 @@
+package com.seismiq.common.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page of items read from DynamoDB, together with the opaque cursor
+ * that continues the read. A null cursor means the last page has been reached.
+ *
+ * @param <T> The type of the items in the page
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = items != null ? items : Collections.emptyList();
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.seismiq.common.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Converts DynamoDB {@code LastEvaluatedKey} maps to and from opaque,
+ * URL-safe cursor strings that can be handed to API clients.
+ * Only string and number key attributes are supported, which covers
+ * every table and index key in the SeismIQ schema.
+ */
+public final class PageCursor {
+    private static final Gson GSON = new Gson();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PageCursor() {}
+
+    /**
+     * Encodes a DynamoDB last evaluated key as a cursor.
+     *
+     * @param lastEvaluatedKey The key returned by a Query or Scan, may be null or empty
+     * @return The cursor, or null if there are no more pages
+     */
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Map<String, String>> plain = new HashMap<>();
+        for (Map.Entry<String, AttributeValue> entry : lastEvaluatedKey.entrySet()) {
+            AttributeValue value = entry.getValue();
+            if (value.s() != null) {
+                plain.put(entry.getKey(), Map.of("S", value.s()));
+            } else if (value.n() != null) {
+                plain.put(entry.getKey(), Map.of("N", value.n()));
+            } else {
+                throw new IllegalArgumentException("Unsupported key attribute type for " + entry.getKey());
+            }
+        }
+        return ENCODER.encodeToString(GSON.toJson(plain).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor back into a DynamoDB exclusive start key.
+     *
+     * @param cursor The cursor previously produced by {@link #encode(Map)}, may be null or blank
+     * @return The exclusive start key, or null if no cursor was given
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static Map<String, AttributeValue> decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        Map<String, Map<String, String>> plain;
+        try {
+            String json = new String(DECODER.decode(cursor.trim()), StandardCharsets.UTF_8);
+            plain = GSON.fromJson(json, new TypeToken<Map<String, Map<String, String>>>(){}.getType());
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (plain == null || plain.isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        Map<String, AttributeValue> key = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : plain.entrySet()) {
+            Map<String, String> typed = entry.getValue();
+            if (typed != null && typed.get("S") != null) {
+                key.put(entry.getKey(), AttributeValue.builder().s(typed.get("S")).build());
+            } else if (typed != null && typed.get("N") != null) {
+                key.put(entry.getKey(), AttributeValue.builder().n(typed.get("N")).build());
+            } else {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        return key;
+    }
+}
@@ -0,0 +1,213 @@
+package com.seismiq.common.repository;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+/**
+ * Reads a whole DynamoDB table (or index) with a parallel segmented Scan.
+ * The table is split into {@code totalSegments} segments that are scanned by worker
+ * threads from a bounded pool, and every item is streamed to a consumer callback
+ * instead of being collected in memory. An optional read-capacity budget throttles
+ * the workers so that maintenance jobs do not starve the request path.
+ */
+public class ParallelScanner {
+    private static final Logger LOGGER = Logger.getLogger(ParallelScanner.class.getName());
+
+    private final DynamoDbClient dynamoDbClient;
+    private final int totalSegments;
+    private final int maxWorkers;
+    private final double readCapacityPerSecond;
+
+    /**
+     * @param dynamoDbClient The client used for the Scan calls
+     * @param totalSegments The number of Scan segments to split the table into
+     * @param maxWorkers The maximum number of segments scanned at the same time
+     * @param readCapacityPerSecond The read capacity units the scan may consume per second, or 0 for no limit
+     */
+    public ParallelScanner(DynamoDbClient dynamoDbClient, int totalSegments, int maxWorkers, double readCapacityPerSecond) {
+        if (totalSegments < 1 || maxWorkers < 1) {
+            throw new IllegalArgumentException("Segments and workers must be at least 1");
+        }
+        this.dynamoDbClient = dynamoDbClient;
+        this.totalSegments = totalSegments;
+        this.maxWorkers = Math.min(maxWorkers, totalSegments);
+        this.readCapacityPerSecond = readCapacityPerSecond;
+    }
+
+    /**
+     * Scans every segment and passes each item to the consumer.
+     * The consumer is called concurrently from several worker threads and must be thread-safe.
+     * If any segment fails, the remaining workers are stopped and the failure is rethrown.
+     *
+     * @param template The Scan request to run; table name, filter, projection and expression values are kept,
+     *                 segment settings and start keys are set by the scanner
+     * @param consumer Receives every item returned by the scan
+     * @return The number of items passed to the consumer
+     */
+    public long scan(ScanRequest template, Consumer<Map<String, AttributeValue>> consumer) {
+        AtomicLong itemCount = new AtomicLong();
+        run(template, ScanCheckpoint.start(totalSegments), Long.MAX_VALUE, consumer, itemCount);
+        LOGGER.info("Parallel scan of " + template.tableName() + " finished: " + itemCount.get()
+            + " items in " + totalSegments + " segments");
+        return itemCount.get();
+    }
+
+    /**
+     * Continues a scan from a checkpoint until it is done or the deadline passes, like
+     * {@link #scan}. Each segment stops at the first page boundary after the deadline, so
+     * leave room for one page of work per worker.
+     *
+     * @param template The Scan request to run, the same for every part of one scan
+     * @param checkpoint Where the previous part stopped, or {@link ScanCheckpoint#start} for a new scan;
+     *                   its segment count replaces the one of this scanner
+     * @param deadlineMillis The wall-clock time, in epoch milliseconds, to stop at
+     * @param consumer Receives every item returned by this part of the scan
+     * @return Where this part stopped; {@link ScanCheckpoint#isDone} once every segment is finished
+     */
+    public ScanCheckpoint resume(ScanRequest template, ScanCheckpoint checkpoint, long deadlineMillis,
+                                 Consumer<Map<String, AttributeValue>> consumer) {
+        AtomicLong itemCount = new AtomicLong();
+        ScanCheckpoint next = run(template, checkpoint, deadlineMillis, consumer, itemCount);
+        LOGGER.info("Parallel scan of " + template.tableName() + " passed " + itemCount.get() + " items, "
+            + (next.isDone() ? "finished" : "stopped at the deadline"));
+        return next;
+    }
+
+    private ScanCheckpoint run(ScanRequest template, ScanCheckpoint checkpoint, long deadlineMillis,
+                               Consumer<Map<String, AttributeValue>> consumer, AtomicLong itemCount) {
+        CapacityBudget budget = readCapacityPerSecond > 0 ? new CapacityBudget(readCapacityPerSecond) : null;
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Map<Integer, Map<String, AttributeValue>> startKeys = checkpoint.startKeys();
+        Map<Integer, Map<String, AttributeValue>> unfinished = new TreeMap<>();
+        if (startKeys.isEmpty()) {
+            return checkpoint;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxWorkers, startKeys.size()));
+
+        try {
+            Map<Integer, Future<Map<String, AttributeValue>>> futures = new TreeMap<>();
+            for (Map.Entry<Integer, Map<String, AttributeValue>> segment : startKeys.entrySet()) {
+                futures.put(segment.getKey(), executor.submit(() -> scanSegment(template, segment.getKey(),
+                    checkpoint.getTotalSegments(), segment.getValue(), deadlineMillis, consumer, budget, itemCount, failed)));
+            }
+
+            for (Map.Entry<Integer, Future<Map<String, AttributeValue>>> future : futures.entrySet()) {
+                try {
+                    Map<String, AttributeValue> stoppedAt = future.getValue().get();
+                    if (stoppedAt != null) {
+                        unfinished.put(future.getKey(), stoppedAt);
+                    }
+                } catch (ExecutionException e) {
+                    failed.set(true);
+                    executor.shutdownNow();
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new IllegalStateException("Parallel scan failed", cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel scan interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return ScanCheckpoint.of(checkpoint.getTotalSegments(), unfinished);
+    }
+
+    // Returns the key to continue after if the deadline stopped the segment, null once it is finished
+    private Map<String, AttributeValue> scanSegment(ScanRequest template, int segment, int segments,
+                                                    Map<String, AttributeValue> startKey, long deadlineMillis,
+                                                    Consumer<Map<String, AttributeValue>> consumer,
+                                                    CapacityBudget budget, AtomicLong itemCount, AtomicBoolean failed) {
+        // An empty key marks a segment that has not started, so it is never mistaken for a finished one
+        Map<String, AttributeValue> position = startKey != null ? startKey : Map.of();
+        do {
+            if (failed.get() || Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            if (System.currentTimeMillis() >= deadlineMillis) {
+                return position;
+            }
+            if (budget != null) {
+                budget.awaitCapacity();
+            }
+
+            ScanResponse response = dynamoDbClient.scan(template.toBuilder()
+                .segment(segment)
+                .totalSegments(segments)
+                .exclusiveStartKey(position.isEmpty() ? null : position)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .build());
+
+            if (budget != null && response.consumedCapacity() != null
+                && response.consumedCapacity().capacityUnits() != null) {
+                budget.consume(response.consumedCapacity().capacityUnits());
+            }
+
+            for (Map<String, AttributeValue> item : response.items()) {
+                consumer.accept(item);
+                itemCount.incrementAndGet();
+            }
+            position = response.lastEvaluatedKey();
+        } while (position != null && !position.isEmpty());
+        return null;
+    }
+
+    /**
+     * Token bucket shared by all workers of one scan. Capacity is charged after each page
+     * (the cost of a Scan page is only known once it returns), so the balance may go negative;
+     * workers then wait until it has been refilled.
+     */
+    private static final class CapacityBudget {
+        private final double unitsPerSecond;
+        private double available;
+        private long lastRefillNanos;
+
+        private CapacityBudget(double unitsPerSecond) {
+            this.unitsPerSecond = unitsPerSecond;
+            this.available = unitsPerSecond;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        private synchronized void awaitCapacity() {
+            refill();
+            while (available <= 0) {
+                long waitMillis = (long) Math.ceil((-available + 1) / unitsPerSecond * 1000);
+                try {
+                    wait(Math.max(1, waitMillis));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                refill();
+            }
+        }
+
+        private synchronized void consume(double units) {
+            refill();
+            available -= units;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            available = Math.min(unitsPerSecond, available + (now - lastRefillNanos) / 1e9 * unitsPerSecond);
+            lastRefillNanos = now;
+        }
+    }
+}
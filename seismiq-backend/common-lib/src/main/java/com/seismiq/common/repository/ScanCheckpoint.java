@@ -0,0 +1,120 @@
+package com.seismiq.common.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Where a resumable parallel scan stopped: the segments that are not finished yet, each with
+ * the key to continue after. Encoded as an opaque token so a long maintenance job can be run
+ * as a series of invocations that each pick up where the previous one stopped.
+ */
+public final class ScanCheckpoint {
+    private static final Gson GSON = new Gson();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final int totalSegments;
+    // Segment -> PageCursor of the key to continue after, "" for a segment not started yet
+    private final Map<Integer, String> remaining;
+
+    private ScanCheckpoint(int totalSegments, Map<Integer, String> remaining) {
+        this.totalSegments = totalSegments;
+        this.remaining = Collections.unmodifiableMap(new TreeMap<>(remaining));
+    }
+
+    /**
+     * A scan that has not started yet.
+     */
+    public static ScanCheckpoint start(int totalSegments) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("Segments must be at least 1");
+        }
+        Map<Integer, String> remaining = new TreeMap<>();
+        for (int segment = 0; segment < totalSegments; segment++) {
+            remaining.put(segment, "");
+        }
+        return new ScanCheckpoint(totalSegments, remaining);
+    }
+
+    static ScanCheckpoint of(int totalSegments, Map<Integer, Map<String, AttributeValue>> startKeys) {
+        Map<Integer, String> remaining = new TreeMap<>();
+        for (Map.Entry<Integer, Map<String, AttributeValue>> segment : startKeys.entrySet()) {
+            String cursor = PageCursor.encode(segment.getValue());
+            remaining.put(segment.getKey(), cursor != null ? cursor : "");
+        }
+        return new ScanCheckpoint(totalSegments, remaining);
+    }
+
+    public int getTotalSegments() {
+        return totalSegments;
+    }
+
+    /**
+     * @return Whether every segment has been scanned
+     */
+    public boolean isDone() {
+        return remaining.isEmpty();
+    }
+
+    /**
+     * @return The unfinished segments, each with its exclusive start key (null if not started)
+     */
+    Map<Integer, Map<String, AttributeValue>> startKeys() {
+        Map<Integer, Map<String, AttributeValue>> startKeys = new TreeMap<>();
+        for (Map.Entry<Integer, String> segment : remaining.entrySet()) {
+            startKeys.put(segment.getKey(), PageCursor.decode(segment.getValue()));
+        }
+        return startKeys;
+    }
+
+    /**
+     * @return The token to resume from, or null if the scan is done
+     */
+    public String encode() {
+        if (isDone()) {
+            return null;
+        }
+        Map<String, Object> plain = new LinkedHashMap<>();
+        plain.put("totalSegments", totalSegments);
+        plain.put("remaining", remaining);
+        return ENCODER.encodeToString(GSON.toJson(plain).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a token produced by {@link #encode}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ScanCheckpoint decode(String token) {
+        Token plain;
+        try {
+            plain = GSON.fromJson(new String(DECODER.decode(token.trim()), StandardCharsets.UTF_8), Token.class);
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new IllegalArgumentException("Invalid checkpoint");
+        }
+        if (plain == null || plain.totalSegments < 1 || plain.remaining == null) {
+            throw new IllegalArgumentException("Invalid checkpoint");
+        }
+        for (Map.Entry<Integer, String> segment : plain.remaining.entrySet()) {
+            if (segment.getKey() == null || segment.getKey() < 0 || segment.getKey() >= plain.totalSegments) {
+                throw new IllegalArgumentException("Invalid checkpoint");
+            }
+            PageCursor.decode(segment.getValue());
+        }
+        return new ScanCheckpoint(plain.totalSegments, plain.remaining);
+    }
+
+    private static final class Token {
+        private int totalSegments;
+        private Map<Integer, String> remaining;
+    }
+}
@@ -0,0 +1,21 @@
+package com.seismiq.common.repository;
+
+/**
+ * Thrown when a conditional update names a version that is no longer the stored one,
+ * meaning someone else changed the item after the caller read it.
+ */
+public class VersionConflictException extends RuntimeException {
+    private final long currentVersion;
+
+    public VersionConflictException(String id, long expectedVersion, long currentVersion) {
+        super("Version conflict for " + id + ": expected version " + expectedVersion + " but it is " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * @return The version currently stored, to re-read or retry against
+     */
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,49 @@
+package com.seismiq.common.search;
+
+import java.util.Map;
+
+import com.seismiq.common.cdc.ChangeBatch;
+import com.seismiq.common.cdc.ChangeEvent;
+import com.seismiq.common.cdc.ChangeEventConsumer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Keeps the search index in step with the reports and landmarks tables. Each change is
+ * analyzed in its old and new image, and only the postings whose terms differ are written,
+ * so status and location updates that leave the text alone cost nothing.
+ *
+ * <p>Events are checkpointed one by one: postings are written with plain puts and deletes,
+ * so replaying an event after a failure is safe.</p>
+ */
+public class SearchIndexConsumer implements ChangeEventConsumer {
+    private final SearchIndexRepository searchIndex;
+
+    public SearchIndexConsumer(SearchIndexRepository searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public void accept(ChangeBatch batch) {
+        for (ChangeEvent event : batch.getEvents()) {
+            SearchSource source = SearchSource.ofTable(event.getTable());
+            if (source != null && !event.getKeys().isEmpty()) {
+                index(source, event);
+            }
+            batch.checkpoint(event);
+        }
+    }
+
+    private void index(SearchSource source, ChangeEvent event) {
+        AttributeValue id = event.getKeys().get(source.getKeyAttribute());
+        if (id == null || id.s() == null) {
+            return;
+        }
+        Map<String, AttributeValue> newImage = event.getType() == ChangeEvent.Type.REMOVE ? null : event.getNewImage();
+        Map<String, Integer> oldTerms = TurkishAnalyzer.termFrequencies(source.texts(event.getOldImage()));
+        Map<String, Integer> newTerms = TurkishAnalyzer.termFrequencies(source.texts(newImage));
+        if (!oldTerms.equals(newTerms)) {
+            searchIndex.updateDocument(source.docKey(id.s()), oldTerms, newTerms);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.seismiq.common.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.seismiq.common.repository.DynamoDBRepository;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * The seismiq-SearchIndex table, an inverted index over report and landmark text: one item
+ * per term and document (partition key term, sort key docKey) holding the term frequency and
+ * the document length, plus one statistics item with the document count and total length
+ * that ranking needs.
+ *
+ * <p>The statistics are kept with atomic counters and may drift slightly when a stream batch
+ * is retried; they only weight terms against each other, so that is harmless.</p>
+ */
+public class SearchIndexRepository extends DynamoDBRepository {
+    private static final String STATS_TERM = "#stats";
+    private static final String STATS_DOC_KEY = "#all";
+
+    private static final int BATCH_WRITE_SIZE = 25;         // BatchWriteItem limit
+    private static final int BATCH_GET_SIZE = 100;          // BatchGetItem limit
+    private static final int MAX_BATCH_ATTEMPTS = 6;
+    private static final long BATCH_RETRY_BASE_MILLIS = 50;
+
+    public SearchIndexRepository() {
+        super("seismiq-SearchIndex");
+    }
+
+    /**
+     * Index statistics used for ranking.
+     */
+    public static final class Stats {
+        private final long documents;
+        private final long totalLength;
+
+        public Stats(long documents, long totalLength) {
+            this.documents = documents;
+            this.totalLength = totalLength;
+        }
+
+        public long getDocuments() {
+            return documents;
+        }
+
+        /**
+         * @return The average number of terms per document, at least 1
+         */
+        public double getAverageLength() {
+            return documents > 0 ? Math.max(1.0, (double) totalLength / documents) : 1.0;
+        }
+    }
+
+    /**
+     * Brings the postings of a document from its old terms to its new ones. Only the postings
+     * that change are written: those of removed terms are deleted, and those of new terms or
+     * changed frequencies are put. All postings are rewritten when the document length changes.
+     *
+     * @param docKey The document
+     * @param oldTerms The term frequencies the document was indexed with, empty if it was not
+     * @param newTerms The term frequencies it has now, empty if it was deleted
+     * @throws IllegalStateException if some postings still could not be written
+     */
+    public void updateDocument(String docKey, Map<String, Integer> oldTerms, Map<String, Integer> newTerms) {
+        int oldLength = length(oldTerms);
+        int newLength = length(newTerms);
+
+        List<WriteRequest> writes = new ArrayList<>();
+        for (String term : oldTerms.keySet()) {
+            if (!newTerms.containsKey(term)) {
+                writes.add(WriteRequest.builder()
+                    .deleteRequest(DeleteRequest.builder().key(key(term, docKey)).build())
+                    .build());
+            }
+        }
+        for (Map.Entry<String, Integer> term : newTerms.entrySet()) {
+            if (newLength != oldLength || !term.getValue().equals(oldTerms.get(term.getKey()))) {
+                writes.add(WriteRequest.builder()
+                    .putRequest(PutRequest.builder().item(toItem(term.getKey(), docKey, term.getValue(), newLength)).build())
+                    .build());
+            }
+        }
+        for (int from = 0; from < writes.size(); from += BATCH_WRITE_SIZE) {
+            batchWrite(writes.subList(from, Math.min(from + BATCH_WRITE_SIZE, writes.size())));
+        }
+
+        long documentDelta = (newTerms.isEmpty() ? 0 : 1) - (oldTerms.isEmpty() ? 0 : 1);
+        long lengthDelta = newLength - oldLength;
+        if (documentDelta != 0 || lengthDelta != 0) {
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":documents", AttributeValue.builder().n(String.valueOf(documentDelta)).build());
+            values.put(":length", AttributeValue.builder().n(String.valueOf(lengthDelta)).build());
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(key(STATS_TERM, STATS_DOC_KEY))
+                .updateExpression("ADD documents :documents, totalLength :length")
+                .expressionAttributeValues(values)
+                .build());
+        }
+    }
+
+    /**
+     * Reads the postings of a term.
+     *
+     * @param term The term, as produced by {@link TurkishAnalyzer}
+     * @param max The most postings to read
+     * @return The postings, in docKey order
+     */
+    public List<SearchPosting> postings(String term, int max) {
+        List<SearchPosting> postings = new ArrayList<>();
+        Map<String, AttributeValue> values = Map.of(":term", AttributeValue.builder().s(term).build());
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(tableName)
+                .keyConditionExpression("#term = :term")
+                .expressionAttributeNames(Map.of("#term", "term"))
+                .expressionAttributeValues(values)
+                .exclusiveStartKey(startKey)
+                .limit(max - postings.size())
+                .build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                postings.add(new SearchPosting(
+                    term,
+                    item.get("docKey").s(),
+                    Integer.parseInt(item.get("tf").n()),
+                    Integer.parseInt(item.get("docLength").n())));
+            }
+            startKey = response.lastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty() && postings.size() < max);
+        return postings;
+    }
+
+    /**
+     * @return The current index statistics
+     */
+    public Stats stats() {
+        GetItemResponse response = getItem(key(STATS_TERM, STATS_DOC_KEY));
+        if (!response.hasItem()) {
+            return new Stats(0, 0);
+        }
+        Map<String, AttributeValue> item = response.item();
+        return new Stats(number(item.get("documents")), number(item.get("totalLength")));
+    }
+
+    /**
+     * Loads documents from their source tables with BatchGetItem, 100 keys per request.
+     * Unprocessed keys are retried with exponential backoff.
+     *
+     * @param docKeys The documents to load
+     * @return The items by docKey; documents that no longer exist are missing
+     * @throws IllegalStateException if some documents still could not be read
+     */
+    public Map<String, Map<String, AttributeValue>> getDocuments(List<String> docKeys) {
+        Map<String, Map<String, AttributeValue>> documents = new HashMap<>();
+        for (int from = 0; from < docKeys.size(); from += BATCH_GET_SIZE) {
+            Map<String, List<Map<String, AttributeValue>>> keysByTable = new HashMap<>();
+            for (String docKey : docKeys.subList(from, Math.min(from + BATCH_GET_SIZE, docKeys.size()))) {
+                SearchSource source = SearchSource.ofDocKey(docKey);
+                if (source != null) {
+                    keysByTable.computeIfAbsent(source.getTableName(), table -> new ArrayList<>())
+                        .add(Map.of(source.getKeyAttribute(), AttributeValue.builder().s(SearchSource.idOf(docKey)).build()));
+                }
+            }
+            Map<String, KeysAndAttributes> pending = new HashMap<>();
+            keysByTable.forEach((table, keys) -> pending.put(table, KeysAndAttributes.builder().keys(keys).build()));
+
+            Map<String, KeysAndAttributes> unprocessed = pending;
+            for (int attempt = 0; attempt < MAX_BATCH_ATTEMPTS && !unprocessed.isEmpty(); attempt++) {
+                if (attempt > 0) {
+                    sleepBeforeRetry(attempt);
+                }
+                BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder()
+                    .requestItems(unprocessed)
+                    .build());
+                for (Map.Entry<String, List<Map<String, AttributeValue>>> table : response.responses().entrySet()) {
+                    SearchSource source = SearchSource.ofTable(table.getKey());
+                    for (Map<String, AttributeValue> item : table.getValue()) {
+                        documents.put(source.docKey(item.get(source.getKeyAttribute()).s()), item);
+                    }
+                }
+                unprocessed = response.unprocessedKeys() == null ? Map.of() : response.unprocessedKeys();
+            }
+            if (!unprocessed.isEmpty()) {
+                throw new IllegalStateException("Search results could not be loaded, retries exhausted");
+            }
+        }
+        return documents;
+    }
+
+    private void batchWrite(List<WriteRequest> writes) {
+        List<WriteRequest> pending = batchWriteWithRetry(writes);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Interrupted while accessing the search index");
+        }
+        if (!pending.isEmpty()) {
+            throw new IllegalStateException(pending.size() + " search index entries could not be written, retries exhausted");
+        }
+    }
+
+    private static Map<String, AttributeValue> key(String term, String docKey) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("term", AttributeValue.builder().s(term).build());
+        key.put("docKey", AttributeValue.builder().s(docKey).build());
+        return key;
+    }
+
+    private static Map<String, AttributeValue> toItem(String term, String docKey, int termFrequency, int docLength) {
+        Map<String, AttributeValue> item = key(term, docKey);
+        item.put("tf", AttributeValue.builder().n(String.valueOf(termFrequency)).build());
+        item.put("docLength", AttributeValue.builder().n(String.valueOf(docLength)).build());
+        return item;
+    }
+
+    private static int length(Map<String, Integer> terms) {
+        int length = 0;
+        for (int frequency : terms.values()) {
+            length += frequency;
+        }
+        return length;
+    }
+
+    private static long number(AttributeValue value) {
+        return value != null && value.n() != null ? Long.parseLong(value.n()) : 0;
+    }
+
+    // Exponential backoff with equal jitter before retrying unprocessed keys, as batchWriteWithRetry does
+    private static void sleepBeforeRetry(int attempt) {
+        long maxDelay = BATCH_RETRY_BASE_MILLIS << attempt;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay / 2, maxDelay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while accessing the search index", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.seismiq.common.search;
+
+/**
+ * One entry of the search index: a term occurring in a document.
+ */
+public final class SearchPosting {
+    private final String term;
+    private final String docKey;
+    private final int termFrequency;
+    private final int docLength;
+
+    public SearchPosting(String term, String docKey, int termFrequency, int docLength) {
+        this.term = term;
+        this.docKey = docKey;
+        this.termFrequency = termFrequency;
+        this.docLength = docLength;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public String getDocKey() {
+        return docKey;
+    }
+
+    /**
+     * @return How often the term occurs in the document
+     */
+    public int getTermFrequency() {
+        return termFrequency;
+    }
+
+    /**
+     * @return How many terms the document has in total
+     */
+    public int getDocLength() {
+        return docLength;
+    }
+}
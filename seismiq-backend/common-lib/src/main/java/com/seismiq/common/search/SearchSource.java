@@ -0,0 +1,100 @@
+package com.seismiq.common.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * The tables whose text is searchable, with their key attribute and the attributes that are indexed.
+ * A document is identified in the search index by its docKey, "{entity}#{id}".
+ */
+public enum SearchSource {
+    REPORTS("reports", "seismiq-Reports", "reportId", List.of("description", "locationDescription")),
+    LANDMARKS("landmarks", "seismiq-Landmarks", "landmarkId", List.of("description"));
+
+    private final String entity;
+    private final String tableName;
+    private final String keyAttribute;
+    private final List<String> textAttributes;
+
+    SearchSource(String entity, String tableName, String keyAttribute, List<String> textAttributes) {
+        this.entity = entity;
+        this.tableName = tableName;
+        this.keyAttribute = keyAttribute;
+        this.textAttributes = textAttributes;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getKeyAttribute() {
+        return keyAttribute;
+    }
+
+    /**
+     * @return The docKey of an item of this source
+     */
+    public String docKey(String id) {
+        return entity + "#" + id;
+    }
+
+    /**
+     * @return The id part of a docKey
+     */
+    public static String idOf(String docKey) {
+        return docKey.substring(docKey.indexOf('#') + 1);
+    }
+
+    /**
+     * Collects the indexed text of an item image.
+     *
+     * @param image The item, may be null
+     * @return The values of the text attributes that are set
+     */
+    public List<String> texts(Map<String, AttributeValue> image) {
+        List<String> texts = new ArrayList<>();
+        if (image == null) {
+            return texts;
+        }
+        for (String attribute : textAttributes) {
+            AttributeValue value = image.get(attribute);
+            if (value != null && value.s() != null) {
+                texts.add(value.s());
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * @return The source of a table, or null if the table is not searchable
+     */
+    public static SearchSource ofTable(String tableName) {
+        for (SearchSource source : values()) {
+            if (source.tableName.equals(tableName)) {
+                return source;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The source of a docKey, or null if its entity is not searchable
+     */
+    public static SearchSource ofDocKey(String docKey) {
+        int end = docKey.indexOf('#');
+        String entity = end < 0 ? docKey : docKey.substring(0, end);
+        for (SearchSource source : values()) {
+            if (source.entity.equals(entity)) {
+                return source;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,137 @@
+package com.seismiq.common.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.seismiq.common.util.TurkishText;
+
+/**
+ * Turns free text into search terms: Turkish casefolding ("İ" → "i", "I" → "ı"), diacritic
+ * folding (so "çökmüş" and "cokmus" meet), stop word removal and light suffix stemming.
+ * Index and query text go through the same steps, so "Binanın altında" finds "bina altı".
+ *
+ * <p>The stemmer strips common case, plural and possessive endings from the end of a word,
+ * at most {@link #MAX_STRIPPED_SUFFIXES} of them, and never below {@link #MIN_STEM_LENGTH}
+ * letters. It is deliberately crude: a word and its inflections usually share a stem, and
+ * an occasional false match only costs ranking precision.</p>
+ */
+public final class TurkishAnalyzer {
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MIN_STEM_LENGTH = 3;
+    static final int MAX_STRIPPED_SUFFIXES = 3;
+
+    // Folded forms, longest first so that "larinda" is tried before "nda" and "a"
+    private static final String[] SUFFIXES = {
+        "larindan", "lerinden", "larinda", "lerinde", "larina", "lerine", "larini", "lerini",
+        "lari", "leri", "lar", "ler",
+        "ndaki", "ndeki", "daki", "deki",
+        "ndan", "nden", "dan", "den", "tan", "ten",
+        "nda", "nde", "da", "de", "ta", "te",
+        "nin", "nun", "in", "un",
+        "yla", "yle", "la", "le",
+        "yi", "yu", "si", "su", "ya", "ye", "na", "ne",
+        "i", "u", "a", "e"
+    };
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "ve", "ile", "veya", "ya", "bir", "bu", "da", "de", "ki", "mi", "mu", "icin", "gibi",
+        "cok", "ama", "fakat", "ancak", "daha", "en", "her", "olan", "olarak", "diye", "kadar", "ne");
+
+    private TurkishAnalyzer() {}
+
+    /**
+     * Splits text into search terms, in order, repeats included.
+     *
+     * @param text The text, may be null
+     * @return The terms, empty if there are none
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String folded = TurkishText.foldDiacritics(TurkishText.casefold(text));
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (c == '\'' || c == '’') {
+                // "Kadıköy'de": the apostrophe separates a proper name from its suffix
+                addTerm(terms, word.toString());
+                word.setLength(0);
+                while (i + 1 < folded.length() && Character.isLetter(folded.charAt(i + 1))) {
+                    i++;
+                }
+            } else {
+                addTerm(terms, word.toString());
+                word.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Counts the terms of one or more texts, such as the searchable fields of one document.
+     *
+     * @param texts The texts, entries may be null
+     * @return Term frequencies, in first-seen order
+     */
+    public static Map<String, Integer> termFrequencies(List<String> texts) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String text : texts) {
+            for (String term : terms(text)) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    /**
+     * Strips inflectional suffixes from a casefolded, diacritic-folded word.
+     */
+    static String stem(String word) {
+        if (!isAlphabetic(word)) {
+            return word;
+        }
+        String stem = word;
+        for (int stripped = 0; stripped < MAX_STRIPPED_SUFFIXES; stripped++) {
+            String shorter = stripSuffix(stem);
+            if (shorter == null) {
+                break;
+            }
+            stem = shorter;
+        }
+        return stem;
+    }
+
+    private static String stripSuffix(String word) {
+        for (String suffix : SUFFIXES) {
+            // A lone vowel ending is only stripped from longer words: "bina" stays, "binaya" → "bina"
+            int minStem = suffix.length() == 1 ? MIN_STEM_LENGTH + 1 : MIN_STEM_LENGTH;
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= minStem) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return null;
+    }
+
+    private static void addTerm(List<String> terms, String word) {
+        if (word.length() < MIN_TERM_LENGTH || STOP_WORDS.contains(word)) {
+            return;
+        }
+        terms.add(stem(word));
+    }
+
+    private static boolean isAlphabetic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isLetter(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,360 @@
+package com.seismiq.common.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import com.seismiq.common.geocoding.Gazetteer;
+import com.seismiq.common.geocoding.PlaceNameIndex;
+import com.seismiq.common.util.GeoUtils;
+
+/**
+ * A bounded, expiring cache in front of a {@link GeoNamesGeocodingService}. Reports cluster in
+ * the same districts, so most lookups repeat one made shortly before.
+ *
+ * <p>Reverse lookups are cached per geohash cell of {@link #DEFAULT_GEOHASH_PRECISION}
+ * characters (about 150 m square): every coordinate in a cell gets the place found for the
+ * first one, with the distance recomputed for the coordinate asked about. Forward lookups are
+ * cached per normalized city and province. Misses are cached too, so an unknown name is not
+ * looked up again and again.</p>
+ *
+ * <p>The batch methods look every entry up in the cache and pass only the misses, each
+ * distinct key once, to one batch call of the delegate.</p>
+ *
+ * <p>Each cache keeps up to maxEntries recently used results for ttlMillis, and counts hits,
+ * misses, evictions and expirations. Results are copied in and out, so callers may modify them.</p>
+ */
+public class CachingGeocodingService extends GeoNamesGeocodingService {
+    private static final Logger LOGGER = Logger.getLogger(CachingGeocodingService.class.getName());
+
+    static final int DEFAULT_MAX_ENTRIES = 10_000;
+    static final long DEFAULT_TTL_MILLIS = 60 * 60 * 1000;
+    static final int DEFAULT_GEOHASH_PRECISION = 7;
+
+    private final GeoNamesGeocodingService delegate;
+    private final int geohashPrecision;
+    private final ResultCache reverseCache;
+    private final ResultCache forwardCache;
+
+    /**
+     * @param delegate The geocoder to cache; this class only delegates, so the Python
+     *                 settings of its own superclass part are unused
+     * @param maxEntries The most results each cache keeps
+     * @param ttlMillis How long a result stays valid
+     * @param geohashPrecision The geohash length reverse lookups are quantized to
+     */
+    public CachingGeocodingService(GeoNamesGeocodingService delegate, int maxEntries, long ttlMillis, int geohashPrecision) {
+        super(null, null);
+        this.delegate = delegate;
+        this.geohashPrecision = geohashPrecision;
+        this.reverseCache = new ResultCache(maxEntries, ttlMillis);
+        this.forwardCache = new ResultCache(maxEntries, ttlMillis);
+    }
+
+    public CachingGeocodingService(GeoNamesGeocodingService delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, DEFAULT_GEOHASH_PRECISION);
+    }
+
+    /**
+     * Wraps a geocoder with the settings of the environment: GEOCODING_CACHE_SIZE,
+     * GEOCODING_CACHE_TTL_SECONDS, and GEOCODING_CACHE_WARMUP=provinces to look up every
+     * province name once up front. The warm-up only runs with gazetteer data configured; without
+     * it the lookups would go to the Python script and slow down the cold start instead.
+     */
+    public static CachingGeocodingService fromEnvironment(GeoNamesGeocodingService delegate) {
+        int maxEntries = DEFAULT_MAX_ENTRIES;
+        long ttlMillis = DEFAULT_TTL_MILLIS;
+        try {
+            String size = System.getenv("GEOCODING_CACHE_SIZE");
+            if (size != null && !size.isBlank()) {
+                maxEntries = Integer.parseInt(size.trim());
+            }
+            String ttl = System.getenv("GEOCODING_CACHE_TTL_SECONDS");
+            if (ttl != null && !ttl.isBlank()) {
+                ttlMillis = Long.parseLong(ttl.trim()) * 1000;
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid geocoding cache settings, using defaults: " + e.getMessage());
+        }
+        CachingGeocodingService cache = new CachingGeocodingService(delegate, maxEntries, ttlMillis, DEFAULT_GEOHASH_PRECISION);
+        if ("provinces".equalsIgnoreCase(System.getenv("GEOCODING_CACHE_WARMUP"))) {
+            if (!Gazetteer.isConfigured()) {
+                LOGGER.info("Skipping the geocoding cache warm-up, no gazetteer data is configured");
+                return cache;
+            }
+            cache.warmUp(List.of(), Gazetteer.provinceNames().stream().map(name -> new String[] {name, null}).toList());
+        }
+        return cache;
+    }
+
+    @Override
+    public GeocodingResult findCoordinatesFromName(String cityName, String provinceName) {
+        String key = PlaceNameIndex.normalize(cityName) + "|" + PlaceNameIndex.normalize(provinceName);
+        CachedResult cached = forwardCache.get(key);
+        if (cached != null) {
+            return copy(cached.result);
+        }
+        GeocodingResult result = delegate.findCoordinatesFromName(cityName, provinceName);
+        forwardCache.put(key, new CachedResult(copy(result)));
+        return result;
+    }
+
+    @Override
+    public GeocodingResult findLocationFromCoordinates(double latitude, double longitude) {
+        String key = GeoUtils.geohash(latitude, longitude, geohashPrecision);
+        CachedResult cached = reverseCache.get(key);
+        if (cached != null) {
+            GeocodingResult result = copy(cached.result);
+            if (result != null) {
+                result.setDistanceKm(GeoUtils.haversineKm(latitude, longitude, result.getLatitude(), result.getLongitude()));
+            }
+            return result;
+        }
+        GeocodingResult result = delegate.findLocationFromCoordinates(latitude, longitude);
+        reverseCache.put(key, new CachedResult(copy(result)));
+        return result;
+    }
+
+    @Override
+    public List<GeocodingResult> findCoordinatesFromNames(List<String[]> names) {
+        List<String> keys = new ArrayList<>(names.size());
+        for (String[] name : names) {
+            keys.add(PlaceNameIndex.normalize(name.length > 0 ? name[0] : null) + "|"
+                + PlaceNameIndex.normalize(name.length > 1 ? name[1] : null));
+        }
+        return cachedBatch(forwardCache, keys, misses -> {
+            List<String[]> missed = new ArrayList<>(misses.size());
+            for (int i : misses) {
+                missed.add(names.get(i));
+            }
+            return delegate.findCoordinatesFromNames(missed);
+        });
+    }
+
+    @Override
+    public List<GeocodingResult> findLocationsFromCoordinates(List<double[]> coordinates) {
+        List<String> keys = new ArrayList<>(coordinates.size());
+        for (double[] coordinate : coordinates) {
+            keys.add(GeoUtils.geohash(coordinate[0], coordinate[1], geohashPrecision));
+        }
+        List<GeocodingResult> results = cachedBatch(reverseCache, keys, misses -> {
+            List<double[]> missed = new ArrayList<>(misses.size());
+            for (int i : misses) {
+                missed.add(coordinates.get(i));
+            }
+            return delegate.findLocationsFromCoordinates(missed);
+        });
+        for (int i = 0; i < results.size(); i++) {
+            GeocodingResult result = results.get(i);
+            if (result != null) {
+                double[] coordinate = coordinates.get(i);
+                result.setDistanceKm(GeoUtils.haversineKm(coordinate[0], coordinate[1], result.getLatitude(), result.getLongitude()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<GeocodingResult> suggestPlaces(String prefix, int limit) {
+        return delegate.suggestPlaces(prefix, limit);
+    }
+
+    /**
+     * Fills the caches ahead of traffic, for example with the locations of recent reports.
+     * Each list is resolved with one batch call of the delegate.
+     *
+     * @param coordinates Points to reverse geocode, as {latitude, longitude}
+     * @param names Names to forward geocode, as {city, province}; the province may be null
+     * @return The number of lookups made
+     */
+    public int warmUp(List<double[]> coordinates, List<String[]> names) {
+        if (!coordinates.isEmpty()) {
+            findLocationsFromCoordinates(coordinates);
+        }
+        if (!names.isEmpty()) {
+            findCoordinatesFromNames(names);
+        }
+        return coordinates.size() + names.size();
+    }
+
+    /**
+     * @return Counters of the reverse lookup cache
+     */
+    public CacheStats getReverseStats() {
+        return reverseCache.stats();
+    }
+
+    /**
+     * @return Counters of the forward lookup cache
+     */
+    public CacheStats getForwardStats() {
+        return forwardCache.stats();
+    }
+
+    /**
+     * Answers a batch from the cache and resolves the misses with one call.
+     *
+     * @param keys The cache key of each entry
+     * @param resolve Resolves the entries at the given indexes, in that order
+     * @return Copies of the results, in input order
+     */
+    private static List<GeocodingResult> cachedBatch(ResultCache cache, List<String> keys,
+                                                     Function<List<Integer>, List<GeocodingResult>> resolve) {
+        GeocodingResult[] results = new GeocodingResult[keys.size()];
+        // Key -> index of its first entry, for the keys that missed the cache
+        Map<String, Integer> missed = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            String key = keys.get(i);
+            if (missed.containsKey(key)) {
+                continue;
+            }
+            CachedResult cached = cache.get(key);
+            if (cached != null) {
+                results[i] = copy(cached.result);
+            } else {
+                missed.put(key, i);
+            }
+        }
+
+        if (!missed.isEmpty()) {
+            List<Integer> misses = new ArrayList<>(missed.values());
+            List<GeocodingResult> resolved = resolve.apply(misses);
+            Map<String, GeocodingResult> byKey = new LinkedHashMap<>();
+            for (int m = 0; m < misses.size(); m++) {
+                String key = keys.get(misses.get(m));
+                byKey.put(key, resolved.get(m));
+                cache.put(key, new CachedResult(copy(resolved.get(m))));
+            }
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null && byKey.containsKey(keys.get(i))) {
+                    results[i] = copy(byKey.get(keys.get(i)));
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private static GeocodingResult copy(GeocodingResult result) {
+        if (result == null) {
+            return null;
+        }
+        GeocodingResult copy = new GeocodingResult(
+            result.getLatitude(), result.getLongitude(), result.getCity(), result.getProvince());
+        copy.setDistanceKm(result.getDistanceKm());
+        copy.setFeatureCode(result.getFeatureCode());
+        copy.setPopulation(result.getPopulation());
+        return copy;
+    }
+
+    /**
+     * A snapshot of the counters of one cache.
+     */
+    public static final class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final int size;
+
+        CacheStats(long hits, long misses, long evictions, long expirations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+
+        public long getMisses() { return misses; }
+
+        /** Entries dropped because the cache was full. */
+        public long getEvictions() { return evictions; }
+
+        /** Entries dropped because they were older than the TTL. */
+        public long getExpirations() { return expirations; }
+
+        public int getSize() { return size; }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d hitRate=%.2f evictions=%d expirations=%d size=%d",
+                hits, misses, getHitRate(), evictions, expirations, size);
+        }
+    }
+
+    // A null result is a cached miss of the geocoder, not a cache miss
+    private static final class CachedResult {
+        private final GeocodingResult result;
+        private final long cachedAt = System.currentTimeMillis();
+
+        CachedResult(GeocodingResult result) {
+            this.result = result;
+        }
+    }
+
+    private static final class ResultCache {
+        private final int maxEntries;
+        private final long ttlMillis;
+        private final LinkedHashMap<String, CachedResult> entries;
+        // Guarded by entries
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long expirations;
+
+        ResultCache(int maxEntries, long ttlMillis) {
+            this.maxEntries = maxEntries;
+            this.ttlMillis = ttlMillis;
+            // Access-ordered so the least recently read result is evicted first
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                    if (size() > ResultCache.this.maxEntries) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        CachedResult get(String key) {
+            synchronized (entries) {
+                CachedResult cached = entries.get(key);
+                if (cached != null && System.currentTimeMillis() - cached.cachedAt >= ttlMillis) {
+                    entries.remove(key);
+                    expirations++;
+                    cached = null;
+                }
+                if (cached != null) {
+                    hits++;
+                } else {
+                    misses++;
+                }
+                return cached;
+            }
+        }
+
+        void put(String key, CachedResult result) {
+            synchronized (entries) {
+                entries.put(key, result);
+            }
+        }
+
+        CacheStats stats() {
+            synchronized (entries) {
+                return new CacheStats(hits, misses, evictions, expirations, entries.size());
+            }
+        }
+    }
+}
@@ -1,13 +1,31 @@
 package com.seismiq.common.service;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.reflect.TypeToken;
+import com.seismiq.common.geocoding.BinaryGazetteer;
+import com.seismiq.common.geocoding.Gazetteer;
+import com.seismiq.common.geocoding.GazetteerPlace;
+import com.seismiq.common.geocoding.PlaceNameIndex;
+import com.seismiq.common.geocoding.ReverseGeocoder;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -15,6 +33,13 @@ import java.util.logging.Level;
  * Service for geocoding operations using the Python geocoding utilities.
  * Provides forward geocoding (city/province -> coordinates) and 
  * reverse geocoding (coordinates -> city/province).
+ * GEOCODING_BACKEND selects where lookups run: "in-process" against the shared gazetteer,
+ * which is the default when a gazetteer is configured ({@link Gazetteer#isConfigured}),
+ * otherwise the Python script, which loads the full GeoNames data: "python" (the default
+ * without a gazetteer) starts a process per lookup, "python-pool" keeps GEOCODING_WORKERS long-lived workers
+ * and fails lookups that take longer than GEOCODING_DEADLINE_MILLIS.
+ * The batch methods resolve many lookups per call: in process on parallel threads,
+ * or with one Python call per chunk of {@link #BATCH_CHUNK_SIZE} lookups.
  *
  * @author Sıla Bozkurt
  */
@@ -23,6 +48,16 @@ public class GeoNamesGeocodingService {
     private final Gson gson;
     private final String pythonScriptPath;
     private final String pythonExecutable;
+    private static final int DEFAULT_WORKERS = 2;
+    private static final long DEFAULT_DEADLINE_MILLIS = 2000;
+    static final int BATCH_CHUNK_SIZE = 1000;
+    // Added to the pool deadline for every lookup of a batch chunk
+    static final long BATCH_DEADLINE_MILLIS_PER_LOOKUP = 5;
+    // In-process lookups take about a microsecond, so small batches are not worth splitting
+    private static final int PARALLEL_BATCH_SIZE = 10_000;
+
+    private final boolean inProcess;
+    private final PythonWorkerPool workerPool;
 
     public GeoNamesGeocodingService() {
         this.gson = new Gson();
@@ -30,30 +65,67 @@ public class GeoNamesGeocodingService {
         this.pythonScriptPath = getClass().getClassLoader()
             .getResource("geocoding/seismiq_geocoding_utils.py").getPath();
         this.pythonExecutable = "python3"; // or "python" depending on system
+        String backend = System.getenv("GEOCODING_BACKEND");
+        // Without its data the in-process gazetteer only knows the bundled major cities
+        this.inProcess = backend == null || backend.isBlank()
+            ? Gazetteer.isConfigured()
+            : !"python".equalsIgnoreCase(backend) && !"python-pool".equalsIgnoreCase(backend);
+        this.workerPool = "python-pool".equalsIgnoreCase(backend)
+            ? new PythonWorkerPool(pythonExecutable, new File(pythonScriptPath).getParentFile(),
+                (int) envNumber("GEOCODING_WORKERS", DEFAULT_WORKERS),
+                envNumber("GEOCODING_DEADLINE_MILLIS", DEFAULT_DEADLINE_MILLIS))
+            : null;
     }
 
     /**
-     * Constructor for testing with custom paths
+     * Constructor for testing with custom paths; all lookups go to the Python script
      */
     public GeoNamesGeocodingService(String pythonExecutable, String pythonScriptPath) {
         this.gson = new Gson();
         this.pythonExecutable = pythonExecutable;
         this.pythonScriptPath = pythonScriptPath;
+        this.inProcess = false;
+        this.workerPool = null;
+    }
+
+    /**
+     * Constructor for testing with a custom worker pool; all lookups go to its workers
+     */
+    public GeoNamesGeocodingService(PythonWorkerPool workerPool) {
+        this.gson = new Gson();
+        this.pythonExecutable = null;
+        this.pythonScriptPath = null;
+        this.inProcess = false;
+        this.workerPool = workerPool;
     }
 
     /**
      * Find coordinates for a given city name (forward geocoding)
      * 
      * @param cityName The name of the city
-     * @param provinceName Optional province name for better accuracy
+     * @param provinceName Optional province name for better accuracy; if the city is not
+     *                     found, or not given, the province itself is looked up
      * @return GeocodingResult with coordinates or null if not found
      */
     public GeocodingResult findCoordinatesFromName(String cityName, String provinceName) {
         if (cityName == null || cityName.trim().isEmpty()) {
-            return null;
+            if (provinceName == null || provinceName.trim().isEmpty()) {
+                return null;
+            }
+            cityName = provinceName;
+            provinceName = null;
+        }
+
+        if (inProcess) {
+            return findInProcess(cityName, provinceName);
         }
 
         try {
+            if (workerPool != null) {
+                return mapToGeocodingResult(workerPool.call(
+                    "find_coordinates_from_name", Arrays.asList(cityName, provinceName)));
+            }
+
             String pythonCode = String.format(
                 "from seismiq_geocoding_utils import find_coordinates_from_name\n" +
                 "import json\n" +
@@ -76,6 +148,27 @@ public class GeoNamesGeocodingService {
         return null;
     }
 
+    /**
+     * Suggest places for a partially typed name (autocomplete), most important first.
+     * Always answered in process, so only with gazetteer data configured: the bundled list
+     * of major cities would miss most districts and suggest the wrong places.
+     *
+     * @param prefix What the user typed so far
+     * @param limit The most suggestions to return
+     * @return The suggestions, with coordinates, province, feature code and population
+     * @throws IllegalStateException if no gazetteer data is configured
+     */
+    public List<GeocodingResult> suggestPlaces(String prefix, int limit) {
+        if (!Gazetteer.isConfigured()) {
+            throw new IllegalStateException("no gazetteer data is configured");
+        }
+        List<GeocodingResult> suggestions = new ArrayList<>();
+        for (GazetteerPlace place : PlaceNameIndex.shared().complete(prefix, limit)) {
+            suggestions.add(toGeocodingResult(place));
+        }
+        return suggestions;
+    }
+
     /**
      * Find location name for given coordinates (reverse geocoding)
      * 
@@ -84,7 +177,16 @@ public class GeoNamesGeocodingService {
      * @return GeocodingResult with location info or null if not found
      */
     public GeocodingResult findLocationFromCoordinates(double latitude, double longitude) {
+        if (inProcess) {
+            return locateInProcess(latitude, longitude);
+        }
+
         try {
+            if (workerPool != null) {
+                return mapToGeocodingResult(workerPool.call(
+                    "find_location_from_coordinates", List.of(latitude, longitude)));
+            }
+
             String pythonCode = String.format(
                 "from seismiq_geocoding_utils import find_location_from_coordinates\n" +
                 "import json\n" +
@@ -107,10 +209,171 @@ public class GeoNamesGeocodingService {
         return null;
     }
 
+    /**
+     * Find coordinates for many names at once (batch forward geocoding), with the
+     * fallbacks of {@link #findCoordinatesFromName}
+     *
+     * @param names The names to look up, as {city, province}; either may be null
+     * @return One result per name in input order, null where nothing was found
+     */
+    public List<GeocodingResult> findCoordinatesFromNames(List<String[]> names) {
+        List<String[]> queries = new ArrayList<>(names.size());
+        for (String[] name : names) {
+            String city = name.length > 0 ? name[0] : null;
+            String province = name.length > 1 ? name[1] : null;
+            if (city == null || city.trim().isEmpty()) {
+                boolean hasProvince = province != null && !province.trim().isEmpty();
+                city = hasProvince ? province : null;
+                province = null;
+            }
+            queries.add(new String[] {city, province});
+        }
+
+        if (inProcess) {
+            return resolveInProcess(queries, query -> query[0] != null ? findInProcess(query[0], query[1]) : null);
+        }
+        return resolveInPython("find_coordinates_from_names", queries, query -> Arrays.asList(query[0], query[1]));
+    }
+
+    /**
+     * Find location names for many coordinates at once (batch reverse geocoding)
+     *
+     * @param coordinates The points to look up, as {latitude, longitude}
+     * @return One result per point in input order, null where nothing was found
+     */
+    public List<GeocodingResult> findLocationsFromCoordinates(List<double[]> coordinates) {
+        if (inProcess) {
+            return resolveInProcess(coordinates, coordinate -> locateInProcess(coordinate[0], coordinate[1]));
+        }
+        return resolveInPython("find_locations_from_coordinates", coordinates, coordinate -> List.of(coordinate[0], coordinate[1]));
+    }
+
+    private GeocodingResult findInProcess(String cityName, String provinceName) {
+        // Exact names are answered from the mapped file, so the name index is only built for typos
+        BinaryGazetteer binary = BinaryGazetteer.shared();
+        if (binary != null) {
+            int exact = binary.find(cityName, provinceName);
+            if (exact >= 0) {
+                return toGeocodingResult(binary.getPlace(exact));
+            }
+        }
+        GazetteerPlace place = PlaceNameIndex.shared().find(cityName, provinceName);
+        return place != null ? toGeocodingResult(place) : null;
+    }
+
+    private GeocodingResult locateInProcess(double latitude, double longitude) {
+        ReverseGeocoder.Match match = ReverseGeocoder.shared().nearest(latitude, longitude);
+        if (match == null) {
+            return null;
+        }
+        GeocodingResult result = toGeocodingResult(match.getPlace());
+        result.setDistanceKm(match.getDistanceKm());
+        return result;
+    }
+
+    private <T> List<GeocodingResult> resolveInProcess(List<T> queries, Function<T, GeocodingResult> lookup) {
+        GeocodingResult[] results = new GeocodingResult[queries.size()];
+        IntStream indexes = IntStream.range(0, results.length);
+        if (results.length >= PARALLEL_BATCH_SIZE) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> results[i] = lookup.apply(queries.get(i)));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Resolve a batch with one call of a batch function of the Python script per chunk.
+     * Chunks run in parallel, on the pool's workers or in separate processes; a chunk
+     * that fails is logged and yields nulls, like a failed single lookup.
+     */
+    private <T> List<GeocodingResult> resolveInPython(String function, List<T> queries, Function<T, List<?>> toArgs) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < queries.size(); start += BATCH_CHUNK_SIZE) {
+            chunks.add(queries.subList(start, Math.min(start + BATCH_CHUNK_SIZE, queries.size())));
+        }
+        List<GeocodingResult> results = new ArrayList<>(queries.size());
+        if (chunks.size() <= 1) {
+            for (List<T> chunk : chunks) {
+                results.addAll(resolveChunk(function, chunk, toArgs));
+            }
+            return results;
+        }
+
+        int parallelism = workerPool != null ? workerPool.size() : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()));
+        try {
+            List<Future<List<GeocodingResult>>> futures = new ArrayList<>();
+            for (List<T> chunk : chunks) {
+                futures.add(executor.submit(() -> resolveChunk(function, chunk, toArgs)));
+            }
+            for (Future<List<GeocodingResult>> future : futures) {
+                results.addAll(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch geocoding failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch geocoding interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> List<GeocodingResult> resolveChunk(String function, List<T> chunk, Function<T, List<?>> toArgs) {
+        List<List<?>> args = new ArrayList<>(chunk.size());
+        for (T query : chunk) {
+            args.add(toArgs.apply(query));
+        }
+
+        List<GeocodingResult> results = new ArrayList<>(chunk.size());
+        try {
+            JsonElement answer;
+            if (workerPool != null) {
+                // One lookup's deadline would kill the worker halfway through a large chunk
+                answer = workerPool.call(function, List.of(args),
+                    workerPool.getDeadlineMillis() + chunk.size() * BATCH_DEADLINE_MILLIS_PER_LOOKUP);
+            } else {
+                // The arguments go over stdin; a chunk is too large for the command line
+                String pythonCode = String.format(
+                    "from seismiq_geocoding_utils import %s\n" +
+                    "import json, sys\n" +
+                    "result = %s(json.load(sys.stdin))\n" +
+                    "print(json.dumps(result))",
+                    function, function
+                );
+                String output = executePythonCode(pythonCode, gson.toJson(args));
+                // Only the last line is the result; the script may log while loading its data
+                answer = output != null ? gson.fromJson(output.substring(output.lastIndexOf('\n') + 1), JsonElement.class) : null;
+            }
+            if (answer != null && answer.isJsonArray() && answer.getAsJsonArray().size() == chunk.size()) {
+                for (JsonElement result : answer.getAsJsonArray()) {
+                    results.add(mapToGeocodingResult(result));
+                }
+                return results;
+            }
+            LOGGER.warning("Unexpected answer of " + function + " for a chunk of " + chunk.size());
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error in batch geocoding, " + function + " failed for a chunk of " + chunk.size(), e);
+        }
+
+        while (results.size() < chunk.size()) {
+            results.add(null);
+        }
+        return results;
+    }
+
     /**
      * Execute Python code and return the output
      */
     private String executePythonCode(String pythonCode) {
+        return executePythonCode(pythonCode, null);
+    }
+
+    /**
+     * Execute Python code with the given standard input and return the output
+     */
+    private String executePythonCode(String pythonCode, String input) {
         try {
             // Create a temporary directory to run the Python script
             File scriptDir = new File(pythonScriptPath).getParentFile();
@@ -120,6 +383,11 @@ public class GeoNamesGeocodingService {
             pb.redirectErrorStream(true);
 
             Process process = pb.start();
+            try (Writer stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8)) {
+                if (input != null) {
+                    stdin.write(input);
+                }
+            }
             
             StringBuilder output = new StringBuilder();
             try (BufferedReader reader = new BufferedReader(
@@ -163,6 +431,30 @@ public class GeoNamesGeocodingService {
                    .replace("\r", "\\r");
     }
 
+    /**
+     * Convert a result of a pooled worker to a GeocodingResult object
+     */
+    private GeocodingResult mapToGeocodingResult(JsonElement result) {
+        if (result == null || result.isJsonNull()) {
+            return null;
+        }
+        Type type = new TypeToken<Map<String, Object>>(){}.getType();
+        return mapToGeocodingResult(gson.<Map<String, Object>>fromJson(result, type));
+    }
+
+    private static long envNumber(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid " + name + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     /**
      * Convert Python result map to GeocodingResult object
      */
@@ -196,6 +488,17 @@ public class GeoNamesGeocodingService {
         return result;
     }
 
+    /**
+     * Convert a gazetteer place to a GeocodingResult, with the fields the Python script returns
+     */
+    private GeocodingResult toGeocodingResult(GazetteerPlace place) {
+        GeocodingResult result = new GeocodingResult(
+            place.getLatitude(), place.getLongitude(), place.getName(), place.getProvince());
+        result.setFeatureCode(place.getFeatureCode());
+        result.setPopulation(place.getPopulation());
+        return result;
+    }
+
     /**
      * Result class for geocoding operations
      */
@@ -0,0 +1,390 @@
+package com.seismiq.common.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * A pool of long-lived Python geocoding workers (seismiq_geocoding_worker.py) that answer
+ * requests over stdin/stdout, one JSON object per line. A worker loads the GeoNames data once
+ * at start, so a lookup costs one round trip over a pipe instead of a process launch.
+ *
+ * <p>Each request carries an id and goes to the worker with the fewest requests in flight;
+ * several callers can have requests queued on one worker, and its reader thread completes
+ * them as answers arrive. Workers are started on demand and outside the pool's lock: a request
+ * only waits for a start when no worker is running, and otherwise goes to a running worker
+ * while the missing ones start in the background. A worker that exits, breaks its pipe or
+ * misses a request's deadline is killed, its other requests fail, and a replacement is started.
+ * A slot whose worker failed to start is retried in the background only after
+ * {@link #RESTART_DELAY_MILLIS}.</p>
+ */
+public class PythonWorkerPool {
+    private static final Logger LOGGER = Logger.getLogger(PythonWorkerPool.class.getName());
+
+    static final String WORKER_SCRIPT = "seismiq_geocoding_worker.py";
+    static final long STARTUP_TIMEOUT_MILLIS = 30_000;
+    static final long RESTART_DELAY_MILLIS = 10_000;
+
+    private final Gson gson = new Gson();
+    private final String pythonExecutable;
+    private final File scriptDir;
+    private final long deadlineMillis;
+    // Guarded by workers
+    private final Worker[] workers;
+    private final boolean[] starting;
+    private final long[] retryAfter;
+    private final AtomicLong requestIds = new AtomicLong();
+
+    /**
+     * @param pythonExecutable The Python interpreter
+     * @param scriptDir The directory holding the worker and geocoding scripts
+     * @param size The number of workers
+     * @param deadlineMillis How long a request may take before it fails and its worker is replaced
+     */
+    public PythonWorkerPool(String pythonExecutable, File scriptDir, int size, long deadlineMillis) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("A worker pool needs at least one worker");
+        }
+        this.pythonExecutable = pythonExecutable;
+        this.scriptDir = scriptDir;
+        this.deadlineMillis = deadlineMillis;
+        this.workers = new Worker[size];
+        this.starting = new boolean[size];
+        this.retryAfter = new long[size];
+    }
+
+    /**
+     * Calls a function of the geocoding utilities in a worker, with the pool's deadline.
+     *
+     * @param function The function name, one the worker exposes
+     * @param args The arguments, converted to JSON
+     * @return The function's result, JsonNull if it returned None
+     * @throws IllegalStateException if no worker could take the request, the worker failed
+     *         or the deadline passed
+     */
+    public JsonElement call(String function, List<?> args) {
+        return call(function, args, deadlineMillis);
+    }
+
+    /**
+     * Calls a function of the geocoding utilities in a worker, with a deadline of its own,
+     * for requests that do more work than one lookup. The deadline counts from when the
+     * requests queued ahead of this one on its worker are due, since a worker answers in order.
+     *
+     * @param function The function name, one the worker exposes
+     * @param args The arguments, converted to JSON
+     * @param requestDeadlineMillis How long this request may take before it fails and its worker is replaced
+     * @return The function's result, JsonNull if it returned None
+     * @throws IllegalStateException if no worker could take the request, the worker failed
+     *         or the deadline passed
+     */
+    public JsonElement call(String function, List<?> args, long requestDeadlineMillis) {
+        Worker worker = pickWorker();
+        long id = requestIds.incrementAndGet();
+        CompletableFuture<JsonElement> answer = new CompletableFuture<>();
+        worker.pending.put(id, answer);
+        long dueAt;
+        try {
+            dueAt = worker.send(gson.toJson(Map.of("id", id, "function", function, "args", args)), requestDeadlineMillis);
+        } catch (IOException e) {
+            worker.kill("its input pipe broke");
+            throw new IllegalStateException("Geocoding worker unavailable", e);
+        }
+
+        try {
+            return answer.get(Math.max(1, dueAt - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Workers answer in order, so everything queued behind this request is stuck too
+            worker.kill("a request missed its " + requestDeadlineMillis + " ms deadline");
+            throw new IllegalStateException("Geocoding request timed out after " + requestDeadlineMillis + " ms");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a geocoding worker", e);
+        } finally {
+            worker.pending.remove(id);
+        }
+    }
+
+    /**
+     * @return How long a single request may take
+     */
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * @return The number of workers, the most requests the pool works on at the same time
+     */
+    public int size() {
+        return workers.length;
+    }
+
+    /**
+     * Stops all workers.
+     */
+    public void close() {
+        synchronized (workers) {
+            for (Worker worker : workers) {
+                if (worker != null) {
+                    worker.kill("the pool was closed");
+                }
+            }
+        }
+    }
+
+    /**
+     * The live worker with the fewest requests in flight. A missing or dead worker is started
+     * in the background when another worker can take the request, and by this caller, outside
+     * the lock, only when none can. If that start fails, the caller waits for a worker another
+     * caller is starting before it gives up.
+     */
+    private Worker pickWorker() {
+        long waitUntil = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        IllegalStateException failure = null;
+        while (true) {
+            int slot;
+            synchronized (workers) {
+                Worker best = leastBusy();
+                if (best != null) {
+                    int missing = missingSlot(true);
+                    if (missing >= 0) {
+                        starting[missing] = true;
+                        startInBackground(missing);
+                    }
+                    return best;
+                }
+                // After a failed start, slots that just failed are left alone
+                slot = missingSlot(failure != null);
+                if (slot < 0) {
+                    if (!anyStarting()) {
+                        throw failure != null ? failure : new IllegalStateException("No geocoding worker available");
+                    }
+                    long remaining = waitUntil - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("No geocoding worker became ready");
+                    }
+                    try {
+                        workers.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for a geocoding worker", e);
+                    }
+                    continue;
+                }
+                starting[slot] = true;
+            }
+
+            try {
+                return startSlot(slot);
+            } catch (IllegalStateException e) {
+                failure = e;
+            }
+        }
+    }
+
+    // Called with the lock held
+    private boolean anyStarting() {
+        for (boolean slotStarting : starting) {
+            if (slotStarting) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Called with the lock held
+    private Worker leastBusy() {
+        Worker best = null;
+        for (Worker worker : workers) {
+            if (worker != null && worker.alive.get() && (best == null || worker.pending.size() < best.pending.size())) {
+                best = worker;
+            }
+        }
+        return best;
+    }
+
+    // Called with the lock held; a slot without a live worker that nobody is starting, or -1
+    private int missingSlot(boolean respectRetryDelay) {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < workers.length; i++) {
+            if (!starting[i] && (workers[i] == null || !workers[i].alive.get())
+                    && (!respectRetryDelay || now >= retryAfter[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void startInBackground(int slot) {
+        Thread starter = new Thread(() -> {
+            try {
+                startSlot(slot);
+            } catch (IllegalStateException e) {
+                LOGGER.log(Level.WARNING, "Could not start geocoding worker " + slot, e);
+            }
+        }, "geocoding-worker-start-" + slot);
+        starter.setDaemon(true);
+        starter.start();
+    }
+
+    // Starts a worker in a slot claimed with starting[slot], without holding the lock, and wakes waiting callers
+    private Worker startSlot(int slot) {
+        Worker worker = null;
+        try {
+            worker = start(slot);
+            return worker;
+        } finally {
+            synchronized (workers) {
+                if (worker != null) {
+                    workers[slot] = worker;
+                } else {
+                    retryAfter[slot] = System.currentTimeMillis() + RESTART_DELAY_MILLIS;
+                }
+                starting[slot] = false;
+                workers.notifyAll();
+            }
+        }
+    }
+
+    private Worker start(int slot) {
+        try {
+            ProcessBuilder builder = new ProcessBuilder(pythonExecutable, WORKER_SCRIPT);
+            builder.directory(scriptDir);
+            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            Worker worker = new Worker(slot, builder.start());
+            worker.awaitReady();
+            LOGGER.info("Started geocoding worker " + slot);
+            return worker;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start geocoding worker", e);
+        }
+    }
+
+    private final class Worker {
+        private final int slot;
+        private final Process process;
+        private final BufferedWriter input;
+        private final BufferedReader output;
+        private final Map<Long, CompletableFuture<JsonElement>> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean alive = new AtomicBoolean(true);
+        // When the last request sent is due, guarded by this
+        private long busyUntil;
+
+        Worker(int slot, Process process) {
+            this.slot = slot;
+            this.process = process;
+            this.input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        // Waits for the ready line the worker prints once its data is loaded, then starts reading answers
+        void awaitReady() throws IOException {
+            CompletableFuture<String> ready = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return output.readLine();
+                } catch (IOException e) {
+                    return null;
+                }
+            });
+            String line;
+            try {
+                line = ready.get(STARTUP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                line = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                line = null;
+            }
+            if (line == null || !line.contains("\"ready\"")) {
+                process.destroyForcibly();
+                alive.set(false);
+                throw new IOException("Geocoding worker did not become ready");
+            }
+
+            Thread reader = new Thread(this::readAnswers, "geocoding-worker-" + slot);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        // Returns when the request is due: its deadline after the requests ahead of it are due
+        synchronized long send(String request, long deadlineMillis) throws IOException {
+            if (!alive.get()) {
+                throw new IOException("Worker has stopped");
+            }
+            input.write(request);
+            input.newLine();
+            input.flush();
+            // pending already holds this request; with nothing else in flight its time starts now
+            long aheadDue = pending.size() > 1 ? busyUntil : 0;
+            busyUntil = Math.max(System.currentTimeMillis(), aheadDue) + deadlineMillis;
+            return busyUntil;
+        }
+
+        private void readAnswers() {
+            try {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    complete(line);
+                }
+                kill("it exited");
+            } catch (IOException e) {
+                kill("its output could not be read");
+            }
+        }
+
+        private void complete(String line) {
+            JsonObject answer;
+            try {
+                answer = JsonParser.parseString(line).getAsJsonObject();
+            } catch (RuntimeException e) {
+                LOGGER.warning("Ignoring malformed output of geocoding worker " + slot + ": " + line);
+                return;
+            }
+            JsonElement id = answer.get("id");
+            CompletableFuture<JsonElement> request = id != null && !id.isJsonNull() ? pending.get(id.getAsLong()) : null;
+            if (request == null) {
+                return;     // abandoned after its deadline
+            }
+            if (answer.has("error")) {
+                request.completeExceptionally(new IllegalStateException("Geocoding worker error: " + answer.get("error").getAsString()));
+            } else {
+                request.complete(answer.get("result"));
+            }
+        }
+
+        // Not synchronized: a send blocked on a hung worker's full pipe must not block its kill
+        void kill(String reason) {
+            if (!alive.compareAndSet(true, false)) {
+                return;
+            }
+            LOGGER.log(Level.WARNING, "Stopping geocoding worker " + slot + " because " + reason);
+            process.destroyForcibly();
+            IllegalStateException failure = new IllegalStateException("Geocoding worker stopped because " + reason);
+            for (CompletableFuture<JsonElement> request : pending.values()) {
+                request.completeExceptionally(failure);
+            }
+        }
+    }
+}
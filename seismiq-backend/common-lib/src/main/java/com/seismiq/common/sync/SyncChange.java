@@ -0,0 +1,49 @@
+package com.seismiq.common.sync;
+
+import java.util.Map;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * One entry of the sync index: the latest state of an item when it was indexed, or a
+ * tombstone if the item was deleted.
+ */
+public final class SyncChange {
+    private final String changeKey;
+    private final String entity;
+    private final String itemId;
+    private final Map<String, AttributeValue> item;
+
+    /**
+     * @param changeKey Position in the index: indexing time, then entity and id
+     * @param entity The kind of item: "reports", "earthquakes" or "landmarks"
+     * @param itemId The item's id
+     * @param item The item after the change, or null for a tombstone
+     */
+    public SyncChange(String changeKey, String entity, String itemId, Map<String, AttributeValue> item) {
+        this.changeKey = changeKey;
+        this.entity = entity;
+        this.itemId = itemId;
+        this.item = item;
+    }
+
+    public String getChangeKey() {
+        return changeKey;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public Map<String, AttributeValue> getItem() {
+        return item;
+    }
+
+    public boolean isDeleted() {
+        return item == null;
+    }
+}
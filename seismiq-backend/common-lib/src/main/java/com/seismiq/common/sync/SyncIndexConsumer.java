@@ -0,0 +1,62 @@
+package com.seismiq.common.sync;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.seismiq.common.cdc.ChangeBatch;
+import com.seismiq.common.cdc.ChangeEvent;
+import com.seismiq.common.cdc.ChangeEventConsumer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Indexes the changes of the reports, earthquakes and landmarks tables for delta sync.
+ * Inserts and updates store the new image; removals store a tombstone.
+ *
+ * <p>Entries are keyed by the time they are indexed, not the time of the change, so a batch
+ * the stream delivers late still lands after the positions clients already hold.</p>
+ */
+public class SyncIndexConsumer implements ChangeEventConsumer {
+    private static final Map<String, String> ENTITIES = Map.of(
+        "seismiq-Reports", "reports",
+        "seismiq-Earthquakes", "earthquakes",
+        "seismiq-Landmarks", "landmarks");
+
+    private final SyncIndexRepository syncIndex;
+
+    public SyncIndexConsumer(SyncIndexRepository syncIndex) {
+        this.syncIndex = syncIndex;
+    }
+
+    @Override
+    public void accept(ChangeBatch batch) {
+        Instant indexedAt = Instant.now();
+        // One entry per item and batch: its latest state is all a client needs
+        Map<String, SyncChange> changes = new LinkedHashMap<>();
+        for (ChangeEvent event : batch.getEvents()) {
+            String entity = ENTITIES.get(event.getTable());
+            if (entity == null || event.getKeys().isEmpty()) {
+                continue;
+            }
+            AttributeValue id = event.getKeys().values().iterator().next();
+            if (id.s() == null) {
+                continue;
+            }
+            Map<String, AttributeValue> item = event.getType() == ChangeEvent.Type.REMOVE ? null : event.getNewImage();
+            if (item == null && event.getType() != ChangeEvent.Type.REMOVE) {
+                continue;   // stream without new images; nothing to send
+            }
+            String itemKey = entity + "#" + id.s();
+            changes.remove(itemKey);
+            changes.put(itemKey, new SyncChange(
+                SyncIndexRepository.changeKey(indexedAt, entity, id.s()), entity, id.s(), item));
+        }
+
+        if (!changes.isEmpty()) {
+            syncIndex.record(new ArrayList<>(changes.values()));
+        }
+        batch.checkpointAll();
+    }
+}
@@ -0,0 +1,178 @@
+package com.seismiq.common.sync;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.seismiq.common.repository.DynamoDBRepository;
+import com.seismiq.common.repository.Page;
+import com.seismiq.common.util.TimeBuckets;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * The seismiq-SyncIndex table: every change to a report, earthquake or landmark, ordered by
+ * when it was indexed, with tombstones for deletions. Clients that keep a position in it can
+ * fetch only what changed since.
+ *
+ * <p>Entries are spread over {@link #SHARDS} partitions by item; the sort key changeKey starts
+ * with the indexing time, so a read queries each shard past the position and merges the results.
+ * Entries expire after {@link #RETENTION}.</p>
+ */
+public class SyncIndexRepository extends DynamoDBRepository {
+    public static final Duration RETENTION = Duration.ofDays(30);
+
+    static final int SHARDS = 4;
+
+    private static final int BATCH_WRITE_SIZE = 25;         // BatchWriteItem limit
+    // Fixed width, so positions sort by time as strings
+    private static final DateTimeFormatter POSITION_FORMATTER =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    public SyncIndexRepository() {
+        super("seismiq-SyncIndex");
+    }
+
+    SyncIndexRepository(DynamoDbClient dynamoDbClient) {
+        super("seismiq-SyncIndex", dynamoDbClient);
+    }
+
+    /**
+     * @return The position just before everything indexed at or after the instant
+     */
+    public static String position(Instant instant) {
+        return POSITION_FORMATTER.format(instant);
+    }
+
+    /**
+     * @return The instant a position was taken at
+     * @throws IllegalArgumentException if the position is malformed
+     */
+    public static Instant instantOf(String position) {
+        int end = position.indexOf('#');
+        try {
+            return Instant.from(POSITION_FORMATTER.parse(end < 0 ? position : position.substring(0, end)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync position");
+        }
+    }
+
+    /**
+     * Builds the index key of a change indexed at the given time.
+     */
+    public static String changeKey(Instant indexedAt, String entity, String itemId) {
+        return position(indexedAt) + "#" + entity + "#" + itemId;
+    }
+
+    /**
+     * Writes changes to the index with BatchWriteItem, in chunks of 25. Unprocessed items are
+     * retried with exponential backoff. Change keys must be unique within the list.
+     *
+     * @param changes The changes to index
+     * @throws IllegalStateException if some changes still could not be written
+     */
+    public void record(List<SyncChange> changes) {
+        long expiresAt = Instant.now().plus(RETENTION).getEpochSecond();
+        for (int from = 0; from < changes.size(); from += BATCH_WRITE_SIZE) {
+            List<WriteRequest> pending = new ArrayList<>();
+            for (SyncChange change : changes.subList(from, Math.min(from + BATCH_WRITE_SIZE, changes.size()))) {
+                pending.add(WriteRequest.builder()
+                    .putRequest(PutRequest.builder().item(toItem(change, expiresAt)).build())
+                    .build());
+            }
+
+            pending = batchWriteWithRetry(pending);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while writing the sync index");
+            }
+            if (!pending.isEmpty()) {
+                throw new IllegalStateException(pending.size() + " sync index entries could not be written, retries exhausted");
+            }
+        }
+    }
+
+    /**
+     * Reads the changes indexed after a position, oldest first. Each shard is read with a
+     * strongly consistent Query of up to limit entries; the merged result is cut at limit, and
+     * at the point where a shard that has more entries stopped.
+     *
+     * @param position The position to read after
+     * @param limit The most changes to return
+     * @return The changes, with the position of the last one as cursor if there are more
+     */
+    public Page<SyncChange> changesSince(String position, int limit) {
+        List<SyncChange> changes = new ArrayList<>();
+        // The smallest last key of a shard that has more entries: past it, that shard was not read
+        String readUpTo = null;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":shard", AttributeValue.builder().s(String.valueOf(shard)).build());
+            values.put(":position", AttributeValue.builder().s(position).build());
+            QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(tableName)
+                .keyConditionExpression("syncShard = :shard AND changeKey > :position")
+                .expressionAttributeValues(values)
+                .consistentRead(true)
+                .limit(limit)
+                .build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                changes.add(fromItem(item));
+            }
+            Map<String, AttributeValue> lastKey = response.lastEvaluatedKey();
+            if (lastKey != null && !lastKey.isEmpty()) {
+                String shardEnd = lastKey.get("changeKey").s();
+                if (readUpTo == null || shardEnd.compareTo(readUpTo) < 0) {
+                    readUpTo = shardEnd;
+                }
+            }
+        }
+
+        changes.sort(Comparator.comparing(SyncChange::getChangeKey));
+        int end = 0;
+        while (end < changes.size() && end < limit
+                && (readUpTo == null || changes.get(end).getChangeKey().compareTo(readUpTo) <= 0)) {
+            end++;
+        }
+        if (end == changes.size() && readUpTo == null) {
+            return new Page<>(changes, null);
+        }
+        List<SyncChange> page = new ArrayList<>(changes.subList(0, end));
+        return new Page<>(page, page.get(page.size() - 1).getChangeKey());
+    }
+
+    private static Map<String, AttributeValue> toItem(SyncChange change, long expiresAt) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        String shard = String.valueOf(TimeBuckets.shardOf(change.getEntity() + "#" + change.getItemId(), SHARDS));
+        item.put("syncShard", AttributeValue.builder().s(shard).build());
+        item.put("changeKey", AttributeValue.builder().s(change.getChangeKey()).build());
+        item.put("entity", AttributeValue.builder().s(change.getEntity()).build());
+        item.put("itemId", AttributeValue.builder().s(change.getItemId()).build());
+        if (change.isDeleted()) {
+            item.put("deleted", AttributeValue.builder().bool(true).build());
+        } else {
+            item.put("item", AttributeValue.builder().m(change.getItem()).build());
+        }
+        item.put("expiresAt", AttributeValue.builder().n(String.valueOf(expiresAt)).build());
+        return item;
+    }
+
+    private static SyncChange fromItem(Map<String, AttributeValue> item) {
+        AttributeValue image = item.get("item");
+        return new SyncChange(
+            item.get("changeKey").s(),
+            item.get("entity").s(),
+            item.get("itemId").s(),
+            image != null && image.hasM() ? image.m() : null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.seismiq.common.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Converts sync index positions to and from the opaque, URL-safe tokens handed to clients.
+ */
+public final class SyncToken {
+    private static final String VERSION = "v1:";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private SyncToken() {}
+
+    /**
+     * @param position A sync index position
+     * @return The token
+     */
+    public static String encode(String position) {
+        return ENCODER.encodeToString((VERSION + position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token A token previously produced by {@link #encode(String)}, may be null or blank
+     * @return The position, or null if no token was given
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static String decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(DECODER.decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+        if (!decoded.startsWith(VERSION) || decoded.length() == VERSION.length()) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+        return decoded.substring(VERSION.length());
+    }
+}
@@ -0,0 +1,148 @@
+package com.seismiq.common.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.seismiq.common.repository.Page;
+
+/**
+ * A sparse fieldset requested with a {@code fields=a,b,c} query parameter.
+ * The same selection is used twice: as a DynamoDB ProjectionExpression so that only the
+ * needed attributes are read, and as a JSON filter so that only the requested fields are
+ * sent back. Fields are top-level JSON property names of the model; each entity declares
+ * which JSON fields exist and which DynamoDB attributes they are stored in.
+ */
+public final class FieldSelection {
+    private final Set<String> fields;
+    private final String projectionExpression;
+    private final Map<String, String> expressionAttributeNames;
+
+    private FieldSelection(Set<String> fields, Set<String> attributes) {
+        this.fields = fields;
+
+        Map<String, String> names = new LinkedHashMap<>();
+        List<String> placeholders = new ArrayList<>();
+        for (String attribute : attributes) {
+            String placeholder = "#f" + names.size();
+            names.put(placeholder, attribute);
+            placeholders.add(placeholder);
+        }
+        this.projectionExpression = String.join(", ", placeholders);
+        this.expressionAttributeNames = names;
+    }
+
+    /**
+     * Parses a fields parameter.
+     *
+     * @param fieldsParam The comma-separated field names, may be null
+     * @param attributeNames The selectable JSON fields mapped to their DynamoDB attribute names
+     * @param requiredAttributes Attributes that are always read (keys and anything the mapper needs)
+     * @return The selection, or null if no fields were requested (meaning all fields)
+     * @throws IllegalArgumentException if a field is not selectable
+     */
+    public static FieldSelection parse(String fieldsParam, Map<String, String> attributeNames, String... requiredAttributes) {
+        if (fieldsParam == null || fieldsParam.isBlank()) {
+            return null;
+        }
+
+        Set<String> fields = new LinkedHashSet<>();
+        Set<String> attributes = new LinkedHashSet<>(List.of(requiredAttributes));
+        for (String field : fieldsParam.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String attribute = attributeNames.get(name);
+            if (attribute == null) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            fields.add(name);
+            attributes.add(attribute);
+        }
+
+        return fields.isEmpty() ? null : new FieldSelection(fields, attributes);
+    }
+
+    /**
+     * @return The ProjectionExpression, using the placeholders from expressionAttributeNames
+     */
+    public String projectionExpression() {
+        return projectionExpression;
+    }
+
+    /**
+     * @return The placeholder to attribute name map for the ProjectionExpression
+     */
+    public Map<String, String> expressionAttributeNames() {
+        return expressionAttributeNames;
+    }
+
+    /**
+     * Merges the projection placeholders into a request's existing attribute names.
+     *
+     * @param existing The names already used by the request, may be null or empty
+     * @return The combined names
+     */
+    public Map<String, String> mergeAttributeNames(Map<String, String> existing) {
+        Map<String, String> names = new LinkedHashMap<>();
+        if (existing != null) {
+            names.putAll(existing);
+        }
+        names.putAll(expressionAttributeNames);
+        return names;
+    }
+
+    /**
+     * Serializes a value and keeps only the selected fields.
+     * Lists are filtered element by element and a {@link Page} keeps its cursor while its items are filtered.
+     *
+     * @param gson The Gson instance to serialize with
+     * @param value A model object, a list of model objects or a page of them
+     * @return The trimmed JSON
+     */
+    public String toJson(Gson gson, Object value) {
+        JsonElement tree = gson.toJsonTree(value);
+        if (value instanceof Page && tree.isJsonObject() && tree.getAsJsonObject().has("items")) {
+            JsonObject page = tree.getAsJsonObject();
+            page.add("items", trim(page.get("items")));
+            return gson.toJson(page);
+        }
+        return gson.toJson(trim(tree));
+    }
+
+    /**
+     * Keeps only the selected fields of a serialized model object, or of each element of an array.
+     *
+     * @param element The serialized value
+     * @return The trimmed value; anything that is not an object or array is returned as is
+     */
+    public JsonElement trim(JsonElement element) {
+        if (element.isJsonArray()) {
+            JsonArray trimmed = new JsonArray();
+            for (JsonElement child : element.getAsJsonArray()) {
+                trimmed.add(trim(child));
+            }
+            return trimmed;
+        }
+        if (!element.isJsonObject()) {
+            return element;
+        }
+
+        JsonObject source = element.getAsJsonObject();
+        JsonObject trimmed = new JsonObject();
+        for (String field : fields) {
+            if (source.has(field)) {
+                trimmed.add(field, source.get(field));
+            }
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,147 @@
+package com.seismiq.common.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import ch.hsr.geohash.GeoHash;
+
+/**
+ * Geographic helpers shared by the services: great-circle distances and
+ * geohash cells covering a search radius.
+ */
+public final class GeoUtils {
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private GeoUtils() {}
+
+    /**
+     * Calculates the great-circle distance between two points with the haversine formula.
+     *
+     * @return The distance in kilometers
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * Encodes a point as a base32 geohash.
+     *
+     * @param latitude The latitude in degrees
+     * @param longitude The longitude in degrees
+     * @param precision The number of geohash characters
+     * @return The geohash
+     */
+    public static String geohash(double latitude, double longitude, int precision) {
+        return GeoHash.withCharacterPrecision(latitude, longitude, precision).toBase32();
+    }
+
+    /**
+     * Height of a geohash cell in degrees of latitude.
+     */
+    public static double cellHeightDegrees(int precision) {
+        int latBits = (precision * 5) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    /**
+     * Width of a geohash cell in degrees of longitude.
+     */
+    public static double cellWidthDegrees(int precision) {
+        int lonBits = (precision * 5 + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+
+    /**
+     * Picks the longest geohash precision (within the given bounds) whose cells are
+     * still at least as tall as the radius, so a circle is covered by a handful of cells.
+     *
+     * @param radiusKm The search radius in kilometers
+     * @param minPrecision The shortest precision allowed
+     * @param maxPrecision The longest precision allowed
+     * @return The geohash precision to search with
+     */
+    public static int precisionForRadius(double radiusKm, int minPrecision, int maxPrecision) {
+        for (int precision = maxPrecision; precision > minPrecision; precision--) {
+            if (cellHeightDegrees(precision) * KM_PER_DEGREE_LAT >= radiusKm) {
+                return precision;
+            }
+        }
+        return minPrecision;
+    }
+
+    /**
+     * Returns the geohash cells that together cover the bounding box of a circle.
+     * Points inside the circle always fall in one of the returned cells; callers should
+     * still filter candidates by exact distance because the cells also cover the box corners.
+     *
+     * @param latitude The latitude of the center in degrees
+     * @param longitude The longitude of the center in degrees
+     * @param radiusKm The radius in kilometers
+     * @param precision The geohash precision of the returned cells
+     * @return The covering cells, without duplicates
+     */
+    public static List<String> coveringCells(double latitude, double longitude, double radiusKm, int precision) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double lonDelta = cosLat < 1e-6 ? 180.0 : Math.min(180.0, radiusKm / (KM_PER_DEGREE_LAT * cosLat));
+
+        return coveringCells(latitude - latDelta, longitude - lonDelta, latitude + latDelta, longitude + lonDelta, precision);
+    }
+
+    /**
+     * Returns the geohash cells that together cover a bounding box.
+     *
+     * @param minLat The southern edge in degrees
+     * @param minLon The western edge in degrees
+     * @param maxLat The northern edge in degrees
+     * @param maxLon The eastern edge in degrees
+     * @param precision The geohash precision of the returned cells
+     * @return The covering cells, without duplicates
+     */
+    public static List<String> coveringCells(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        minLat = Math.max(-90.0, minLat);
+        maxLat = Math.min(90.0, maxLat);
+        minLon = Math.max(-180.0, minLon);
+        maxLon = Math.min(180.0, maxLon);
+
+        // Step by one cell so every cell overlapping the box gets sampled, and always sample the far edges
+        double latStep = cellHeightDegrees(precision);
+        double lonStep = cellWidthDegrees(precision);
+        List<Double> lats = steps(minLat, maxLat, latStep);
+        List<Double> lons = steps(minLon, maxLon, lonStep);
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat : lats) {
+            for (double lon : lons) {
+                cells.add(geohash(lat, lon, precision));
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+
+    /**
+     * Estimates how many geohash cells cover a bounding box, without listing them.
+     */
+    public static long countCoveringCells(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        long rows = (long) Math.ceil((Math.min(90.0, maxLat) - Math.max(-90.0, minLat)) / cellHeightDegrees(precision)) + 1;
+        long columns = (long) Math.ceil((Math.min(180.0, maxLon) - Math.max(-180.0, minLon)) / cellWidthDegrees(precision)) + 1;
+        return rows * columns;
+    }
+
+    private static List<Double> steps(double min, double max, double step) {
+        List<Double> values = new ArrayList<>();
+        for (double value = min; value < max; value += step) {
+            values.add(value);
+        }
+        values.add(max);
+        return values;
+    }
+}
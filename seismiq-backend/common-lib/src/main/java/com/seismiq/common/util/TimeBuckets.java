@@ -0,0 +1,66 @@
+package com.seismiq.common.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-sharded time bucket keys for time-ordered indexes.
+ * A bucket key is the day of an item timestamp plus a shard suffix derived from the item id
+ * (for example "2025-02-06#3"), so that a burst of writes in the same moment is spread
+ * over several index partitions instead of landing on a single hot one.
+ * Readers query every shard of every day in a range and merge the results.
+ */
+public final class TimeBuckets {
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private TimeBuckets() {}
+
+    /**
+     * Picks the shard for an item. The same id always maps to the same shard.
+     *
+     * @param id The item id
+     * @param shards The number of shards per bucket
+     * @return The shard number, from 0 to shards - 1
+     */
+    public static int shardOf(String id, int shards) {
+        return Math.floorMod(id.hashCode(), shards);
+    }
+
+    /**
+     * Builds the bucket key for a day and shard.
+     */
+    public static String bucketKey(LocalDate day, int shard) {
+        return day.format(DAY_FORMATTER) + "#" + shard;
+    }
+
+    /**
+     * Builds the bucket key for an item.
+     *
+     * @param timestamp The item timestamp
+     * @param id The item id
+     * @param shards The number of shards per bucket
+     * @return The bucket key
+     */
+    public static String bucketKey(LocalDateTime timestamp, String id, int shards) {
+        return bucketKey(timestamp.toLocalDate(), shardOf(id, shards));
+    }
+
+    /**
+     * Lists the days touched by a time range, newest first.
+     *
+     * @param start The start of the range (inclusive)
+     * @param end The end of the range (inclusive)
+     * @return The days from end back to start, empty if end is before start
+     */
+    public static List<LocalDate> daysNewestFirst(LocalDateTime start, LocalDateTime end) {
+        List<LocalDate> days = new ArrayList<>();
+        LocalDate first = start.toLocalDate();
+        for (LocalDate day = end.toLocalDate(); !day.isBefore(first); day = day.minusDays(1)) {
+            days.add(day);
+        }
+        return days;
+    }
+}
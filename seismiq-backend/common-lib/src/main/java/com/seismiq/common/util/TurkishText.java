@@ -0,0 +1,68 @@
+package com.seismiq.common.util;
+
+import java.util.Locale;
+
+/**
+ * Text normalization helpers for Turkish place names and free text.
+ * Lower-casing uses the Turkish locale so that "İ" becomes "i" and "I" becomes "ı",
+ * then Turkish and circumflexed letters are folded to their ASCII base letters so that
+ * "İstanbul", "ISTANBUL" and "istanbul" all produce the same key.
+ */
+public final class TurkishText {
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    private TurkishText() {}
+
+    /**
+     * Lower-cases text using Turkish casing rules.
+     *
+     * @param text The text to casefold, may be null
+     * @return The casefolded text, or null if the input was null
+     */
+    public static String casefold(String text) {
+        return text == null ? null : text.toLowerCase(TURKISH);
+    }
+
+    /**
+     * Folds Turkish and circumflexed letters to ASCII (ç→c, ğ→g, ı→i, ö→o, ş→s, ü→u, â→a, î→i, û→u).
+     * The input is expected to be lower-case already.
+     *
+     * @param text The text to fold, may be null
+     * @return The folded text, or null if the input was null
+     */
+    public static String foldDiacritics(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case 'ç' -> folded.append('c');
+                case 'ğ' -> folded.append('g');
+                case 'ı', 'î' -> folded.append('i');
+                case 'ö' -> folded.append('o');
+                case 'ş' -> folded.append('s');
+                case 'ü', 'û' -> folded.append('u');
+                case 'â' -> folded.append('a');
+                case '\u0307' -> { } // combining dot left over from lower-casing a decomposed "İ"
+                default -> folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Builds the lookup key used for city and province indexes:
+     * Turkish casefolding, diacritic folding, trimmed with inner whitespace collapsed.
+     *
+     * @param text The place name, may be null
+     * @return The normalized key, or null if the input was null or blank
+     */
+    public static String normalizeKey(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return foldDiacritics(casefold(text.trim())).replaceAll("\\s+", " ");
+    }
+}
@@ -5,6 +5,8 @@ SeismIQ Geocoding Utilities
 Simple utility functions for bidirectional geocoding:
 - find_coordinates_from_name(city_name, province_name=None)
 - find_location_from_coordinates(lat, lon)
+- find_coordinates_from_names(names) and find_locations_from_coordinates(coordinates),
+  which resolve a whole batch in one call
 
 Lightweight wrapper around the same GeoNames data used in kandilli_scrape.py
 Can be imported and used in other Python modules.
@@ -29,7 +31,7 @@ import pandas as pd
 import numpy as np
 from sklearn.neighbors import BallTree
 import re
-from typing import Optional, Dict
+from typing import Optional, Dict, List
 
 # Constants
 WORLD_RADIUS_KM = 6371
@@ -345,6 +347,69 @@ def find_location_from_coordinates(lat: float, lon: float) -> Optional[Dict]:
         return None
 
 
+def find_coordinates_from_names(names: List) -> List[Optional[Dict]]:
+    """
+    Forward geocode many names in one call
+
+    Args:
+        names: [city_name, province_name] pairs; province_name may be None
+
+    Returns:
+        One result of find_coordinates_from_name per pair, in input order.
+        Repeated pairs are looked up once.
+    """
+    _load_data()
+
+    results = {}
+    for city_name, province_name in names:
+        key = (city_name, province_name)
+        if key not in results:
+            results[key] = find_coordinates_from_name(city_name, province_name)
+    return [results[(city_name, province_name)]
+            for city_name, province_name in names]
+
+
+def find_locations_from_coordinates(coordinates: List) -> List[Optional[Dict]]:
+    """
+    Reverse geocode many points with a single BallTree query
+
+    Args:
+        coordinates: [lat, lon] pairs in decimal degrees
+
+    Returns:
+        One result of find_location_from_coordinates per pair, in input order
+    """
+    global _ball_tree, _cities_data
+
+    _load_data()
+
+    if not coordinates:
+        return []
+    if _ball_tree is None or _cities_data is None:
+        return [None] * len(coordinates)
+
+    try:
+        coords_rad = np.radians(np.asarray(coordinates, dtype=float))
+        distance_rad, city_index = _ball_tree.query(coords_rad, k=1)
+    except Exception:
+        return [None] * len(coordinates)
+
+    results = []
+    for distance, idx in zip(distance_rad[:, 0], city_index[:, 0]):
+        city_row = _cities_data.iloc[idx]
+        results.append({
+            'city': str(city_row['name']),
+            'province': _get_province_name(str(city_row.get('admin1_code',
+                                                            ''))),
+            'distance_km': float(distance * WORLD_RADIUS_KM),
+            'feature_code': str(city_row.get('feature_code', '')),
+            'population': int(city_row.get('population', 0)),
+            'latitude': float(city_row['latitude']),
+            'longitude': float(city_row['longitude'])
+        })
+    return results
+
+
 # Convenience aliases for easier usage
 geocode_forward = find_coordinates_from_name
 geocode_reverse = find_location_from_coordinates
@@ -0,0 +1,60 @@
+#!/usr/bin/env python3
+"""
+SeismIQ Geocoding Worker
+
+A long-lived process that answers geocoding requests over stdin/stdout, one
+JSON object per line, so the GeoNames data and BallTree are loaded once
+instead of on every call.
+
+Protocol:
+    <- {"ready": true}                                        once the data is loaded
+    -> {"id": 7, "function": "find_location_from_coordinates", "args": [41.0, 29.0]}
+    <- {"id": 7, "result": {...}}                             or {"id": 7, "error": "..."}
+
+Requests are answered in order. Anything the geocoding code prints goes to
+stderr, so stdout only ever carries protocol lines.
+"""
+
+import json
+import sys
+
+import seismiq_geocoding_utils as utils
+
+FUNCTIONS = {
+    "find_coordinates_from_name": utils.find_coordinates_from_name,
+    "find_location_from_coordinates": utils.find_location_from_coordinates,
+    "find_coordinates_from_names": utils.find_coordinates_from_names,
+    "find_locations_from_coordinates": utils.find_locations_from_coordinates,
+}
+
+
+def _respond(out, message):
+    out.write(json.dumps(message) + "\n")
+    out.flush()
+
+
+def main():
+    out = sys.stdout
+    sys.stdout = sys.stderr
+
+    utils._load_data()
+    _respond(out, {"ready": True})
+
+    for line in sys.stdin:
+        line = line.strip()
+        if not line:
+            continue
+        request_id = None
+        try:
+            request = json.loads(line)
+            request_id = request.get("id")
+            function = FUNCTIONS.get(request.get("function"))
+            if function is None:
+                raise ValueError("Unknown function: %s" % request.get("function"))
+            _respond(out, {"id": request_id, "result": function(*request.get("args", []))})
+        except Exception as e:
+            _respond(out, {"id": request_id, "error": "%s: %s" % (type(e).__name__, e)})
+
+
+if __name__ == "__main__":
+    main()
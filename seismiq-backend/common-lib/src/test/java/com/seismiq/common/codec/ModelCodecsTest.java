@@ -0,0 +1,223 @@
+package com.seismiq.common.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.seismiq.common.model.Category;
+import com.seismiq.common.model.Report;
+import com.seismiq.common.model.User;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+class ModelCodecsTest {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+
+    @Test
+    void reportDecodesLikeTheLegacyMapper() {
+        for (int i = 0; i < 20; i++) {
+            Map<String, AttributeValue> item = sampleItem(i);
+            assertSameReport(legacyMapToReport(item), ModelCodecs.REPORT.decode(item));
+        }
+    }
+
+    @Test
+    void reportDecodesSparseItemsLikeTheLegacyMapper() {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("reportId", s("report-sparse"));
+        item.put("timestamp", s("2025-02-06T04:17:00"));
+        item.put("category", AttributeValue.builder().m(Map.of("categoryID", s("fire"))).build());
+        item.put("latitude", AttributeValue.builder().n("38.5").build());
+
+        Report legacy = legacyMapToReport(item);
+        Report decoded = ModelCodecs.REPORT.decode(item);
+        assertSameReport(legacy, decoded);
+        assertNull(decoded.getCategory());
+        assertEquals(Report.ReportStatus.PENDING, decoded.getStatus());
+        assertEquals(decoded.getTimestamp(), decoded.getLastUpdated());
+    }
+
+    @Test
+    void reportRoundTrips() {
+        Report report = ModelCodecs.REPORT.decode(sampleItem(7));
+        report.setVersion(3L);
+        report.setDuplicateCount(2);
+        report.setGeocodeStatus(Report.GeocodeStatus.PENDING);
+
+        Map<String, AttributeValue> item = ModelCodecs.REPORT.encode(report);
+        Report decoded = ModelCodecs.REPORT.decode(item);
+
+        assertSameReport(report, decoded);
+        assertEquals(3L, decoded.getVersion());
+        assertEquals(2, decoded.getDuplicateCount());
+        assertEquals(Report.GeocodeStatus.PENDING, decoded.getGeocodeStatus());
+        assertEquals(report.getLastUpdated(), decoded.getLastUpdated());
+    }
+
+    @Test
+    void nullFieldsAreLeftOutOfTheItem() {
+        Report report = new Report();
+        report.setReportId("report-1");
+
+        Map<String, AttributeValue> item = ModelCodecs.REPORT.encode(report);
+
+        assertTrue(item.containsKey("reportId"));
+        assertFalse(item.containsKey("user"));
+        assertFalse(item.containsKey("category"));
+        assertFalse(item.containsKey("description"));
+        assertNull(ModelCodecs.REPORT.decode(null));
+    }
+
+    private static void assertSameReport(Report expected, Report actual) {
+        assertEquals(expected.getReportId(), actual.getReportId());
+        if (expected.getUser() == null) {
+            assertNull(actual.getUser());
+        } else {
+            assertEquals(expected.getUser().getUserId(), actual.getUser().getUserId());
+            assertEquals(expected.getUser().getName(), actual.getUser().getName());
+            assertEquals(expected.getUser().getAddress(), actual.getUser().getAddress());
+            assertEquals(expected.getUser().isVolunteer(), actual.getUser().isVolunteer());
+            assertEquals(expected.getUser().isSocialWorker(), actual.getUser().isSocialWorker());
+        }
+        if (expected.getCategory() == null) {
+            assertNull(actual.getCategory());
+        } else {
+            assertEquals(expected.getCategory().getCategoryID(), actual.getCategory().getCategoryID());
+            assertEquals(expected.getCategory().getCategoryType(), actual.getCategory().getCategoryType());
+        }
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getLocation(), actual.getLocation());
+        assertEquals(expected.isCurrentLocation(), actual.isCurrentLocation());
+        assertEquals(expected.getLatitude(), actual.getLatitude());
+        assertEquals(expected.getLongitude(), actual.getLongitude());
+        assertEquals(expected.getLocationDescription(), actual.getLocationDescription());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getCity(), actual.getCity());
+        assertEquals(expected.getProvince(), actual.getProvince());
+    }
+
+    private static Map<String, AttributeValue> sampleItem(int i) {
+        Map<String, AttributeValue> user = new HashMap<>();
+        user.put("userId", s("user-" + (i % 1000)));
+        user.put("name", s("Kullanıcı " + i));
+        user.put("address", s("Pazarcık, Kahramanmaraş"));
+        user.put("isVolunteer", AttributeValue.builder().bool(i % 2 == 0).build());
+        user.put("isSocialWorker", AttributeValue.builder().bool(false).build());
+
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("reportId", s("report-" + i));
+        item.put("userId", s("user-" + (i % 1000)));
+        item.put("user", AttributeValue.builder().m(user).build());
+        item.put("category", AttributeValue.builder().m(Map.of(
+            "categoryID", s("medical_help"),
+            "categoryType", s("MEDICAL_HELP"))).build());
+        item.put("description", s("Enkaz altında yardım bekleyen kişiler var " + i));
+        item.put("location", s("Kahramanmaraş, Pazarcık"));
+        item.put("isCurrentLocation", AttributeValue.builder().bool(i % 3 == 0).build());
+        item.put("latitude", AttributeValue.builder().n(String.valueOf(37.0 + (i % 1000) / 1000.0)).build());
+        item.put("longitude", AttributeValue.builder().n(String.valueOf(37.0 + (i % 997) / 1000.0)).build());
+        item.put("locationDescription", s("Pazarcık, Kahramanmaraş"));
+        item.put("status", s(i % 2 == 0 ? "PENDING" : "COMPLETED"));
+        String timestamp = LocalDateTime.of(2025, 2, 6, 4, 17).plusSeconds(i).format(DATE_FORMATTER);
+        item.put("timestamp", s(timestamp));
+        item.put("lastUpdated", s(timestamp));
+        item.put("city", s("Pazarcık"));
+        item.put("province", s("Kahramanmaraş"));
+        return item;
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    // The report repository's mapper before ModelCodecs, as in the test-runner CodecBenchmark
+    private static Report legacyMapToReport(Map<String, AttributeValue> item) {
+        User user = null;
+        if (item.containsKey("user") && item.get("user").m() != null) {
+            Map<String, AttributeValue> userMap = item.get("user").m();
+            user = new User();
+            if (userMap.containsKey("userId") && userMap.get("userId") != null) {
+                user.setUserId(userMap.get("userId").s());
+            }
+            if (userMap.containsKey("name") && userMap.get("name") != null) {
+                user.setName(userMap.get("name").s());
+            }
+            if (userMap.containsKey("address") && userMap.get("address") != null) {
+                user.setAddress(userMap.get("address").s());
+            }
+            if (userMap.containsKey("isVolunteer") && userMap.get("isVolunteer") != null) {
+                user.setVolunteer(userMap.get("isVolunteer").bool());
+            }
+            if (userMap.containsKey("isSocialWorker") && userMap.get("isSocialWorker") != null) {
+                user.setSocialWorker(userMap.get("isSocialWorker").bool());
+            }
+        }
+
+        Category category = null;
+        if (item.containsKey("category") && item.get("category").m() != null) {
+            Map<String, AttributeValue> categoryMap = item.get("category").m();
+            if (categoryMap.containsKey("categoryID") && categoryMap.get("categoryID") != null &&
+                categoryMap.containsKey("categoryType") && categoryMap.get("categoryType") != null) {
+                category = new Category(
+                    categoryMap.get("categoryID").s(),
+                    categoryMap.get("categoryType").s()
+                );
+            }
+        }
+
+        LocalDateTime timestamp = LocalDateTime.now();
+        if (item.containsKey("timestamp") && item.get("timestamp") != null) {
+            try {
+                timestamp = LocalDateTime.parse(item.get("timestamp").s(), DATE_FORMATTER);
+            } catch (Exception e) {
+                timestamp = LocalDateTime.now();
+            }
+        }
+
+        Report report = new Report(
+            item.get("reportId").s(),
+            user,
+            category,
+            item.containsKey("description") && item.get("description") != null ? item.get("description").s() : null,
+            item.containsKey("location") && item.get("location") != null ? item.get("location").s() : null,
+            item.containsKey("isCurrentLocation") && item.get("isCurrentLocation") != null && item.get("isCurrentLocation").bool(),
+            item.containsKey("status") && item.get("status") != null ? Report.ReportStatus.valueOf(item.get("status").s()) : Report.ReportStatus.PENDING,
+            timestamp
+        );
+
+        if (item.containsKey("latitude") && item.get("latitude") != null) {
+            try {
+                report.setLatitude(Double.parseDouble(item.get("latitude").n()));
+            } catch (Exception e) {
+                // Leave as default 0.0
+            }
+        }
+        if (item.containsKey("longitude") && item.get("longitude") != null) {
+            try {
+                report.setLongitude(Double.parseDouble(item.get("longitude").n()));
+            } catch (Exception e) {
+                // Leave as default 0.0
+            }
+        }
+        if (item.containsKey("locationDescription") && item.get("locationDescription") != null) {
+            report.setLocationDescription(item.get("locationDescription").s());
+        }
+        if (item.containsKey("city") && item.get("city") != null) {
+            report.setCity(item.get("city").s());
+        }
+        if (item.containsKey("province") && item.get("province") != null) {
+            report.setProvince(item.get("province").s());
+        }
+
+        return report;
+    }
+}
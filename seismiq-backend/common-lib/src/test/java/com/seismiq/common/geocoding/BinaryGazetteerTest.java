@@ -0,0 +1,85 @@
+package com.seismiq.common.geocoding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BinaryGazetteerTest {
+    private byte[] file;
+    private BinaryGazetteer gazetteer;
+
+    @BeforeEach
+    void writeAndReadBack() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryGazetteerWriter.write(TestPlaces.gazetteer(), out);
+        file = out.toByteArray();
+        gazetteer = new BinaryGazetteer(ByteBuffer.wrap(file));
+    }
+
+    @Test
+    void roundTripKeepsEveryPlace() {
+        assertEquals(TestPlaces.ALL.size(), gazetteer.size());
+        List<GazetteerPlace> read = sorted(gazetteer.toGazetteer().getPlaces());
+        List<GazetteerPlace> written = sorted(TestPlaces.ALL);
+        for (int i = 0; i < written.size(); i++) {
+            GazetteerPlace expected = written.get(i);
+            GazetteerPlace actual = read.get(i);
+            assertEquals(expected.getGeonameId(), actual.getGeonameId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getAsciiName(), actual.getAsciiName());
+            assertEquals(expected.getAlternateNames(), actual.getAlternateNames());
+            assertEquals(expected.getFeatureCode(), actual.getFeatureCode());
+            assertEquals(expected.getAdmin1Code(), actual.getAdmin1Code());
+            assertEquals(expected.getPopulation(), actual.getPopulation());
+            // Coordinates are stored as floats
+            assertEquals(expected.getLatitude(), actual.getLatitude(), 1e-5);
+            assertEquals(expected.getLongitude(), actual.getLongitude(), 1e-5);
+        }
+    }
+
+    @Test
+    void nearestFindsTheClosestPlace() {
+        assertEquals(TestPlaces.KADIKOY.getGeonameId(), placeNear(40.98, 29.05).getGeonameId());
+        assertEquals(TestPlaces.ANKARA.getGeonameId(), placeNear(39.95, 32.80).getGeonameId());
+        assertEquals(TestPlaces.YENICE_KARABUK.getGeonameId(), placeNear(41.19, 32.30).getGeonameId());
+    }
+
+    @Test
+    void findMatchesExactNamesPreferringTheProvince() {
+        assertEquals(TestPlaces.ISTANBUL.getGeonameId(), placeNamed("ISTANBUL", null).getGeonameId());
+        assertEquals(TestPlaces.ANKARA.getGeonameId(), placeNamed("angora", null).getGeonameId());
+        assertEquals(TestPlaces.YENICE_CANAKKALE.getGeonameId(), placeNamed("Yenice", null).getGeonameId());
+        assertEquals(TestPlaces.YENICE_KARABUK.getGeonameId(), placeNamed("Yenice", "Karabük").getGeonameId());
+        assertEquals(-1, gazetteer.find("Izmr", null));
+    }
+
+    @Test
+    void otherFilesAreRejected() {
+        byte[] corrupt = file.clone();
+        corrupt[0] = 0;
+        assertThrows(IllegalArgumentException.class, () -> new BinaryGazetteer(ByteBuffer.wrap(corrupt)));
+        byte[] truncated = Arrays.copyOf(file, file.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> new BinaryGazetteer(ByteBuffer.wrap(truncated)));
+    }
+
+    private GazetteerPlace placeNear(double latitude, double longitude) {
+        return gazetteer.getPlace(gazetteer.nearest(latitude, longitude));
+    }
+
+    private GazetteerPlace placeNamed(String name, String province) {
+        return gazetteer.getPlace(gazetteer.find(name, province));
+    }
+
+    private static List<GazetteerPlace> sorted(List<GazetteerPlace> places) {
+        return places.stream().sorted(Comparator.comparingLong(GazetteerPlace::getGeonameId)).toList();
+    }
+}
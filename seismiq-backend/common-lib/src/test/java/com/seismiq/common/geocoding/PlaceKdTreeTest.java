@@ -0,0 +1,51 @@
+package com.seismiq.common.geocoding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.seismiq.common.util.GeoUtils;
+
+class PlaceKdTreeTest {
+
+    @Test
+    void nearestMatchesABruteForceSearch() {
+        Random random = new Random(42);
+        int size = 2000;
+        double[] lats = new double[size];
+        double[] lons = new double[size];
+        for (int i = 0; i < size; i++) {
+            lats[i] = 36 + random.nextDouble() * 6;
+            lons[i] = 26 + random.nextDouble() * 19;
+        }
+        PlaceKdTree tree = new PlaceKdTree(lats, lons);
+        assertEquals(size, tree.size());
+
+        for (int q = 0; q < 500; q++) {
+            double lat = 35 + random.nextDouble() * 8;
+            double lon = 25 + random.nextDouble() * 21;
+            int expected = 0;
+            for (int i = 1; i < size; i++) {
+                if (GeoUtils.haversineKm(lat, lon, lats[i], lons[i])
+                        < GeoUtils.haversineKm(lat, lon, lats[expected], lons[expected])) {
+                    expected = i;
+                }
+            }
+            assertEquals(expected, tree.nearest(lat, lon));
+        }
+    }
+
+    @Test
+    void nearestWrapsAroundTheAntimeridian() {
+        PlaceKdTree tree = new PlaceKdTree(new double[] {10, 10, 10}, new double[] {179.9, 170.0, -170.0});
+        assertEquals(0, tree.nearest(10, -179.9));
+        assertEquals(2, tree.nearest(10, -171));
+    }
+
+    @Test
+    void emptyTreeHasNoNearestPoint() {
+        assertEquals(-1, new PlaceKdTree(new double[0], new double[0]).nearest(39, 35));
+    }
+}
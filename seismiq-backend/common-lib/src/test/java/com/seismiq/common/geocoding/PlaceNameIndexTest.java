@@ -0,0 +1,62 @@
+package com.seismiq.common.geocoding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PlaceNameIndexTest {
+    private final PlaceNameIndex index = new PlaceNameIndex(TestPlaces.gazetteer());
+
+    @Test
+    void normalizeFoldsTurkishLettersAndDropsPunctuation() {
+        assertEquals("istanbul", PlaceNameIndex.normalize("İSTANBUL"));
+        assertEquals("kadikoy", PlaceNameIndex.normalize("Kadı-köy"));
+        assertEquals("", PlaceNameIndex.normalize(null));
+    }
+
+    @Test
+    void findMatchesNamesAsciiNamesAndAlternates() {
+        assertEquals(TestPlaces.ISTANBUL, index.find("istanbul", null));
+        assertEquals(TestPlaces.KADIKOY, index.find("Kadikoy", null));
+        assertEquals(TestPlaces.ANKARA, index.find("Angora", null));
+    }
+
+    @Test
+    void findPrefersThePlaceInTheGivenProvince() {
+        assertEquals(TestPlaces.YENICE_CANAKKALE, index.find("Yenice", null));
+        assertEquals(TestPlaces.YENICE_KARABUK, index.find("Yenice", "Karabük"));
+        assertEquals(TestPlaces.YENICE_CANAKKALE, index.find("Yenice", "Çanakkale"));
+    }
+
+    @Test
+    void findToleratesTyposByNameLength() {
+        assertEquals(1, PlaceNameIndex.maxDistance(7));
+        assertEquals(TestPlaces.IZMIR, index.find("Izmr", null));
+        assertEquals(TestPlaces.KADIKOY, index.find("Kaddikoyy", null));
+        assertNull(index.find("Ank", null));
+    }
+
+    @Test
+    void findFallsBackToTheProvince() {
+        assertEquals(TestPlaces.IZMIR, index.find("Nowhere", "İzmir"));
+        assertNull(index.find("Nowhere", null));
+    }
+
+    @Test
+    void completeRanksByFeatureThenPopulation() {
+        assertEquals(List.of(TestPlaces.KARABUK, TestPlaces.KADIKOY), index.complete("ka", 10));
+        assertEquals(List.of(TestPlaces.KARABUK), index.complete("Ka", 1));
+        assertEquals(List.of(TestPlaces.YENICE_CANAKKALE, TestPlaces.YENICE_KARABUK), index.complete("yen", 10));
+    }
+
+    @Test
+    void completeMatchesLongerPrefixesWithATypo() {
+        assertEquals(List.of(TestPlaces.KADIKOY), index.complete("Kadk", 10));
+        assertTrue(index.complete("Kdk", 10).isEmpty());
+        assertTrue(index.complete(" - ", 10).isEmpty());
+    }
+}
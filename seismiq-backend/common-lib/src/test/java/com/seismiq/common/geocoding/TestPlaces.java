@@ -0,0 +1,33 @@
+package com.seismiq.common.geocoding;
+
+import java.util.List;
+
+/**
+ * A handful of real places, enough to exercise ranking, province preference and typos.
+ */
+final class TestPlaces {
+    static final GazetteerPlace ANKARA = new GazetteerPlace(323786, "Ankara", "Ankara", List.of("Angora"),
+        39.91987, 32.85427, "PPLC", "06", 3517182);
+    static final GazetteerPlace ISTANBUL = new GazetteerPlace(745044, "İstanbul", "Istanbul", List.of("Constantinople"),
+        41.01384, 28.94966, "PPLA", "34", 14804116);
+    static final GazetteerPlace IZMIR = new GazetteerPlace(311046, "İzmir", "Izmir", List.of(),
+        38.41273, 27.13838, "PPLA", "35", 2500603);
+    static final GazetteerPlace KARABUK = new GazetteerPlace(743166, "Karabük", "Karabuk", List.of(),
+        41.20488, 32.62768, "PPLA", "78", 110537);
+    static final GazetteerPlace KADIKOY = new GazetteerPlace(743952, "Kadıköy", "Kadikoy", List.of(),
+        40.99058, 29.02920, "PPLA2", "34", 467919);
+    static final GazetteerPlace YENICE_CANAKKALE = new GazetteerPlace(296852, "Yenice", "Yenice", List.of(),
+        39.93100, 27.25800, "PPLA2", "17", 9800);
+    static final GazetteerPlace YENICE_KARABUK = new GazetteerPlace(296845, "Yenice", "Yenice", List.of(),
+        41.20056, 32.33222, "PPLA2", "78", 8800);
+
+    static final List<GazetteerPlace> ALL = List.of(
+        ANKARA, ISTANBUL, IZMIR, KARABUK, KADIKOY, YENICE_CANAKKALE, YENICE_KARABUK);
+
+    private TestPlaces() {
+    }
+
+    static Gazetteer gazetteer() {
+        return new Gazetteer(ALL);
+    }
+}
@@ -0,0 +1,63 @@
+package com.seismiq.common.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class ContentEncodingTest {
+
+    @Test
+    void missingHeaderMeansNoCompression() {
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate(null));
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("  "));
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("br, identity"));
+    }
+
+    @Test
+    void gzipIsPreferredOverDeflate() {
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("deflate, gzip"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("GZIP;q=0.5, deflate;q=1.0"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("x-gzip"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("br, deflate"));
+    }
+
+    @Test
+    void zeroQualityRefusesAnEncoding() {
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, deflate"));
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("gzip; q=0.0, deflate;q=0"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=abc, deflate"));
+    }
+
+    @Test
+    void wildcardAcceptsWhatIsNotListed() {
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate("gzip;q=0, *"));
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.negotiate("*;q=0"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, *;q=0"));
+    }
+
+    @Test
+    void wrappedStreamsDecompressToTheOriginal() throws IOException {
+        byte[] body = "{\"reports\":[]}".repeat(100).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(body, new GZIPInputStream(new ByteArrayInputStream(compress(ContentEncoding.GZIP, body))).readAllBytes());
+        assertArrayEquals(body, new InflaterInputStream(new ByteArrayInputStream(compress(ContentEncoding.DEFLATE, body))).readAllBytes());
+        assertArrayEquals(body, compress(ContentEncoding.IDENTITY, body));
+    }
+
+    private static byte[] compress(ContentEncoding encoding, byte[] body) throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (OutputStream out = encoding.wrap(target)) {
+            out.write(body);
+        }
+        return target.toByteArray();
+    }
+}
@@ -0,0 +1,149 @@
+package com.seismiq.common.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.seismiq.common.repository.Page;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+class SyncIndexRepositoryTest {
+    private static final Instant START = Instant.parse("2025-02-06T04:17:00Z");
+    private static final String POSITION = SyncIndexRepository.position(START);
+
+    private final Map<String, QueryResponse> shards = new HashMap<>();
+    private final List<QueryRequest> requests = new ArrayList<>();
+    private SyncIndexRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DynamoDbClient client = mock(DynamoDbClient.class);
+        when(client.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest request = invocation.getArgument(0);
+            requests.add(request);
+            String shard = request.expressionAttributeValues().get(":shard").s();
+            return shards.getOrDefault(shard, QueryResponse.builder().items(List.of()).build());
+        });
+        repository = new SyncIndexRepository(client);
+    }
+
+    @Test
+    void readsEveryShardAndMergesByChangeKey() {
+        shard(0, null, change(3, "reports", "r3"), change(5, "reports", "r5"));
+        shard(1, null, change(1, "earthquakes", "e1"));
+        shard(3, null, change(2, "landmarks", "l2"), change(4, "reports", "r4"));
+
+        Page<SyncChange> page = repository.changesSince(POSITION, 10);
+
+        assertEquals(List.of("e1", "l2", "r3", "r4", "r5"), itemIds(page));
+        assertNull(page.getNextCursor());
+        assertEquals(SyncIndexRepository.SHARDS, requests.size());
+        for (QueryRequest request : requests) {
+            assertTrue(request.consistentRead());
+            assertEquals(10, request.limit());
+            assertEquals(POSITION, request.expressionAttributeValues().get(":position").s());
+        }
+    }
+
+    @Test
+    void cutsAtTheLimit() {
+        shard(0, null, change(1, "reports", "r1"), change(4, "reports", "r4"));
+        shard(2, null, change(2, "reports", "r2"), change(3, "reports", "r3"));
+
+        Page<SyncChange> page = repository.changesSince(POSITION, 3);
+
+        assertEquals(List.of("r1", "r2", "r3"), itemIds(page));
+        assertEquals(key(3, "reports", "r3"), page.getNextCursor());
+    }
+
+    @Test
+    void cutsWhereAShardWithMoreEntriesStopped() {
+        // Shard 0 has more after r6, so r8 from shard 1 could be preceded by unread entries
+        shard(0, key(6, "reports", "r6"), change(1, "reports", "r1"), change(6, "reports", "r6"));
+        shard(1, null, change(2, "reports", "r2"), change(3, "reports", "r3"), change(8, "reports", "r8"));
+        shard(2, key(7, "reports", "r7"), change(7, "reports", "r7"));
+
+        Page<SyncChange> page = repository.changesSince(POSITION, 10);
+
+        assertEquals(List.of("r1", "r2", "r3", "r6"), itemIds(page));
+        assertEquals(key(6, "reports", "r6"), page.getNextCursor());
+    }
+
+    @Test
+    void tombstonesHaveNoItem() {
+        shard(0, null, change(1, "reports", "r1"), tombstone(2, "reports", "r2"));
+
+        List<SyncChange> changes = repository.changesSince(POSITION, 10).getItems();
+
+        assertFalse(changes.get(0).isDeleted());
+        assertEquals("r1", changes.get(0).getItem().get("reportId").s());
+        assertTrue(changes.get(1).isDeleted());
+        assertNull(changes.get(1).getItem());
+    }
+
+    @Test
+    void nothingNewGivesAnEmptyLastPage() {
+        Page<SyncChange> page = repository.changesSince(POSITION, 10);
+
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void positionsRoundTrip() {
+        assertEquals(START, SyncIndexRepository.instantOf(POSITION));
+        assertEquals(START.plusSeconds(3), SyncIndexRepository.instantOf(key(3, "reports", "r3")));
+    }
+
+    @SafeVarargs
+    private void shard(int shard, String lastKey, Map<String, AttributeValue>... items) {
+        QueryResponse.Builder response = QueryResponse.builder().items(List.of(items));
+        if (lastKey != null) {
+            response.lastEvaluatedKey(Map.of(
+                "syncShard", AttributeValue.builder().s(String.valueOf(shard)).build(),
+                "changeKey", AttributeValue.builder().s(lastKey).build()));
+        }
+        shards.put(String.valueOf(shard), response.build());
+    }
+
+    private static String key(int second, String entity, String itemId) {
+        return SyncIndexRepository.changeKey(START.plusSeconds(second), entity, itemId);
+    }
+
+    private static Map<String, AttributeValue> change(int second, String entity, String itemId) {
+        Map<String, AttributeValue> item = tombstone(second, entity, itemId);
+        item.remove("deleted");
+        item.put("item", AttributeValue.builder().m(Map.of("reportId", AttributeValue.builder().s(itemId).build())).build());
+        return item;
+    }
+
+    private static Map<String, AttributeValue> tombstone(int second, String entity, String itemId) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("changeKey", AttributeValue.builder().s(key(second, entity, itemId)).build());
+        item.put("entity", AttributeValue.builder().s(entity).build());
+        item.put("itemId", AttributeValue.builder().s(itemId).build());
+        item.put("deleted", AttributeValue.builder().bool(true).build());
+        return item;
+    }
+
+    private static List<String> itemIds(Page<SyncChange> page) {
+        return page.getItems().stream().map(SyncChange::getItemId).toList();
+    }
+}
@@ -20,11 +20,13 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
+import com.seismiq.common.http.ApiGatewayRequests;
+import com.seismiq.common.http.JsonResponseWriter;
 import com.seismiq.common.model.Earthquake;
+import com.seismiq.common.util.FieldSelection;
 import com.seismiq.common.util.LocalDateTimeAdapter;
 
 
-
 /**
  * Handler for processing earthquake-related API requests in the SeismIQ system.
  * 
@@ -33,6 +35,7 @@ import com.seismiq.common.util.LocalDateTimeAdapter;
 public class EarthquakeHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private final EarthquakeRepository earthquakeRepository;
     private final Gson gson;
+    private final JsonResponseWriter responses;
 
     public EarthquakeHandler() {
         this(new EarthquakeRepository());
@@ -43,22 +46,25 @@ public class EarthquakeHandler implements RequestHandler<APIGatewayProxyRequestE
         this.gson = new GsonBuilder()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .create();
+        this.responses = new JsonResponseWriter(gson);
     }
 
     public EarthquakeHandler(EarthquakeRepository earthquakeRepository, Gson gson) {
         this.earthquakeRepository = earthquakeRepository;
         this.gson = gson;
+        this.responses = new JsonResponseWriter(gson);
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        ApiGatewayRequests.decodeBody(input);
         String path = input.getPath();
         String httpMethod = input.getHttpMethod();
 
         return switch (path) {
             case "/earthquakes" -> switch (httpMethod) {
                 case "POST" -> createEarthquake(input);
-                case "GET" -> listEarthquakes();
+                case "GET" -> listEarthquakes(input);
                 default -> notFound();
             };
             default -> {
@@ -95,11 +101,16 @@ public class EarthquakeHandler implements RequestHandler<APIGatewayProxyRequestE
         }
     }
 
-    private APIGatewayProxyResponseEvent listEarthquakes() {
-        List<Earthquake> earthquakes = earthquakeRepository.getActiveEarthquakes();
-        return new APIGatewayProxyResponseEvent()
-            .withStatusCode(200)
-            .withBody(gson.toJson(earthquakes));
+    private APIGatewayProxyResponseEvent listEarthquakes(APIGatewayProxyRequestEvent input) {
+        try {
+            FieldSelection fields = parseFields(input.getQueryStringParameters());
+            List<Earthquake> earthquakes = earthquakeRepository.getActiveEarthquakes(fields);
+            return responses.respond(200, earthquakes, fields, input, null);
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid fields: " + e.getMessage());
+        }
     }
 
     private APIGatewayProxyResponseEvent getEarthquake(String earthquakeId) {
@@ -144,17 +155,24 @@ public class EarthquakeHandler implements RequestHandler<APIGatewayProxyRequestE
                     .withBody("Invalid radius: must be between 0 and 1000 km");
             }
 
-            List<Earthquake> earthquakes = earthquakeRepository.getEarthquakesByLocation(latitude, longitude, radius);
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(200)
-                .withBody(gson.toJson(earthquakes));
+            FieldSelection fields = parseFields(queryParams);
+            List<Earthquake> earthquakes = earthquakeRepository.getEarthquakesByLocation(latitude, longitude, radius, fields);
+            return responses.respond(200, earthquakes, fields, input, null);
         } catch (NumberFormatException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
                 .withBody("Invalid parameter format: lat, lon, and radius must be numeric values");
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid fields: " + e.getMessage());
         }
     }
 
+    private FieldSelection parseFields(Map<String, String> queryParams) {
+        return queryParams == null ? null : EarthquakeRepository.selectFields(queryParams.get("fields"));
+    }
+
     private APIGatewayProxyResponseEvent deactivateOldEarthquakes() {
         try {
             earthquakeRepository.deactivateOldEarthquakes();
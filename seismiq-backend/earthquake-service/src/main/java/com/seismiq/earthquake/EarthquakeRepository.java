@@ -7,8 +7,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.seismiq.common.codec.ModelCodecs;
 import com.seismiq.common.model.Earthquake;
 import com.seismiq.common.repository.DynamoDBRepository;
+import com.seismiq.common.util.FieldSelection;
 
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
@@ -20,22 +22,25 @@ public class EarthquakeRepository extends DynamoDBRepository {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
     private static final long SIX_MONTHS_IN_DAYS = 180;
 
+    // JSON fields that can be requested with fields=, mapped to the attributes they are stored in
+    private static final Map<String, String> FIELD_ATTRIBUTES = Map.of(
+        "earthquakeId", "earthquakeId",
+        "magnitude", "magnitude",
+        "latitude", "latitude",
+        "longitude", "longitude",
+        "depth", "depth",
+        "location", "location",
+        "timestamp", "timestamp",
+        "source", "source",
+        "isActive", "isActive"
+    );
+
     public EarthquakeRepository() {
         super("seismiq-Earthquakes"); // Use CloudFormation managed table
     }
 
     public void saveEarthquake(Earthquake earthquake) {
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put("earthquakeId", AttributeValue.builder().s(earthquake.getEarthquakeId()).build());
-        item.put("magnitude", AttributeValue.builder().n(String.valueOf(earthquake.getMagnitude())).build());
-        item.put("latitude", AttributeValue.builder().n(String.valueOf(earthquake.getLatitude())).build());
-        item.put("longitude", AttributeValue.builder().n(String.valueOf(earthquake.getLongitude())).build());
-        item.put("depth", AttributeValue.builder().n(String.valueOf(earthquake.getDepth())).build());
-        item.put("location", AttributeValue.builder().s(earthquake.getLocation()).build());
-        item.put("timestamp", AttributeValue.builder().s(earthquake.getTimestamp().format(DATE_FORMATTER)).build());
-        item.put("source", AttributeValue.builder().s(earthquake.getSource()).build());
-        item.put("isActive", AttributeValue.builder().bool(earthquake.isActive()).build());
-
+        Map<String, AttributeValue> item = ModelCodecs.EARTHQUAKE.encode(earthquake);
         putItem(item);
     }
 
@@ -51,15 +56,30 @@ public class EarthquakeRepository extends DynamoDBRepository {
         return mapToEarthquake(response.item());
     }
 
+    /**
+     * Parses a fields= parameter for earthquake reads. The key is always read.
+     *
+     * @param fieldsParam The comma-separated earthquake fields, may be null
+     * @return The selection, or null to read all fields
+     * @throws IllegalArgumentException if a field does not exist
+     */
+    public static FieldSelection selectFields(String fieldsParam) {
+        return FieldSelection.parse(fieldsParam, FIELD_ATTRIBUTES, "earthquakeId");
+    }
+
     public List<Earthquake> getActiveEarthquakes() {
+        return getActiveEarthquakes(null);
+    }
+
+    public List<Earthquake> getActiveEarthquakes(FieldSelection fields) {
         Map<String, AttributeValue> expressionValues = new HashMap<>();
         expressionValues.put(":isActive", AttributeValue.builder().bool(true).build());
 
-        ScanRequest request = ScanRequest.builder()
+        ScanRequest request = project(ScanRequest.builder()
             .tableName(this.tableName)
             .filterExpression("isActive = :isActive")
             .expressionAttributeValues(expressionValues)
-            .build();
+            .build(), fields);
 
         ScanResponse response = dynamoDbClient.scan(request);
         List<Earthquake> earthquakes = new ArrayList<>();
@@ -72,6 +92,10 @@ public class EarthquakeRepository extends DynamoDBRepository {
     }
 
     public List<Earthquake> getEarthquakesByLocation(double latitude, double longitude, double radiusKm) {
+        return getEarthquakesByLocation(latitude, longitude, radiusKm, null);
+    }
+
+    public List<Earthquake> getEarthquakesByLocation(double latitude, double longitude, double radiusKm, FieldSelection fields) {
         // Using a simple bounding box for demonstration
         // In production, you'd want to use more sophisticated geospatial queries
         double latDiff = radiusKm / 111.0; // approximate degrees for km at equator
@@ -84,11 +108,11 @@ public class EarthquakeRepository extends DynamoDBRepository {
         expressionValues.put(":maxLon", AttributeValue.builder().n(String.valueOf(longitude + lonDiff)).build());
         expressionValues.put(":isActive", AttributeValue.builder().bool(true).build());
 
-        ScanRequest request = ScanRequest.builder()
+        ScanRequest request = project(ScanRequest.builder()
             .tableName(this.tableName)
             .filterExpression("latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLon AND :maxLon AND isActive = :isActive")
             .expressionAttributeValues(expressionValues)
-            .build();
+            .build(), fields);
 
         ScanResponse response = dynamoDbClient.scan(request);
         List<Earthquake> earthquakes = new ArrayList<>();
@@ -135,18 +159,18 @@ public class EarthquakeRepository extends DynamoDBRepository {
         }
     }
 
+    private ScanRequest project(ScanRequest request, FieldSelection fields) {
+        if (fields == null) {
+            return request;
+        }
+        return request.toBuilder()
+            .projectionExpression(fields.projectionExpression())
+            .expressionAttributeNames(fields.mergeAttributeNames(request.expressionAttributeNames()))
+            .build();
+    }
+
+    // Attributes may be missing when only some fields were projected; the codec leaves those at their defaults
     private Earthquake mapToEarthquake(Map<String, AttributeValue> item) {
-        Earthquake earthquake = new Earthquake(
-            item.get("earthquakeId").s(),
-            Double.parseDouble(item.get("magnitude").n()),
-            Double.parseDouble(item.get("latitude").n()),
-            Double.parseDouble(item.get("longitude").n()),
-            Double.parseDouble(item.get("depth").n()),
-            item.get("location").s(),
-            LocalDateTime.parse(item.get("timestamp").s(), DATE_FORMATTER),
-            item.get("source").s()
-        );
-        earthquake.setActive(item.get("isActive").bool());
-        return earthquake;
+        return ModelCodecs.EARTHQUAKE.decode(item);
     }
 }
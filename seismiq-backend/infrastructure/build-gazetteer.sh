@@ -0,0 +1,23 @@
+#!/usr/bin/env bash
+# Builds the binary gazetteer that GazetteerLayer ships to /opt/gazetteer/gazetteer.bin.
+# Run from anywhere before `sam build`; the GeoNames dump is downloaded unless given:
+#   infrastructure/build-gazetteer.sh [cities5000.txt]
+set -euo pipefail
+
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+LAYER_DIR="$BACKEND_DIR/infrastructure/gazetteer-layer/gazetteer"
+WORK_DIR="$(mktemp -d)"
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+DUMP="${1:-}"
+if [ -z "$DUMP" ]; then
+    curl -fsSL -o "$WORK_DIR/cities5000.zip" https://download.geonames.org/export/dump/cities5000.zip
+    unzip -q -o "$WORK_DIR/cities5000.zip" -d "$WORK_DIR"
+    DUMP="$WORK_DIR/cities5000.txt"
+fi
+
+mvn -B -q -f "$BACKEND_DIR/pom.xml" -pl common-lib -am -DskipTests compile
+mkdir -p "$LAYER_DIR"
+java -cp "$BACKEND_DIR/common-lib/target/classes" \
+    com.seismiq.common.geocoding.BinaryGazetteerWriter "$DUMP" "$LAYER_DIR/gazetteer.bin"
+echo "Wrote $LAYER_DIR/gazetteer.bin"
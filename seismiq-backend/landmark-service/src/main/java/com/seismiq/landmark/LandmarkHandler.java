@@ -11,8 +11,11 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.seismiq.common.http.ApiGatewayRequests;
+import com.seismiq.common.http.JsonResponseWriter;
 import com.seismiq.common.model.Category;
 import com.seismiq.common.model.Landmark;
+import com.seismiq.common.util.FieldSelection;
 import com.seismiq.common.util.LocalDateTimeAdapter;
 
 /**
@@ -24,6 +27,7 @@ import com.seismiq.common.util.LocalDateTimeAdapter;
 public class LandmarkHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     private final LandmarkRepository landmarkRepository;
     private final Gson gson;
+    private final JsonResponseWriter responses;
 
     public LandmarkHandler() {
         this(new LandmarkRepository());
@@ -34,10 +38,12 @@ public class LandmarkHandler implements RequestHandler<APIGatewayProxyRequestEve
         this.gson = new GsonBuilder()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .create();
+        this.responses = new JsonResponseWriter(gson);
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        ApiGatewayRequests.decodeBody(input);
         switch (input.getHttpMethod()) {
             case "GET":
                 if (input.getPath().matches("/landmarks/[^/]+")) {
@@ -68,11 +74,12 @@ public class LandmarkHandler implements RequestHandler<APIGatewayProxyRequestEve
     private APIGatewayProxyResponseEvent getLandmark(APIGatewayProxyRequestEvent input) {
         String landmarkId = input.getPath().split("/")[2];
         try {
-            Landmark landmark = landmarkRepository.getLandmark(landmarkId);
+            FieldSelection fields = parseFields(input.getQueryStringParameters());
+            Landmark landmark = landmarkRepository.getLandmark(landmarkId, fields);
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(200)
                 .withHeaders(getCorsHeaders())
-                .withBody(gson.toJson(landmark));
+                .withBody(toJson(landmark, fields));
         } catch (IllegalArgumentException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -89,10 +96,9 @@ public class LandmarkHandler implements RequestHandler<APIGatewayProxyRequestEve
     private APIGatewayProxyResponseEvent listLandmarks(APIGatewayProxyRequestEvent input) {
         Map<String, String> queryParams = input.getQueryStringParameters();
         try {
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(200)
-                .withHeaders(getCorsHeaders())
-                .withBody(gson.toJson(landmarkRepository.listLandmarks(queryParams)));
+            FieldSelection fields = parseFields(queryParams);
+            return responses.respond(200, landmarkRepository.listLandmarks(queryParams, fields), fields,
+                input, getCorsHeaders());
         } catch (IllegalArgumentException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -106,6 +112,14 @@ public class LandmarkHandler implements RequestHandler<APIGatewayProxyRequestEve
         }
     }
 
+    private FieldSelection parseFields(Map<String, String> queryParams) {
+        return queryParams == null ? null : LandmarkRepository.selectFields(queryParams.get("fields"));
+    }
+
+    private String toJson(Object value, FieldSelection fields) {
+        return fields == null ? gson.toJson(value) : fields.toJson(gson, value);
+    }
+
     private APIGatewayProxyResponseEvent createLandmark(APIGatewayProxyRequestEvent input, Context context) {
         try {
             if (input.getBody() == null) {
@@ -0,0 +1,87 @@
+package com.seismiq.landmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.seismiq.common.model.Category;
+import com.seismiq.common.model.Landmark;
+import com.seismiq.common.outbox.OutboxConsumer;
+import com.seismiq.common.outbox.OutboxMessage;
+
+/**
+ * Creates the landmarks that reports ask for, from "landmark.requested" outbox messages.
+ * The payload carries name, description, location, category, reportId, createdBy,
+ * latitude and longitude.
+ *
+ * <p>A report's landmark id is derived from the report id, so a message delivered twice
+ * overwrites the same landmark instead of creating a second one.</p>
+ */
+public class LandmarkOutboxConsumer implements OutboxConsumer {
+    public static final String TOPIC = "landmark.requested";
+
+    private static final Logger LOGGER = Logger.getLogger(LandmarkOutboxConsumer.class.getName());
+
+    private final LandmarkRepository landmarkRepository;
+    private final Gson gson = new Gson();
+
+    public LandmarkOutboxConsumer(LandmarkRepository landmarkRepository) {
+        this.landmarkRepository = landmarkRepository;
+    }
+
+    @Override
+    public void accept(List<OutboxMessage> messages) {
+        // BatchWriteItem rejects two writes to the same key, so keep the latest per landmark
+        Map<String, Landmark> landmarks = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            if (!TOPIC.equals(message.getTopic())) {
+                continue;
+            }
+            try {
+                Landmark landmark = toLandmark(message);
+                landmarks.put(landmark.getLandmarkId(), landmark);
+            } catch (JsonSyntaxException | IllegalArgumentException | ClassCastException e) {
+                // A malformed message would fail every retry; skip it instead of blocking the batch
+                LOGGER.warning("Skipping malformed landmark message " + message.getMessageId() + ": " + e.getMessage());
+            }
+        }
+
+        if (!landmarks.isEmpty()) {
+            landmarkRepository.saveLandmarks(new ArrayList<>(landmarks.values()));
+            LOGGER.info("Created " + landmarks.size() + " landmarks from " + messages.size() + " outbox messages");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Landmark toLandmark(OutboxMessage message) {
+        Map<String, Object> payload = gson.fromJson(message.getPayload(), Map.class);
+        if (payload == null) {
+            throw new IllegalArgumentException("empty payload");
+        }
+
+        String reportId = (String) payload.get("reportId");
+        String idSource = reportId != null ? "report:" + reportId : "message:" + message.getMessageId();
+
+        Landmark landmark = new Landmark();
+        landmark.setLandmarkId(UUID.nameUUIDFromBytes(idSource.getBytes(StandardCharsets.UTF_8)).toString());
+        landmark.setName((String) payload.get("name"));
+        landmark.setDescription((String) payload.get("description"));
+        landmark.setLocation((String) payload.get("location"));
+        landmark.setCreatedBy((String) payload.get("createdBy"));
+        landmark.setCategory(Category.valueOf((String) payload.get("category")));
+        landmark.setReportId(reportId);
+        if (payload.get("latitude") != null) {
+            landmark.setLatitude(((Number) payload.get("latitude")).doubleValue());
+        }
+        if (payload.get("longitude") != null) {
+            landmark.setLongitude(((Number) payload.get("longitude")).doubleValue());
+        }
+        return landmark;
+    }
+}
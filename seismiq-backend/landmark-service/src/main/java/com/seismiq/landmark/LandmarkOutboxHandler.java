@@ -0,0 +1,30 @@
+package com.seismiq.landmark;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.seismiq.common.cdc.DynamoDbChangeStream;
+import com.seismiq.common.outbox.OutboxStreamConsumer;
+
+/**
+ * AWS Lambda handler for the outbox table stream. New "landmark.requested" messages are
+ * handed to {@link LandmarkOutboxConsumer} as one batch; if it fails, the stream delivers
+ * the batch again.
+ */
+public class LandmarkOutboxHandler implements RequestHandler<DynamodbEvent, StreamsEventResponse> {
+    private final OutboxStreamConsumer consumer;
+
+    public LandmarkOutboxHandler() {
+        this(new LandmarkOutboxConsumer(new LandmarkRepository()));
+    }
+
+    public LandmarkOutboxHandler(LandmarkOutboxConsumer consumer) {
+        this.consumer = new OutboxStreamConsumer(LandmarkOutboxConsumer.TOPIC, consumer);
+    }
+
+    @Override
+    public StreamsEventResponse handleRequest(DynamodbEvent event, Context context) {
+        return DynamoDbChangeStream.deliver(event, consumer, context.getLogger()::log);
+    }
+}
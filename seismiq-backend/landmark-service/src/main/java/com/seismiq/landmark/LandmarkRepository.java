@@ -1,42 +1,92 @@
 package com.seismiq.landmark;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import com.seismiq.common.model.Category;
+import com.seismiq.common.codec.ModelCodecs;
 import com.seismiq.common.model.Landmark;
+import com.seismiq.common.repository.DynamoDBRepository;
+import com.seismiq.common.util.FieldSelection;
 
 import ch.hsr.geohash.GeoHash;
-import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 /**
  * Repository class for managing Landmark data in DynamoDB.
  *
  * @author Sıla Bozkurt
  */
-public class LandmarkRepository {
-    private final DynamoDbClient dynamoDbClient;
-    private final String tableName;
+public class LandmarkRepository extends DynamoDBRepository {
+    // JSON fields that can be requested with fields=, mapped to the attributes they are stored in
+    private static final Map<String, String> FIELD_ATTRIBUTES = Map.ofEntries(
+        Map.entry("landmarkId", "landmarkId"),
+        Map.entry("name", "name"),
+        Map.entry("location", "location"),
+        Map.entry("category", "category"),
+        Map.entry("description", "description"),
+        Map.entry("lastUpdated", "lastUpdated"),
+        Map.entry("isActive", "isActive"),
+        Map.entry("status", "isActive"),
+        Map.entry("createdBy", "createdBy"),
+        Map.entry("latitude", "latitude"),
+        Map.entry("longitude", "longitude")
+    );
+
+    private static final int BATCH_WRITE_SIZE = 25;         // BatchWriteItem limit
 
     public LandmarkRepository() {
-        this.dynamoDbClient = DynamoDbClient.builder().build();
-        this.tableName = "seismiq-Landmarks"; // Use CloudFormation managed table
+        super("seismiq-Landmarks"); // Use CloudFormation managed table
     }
 
     public void saveLandmark(Landmark landmark) {
+        PutItemRequest request = PutItemRequest.builder()
+            .tableName(tableName)
+            .item(toItem(landmark))
+            .build();
+
+        dynamoDbClient.putItem(request);
+    }
+
+    /**
+     * Saves many landmarks with BatchWriteItem, in chunks of 25. Unprocessed items are
+     * retried with exponential backoff.
+     *
+     * @param landmarks The landmarks to save
+     * @throws IllegalStateException if some landmarks still could not be written
+     */
+    public void saveLandmarks(List<Landmark> landmarks) {
+        for (int from = 0; from < landmarks.size(); from += BATCH_WRITE_SIZE) {
+            List<WriteRequest> pending = new ArrayList<>();
+            for (Landmark landmark : landmarks.subList(from, Math.min(from + BATCH_WRITE_SIZE, landmarks.size()))) {
+                pending.add(WriteRequest.builder()
+                    .putRequest(PutRequest.builder().item(toItem(landmark)).build())
+                    .build());
+            }
+
+            pending = batchWriteWithRetry(pending);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while writing landmarks");
+            }
+            if (!pending.isEmpty()) {
+                throw new IllegalStateException(pending.size() + " landmarks could not be written, retries exhausted");
+            }
+        }
+    }
+
+    private Map<String, AttributeValue> toItem(Landmark landmark) {
         Map<String, AttributeValue> item = new HashMap<>();
         // Convert Landmark to DynamoDB item
         item.put("landmarkId", AttributeValue.builder().s(landmark.getLandmarkId()).build());
@@ -62,6 +112,10 @@ public class LandmarkRepository {
                 .s(landmark.getAssociatedReport().getReportId())
                 .build());
         }
+        // Landmarks derived from a report are found through ReportIndex
+        if (landmark.getReportId() != null) {
+            item.put("reportId", AttributeValue.builder().s(landmark.getReportId()).build());
+        }
 
         // Add latitude and longitude
         item.put("latitude", AttributeValue.builder().n(String.valueOf(landmark.getLatitude())).build());
@@ -74,20 +128,33 @@ public class LandmarkRepository {
             12
         ).toBase32();
         item.put("geohash", AttributeValue.builder().s(geohash).build());
-        
-        PutItemRequest request = PutItemRequest.builder()
-            .tableName(tableName)
-            .item(item)
-            .build();
+        return item;
+    }
 
-        dynamoDbClient.putItem(request);
+    /**
+     * Parses a fields= parameter for landmark reads. The key is always read.
+     *
+     * @param fieldsParam The comma-separated landmark fields, may be null
+     * @return The selection, or null to read all fields
+     * @throws IllegalArgumentException if a field does not exist
+     */
+    public static FieldSelection selectFields(String fieldsParam) {
+        return FieldSelection.parse(fieldsParam, FIELD_ATTRIBUTES, "landmarkId");
     }
 
     public Landmark getLandmark(String landmarkId) {
-        GetItemRequest request = GetItemRequest.builder()
+        return getLandmark(landmarkId, null);
+    }
+
+    public Landmark getLandmark(String landmarkId, FieldSelection fields) {
+        GetItemRequest.Builder requestBuilder = GetItemRequest.builder()
             .tableName(tableName)
-            .key(Map.of("landmarkId", AttributeValue.builder().s(landmarkId).build()))
-            .build();
+            .key(Map.of("landmarkId", AttributeValue.builder().s(landmarkId).build()));
+        if (fields != null) {
+            requestBuilder.projectionExpression(fields.projectionExpression())
+                .expressionAttributeNames(fields.expressionAttributeNames());
+        }
+        GetItemRequest request = requestBuilder.build();
 
         GetItemResponse response = dynamoDbClient.getItem(request);
         if (!response.hasItem()) {
@@ -98,6 +165,10 @@ public class LandmarkRepository {
     }
 
     public List<Landmark> listLandmarks(Map<String, String> queryParams) {
+        return listLandmarks(queryParams, null);
+    }
+
+    public List<Landmark> listLandmarks(Map<String, String> queryParams, FieldSelection fields) {
         ScanRequest.Builder scanBuilder = ScanRequest.builder().tableName(tableName);
         
         if (queryParams != null && queryParams.containsKey("category")) {
@@ -106,6 +177,10 @@ public class LandmarkRepository {
                     ":category", AttributeValue.builder().s(queryParams.get("category")).build()
                 ));
         }
+        if (fields != null) {
+            scanBuilder.projectionExpression(fields.projectionExpression())
+                .expressionAttributeNames(fields.expressionAttributeNames());
+        }
 
         ScanResponse response = dynamoDbClient.scan(scanBuilder.build());
         List<Landmark> landmarks = new ArrayList<>();
@@ -189,39 +264,10 @@ public class LandmarkRepository {
             .collect(Collectors.toList());
     }
 
+    // Attributes may be missing when only some fields were projected
     private Landmark mapToLandmark(Map<String, AttributeValue> item) {
-        double latitude = Double.parseDouble(item.get("latitude").n());
-        double longitude = Double.parseDouble(item.get("longitude").n());
-        
-        Landmark landmark = new Landmark(
-            item.get("landmarkId").s(),
-            item.get("name").s(),
-            item.get("location").s(),
-            Category.valueOf(item.get("category").s()),
-            item.containsKey("associatedReportId") ? null : null, 
-            item.get("createdBy").s()
-        );
-
-        
-        landmark.setLatitude(latitude);
-        landmark.setLongitude(longitude);
-        
-        // Only set description if it exists
-        if (item.containsKey("description")) {
-            landmark.setDescription(item.get("description").s());
-        }
-        
-        landmark.setActive(item.get("isActive").bool());
-        landmark.setLastUpdated(LocalDateTime.parse(item.get("lastUpdated").s()));
-        
-        // Set associated report if exists
-        if (item.containsKey("associatedReportId")) {
-            // TODO: Implement report retrieval from Report service
-            // not needed anymore !!! leaving this for future implementations (maybe)
-            // This would require cross-service communication
-        }
-        
-        return landmark;
+        // associatedReportId is not resolved: that would need a call to the report service
+        return ModelCodecs.LANDMARK.decode(item);
     }
 
     private int getGeohashPrecision(double radiusKm) {
@@ -0,0 +1,52 @@
+package com.seismiq.report;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.seismiq.common.codec.ModelCodecs;
+import com.seismiq.common.model.Earthquake;
+import com.seismiq.common.repository.DynamoDBRepository;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+/**
+ * Read-only access to the earthquakes table for heatmap tiles. Only the active earthquakes'
+ * coordinates and magnitude are read; earthquakes are written by earthquake-service.
+ */
+public class EarthquakeHeatmapRepository extends DynamoDBRepository {
+
+    public EarthquakeHeatmapRepository() {
+        super("seismiq-Earthquakes");
+    }
+
+    /**
+     * Finds the active earthquakes inside a bounding box.
+     *
+     * @param minLat The southern edge in degrees
+     * @param minLon The western edge in degrees
+     * @param maxLat The northern edge in degrees
+     * @param maxLon The eastern edge in degrees
+     * @return The earthquakes with their coordinates and magnitude
+     */
+    public List<Earthquake> findActiveInBox(double minLat, double minLon, double maxLat, double maxLon) {
+        ScanRequest request = ScanRequest.builder()
+            .tableName(this.tableName)
+            .projectionExpression("earthquakeId, latitude, longitude, magnitude")
+            .filterExpression("latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLon AND :maxLon AND isActive = :isActive")
+            .expressionAttributeValues(Map.of(
+                ":minLat", AttributeValue.builder().n(String.valueOf(minLat)).build(),
+                ":maxLat", AttributeValue.builder().n(String.valueOf(maxLat)).build(),
+                ":minLon", AttributeValue.builder().n(String.valueOf(minLon)).build(),
+                ":maxLon", AttributeValue.builder().n(String.valueOf(maxLon)).build(),
+                ":isActive", AttributeValue.builder().bool(true).build()))
+            .build();
+
+        Queue<Earthquake> earthquakes = new ConcurrentLinkedQueue<>();
+        parallelScan(request, item -> earthquakes.add(ModelCodecs.EARTHQUAKE.decode(item)));
+        return new ArrayList<>(earthquakes);
+    }
+}
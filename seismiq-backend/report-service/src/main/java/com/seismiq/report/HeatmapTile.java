@@ -0,0 +1,142 @@
+package com.seismiq.report;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One Web Mercator map tile (z/x/y, as used by Google and OSM tiles) binned into a
+ * {@link #GRID_SIZE} x {@link #GRID_SIZE} grid of weighted intensity. Clients draw the grid
+ * directly instead of downloading and rasterizing every report and earthquake.
+ * Not thread-safe; {@link HeatmapTileService} guards the tiles it caches.
+ */
+public class HeatmapTile {
+    static final int GRID_SIZE = 32;
+    static final int MAX_ZOOM = 18;
+
+    private final int zoom;
+    private final int x;
+    private final int y;
+    private final double[] intensity;
+
+    public HeatmapTile(int zoom, int x, int y) {
+        validate(zoom, x, y);
+        this.zoom = zoom;
+        this.x = x;
+        this.y = y;
+        this.intensity = new double[GRID_SIZE * GRID_SIZE];
+    }
+
+    private HeatmapTile(HeatmapTile other) {
+        this.zoom = other.zoom;
+        this.x = other.x;
+        this.y = other.y;
+        this.intensity = other.intensity.clone();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the tile does not exist at that zoom
+     */
+    public static void validate(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        int tiles = 1 << zoom;
+        if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+            throw new IllegalArgumentException("Tile x and y must be between 0 and " + (tiles - 1) + " at zoom " + zoom);
+        }
+    }
+
+    public int getZoom() { return zoom; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+
+    /**
+     * Adds weight to the grid cell containing a point.
+     *
+     * @return false if the point lies outside this tile
+     */
+    public boolean add(double latitude, double longitude, double weight) {
+        int tiles = 1 << zoom;
+        double tileX = mercatorX(longitude) * tiles - x;
+        double tileY = mercatorY(latitude) * tiles - y;
+        if (tileX < 0 || tileX >= 1 || tileY < 0 || tileY >= 1) {
+            return false;
+        }
+        int column = (int) (tileX * GRID_SIZE);
+        int row = (int) (tileY * GRID_SIZE);
+        intensity[row * GRID_SIZE + column] += weight;
+        return true;
+    }
+
+    HeatmapTile copy() {
+        return new HeatmapTile(this);
+    }
+
+    /**
+     * @return The northern, western, southern and eastern edges of the tile in degrees
+     */
+    public double[] bounds() {
+        int tiles = 1 << zoom;
+        return new double[] {
+            latitudeOf((double) y / tiles),
+            (double) x / tiles * 360.0 - 180.0,
+            latitudeOf((double) (y + 1) / tiles),
+            (double) (x + 1) / tiles * 360.0 - 180.0
+        };
+    }
+
+    /**
+     * The tile as a sparse grid: only non-empty cells are listed, as [row, column, intensity],
+     * with rows counted from the northern edge.
+     */
+    public Map<String, Object> toResponse() {
+        List<List<Number>> cells = new ArrayList<>();
+        double max = 0;
+        for (int i = 0; i < intensity.length; i++) {
+            if (intensity[i] > 0) {
+                cells.add(List.of(i / GRID_SIZE, i % GRID_SIZE, Math.round(intensity[i] * 1000) / 1000.0));
+                max = Math.max(max, intensity[i]);
+            }
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("z", zoom);
+        response.put("x", x);
+        response.put("y", y);
+        response.put("gridSize", GRID_SIZE);
+        response.put("maxIntensity", Math.round(max * 1000) / 1000.0);
+        response.put("cells", cells);
+        return response;
+    }
+
+    /**
+     * @return The x tile number containing the longitude at the zoom
+     */
+    public static int tileX(double longitude, int zoom) {
+        int tiles = 1 << zoom;
+        return Math.min(tiles - 1, Math.max(0, (int) Math.floor(mercatorX(longitude) * tiles)));
+    }
+
+    /**
+     * @return The y tile number containing the latitude at the zoom, counted from the north
+     */
+    public static int tileY(double latitude, int zoom) {
+        int tiles = 1 << zoom;
+        return Math.min(tiles - 1, Math.max(0, (int) Math.floor(mercatorY(latitude) * tiles)));
+    }
+
+    // Longitude and latitude projected to [0, 1), x growing east and y growing south
+    private static double mercatorX(double longitude) {
+        return (longitude + 180.0) / 360.0;
+    }
+
+    private static double mercatorY(double latitude) {
+        double sin = Math.sin(Math.toRadians(latitude));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    private static double latitudeOf(double mercatorY) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * mercatorY))));
+    }
+}
@@ -0,0 +1,167 @@
+package com.seismiq.report;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.seismiq.common.model.Earthquake;
+import com.seismiq.common.model.Report;
+import com.seismiq.common.util.FieldSelection;
+
+/**
+ * Builds and caches heatmap tiles of reports and active earthquakes.
+ *
+ * <p>Reports weigh by category (a rescue call counts more than an information post) and
+ * earthquakes by magnitude, doubling with every magnitude step above 3.</p>
+ *
+ * <p>Tiles are cached per zoom level, each level holding up to {@link #MAX_TILES_PER_ZOOM}
+ * recently used tiles. A report created through this container is added into the cached
+ * tile it lands in at every zoom level, so a tile is never rebuilt just because one report
+ * arrived. Edits, moves and deletes drop the tiles at the old and the new location. Changes made
+ * elsewhere (other containers, earthquake-service) become visible when a tile expires after
+ * {@link #TILE_TTL_MILLIS}.</p>
+ */
+public class HeatmapTileService {
+    static final int MAX_TILES_PER_ZOOM = 256;
+    static final long TILE_TTL_MILLIS = 60_000;
+
+    // Only the category is weighed; key, timestamp and coordinates are always read
+    private static final FieldSelection TILE_FIELDS = ReportRepository.selectFields("category");
+    private static final double DEFAULT_REPORT_WEIGHT = 1.0;
+    private static final Map<String, Double> CATEGORY_WEIGHTS = Map.ofEntries(
+        Map.entry("RESCUE", 3.0),
+        Map.entry("RESCUE_CALL", 3.0),
+        Map.entry("MEDICAL_HELP", 2.5),
+        Map.entry("MEDICAL_EMERGENCY", 2.5),
+        Map.entry("DANGER_NOTICE", 2.0),
+        Map.entry("SHELTER", 2.0),
+        Map.entry("FOOD_WATER", 1.5),
+        Map.entry("SUPPLY_REQUEST", 1.5),
+        Map.entry("INFRASTRUCTURE_PROBLEM", 1.5),
+        Map.entry("INFORMATION_SHARING", 0.5),
+        Map.entry("LOW_PRIORITY", 0.5)
+    );
+
+    private final ReportRepository reportRepository;
+    private final EarthquakeHeatmapRepository earthquakeRepository;
+    private final Map<Integer, LinkedHashMap<Long, CachedTile>> cache = new HashMap<>();
+
+    public HeatmapTileService(ReportRepository reportRepository, EarthquakeHeatmapRepository earthquakeRepository) {
+        this.reportRepository = reportRepository;
+        this.earthquakeRepository = earthquakeRepository;
+    }
+
+    /**
+     * Returns a tile, from the cache when it holds a fresh copy.
+     *
+     * @param zoom The zoom level, 0 to 18
+     * @param x The tile column, counted from longitude -180
+     * @param y The tile row, counted from the north
+     * @return A snapshot of the tile
+     * @throws IllegalArgumentException if the tile does not exist at that zoom
+     */
+    public HeatmapTile getTile(int zoom, int x, int y) {
+        HeatmapTile.validate(zoom, x, y);
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedTile cached = tilesAt(zoom).get(tileKey(x, y));
+            if (cached != null && now - cached.builtAt < TILE_TTL_MILLIS) {
+                return cached.tile.copy();
+            }
+        }
+
+        HeatmapTile tile = buildTile(zoom, x, y);
+        synchronized (cache) {
+            tilesAt(zoom).put(tileKey(x, y), new CachedTile(tile, now));
+            return tile.copy();
+        }
+    }
+
+    private HeatmapTile buildTile(int zoom, int x, int y) {
+        HeatmapTile tile = new HeatmapTile(zoom, x, y);
+        double[] bounds = tile.bounds();
+        double north = bounds[0];
+        double west = bounds[1];
+        double south = bounds[2];
+        double east = bounds[3];
+
+        List<Report> reports = reportRepository.findReportsInBox(south, west, north, east, TILE_FIELDS);
+        for (Report report : reports) {
+            if (report.hasCoordinates()) {
+                tile.add(report.getLatitude(), report.getLongitude(), weightOf(report));
+            }
+        }
+        for (Earthquake earthquake : earthquakeRepository.findActiveInBox(south, west, north, east)) {
+            tile.add(earthquake.getLatitude(), earthquake.getLongitude(), weightOf(earthquake));
+        }
+        return tile;
+    }
+
+    /**
+     * Adds a new report into the cached tiles it lands in, at every zoom level.
+     */
+    public void reportAdded(Report report) {
+        if (!report.hasCoordinates()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            for (Map.Entry<Integer, LinkedHashMap<Long, CachedTile>> level : cache.entrySet()) {
+                int zoom = level.getKey();
+                CachedTile cached = level.getValue().get(tileKey(
+                    HeatmapTile.tileX(report.getLongitude(), zoom), HeatmapTile.tileY(report.getLatitude(), zoom)));
+                if (cached != null && now - cached.builtAt < TILE_TTL_MILLIS) {
+                    cached.tile.add(report.getLatitude(), report.getLongitude(), weightOf(report));
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the cached tiles containing a point at every zoom level, for changes that
+     * cannot be applied incrementally (a moved, recategorized or deleted report).
+     */
+    public void invalidate(double latitude, double longitude) {
+        synchronized (cache) {
+            for (Map.Entry<Integer, LinkedHashMap<Long, CachedTile>> level : cache.entrySet()) {
+                int zoom = level.getKey();
+                level.getValue().remove(tileKey(HeatmapTile.tileX(longitude, zoom), HeatmapTile.tileY(latitude, zoom)));
+            }
+        }
+    }
+
+    static double weightOf(Report report) {
+        String category = report.getCategoryType();
+        return category == null ? DEFAULT_REPORT_WEIGHT
+            : CATEGORY_WEIGHTS.getOrDefault(category.toUpperCase(), DEFAULT_REPORT_WEIGHT);
+    }
+
+    static double weightOf(Earthquake earthquake) {
+        return Math.pow(2, Math.max(0, earthquake.getMagnitude() - 3));
+    }
+
+    // Guarded by cache; access-ordered so the least recently read tile of a zoom is evicted first
+    private LinkedHashMap<Long, CachedTile> tilesAt(int zoom) {
+        return cache.computeIfAbsent(zoom, z -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedTile> eldest) {
+                return size() > MAX_TILES_PER_ZOOM;
+            }
+        });
+    }
+
+    private static long tileKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private static final class CachedTile {
+        private final HeatmapTile tile;
+        private final long builtAt;
+
+        CachedTile(HeatmapTile tile, long builtAt) {
+            this.tile = tile;
+            this.builtAt = builtAt;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.seismiq.report;
+
+import java.util.Map;
+
+/**
+ * A hotspot of reports as returned by /reports/clusters: how many reports it holds, their
+ * centroid, their bounding box and the category most of them have.
+ * Clusters of a single report also carry its id, so clients can open it directly.
+ */
+public class ReportCluster {
+    private final String clusterId;
+    private final int count;
+    private final double latitude;
+    private final double longitude;
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double maxLatitude;
+    private final double maxLongitude;
+    private final String dominantCategory;
+    private final Map<String, Integer> categories;
+    private final String reportId;
+
+    public ReportCluster(String clusterId, int count, double latitude, double longitude,
+                         double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                         String dominantCategory, Map<String, Integer> categories, String reportId) {
+        this.clusterId = clusterId;
+        this.count = count;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.minLatitude = minLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLatitude = maxLatitude;
+        this.maxLongitude = maxLongitude;
+        this.dominantCategory = dominantCategory;
+        this.categories = categories;
+        this.reportId = reportId;
+    }
+
+    public String getClusterId() { return clusterId; }
+    public int getCount() { return count; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public double getMinLatitude() { return minLatitude; }
+    public double getMinLongitude() { return minLongitude; }
+    public double getMaxLatitude() { return maxLatitude; }
+    public double getMaxLongitude() { return maxLongitude; }
+    public String getDominantCategory() { return dominantCategory; }
+    public Map<String, Integer> getCategories() { return categories; }
+    public String getReportId() { return reportId; }
+}
@@ -0,0 +1,277 @@
+package com.seismiq.report;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.seismiq.common.model.Report;
+import com.seismiq.common.util.GeoUtils;
+
+/**
+ * Groups reports into hotspots for the map, so a client draws a few hundred clusters
+ * instead of every report.
+ *
+ * <p>Clustering runs in two steps. Reports are first binned into geohash cells a fraction
+ * of the cluster radius wide, which turns tens of thousands of points into at most a few
+ * thousand weighted cells. DBSCAN then runs over the cell centroids: a cell is a core cell
+ * when the cells within the cluster radius hold at least {@link #MIN_REPORTS} reports, core
+ * cells that reach each other are merged together with their border cells, and the cells
+ * left over (noise) are returned as clusters of their own, since every report should still
+ * show up on the map. Expansion stops {@link #MAX_EXTENT_RADII} radii from the seed cell,
+ * because plain DBSCAN chains through scattered reports and would merge neighbouring towns
+ * into a single marker. Neighbours are found through a hash grid of radius-sized buckets, so
+ * each cell only compares itself with the cells in the surrounding 3x3 buckets.</p>
+ *
+ * <p>The radius follows the map zoom: about {@link #CLUSTER_RADIUS_PIXELS} screen pixels
+ * on a Web Mercator map, so clusters keep a similar size on screen while zooming.</p>
+ */
+public class ReportClusterer {
+    static final int CLUSTER_RADIUS_PIXELS = 60;
+    static final int MIN_REPORTS = 3;
+    static final double MAX_EXTENT_RADII = 2.0;
+    static final int MIN_ZOOM = 0;
+    static final int MAX_ZOOM = 20;
+
+    private static final int TILE_SIZE = 256;
+    private static final double EQUATOR_KM = 2 * Math.PI * GeoUtils.EARTH_RADIUS_KM;
+    private static final double KM_PER_DEGREE_LAT = EQUATOR_KM / 360.0;
+    private static final int MAX_GRID_PRECISION = 9;     // the precision geohashes are stored with
+    private static final String UNKNOWN_CATEGORY = "unknown";
+
+    /**
+     * @param zoom The map zoom level, 0 (whole world) to 20
+     * @return The cluster radius in kilometers at that zoom
+     */
+    public static double clusterRadiusKm(int zoom) {
+        return EQUATOR_KM / (TILE_SIZE * Math.pow(2, zoom)) * CLUSTER_RADIUS_PIXELS;
+    }
+
+    /**
+     * Picks the shortest geohash precision whose cells are at most half the radius tall,
+     * so binning never moves a report by more than a fraction of the radius.
+     */
+    static int gridPrecision(double radiusKm) {
+        for (int precision = 1; precision < MAX_GRID_PRECISION; precision++) {
+            if (GeoUtils.cellHeightDegrees(precision) * KM_PER_DEGREE_LAT <= radiusKm / 2) {
+                return precision;
+            }
+        }
+        return MAX_GRID_PRECISION;
+    }
+
+    /**
+     * Clusters reports for display at a zoom level. Reports without coordinates are ignored.
+     *
+     * @param reports The reports to cluster, for example those inside the visible box
+     * @param zoom The map zoom level, 0 (whole world) to 20
+     * @return The clusters, largest first
+     */
+    public List<ReportCluster> cluster(List<Report> reports, int zoom) {
+        if (zoom < MIN_ZOOM || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between " + MIN_ZOOM + " and " + MAX_ZOOM);
+        }
+        double radiusKm = clusterRadiusKm(zoom);
+        List<Cell> cells = bin(reports, gridPrecision(radiusKm));
+        if (cells.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Bucket width in degrees; longitude buckets are sized for the latitude where degrees are narrowest
+        double maxAbsLat = 0;
+        for (Cell cell : cells) {
+            maxAbsLat = Math.max(maxAbsLat, Math.abs(cell.latitude()));
+        }
+        double latBucket = radiusKm / KM_PER_DEGREE_LAT;
+        double lonBucket = Math.min(360.0, latBucket / Math.max(0.01, Math.cos(Math.toRadians(maxAbsLat))));
+        Map<Long, List<Cell>> grid = new HashMap<>();
+        for (Cell cell : cells) {
+            grid.computeIfAbsent(bucketKey(cell.bucketRow(latBucket), cell.bucketColumn(lonBucket)),
+                k -> new ArrayList<>()).add(cell);
+        }
+
+        // Core cells are found up front so expansion below only re-reads cached neighbour lists
+        for (Cell cell : cells) {
+            cell.neighbours = neighbours(cell, grid, latBucket, lonBucket, radiusKm);
+            for (Cell neighbour : cell.neighbours) {
+                cell.reach += neighbour.count;
+            }
+            cell.core = cell.reach >= MIN_REPORTS;
+        }
+
+        // Seeding from the densest cells centers each cluster on a local peak
+        List<Cell> seeds = new ArrayList<>(cells);
+        seeds.sort(Comparator.comparingInt((Cell cell) -> cell.reach).reversed());
+        List<List<Cell>> groups = new ArrayList<>();
+        for (Cell seed : seeds) {
+            if (seed.assigned || !seed.core) {
+                continue;
+            }
+            List<Cell> group = new ArrayList<>();
+            Deque<Cell> frontier = new ArrayDeque<>();
+            seed.assigned = true;
+            frontier.add(seed);
+            while (!frontier.isEmpty()) {
+                Cell cell = frontier.poll();
+                group.add(cell);
+                if (!cell.core) {
+                    continue;   // border cells join the cluster but do not extend it
+                }
+                for (Cell neighbour : cell.neighbours) {
+                    if (!neighbour.assigned && GeoUtils.haversineKm(seed.latitude(), seed.longitude(),
+                            neighbour.latitude(), neighbour.longitude()) <= MAX_EXTENT_RADII * radiusKm) {
+                        neighbour.assigned = true;
+                        frontier.add(neighbour);
+                    }
+                }
+            }
+            groups.add(group);
+        }
+        for (Cell cell : cells) {
+            if (!cell.assigned) {
+                groups.add(List.of(cell));
+            }
+        }
+
+        List<ReportCluster> clusters = new ArrayList<>(groups.size());
+        for (List<Cell> group : groups) {
+            clusters.add(toCluster(group));
+        }
+        clusters.sort(Comparator.comparingInt(ReportCluster::getCount).reversed()
+            .thenComparing(ReportCluster::getClusterId));
+        return clusters;
+    }
+
+    private static List<Cell> bin(List<Report> reports, int precision) {
+        Map<String, Cell> cells = new LinkedHashMap<>();
+        for (Report report : reports) {
+            if (!report.hasCoordinates()) {
+                continue;
+            }
+            String geohash = GeoUtils.geohash(report.getLatitude(), report.getLongitude(), precision);
+            cells.computeIfAbsent(geohash, Cell::new).add(report);
+        }
+        return new ArrayList<>(cells.values());
+    }
+
+    private static List<Cell> neighbours(Cell cell, Map<Long, List<Cell>> grid,
+                                         double latBucket, double lonBucket, double radiusKm) {
+        List<Cell> neighbours = new ArrayList<>();
+        long row = cell.bucketRow(latBucket);
+        long column = cell.bucketColumn(lonBucket);
+        for (long r = row - 1; r <= row + 1; r++) {
+            for (long c = column - 1; c <= column + 1; c++) {
+                List<Cell> bucket = grid.get(bucketKey(r, c));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Cell other : bucket) {
+                    if (other == cell || GeoUtils.haversineKm(cell.latitude(), cell.longitude(),
+                            other.latitude(), other.longitude()) <= radiusKm) {
+                        neighbours.add(other);
+                    }
+                }
+            }
+        }
+        return neighbours;
+    }
+
+    private static long bucketKey(long row, long column) {
+        return (row << 32) ^ (column & 0xffffffffL);
+    }
+
+    private static ReportCluster toCluster(List<Cell> group) {
+        int count = 0;
+        double sumLat = 0;
+        double sumLon = 0;
+        double minLat = Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE;
+        double maxLat = -Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE;
+        Map<String, Integer> categories = new TreeMap<>();
+        String clusterId = group.get(0).geohash;
+        for (Cell cell : group) {
+            count += cell.count;
+            sumLat += cell.sumLat;
+            sumLon += cell.sumLon;
+            minLat = Math.min(minLat, cell.minLat);
+            minLon = Math.min(minLon, cell.minLon);
+            maxLat = Math.max(maxLat, cell.maxLat);
+            maxLon = Math.max(maxLon, cell.maxLon);
+            cell.categories.forEach((category, n) -> categories.merge(category, n, Integer::sum));
+        }
+
+        String dominantCategory = null;
+        int dominantCount = 0;
+        for (Map.Entry<String, Integer> category : categories.entrySet()) {
+            if (category.getValue() > dominantCount) {
+                dominantCategory = category.getKey();
+                dominantCount = category.getValue();
+            }
+        }
+
+        String reportId = count == 1 ? group.get(0).firstReportId : null;
+        return new ReportCluster(clusterId, count, sumLat / count, sumLon / count,
+            minLat, minLon, maxLat, maxLon, dominantCategory, categories, reportId);
+    }
+
+    // The reports of one geohash cell, as a weighted point
+    private static final class Cell {
+        private final String geohash;
+        private int count;
+        private double sumLat;
+        private double sumLon;
+        private double minLat = Double.MAX_VALUE;
+        private double minLon = Double.MAX_VALUE;
+        private double maxLat = -Double.MAX_VALUE;
+        private double maxLon = -Double.MAX_VALUE;
+        private final Map<String, Integer> categories = new HashMap<>();
+        private String firstReportId;
+        private List<Cell> neighbours;
+        private int reach;
+        private boolean core;
+        private boolean assigned;
+
+        Cell(String geohash) {
+            this.geohash = geohash;
+        }
+
+        void add(Report report) {
+            double lat = report.getLatitude();
+            double lon = report.getLongitude();
+            if (count == 0) {
+                firstReportId = report.getReportId();
+            }
+            count++;
+            sumLat += lat;
+            sumLon += lon;
+            minLat = Math.min(minLat, lat);
+            minLon = Math.min(minLon, lon);
+            maxLat = Math.max(maxLat, lat);
+            maxLon = Math.max(maxLon, lon);
+            String category = report.getCategoryType() != null ? report.getCategoryType() : UNKNOWN_CATEGORY;
+            categories.merge(category, 1, Integer::sum);
+        }
+
+        double latitude() {
+            return sumLat / count;
+        }
+
+        double longitude() {
+            return sumLon / count;
+        }
+
+        long bucketRow(double latBucket) {
+            return (long) Math.floor((latitude() + 90.0) / latBucket);
+        }
+
+        long bucketColumn(double lonBucket) {
+            return (long) Math.floor((longitude() + 180.0) / lonBucket);
+        }
+    }
+}
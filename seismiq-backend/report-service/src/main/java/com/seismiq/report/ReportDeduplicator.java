@@ -0,0 +1,144 @@
+package com.seismiq.report;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.seismiq.common.model.Report;
+import com.seismiq.common.util.FieldSelection;
+import com.seismiq.common.util.GeoUtils;
+import com.seismiq.common.util.TurkishText;
+
+/**
+ * Finds an existing report that a new one most likely duplicates: the same category,
+ * reported close by (geohash index lookup) within a recent time window, with a similar
+ * description. During an event the same collapsed building is reported many times; attaching
+ * those reports to the first one avoids repeating geocoding, landmark writes and notifications.
+ *
+ * <p>Descriptions are compared as sets of character trigrams of the Turkish-folded text
+ * (Dice coefficient), which tolerates the suffixes Turkish adds to words ("bina", "binada",
+ * "binanın"). Without a description on both sides there is nothing to compare, so such a
+ * report only matches one from practically the same spot and the last few minutes.</p>
+ */
+public class ReportDeduplicator {
+    static final double RADIUS_KM = 0.1;
+    static final Duration WINDOW = Duration.ofHours(6);
+    static final double MIN_SIMILARITY = 0.5;
+    // Limits for a match that cannot be confirmed by the description
+    static final double BLANK_RADIUS_KM = 0.02;
+    static final Duration BLANK_WINDOW = Duration.ofMinutes(30);
+
+    // Only what the comparison needs; key, timestamp and coordinates are always read
+    private static final FieldSelection CANDIDATE_FIELDS = ReportRepository.selectFields("category,description,status");
+
+    private final ReportRepository reportRepository;
+
+    public ReportDeduplicator(ReportRepository reportRepository) {
+        this.reportRepository = reportRepository;
+    }
+
+    /**
+     * Looks for an open report that the given report duplicates.
+     * Reports without client-supplied coordinates are never matched, since a geocoded
+     * city center says nothing about which building was reported.
+     *
+     * @param report The incoming report, before it is saved
+     * @return The best matching existing report, or null if there is none
+     */
+    public Report findDuplicate(Report report) {
+        if (!report.hasCoordinates() || report.getCategoryType() == null) {
+            return null;
+        }
+
+        LocalDateTime reportedAt = report.getTimestamp() != null ? report.getTimestamp() : LocalDateTime.now();
+        LocalDateTime windowStart = reportedAt.minus(WINDOW);
+        LocalDateTime blankWindowStart = reportedAt.minus(BLANK_WINDOW);
+        Set<String> trigrams = trigrams(report.getDescription());
+
+        List<Report> candidates = reportRepository.findReportsNear(
+            report.getLatitude(), report.getLongitude(), RADIUS_KM, CANDIDATE_FIELDS);
+
+        Report best = null;
+        double bestScore = 0;
+        for (Report candidate : candidates) {
+            if (!isOpen(candidate)
+                    || !Objects.equals(candidate.getCategoryType(), report.getCategoryType())
+                    || candidate.getTimestamp() == null
+                    || candidate.getTimestamp().isBefore(windowStart)) {
+                continue;
+            }
+
+            Set<String> candidateTrigrams = trigrams(candidate.getDescription());
+            double score;
+            if (trigrams.isEmpty() || candidateTrigrams.isEmpty()) {
+                // Nothing to compare: only the same spot and a few minutes apart count, ranked below any text match
+                if (candidate.getTimestamp().isBefore(blankWindowStart)
+                        || distanceMeters(report, candidate) > BLANK_RADIUS_KM * 1000) {
+                    continue;
+                }
+                score = MIN_SIMILARITY;
+            } else {
+                score = similarity(trigrams, candidateTrigrams);
+                if (score < MIN_SIMILARITY) {
+                    continue;
+                }
+            }
+            // Prefer the most similar description, then the closest report (candidates come nearest first)
+            if (best == null || score > bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isOpen(Report report) {
+        return report.getStatus() == Report.ReportStatus.PENDING
+            || report.getStatus() == Report.ReportStatus.IN_PROGRESS;
+    }
+
+    /**
+     * Dice coefficient of two trigram sets. An empty side shares nothing and scores 0.
+     */
+    static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                shared++;
+            }
+        }
+        return 2.0 * shared / (a.size() + b.size());
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        String normalized = TurkishText.normalizeKey(text);
+        if (normalized == null) {
+            return trigrams;
+        }
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            // Pad so that short words and word starts still produce trigrams
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * @return The distance in meters between two reports, for logging and responses
+     */
+    static long distanceMeters(Report a, Report b) {
+        return Math.round(GeoUtils.haversineKm(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude()) * 1000);
+    }
+}
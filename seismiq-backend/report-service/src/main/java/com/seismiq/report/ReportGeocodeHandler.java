@@ -0,0 +1,46 @@
+package com.seismiq.report;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.seismiq.common.cdc.DynamoDbChangeStream;
+import com.seismiq.common.outbox.DynamoDbOutbox;
+import com.seismiq.common.outbox.OutboxStreamConsumer;
+import com.seismiq.common.service.CachingGeocodingService;
+import com.seismiq.common.service.GeoNamesGeocodingService;
+
+/**
+ * AWS Lambda handler for the outbox table stream that resolves the locations of reports
+ * saved with geocodeStatus PENDING. New "report.geocode" messages are handed to
+ * {@link ReportLocationEnricher} as one batch; if it fails, the stream delivers the batch again.
+ */
+public class ReportGeocodeHandler implements RequestHandler<DynamodbEvent, StreamsEventResponse> {
+    private final OutboxStreamConsumer consumer;
+    private final CachingGeocodingService geocodingCache;
+
+    public ReportGeocodeHandler() {
+        this(CachingGeocodingService.fromEnvironment(new GeoNamesGeocodingService()));
+    }
+
+    private ReportGeocodeHandler(CachingGeocodingService geocodingCache) {
+        this.consumer = new OutboxStreamConsumer(ReportLocationEnricher.TOPIC,
+            new ReportLocationEnricher(new ReportRepository(), geocodingCache, new DynamoDbOutbox()));
+        this.geocodingCache = geocodingCache;
+    }
+
+    public ReportGeocodeHandler(ReportLocationEnricher enricher) {
+        this.consumer = new OutboxStreamConsumer(ReportLocationEnricher.TOPIC, enricher);
+        this.geocodingCache = null;
+    }
+
+    @Override
+    public StreamsEventResponse handleRequest(DynamodbEvent event, Context context) {
+        StreamsEventResponse response = DynamoDbChangeStream.deliver(event, consumer, context.getLogger()::log);
+        if (geocodingCache != null) {
+            context.getLogger().log("Geocoding cache: reverse " + geocodingCache.getReverseStats()
+                + "; forward " + geocodingCache.getForwardStats());
+        }
+        return response;
+    }
+}
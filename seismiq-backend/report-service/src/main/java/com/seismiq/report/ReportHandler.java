@@ -7,14 +7,32 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
+import com.seismiq.common.cdc.InMemoryChangeStream;
 import com.seismiq.common.model.Category;
 import com.seismiq.common.model.Report;
 import com.seismiq.common.model.User;
+import com.seismiq.common.outbox.DynamoDbOutbox;
+import com.seismiq.common.outbox.InMemoryOutbox;
+import com.seismiq.common.outbox.Outbox;
+import com.seismiq.common.outbox.OutboxMessage;
+import com.seismiq.common.http.ApiGatewayRequests;
+import com.seismiq.common.http.JsonResponseWriter;
+import com.seismiq.common.repository.Page;
+import com.seismiq.common.repository.VersionConflictException;
+import com.seismiq.common.service.CachingGeocodingService;
 import com.seismiq.common.service.GeoNamesGeocodingService;
-import com.seismiq.common.service.GeoNamesGeocodingService.GeocodingResult;
+import com.seismiq.common.search.SearchIndexConsumer;
+import com.seismiq.common.search.SearchIndexRepository;
+import com.seismiq.common.sync.SyncIndexConsumer;
+import com.seismiq.common.sync.SyncIndexRepository;
+import com.seismiq.common.util.FieldSelection;
 import com.seismiq.common.util.LocalDateTimeAdapter;
+import com.seismiq.landmark.LandmarkOutboxConsumer;
+import com.seismiq.landmark.LandmarkRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -27,9 +45,32 @@ import java.util.UUID;
  * @author Sıla Bozkurt
  */
 public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_SYNC_LIMIT = 500;
+    private static final int MAX_SYNC_LIMIT = 1000;
+    private static final double DEFAULT_NEAR_RADIUS_KM = 5.0;
+    private static final double MAX_NEAR_RADIUS_KM = 50.0;
+    private static final int DEFAULT_PLACE_SUGGESTIONS = 5;
+    private static final int MAX_PLACE_SUGGESTIONS = 10;
+    // Clustering only needs the category; key, timestamp and coordinates are always read
+    private static final FieldSelection CLUSTER_FIELDS = ReportRepository.selectFields("category");
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int OUTBOX_BATCH_SIZE = 25;
+    private static final int CHANGE_BATCH_SIZE = 100;
+
     private final ReportRepository reportRepository;
     private final Gson gson;
+    private final JsonResponseWriter responses;
     private final GeoNamesGeocodingService geocodingService;
+    private final ReportDeduplicator deduplicator;
+    private final ReportClusterer clusterer;
+    private final HeatmapTileService heatmaps;
+    private final Outbox outbox;
+    private final ReportLocationEnricher locationEnricher;
+    private final boolean deferGeocoding;
+    private final SyncService syncService;
+    private final SearchService searchService;
 
     /**
      * Default constructor that initializes with a new ReportRepository instance.
@@ -44,25 +85,42 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      * @param reportRepository The repository implementation for report data operations
      */
     public ReportHandler(ReportRepository reportRepository) {
-        this.reportRepository = reportRepository;
-        this.geocodingService = new GeoNamesGeocodingService();
-        this.gson = new GsonBuilder()
-            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-            .create();
+        this(reportRepository, CachingGeocodingService.fromEnvironment(new GeoNamesGeocodingService()));
     }
 
     /**
-     * Constructor with full dependency injection support for testing.
+     * Constructor with geocoding injection support for testing.
      * 
      * @param reportRepository The repository implementation for report data operations
      * @param geocodingService The geocoding service implementation
      */
     public ReportHandler(ReportRepository reportRepository, GeoNamesGeocodingService geocodingService) {
+        this(reportRepository, geocodingService, defaultOutbox(reportRepository, geocodingService));
+    }
+
+    /**
+     * Constructor with full dependency injection support for testing.
+     * 
+     * @param reportRepository The repository implementation for report data operations
+     * @param geocodingService The geocoding service implementation
+     * @param outbox Where follow-up work (geocoding, landmarks) of new reports is queued
+     */
+    public ReportHandler(ReportRepository reportRepository, GeoNamesGeocodingService geocodingService, Outbox outbox) {
         this.reportRepository = reportRepository;
         this.geocodingService = geocodingService;
+        this.deduplicator = new ReportDeduplicator(reportRepository);
+        this.clusterer = new ReportClusterer();
+        this.heatmaps = new HeatmapTileService(reportRepository, new EarthquakeHeatmapRepository());
+        this.outbox = outbox;
+        this.locationEnricher = new ReportLocationEnricher(reportRepository, geocodingService, outbox);
+        recordLocalChanges();
+        this.deferGeocoding = "deferred".equalsIgnoreCase(System.getenv("GEOCODING_MODE"));
+        this.syncService = new SyncService(new SyncIndexRepository());
+        this.searchService = new SearchService(new SearchIndexRepository());
         this.gson = new GsonBuilder()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .create();
+        this.responses = new JsonResponseWriter(gson);
     }
 
     /**
@@ -75,6 +133,7 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      */
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        ApiGatewayRequests.decodeBody(input);
         String path = input.getPath();
         String httpMethod = input.getHttpMethod();
 
@@ -89,6 +148,38 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
             }
         }
 
+        if (path.equals("/reports/batch")) {
+            return httpMethod.equals("POST") ? createReportsBatch(input) : notFound();
+        }
+
+        if (path.equals("/reports/near")) {
+            return httpMethod.equals("GET") ? getReportsNear(input) : notFound();
+        }
+
+        if (path.equals("/reports/clusters")) {
+            return httpMethod.equals("GET") ? getReportClusters(input) : notFound();
+        }
+
+        if (path.matches("/reports/heatmap/[^/]+/[^/]+/[^/]+")) {
+            return httpMethod.equals("GET") ? getHeatmapTile(path) : notFound();
+        }
+
+        if (path.equals("/sync")) {
+            return httpMethod.equals("GET") ? sync(input) : notFound();
+        }
+
+        if (path.equals("/search")) {
+            return httpMethod.equals("GET") ? search(input) : notFound();
+        }
+
+        if (path.equals("/places/autocomplete")) {
+            return httpMethod.equals("GET") ? autocompletePlaces(input) : notFound();
+        }
+
+        if (path.equals("/reports/statistics")) {
+            return httpMethod.equals("GET") ? getReportStatistics(input) : notFound();
+        }
+
         if (path.matches("/reports/[^/]+")) {
             String reportId = path.substring("/reports/".length());
             switch (httpMethod) {
@@ -115,27 +206,27 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
 
         if (path.matches("/users/[^/]+/reports")) {
             String userId = path.substring("/users/".length(), path.length() - "/reports".length());
-            return httpMethod.equals("GET") ? getReportsByUser(userId) : notFound();
+            return httpMethod.equals("GET") ? getReportsByUser(userId, input) : notFound();
         }
 
         if (path.matches("/reports/category/[^/]+")) {
             String category = path.substring("/reports/category/".length());
-            return httpMethod.equals("GET") ? getReportsByCategory(category) : notFound();
+            return httpMethod.equals("GET") ? getReportsByCategory(category, input) : notFound();
         }
 
         if (path.matches("/reports/status/[^/]+")) {
             String status = path.substring("/reports/status/".length());
-            return httpMethod.equals("GET") ? getReportsByStatus(status) : notFound();
+            return httpMethod.equals("GET") ? getReportsByStatus(status, input) : notFound();
         }
 
         if (path.matches("/reports/city/[^/]+")) {
             String city = path.substring("/reports/city/".length());
-            return httpMethod.equals("GET") ? getReportsByCity(city) : notFound();
+            return httpMethod.equals("GET") ? getReportsByCity(city, input) : notFound();
         }
 
         if (path.matches("/reports/province/[^/]+")) {
             String province = path.substring("/reports/province/".length());
-            return httpMethod.equals("GET") ? getReportsByProvince(province) : notFound();
+            return httpMethod.equals("GET") ? getReportsByProvince(province, input) : notFound();
         }
 
         return notFound();
@@ -150,10 +241,13 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      * - description, location, and currentLocation fields
      * 
      * Initializes reportId, status, and timestamp automatically.
-     * Saves the report in the repository.
+     * Saves the report in the repository, unless it duplicates an open report of the same
+     * category reported close by in the last hours (see {@link ReportDeduplicator}); then it is
+     * attached to that report and no geocoding, landmark or notification work is repeated.
      * 
      * @param input API Gateway request containing the report data in JSON format
      * @return 201 Created on success with the created report
+     *         200 OK with {"duplicateOf", "distanceMeters", "report"} if it was attached to an existing report
      *         400 Bad Request if required fields are missing or JSON is invalid
      */
     @SuppressWarnings("unchecked")
@@ -161,137 +255,288 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
         try {
             Map<String, Object> bodyMap = gson.fromJson(input.getBody(), Map.class);
 
-            // Handle both direct categoryType and nested category object
-            String categoryType = null;
-            if (bodyMap.containsKey("category") && bodyMap.get("category") != null) {
-                // Frontend sends nested category object (old format)
-                Map<String, Object> categoryMap = (Map<String, Object>) bodyMap.get("category");
-                categoryType = (String) categoryMap.get("categoryType");
-            } else if (bodyMap.containsKey("categoryType")) {
-                // Frontend sends flat categoryType field (new format)
-                categoryType = (String) bodyMap.get("categoryType");
-            }
-            
-            if (categoryType == null) {
+            Report report;
+            try {
+                report = parseReport(bodyMap);
+            } catch (InvalidReportException e) {
                 return new APIGatewayProxyResponseEvent()
                         .withStatusCode(400)
-                        .withBody("Category type is required");
+                        .withBody(e.getMessage());
+            }
+
+            APIGatewayProxyResponseEvent duplicateResponse = attachIfDuplicate(report);
+            if (duplicateResponse != null) {
+                return duplicateResponse;
+            }
+
+            geocodeMissingLocation(report);
+
+            saveWithFollowUps(report);
+            heatmaps.reportAdded(report);
+
+            return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(201)
+                    .withBody(gson.toJson(report));
+
+        } catch (JsonSyntaxException e) {
+            return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(400)
+                    .withBody("Invalid report format: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(400)
+                    .withBody("Invalid report data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Attaches a report to an existing one if it is a near-duplicate.
+     * Lookup failures never block report creation.
+     *
+     * @param report The parsed incoming report
+     * @return The 200 response for an attached duplicate, or null if the report should be created
+     */
+    private APIGatewayProxyResponseEvent attachIfDuplicate(Report report) {
+        try {
+            Report original = deduplicator.findDuplicate(report);
+            if (original == null) {
+                return null;
             }
-            Category category = new Category(UUID.randomUUID().toString(), categoryType);
+            Report updated = reportRepository.attachDuplicate(original.getReportId(), report);
+            if (updated == null) {
+                return null;
+            }
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("duplicateOf", updated.getReportId());
+            body.put("distanceMeters", ReportDeduplicator.distanceMeters(report, updated));
+            body.put("report", updated);
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(gson.toJson(body));
+        } catch (RuntimeException e) {
+            System.err.println("Duplicate check failed: " + e.getMessage());
+            return null;
+        }
+    }
 
-            Object userObj = bodyMap.get("user");
-            if (userObj == null) {
+    /**
+     * Creates many reports in one request.
+     * Processes POST requests to /reports/batch endpoint.
+     * The body is a JSON array of reports (or an object with a "reports" array), each in the
+     * same format as POST /reports. All reports are validated first; the valid ones are
+     * geocoded if needed and written with BatchWriteItem in parallel 25-item chunks.
+     * 
+     * @param input API Gateway request containing the reports in JSON format
+     * @return 200 OK with per-item results: {"created": n, "failed": m, "results": [...]},
+     *         where each result has the item index, a status (201, 400 or 500) and the reportId or error
+     *         400 Bad Request if the body is not a list of reports or has too many items
+     */
+    @SuppressWarnings("unchecked")
+    private APIGatewayProxyResponseEvent createReportsBatch(APIGatewayProxyRequestEvent input) {
+        try {
+            Object body = gson.fromJson(input.getBody(), Object.class);
+            if (body instanceof Map<?, ?> bodyObject) {
+                body = bodyObject.get("reports");
+            }
+            if (!(body instanceof List<?> items) || items.isEmpty()) {
                 return new APIGatewayProxyResponseEvent()
                         .withStatusCode(400)
-                        .withBody("User data is required");
-            }
-            User user = gson.fromJson(gson.toJson(userObj), User.class);
-
-            Report report = new Report();
-            report.setReportId(UUID.randomUUID().toString()); // Assign unique report ID
-            report.setUser(user); // Set the user
-            report.setCategory(category); // Set the category
-            report.setDescription((String) bodyMap.get("description")); // Set description
-            report.setLocation((String) bodyMap.get("location")); // Set location
-
-            Object currentLocationObj = bodyMap.get("currentLocation");
-            report.setCurrentLocation(currentLocationObj != null && Boolean.parseBoolean(currentLocationObj.toString()));
-
-            // Handle coordinate finding system - user can choose either coordinates or city/province
-            boolean hasCoordinates = bodyMap.get("latitude") != null && bodyMap.get("longitude") != null;
-            boolean hasCityProvince = bodyMap.get("city") != null || bodyMap.get("province") != null;
-
-            if (hasCoordinates) {
-                // User provided coordinates - use them and optionally find city/province
-                double latitude = Double.parseDouble(bodyMap.get("latitude").toString());
-                double longitude = Double.parseDouble(bodyMap.get("longitude").toString());
-                
-                report.setLatitude(latitude);
-                report.setLongitude(longitude);
-
-                // If city/province not provided, try to find them using reverse geocoding
-                if (!hasCityProvince) {
-                    try {
-                        GeocodingResult geocodingResult = geocodingService.findLocationFromCoordinates(latitude, longitude);
-                        if (geocodingResult != null) {
-                            report.setCity(geocodingResult.getCity());
-                            report.setProvince(geocodingResult.getProvince());
-                        }
-                    } catch (Exception e) {
-                        // Log warning but continue - coordinates are more important
-                        System.err.println("Failed to reverse geocode coordinates: " + e.getMessage());
-                    }
-                } else {
-                    // User provided both coordinates and city/province - use their values
-                    if (bodyMap.get("city") != null) {
-                        report.setCity((String) bodyMap.get("city"));
-                    }
-                    if (bodyMap.get("province") != null) {
-                        report.setProvince((String) bodyMap.get("province"));
-                    }
-                }
-
-            } else if (hasCityProvince) {
-                // User provided city/province but no coordinates - find coordinates
-                String city = (String) bodyMap.get("city");
-                String province = (String) bodyMap.get("province");
-                
-                report.setCity(city);
-                report.setProvince(province);
+                        .withBody("Request body must be a non-empty list of reports");
+            }
+            if (items.size() > MAX_BATCH_SIZE) {
+                return new APIGatewayProxyResponseEvent()
+                        .withStatusCode(400)
+                        .withBody("A batch can contain at most " + MAX_BATCH_SIZE + " reports");
+            }
 
+            // Validate everything up front so bad items never reach the database
+            List<Map<String, Object>> results = new ArrayList<>();
+            List<Report> valid = new ArrayList<>();
+            Map<String, Map<String, Object>> resultsById = new HashMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("index", i);
+                results.add(result);
                 try {
-                    GeocodingResult geocodingResult = geocodingService.findCoordinatesFromName(city, province);
-                    if (geocodingResult != null) {
-                        report.setLatitude(geocodingResult.getLatitude());
-                        report.setLongitude(geocodingResult.getLongitude());
-                    } else {
-                        // If specific city not found, try with just province
-                        if (province != null) {
-                            geocodingResult = geocodingService.findCoordinatesFromName(province, null);
-                            if (geocodingResult != null) {
-                                report.setLatitude(geocodingResult.getLatitude());
-                                report.setLongitude(geocodingResult.getLongitude());
-                            }
-                        }
+                    if (!(items.get(i) instanceof Map)) {
+                        throw new InvalidReportException("Report must be a JSON object");
                     }
-                } catch (Exception e) {
-                    // Log warning but continue - city/province info is still valuable
-                    System.err.println("Failed to geocode city/province: " + e.getMessage());
+                    Report report = parseReport((Map<String, Object>) items.get(i));
+                    valid.add(report);
+                    resultsById.put(report.getReportId(), result);
+                } catch (IllegalArgumentException | ClassCastException e) {
+                    result.put("status", 400);
+                    result.put("error", e.getMessage());
                 }
+            }
 
+            // One batch lookup per direction instead of a geocoder round trip per report
+            if (!deferGeocoding) {
+                locationEnricher.enrichAll(valid);
             } else {
-                // Neither coordinates nor city/province provided
-                return new APIGatewayProxyResponseEvent()
-                        .withStatusCode(400)
-                        .withBody("Either coordinates (latitude/longitude) or location (city/province) must be provided");
+                valid.forEach(this::geocodeMissingLocation);
             }
+            Map<String, String> failures = reportRepository.saveReports(valid);
 
-            // Set location description if provided
-            if (bodyMap.get("locationDescription") != null) {
-                report.setLocationDescription((String) bodyMap.get("locationDescription"));
+            int created = 0;
+            for (Report report : valid) {
+                Map<String, Object> result = resultsById.get(report.getReportId());
+                String error = failures.get(report.getReportId());
+                if (error != null) {
+                    result.put("status", 500);
+                    result.put("error", error);
+                } else {
+                    result.put("status", 201);
+                    result.put("reportId", report.getReportId());
+                    heatmaps.reportAdded(report);
+                    // BatchWriteItem has no transactions, so the follow-ups are queued once the batch is written
+                    followUps(report).forEach(this::publish);
+                    created++;
+                }
             }
 
-            report.setStatus(Report.ReportStatus.PENDING);
-            report.setTimestamp(LocalDateTime.now());
-
-            reportRepository.createReport(report);
-            createLandmarkFromReport(report);
-
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("created", created);
+            response.put("failed", items.size() - created);
+            response.put("results", results);
             return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(201)
-                    .withBody(gson.toJson(report));
+                    .withStatusCode(200)
+                    .withBody(gson.toJson(response));
 
         } catch (JsonSyntaxException e) {
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(400)
                     .withBody("Invalid report format: " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(400)
-                    .withBody("Invalid report data: " + e.getMessage());
         }
     }
 
+    /**
+     * Builds a new report from a request body and validates it.
+     * Assigns reportId, status and timestamp. Does not geocode; see geocodeMissingLocation.
+     * 
+     * @param bodyMap The parsed report JSON
+     * @return The report, ready to be geocoded and saved
+     * @throws InvalidReportException if required fields are missing
+     * @throws IllegalArgumentException if a field has an invalid value
+     */
+    @SuppressWarnings("unchecked")
+    private Report parseReport(Map<String, Object> bodyMap) {
+        // Handle both direct categoryType and nested category object
+        String categoryType = null;
+        if (bodyMap.containsKey("category") && bodyMap.get("category") != null) {
+            // Frontend sends nested category object (old format)
+            Map<String, Object> categoryMap = (Map<String, Object>) bodyMap.get("category");
+            categoryType = (String) categoryMap.get("categoryType");
+        } else if (bodyMap.containsKey("categoryType")) {
+            // Frontend sends flat categoryType field (new format)
+            categoryType = (String) bodyMap.get("categoryType");
+        }
+        
+        if (categoryType == null) {
+            throw new InvalidReportException("Category type is required");
+        }
+        Category category = new Category(UUID.randomUUID().toString(), categoryType);
+
+        Object userObj = bodyMap.get("user");
+        if (userObj == null) {
+            throw new InvalidReportException("User data is required");
+        }
+        User user = gson.fromJson(gson.toJson(userObj), User.class);
+
+        Report report = new Report();
+        report.setReportId(UUID.randomUUID().toString()); // Assign unique report ID
+        report.setUser(user); // Set the user
+        report.setCategory(category); // Set the category
+        report.setDescription((String) bodyMap.get("description")); // Set description
+        report.setLocation((String) bodyMap.get("location")); // Set location
+
+        Object currentLocationObj = bodyMap.get("currentLocation");
+        report.setCurrentLocation(currentLocationObj != null && Boolean.parseBoolean(currentLocationObj.toString()));
+
+        // User can choose either coordinates or city/province
+        boolean hasCoordinates = bodyMap.get("latitude") != null && bodyMap.get("longitude") != null;
+        boolean hasCityProvince = bodyMap.get("city") != null || bodyMap.get("province") != null;
+
+        if (!hasCoordinates && !hasCityProvince) {
+            // Neither coordinates nor city/province provided
+            throw new InvalidReportException("Either coordinates (latitude/longitude) or location (city/province) must be provided");
+        }
+        if (hasCoordinates) {
+            report.setLatitude(Double.parseDouble(bodyMap.get("latitude").toString()));
+            report.setLongitude(Double.parseDouble(bodyMap.get("longitude").toString()));
+        }
+        if (bodyMap.get("city") != null) {
+            report.setCity((String) bodyMap.get("city"));
+        }
+        if (bodyMap.get("province") != null) {
+            report.setProvince((String) bodyMap.get("province"));
+        }
+
+        // Set location description if provided
+        if (bodyMap.get("locationDescription") != null) {
+            report.setLocationDescription((String) bodyMap.get("locationDescription"));
+        }
+
+        report.setStatus(Report.ReportStatus.PENDING);
+        report.setTimestamp(LocalDateTime.now());
+        return report;
+    }
+
+    /**
+     * Fills in whichever half of the location the user did not provide, inline or, in deferred
+     * geocoding mode, by marking the report PENDING for the background enricher.
+     * 
+     * @param report The report to complete, before it is saved
+     */
+    private void geocodeMissingLocation(Report report) {
+        if (!deferGeocoding) {
+            locationEnricher.enrich(report);
+        } else if (ReportLocationEnricher.needsGeocoding(report)) {
+            report.setGeocodeStatus(Report.GeocodeStatus.PENDING);
+        }
+    }
+
+    /**
+     * Saves a new report with its follow-up messages. With the outbox table the messages are
+     * written in the same transaction as the report, so a saved report never misses its
+     * follow-ups and a failed save queues none; the in-memory outbox gets them after the save.
+     * 
+     * @param report The report to save
+     */
+    private void saveWithFollowUps(Report report) {
+        List<OutboxMessage> followUps = followUps(report);
+        if (outbox instanceof DynamoDbOutbox tableOutbox) {
+            reportRepository.createReport(report, followUps.stream().map(tableOutbox::transactPut).toList());
+        } else {
+            reportRepository.createReport(report);
+            followUps.forEach(this::publish);
+        }
+    }
+
+    /**
+     * Builds the follow-up work of a new report: background geocoding when it is pending,
+     * and its landmark once it has coordinates (otherwise the enricher requests it later).
+     * 
+     * @param report The new report
+     * @return The messages to queue, possibly none
+     */
+    private List<OutboxMessage> followUps(Report report) {
+        List<OutboxMessage> messages = new ArrayList<>();
+        if (report.getGeocodeStatus() == Report.GeocodeStatus.PENDING) {
+            messages.add(ReportLocationEnricher.requestFor(report));
+            if (!report.hasCoordinates()) {
+                return messages;
+            }
+        }
+        OutboxMessage landmarkRequest = ReportLandmarks.requestFor(report);
+        if (landmarkRequest != null) {
+            messages.add(landmarkRequest);
+        }
+        return messages;
+    }
+
+
     /**
      * Lists reports with optional time-based filtering.
      * Processes GET requests to /reports endpoint.
@@ -300,34 +545,96 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      * - timeRange=week
      * - timeRange=month
      * - timeRange=year
+     * Time-filtered results are returned newest first.
+     * 
+     * When a limit or cursor query parameter is present the response is a single page
+     * of the form {"items": [...], "nextCursor": "..."}; pass nextCursor back as cursor
+     * to fetch the following page. Without them the full list is returned.
      * 
-     * @param input API Gateway request with optional time range query parameter
-     * @return 200 OK with list of reports
-     *         400 Bad Request if the time range is invalid
+     * A fields query parameter (e.g. fields=reportId,category,status) limits both the
+     * attributes read from DynamoDB and the fields in the response.
+     * 
+     * @param input API Gateway request with optional time range, limit, cursor and fields query parameters
+     * @return 200 OK with list (or page) of reports
+     *         400 Bad Request if the time range, limit, cursor or fields are invalid
      */
     private APIGatewayProxyResponseEvent listReports(APIGatewayProxyRequestEvent input) {
         try {
             Map<String, String> queryParams = input.getQueryStringParameters();
-            List<Report> reports;
+            FieldSelection fields = parseFields(queryParams);
+            LocalDateTime startTime = null;
 
             if (queryParams != null && queryParams.containsKey("timeRange")) {
                 String timeRange = queryParams.get("timeRange");
-                LocalDateTime startTime = calculateStartTime(timeRange);
-                reports = reportRepository.getReportsByTimeRange(startTime, LocalDateTime.now());
-            } else {
-                reports = reportRepository.getAllReports();
+                startTime = calculateStartTime(timeRange);
             }
 
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(200)
-                .withBody(gson.toJson(reports));
+            if (isPageRequest(queryParams)) {
+                int limit = parseLimit(queryParams.get("limit"));
+                String cursor = queryParams.get("cursor");
+                Page<Report> page = startTime != null
+                    ? reportRepository.getReportsByTimeRangePage(startTime, LocalDateTime.now(), limit, cursor, fields)
+                    : reportRepository.getReportsPage(limit, cursor, fields);
+
+                return responses.respond(200, page, fields, input, null);
+            }
+
+            List<Report> reports = startTime != null
+                ? reportRepository.getReportsByTimeRange(startTime, LocalDateTime.now(), fields)
+                : reportRepository.getAllReports(fields);
+
+            return responses.respond(200, reports, fields, input, null);
         } catch (IllegalArgumentException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
-                .withBody("Invalid time range: " + e.getMessage());
+                .withBody("Invalid list request: " + e.getMessage());
         }
     }
 
+    /**
+     * Checks whether the client asked for a single page rather than the full list.
+     * 
+     * @param queryParams The query string parameters, may be null
+     * @return true if a limit or cursor parameter is present
+     */
+    private boolean isPageRequest(Map<String, String> queryParams) {
+        return queryParams != null && (queryParams.containsKey("limit") || queryParams.containsKey("cursor"));
+    }
+
+    /**
+     * Parses the page size requested by the client.
+     * Defaults to DEFAULT_PAGE_SIZE when absent and is capped at MAX_PAGE_SIZE.
+     * 
+     * @param limitParam The raw limit query parameter, may be null
+     * @return The page size to use
+     * @throws IllegalArgumentException if the limit is not a positive integer
+     */
+    private int parseLimit(String limitParam) {
+        if (limitParam == null || limitParam.isBlank()) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            int limit = Integer.parseInt(limitParam.trim());
+            if (limit <= 0) {
+                throw new IllegalArgumentException("limit must be a positive integer");
+            }
+            return Math.min(limit, MAX_PAGE_SIZE);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit must be a positive integer");
+        }
+    }
+
+    /**
+     * Parses the fields query parameter into a selection of report fields.
+     * 
+     * @param queryParams The query string parameters, may be null
+     * @return The selection, or null if all fields should be returned
+     * @throws IllegalArgumentException if an unknown field is requested
+     */
+    private FieldSelection parseFields(Map<String, String> queryParams) {
+        return queryParams == null ? null : ReportRepository.selectFields(queryParams.get("fields"));
+    }
+
     /**
      * Retrieves a specific report by its ID.
      * Processes GET requests to /reports/{reportId} endpoint.
@@ -353,31 +660,40 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      * Updates an existing report's details.
      * Processes PUT requests to /reports/{reportId} endpoint.
      * Preserves the report ID and updates timestamp while updating other fields.
+     * If the body carries the report's "version", the update only applies while the stored
+     * report is still at that version.
      * 
      * @param reportId The unique identifier of the report to update
      * @param input API Gateway request containing the updated report data
      * @return 200 OK with the updated report
      *         404 Not Found if the report doesn't exist
+     *         409 Conflict if the report was changed since the given version
      *         400 Bad Request if the input is invalid
      */
     private APIGatewayProxyResponseEvent updateReport(String reportId, APIGatewayProxyRequestEvent input) {
         try {
-            Report existingReport = reportRepository.getReport(reportId);
-            if (existingReport == null) {
+            Report report = gson.fromJson(input.getBody(), Report.class);
+            if (report == null) {
                 return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(404)
-                    .withBody("Report not found");
+                    .withStatusCode(400)
+                    .withBody("Invalid report format: empty body");
             }
+            report.setReportId(reportId);
+            report.setLastUpdated(LocalDateTime.now());
 
-            Report updatedReport = gson.fromJson(input.getBody(), Report.class);
-            updatedReport.setReportId(reportId);
-            updatedReport.setLastUpdated(LocalDateTime.now());
-            
-            reportRepository.saveReport(updatedReport);
+            ReportRepository.Change change = reportRepository.replaceReport(report, report.getVersion());
+            if (change == null) {
+                return reportNotFound();
+            }
+            invalidateTiles(change.getPrevious());
+            invalidateTiles(change.getCurrent());
+            Report updatedReport = change.getCurrent();
 
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(200)
                 .withBody(gson.toJson(updatedReport));
+        } catch (VersionConflictException e) {
+            return versionConflict(e);
         } catch (JsonSyntaxException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -398,14 +714,12 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      *         404 Not Found if the report doesn't exist
      */
     private APIGatewayProxyResponseEvent deleteReport(String reportId) {
-        Report report = reportRepository.getReport(reportId);
-        if (report == null) {
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(404)
-                .withBody("Report not found");
+        Report deleted = reportRepository.deleteReport(reportId);
+        if (deleted == null) {
+            return reportNotFound();
         }
+        invalidateTiles(deleted);
 
-        reportRepository.deleteReport(reportId);
         return new APIGatewayProxyResponseEvent()
             .withStatusCode(204)
             .withBody("");
@@ -414,26 +728,21 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
     /**
      * Updates the status of a report.
      * Processes PUT requests to /reports/{reportId}/status endpoint.
-     * Accepts a JSON object with a 'status' field containing the new status.
+     * Accepts a JSON object with a 'status' field containing the new status and an optional
+     * 'version' field; with a version the update only applies while the report is still at it.
      * 
      * @param reportId The unique identifier of the report
      * @param input API Gateway request containing the new status
      * @return 200 OK with the updated report
      *         404 Not Found if the report doesn't exist
+     *         409 Conflict if the report was changed since the given version
      *         400 Bad Request if the status is invalid or missing
      */
     private APIGatewayProxyResponseEvent updateReportStatus(String reportId, APIGatewayProxyRequestEvent input) {
         try {
-            Report report = reportRepository.getReport(reportId);
-            if (report == null) {
-                return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(404)
-                    .withBody("Report not found");
-            }
-
             @SuppressWarnings("unchecked")
-            Map<String, String> statusUpdate = gson.fromJson(input.getBody(), Map.class);
-            String newStatus = statusUpdate.get("status");
+            Map<String, Object> statusUpdate = gson.fromJson(input.getBody(), Map.class);
+            Object newStatus = statusUpdate == null ? null : statusUpdate.get("status");
             
             if (newStatus == null) {
                 return new APIGatewayProxyResponseEvent()
@@ -441,18 +750,29 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
                     .withBody("Status not provided");
             }
 
+            Report.ReportStatus status;
             try {
-                Report.ReportStatus status = Report.ReportStatus.valueOf(newStatus.toUpperCase());
-                Report updatedReport = reportRepository.updateReportStatus(reportId, status);
-                
-                return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(200)
-                    .withBody(gson.toJson(updatedReport));
+                status = Report.ReportStatus.valueOf(newStatus.toString().toUpperCase());
             } catch (IllegalArgumentException e) {
                 return new APIGatewayProxyResponseEvent()
                     .withStatusCode(400)
                     .withBody("Invalid status: " + newStatus);
             }
+
+            Report updatedReport = reportRepository.updateReportStatus(reportId, status, expectedVersion(statusUpdate));
+            if (updatedReport == null) {
+                return reportNotFound();
+            }
+
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(gson.toJson(updatedReport));
+        } catch (VersionConflictException e) {
+            return versionConflict(e);
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid version: " + e.getMessage());
         } catch (JsonSyntaxException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -465,15 +785,14 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      * Processes GET requests to /users/{userId}/reports endpoint.
      * 
      * @param userId The unique identifier of the user
+     * @param input API Gateway request, for its Accept-Encoding header
      * @return 200 OK with list of user's reports
      *         400 Bad Request if the user ID is invalid
      */
-    private APIGatewayProxyResponseEvent getReportsByUser(String userId) {
+    private APIGatewayProxyResponseEvent getReportsByUser(String userId, APIGatewayProxyRequestEvent input) {
         try {
             List<Report> reports = reportRepository.getReportsByUser(userId);
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(200)
-                .withBody(gson.toJson(reports));
+            return responses.respond(200, reports, null, input, null);
         } catch (IllegalArgumentException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -487,16 +806,15 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      * Category values are case-insensitive.
      * 
      * @param categoryStr The category to filter by (e.g., MEDICAL_HELP, SHELTER, etc.)
+     * @param input API Gateway request, for its Accept-Encoding header
      * @return 200 OK with list of reports in the category
      *         400 Bad Request if the category is invalid
      */
-    private APIGatewayProxyResponseEvent getReportsByCategory(String categoryStr) {
+    private APIGatewayProxyResponseEvent getReportsByCategory(String categoryStr, APIGatewayProxyRequestEvent input) {
         try {
             List<Report> reports = reportRepository.getReportsByCategory(categoryStr);
             
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(200)
-                .withBody(gson.toJson(reports));
+            return responses.respond(200, reports, null, input, null);
         } catch (IllegalArgumentException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -510,17 +828,16 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
      * Status values are case-insensitive.
      * 
      * @param statusStr The status to filter by (e.g., PENDING, IN_PROGRESS, COMPLETED, etc.)
+     * @param input API Gateway request, for its Accept-Encoding header
      * @return 200 OK with list of reports with the specified status
      *         400 Bad Request if the status is invalid
      */
-    private APIGatewayProxyResponseEvent getReportsByStatus(String statusStr) {
+    private APIGatewayProxyResponseEvent getReportsByStatus(String statusStr, APIGatewayProxyRequestEvent input) {
         try {
             Report.ReportStatus reportStatus = Report.ReportStatus.valueOf(statusStr.toUpperCase());
             List<Report> reports = reportRepository.getReportsByStatus(reportStatus);
             
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(200)
-                .withBody(gson.toJson(reports));
+            return responses.respond(200, reports, null, input, null);
         } catch (IllegalArgumentException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -531,24 +848,32 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
     /**
      * Retrieves reports filtered by city.
      * Processes GET requests to /reports/city/{city} endpoint.
-     * City values are case-insensitive.
+     * City values are matched case-insensitively, ignoring Turkish characters.
+     * Supports the same limit/cursor paging and fields selection as /reports.
      * 
      * @param city The city to filter by
-     * @return 200 OK with list of reports in the specified city
+     * @param input API Gateway request with optional limit, cursor and fields query parameters
+     * @return 200 OK with list (or page) of reports in the specified city
      *         400 Bad Request if the city parameter is invalid
      */
-    private APIGatewayProxyResponseEvent getReportsByCity(String city) {
+    private APIGatewayProxyResponseEvent getReportsByCity(String city, APIGatewayProxyRequestEvent input) {
         try {
             if (city == null || city.trim().isEmpty()) {
                 return new APIGatewayProxyResponseEvent()
                     .withStatusCode(400)
                     .withBody("City parameter cannot be empty");
             }
+
+            Map<String, String> queryParams = input.getQueryStringParameters();
+            FieldSelection fields = parseFields(queryParams);
+            if (isPageRequest(queryParams)) {
+                Page<Report> page = reportRepository.getReportsByCityPage(
+                    city.trim(), parseLimit(queryParams.get("limit")), queryParams.get("cursor"), fields);
+                return responses.respond(200, page, fields, input, null);
+            }
             
-            List<Report> reports = reportRepository.getReportsByCity(city.trim());
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(200)
-                .withBody(gson.toJson(reports));
+            List<Report> reports = reportRepository.getReportsByCity(city.trim(), fields);
+            return responses.respond(200, reports, fields, input, null);
         } catch (IllegalArgumentException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -559,24 +884,32 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
     /**
      * Retrieves reports filtered by province.
      * Processes GET requests to /reports/province/{province} endpoint.
-     * Province values are case-insensitive.
+     * Province values are matched case-insensitively, ignoring Turkish characters.
+     * Supports the same limit/cursor paging and fields selection as /reports.
      * 
      * @param province The province to filter by
-     * @return 200 OK with list of reports in the specified province
+     * @param input API Gateway request with optional limit, cursor and fields query parameters
+     * @return 200 OK with list (or page) of reports in the specified province
      *         400 Bad Request if the province parameter is invalid
      */
-    private APIGatewayProxyResponseEvent getReportsByProvince(String province) {
+    private APIGatewayProxyResponseEvent getReportsByProvince(String province, APIGatewayProxyRequestEvent input) {
         try {
             if (province == null || province.trim().isEmpty()) {
                 return new APIGatewayProxyResponseEvent()
                     .withStatusCode(400)
                     .withBody("Province parameter cannot be empty");
             }
+
+            Map<String, String> queryParams = input.getQueryStringParameters();
+            FieldSelection fields = parseFields(queryParams);
+            if (isPageRequest(queryParams)) {
+                Page<Report> page = reportRepository.getReportsByProvincePage(
+                    province.trim(), parseLimit(queryParams.get("limit")), queryParams.get("cursor"), fields);
+                return responses.respond(200, page, fields, input, null);
+            }
             
-            List<Report> reports = reportRepository.getReportsByProvince(province.trim());
-            return new APIGatewayProxyResponseEvent()
-                .withStatusCode(200)
-                .withBody(gson.toJson(reports));
+            List<Report> reports = reportRepository.getReportsByProvince(province.trim(), fields);
+            return responses.respond(200, reports, fields, input, null);
         } catch (IllegalArgumentException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -587,20 +920,18 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
     /**
      * Updates the location information for a report.
      * Processes PUT requests to /reports/{reportId}/location endpoint.
+     * Accepts latitude, longitude, an optional description and an optional 'version';
+     * with a version the update only applies while the report is still at it.
      * 
      * @param reportId The unique identifier of the report
      * @param input API Gateway request containing the new location data
-     * @return 501 Not Implemented
+     * @return 200 OK with the updated report
+     *         404 Not Found if the report doesn't exist
+     *         409 Conflict if the report was changed since the given version
+     *         400 Bad Request if the coordinates are missing or invalid
      */
     private APIGatewayProxyResponseEvent updateReportLocation(String reportId, APIGatewayProxyRequestEvent input) {
         try {
-            Report report = reportRepository.getReport(reportId);
-            if (report == null) {
-                return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(404)
-                    .withBody("Report not found");
-            }
-
             @SuppressWarnings("unchecked")
             Map<String, Object> locationUpdate = gson.fromJson(input.getBody(), Map.class);
             
@@ -626,7 +957,14 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
                 String description = locationUpdate.containsKey("description") ? 
                     (String) locationUpdate.get("description") : null;
 
-                Report updatedReport = reportRepository.updateReportLocation(reportId, latitude, longitude, description);
+                ReportRepository.Change change = reportRepository.updateReportLocation(reportId, latitude, longitude,
+                    description, expectedVersion(locationUpdate));
+                if (change == null) {
+                    return reportNotFound();
+                }
+                invalidateTiles(change.getPrevious());
+                invalidateTiles(change.getCurrent());
+                Report updatedReport = change.getCurrent();
 
                 return new APIGatewayProxyResponseEvent()
                     .withStatusCode(200)
@@ -638,6 +976,12 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
                     .withBody("Invalid coordinate format: latitude and longitude must be numeric values");
             }
 
+        } catch (VersionConflictException e) {
+            return versionConflict(e);
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid version: " + e.getMessage());
         } catch (JsonSyntaxException e) {
             return new APIGatewayProxyResponseEvent()
                 .withStatusCode(400)
@@ -649,6 +993,260 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
         }
     }
 
+    /**
+     * Retrieves reports within a radius of a point, nearest first.
+     * Processes GET requests to /reports/near endpoint.
+     * Query parameters: lat and lon (required), radius in kilometers (default 5, max 50),
+     * and optional fields as for /reports.
+     * 
+     * @param input API Gateway request with lat, lon and optional radius and fields query parameters
+     * @return 200 OK with list of reports within the radius, sorted by distance
+     *         400 Bad Request if the coordinates or radius are missing or invalid
+     */
+    private APIGatewayProxyResponseEvent getReportsNear(APIGatewayProxyRequestEvent input) {
+        try {
+            Map<String, String> queryParams = input.getQueryStringParameters();
+            if (queryParams == null || !queryParams.containsKey("lat") || !queryParams.containsKey("lon")) {
+                return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(400)
+                    .withBody("Both lat and lon query parameters must be provided");
+            }
+
+            double latitude = Double.parseDouble(queryParams.get("lat").trim());
+            double longitude = Double.parseDouble(queryParams.get("lon").trim());
+            double radiusKm = queryParams.containsKey("radius")
+                ? Double.parseDouble(queryParams.get("radius").trim())
+                : DEFAULT_NEAR_RADIUS_KM;
+
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                throw new IllegalArgumentException("latitude must be between -90 and 90, longitude between -180 and 180");
+            }
+            if (!(radiusKm > 0) || radiusKm > MAX_NEAR_RADIUS_KM) {
+                throw new IllegalArgumentException("radius must be between 0 and " + MAX_NEAR_RADIUS_KM + " km");
+            }
+
+            FieldSelection fields = parseFields(queryParams);
+            List<Report> reports = reportRepository.findReportsNear(latitude, longitude, radiusKm, fields);
+            return responses.respond(200, reports, fields, input, null);
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid near query: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Groups the reports inside a bounding box into hotspots for the map.
+     * Processes GET requests to /reports/clusters endpoint.
+     * Query parameters: bbox as minLon,minLat,maxLon,maxLat and zoom (0 to 20), both required.
+     * 
+     * @param input API Gateway request with bbox and zoom query parameters
+     * @return 200 OK with the clusters, largest first, and the number of reports they hold
+     *         400 Bad Request if the box or zoom are missing or invalid
+     */
+    private APIGatewayProxyResponseEvent getReportClusters(APIGatewayProxyRequestEvent input) {
+        try {
+            Map<String, String> queryParams = input.getQueryStringParameters();
+            if (queryParams == null || !queryParams.containsKey("bbox") || !queryParams.containsKey("zoom")) {
+                return new APIGatewayProxyResponseEvent()
+                    .withStatusCode(400)
+                    .withBody("Both bbox and zoom query parameters must be provided");
+            }
+
+            String[] bbox = queryParams.get("bbox").split(",");
+            if (bbox.length != 4) {
+                throw new IllegalArgumentException("bbox must be minLon,minLat,maxLon,maxLat");
+            }
+            double minLon = Double.parseDouble(bbox[0].trim());
+            double minLat = Double.parseDouble(bbox[1].trim());
+            double maxLon = Double.parseDouble(bbox[2].trim());
+            double maxLat = Double.parseDouble(bbox[3].trim());
+            int zoom = Integer.parseInt(queryParams.get("zoom").trim());
+
+            if (minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180) {
+                throw new IllegalArgumentException("latitude must be between -90 and 90, longitude between -180 and 180");
+            }
+            if (!(minLat < maxLat) || !(minLon < maxLon)) {
+                throw new IllegalArgumentException("bbox minimum must be below its maximum");
+            }
+
+            List<Report> reports = reportRepository.findReportsInBox(minLat, minLon, maxLat, maxLon, CLUSTER_FIELDS);
+            List<ReportCluster> clusters = clusterer.cluster(reports, zoom);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("zoom", zoom);
+            body.put("reportCount", clusters.stream().mapToInt(ReportCluster::getCount).sum());
+            body.put("clusters", clusters);
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(gson.toJson(body));
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid clusters query: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves a heatmap tile of reports and active earthquakes.
+     * Processes GET requests to /reports/heatmap/{z}/{x}/{y} endpoint.
+     * 
+     * @param path The request path carrying the zoom, tile column and tile row
+     * @return 200 OK with the tile as a sparse grid of [row, column, intensity] cells
+     *         400 Bad Request if the tile does not exist
+     */
+    private APIGatewayProxyResponseEvent getHeatmapTile(String path) {
+        try {
+            String[] parts = path.substring("/reports/heatmap/".length()).split("/");
+            int zoom = Integer.parseInt(parts[0]);
+            int x = Integer.parseInt(parts[1]);
+            int y = Integer.parseInt(parts[2]);
+
+            HeatmapTile tile = heatmaps.getTile(zoom, x, y);
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(gson.toJson(tile.toResponse()));
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid heatmap tile: " + e.getMessage());
+        }
+    }
+
+    // Drops the cached heatmap tiles holding a report; called with both images of a moved report
+    private void invalidateTiles(Report report) {
+        if (report != null && report.hasCoordinates()) {
+            heatmaps.invalidate(report.getLatitude(), report.getLongitude());
+        }
+    }
+
+    /**
+     * Retrieves live report totals per category, status and province.
+     * Processes GET requests to /reports/statistics endpoint.
+     * Totals come from counters, so the cost does not grow with the number of reports.
+     * The counters are updated best-effort after each report write: a failed update is only
+     * logged, so they are eventually consistent and may drift until the "statistics" job of
+     * {@link ReportMaintenanceHandler} recounts them.
+     * Supports query parameter province to get the totals of a single province.
+     * 
+     * @param input API Gateway request with optional query parameters
+     * @return 200 OK with the totals
+     *         400 Bad Request if the province is empty
+     */
+    private APIGatewayProxyResponseEvent getReportStatistics(APIGatewayProxyRequestEvent input) {
+        Map<String, String> queryParams = input.getQueryStringParameters();
+        String province = queryParams != null ? queryParams.get("province") : null;
+        try {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(gson.toJson(reportRepository.getStatistics(province)));
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid statistics query: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the reports, earthquakes and landmarks changed since a sync token.
+     * Processes GET requests to /sync endpoint.
+     * Supports query parameters since (the token of the previous sync) and limit.
+     * Without a token, or with an expired one, the response has reset set and only a token;
+     * the client then loads the full lists and syncs from that token.
+     * 
+     * @param input API Gateway request with optional query parameters
+     * @return 200 OK with token, reset, hasMore, the changed items and the deleted ids
+     *         400 Bad Request if the token or limit is invalid
+     */
+    private APIGatewayProxyResponseEvent sync(APIGatewayProxyRequestEvent input) {
+        Map<String, String> queryParams = input.getQueryStringParameters();
+        try {
+            String since = queryParams != null ? queryParams.get("since") : null;
+            int limit = parseSyncLimit(queryParams != null ? queryParams.get("limit") : null);
+            return responses.respond(200, syncService.sync(since, limit), null, input, null);
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid sync request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Searches report and landmark descriptions.
+     * Processes GET requests to /search endpoint.
+     * Supports query parameters q (the search text), limit and cursor. Matching ignores case,
+     * Turkish letters and common suffixes, so "kadıköy'de yıkılan bina" finds "Kadikoy bina yikildi".
+     * 
+     * @param input API Gateway request with query parameters
+     * @return 200 OK with query, total, the ranked items and nextCursor if there are more
+     *         400 Bad Request if q is missing or has no searchable words, or limit or cursor is invalid
+     */
+    private APIGatewayProxyResponseEvent search(APIGatewayProxyRequestEvent input) {
+        Map<String, String> queryParams = input.getQueryStringParameters();
+        try {
+            String query = queryParams != null ? queryParams.get("q") : null;
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("q is required");
+            }
+            int limit = parseLimit(queryParams.get("limit"));
+            return responses.respond(200, searchService.search(query, limit, queryParams.get("cursor")), null, input, null);
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid search: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Suggests cities and districts for a partially typed name.
+     * Processes GET requests to /places/autocomplete endpoint.
+     * Supports query parameters q (the typed prefix) and limit (default 5, at most 10).
+     * Matching ignores case and Turkish letters and tolerates one typo in longer prefixes.
+     * 
+     * @param input API Gateway request with query parameters
+     * @return 200 OK with the suggested places, most important first
+     *         400 Bad Request if q is missing or limit is invalid
+     *         503 Service Unavailable if no gazetteer data is deployed
+     */
+    private APIGatewayProxyResponseEvent autocompletePlaces(APIGatewayProxyRequestEvent input) {
+        Map<String, String> queryParams = input.getQueryStringParameters();
+        try {
+            String prefix = queryParams != null ? queryParams.get("q") : null;
+            if (prefix == null || prefix.isBlank()) {
+                throw new IllegalArgumentException("q is required");
+            }
+            int limit = DEFAULT_PLACE_SUGGESTIONS;
+            String limitParam = queryParams.get("limit");
+            if (limitParam != null && !limitParam.isBlank()) {
+                limit = Math.min(parseLimit(limitParam), MAX_PLACE_SUGGESTIONS);
+            }
+            return responses.respond(200, geocodingService.suggestPlaces(prefix, limit), null, input, null);
+        } catch (IllegalArgumentException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(400)
+                .withBody("Invalid autocomplete query: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return new APIGatewayProxyResponseEvent()
+                .withStatusCode(503)
+                .withBody("Place suggestions are unavailable: " + e.getMessage());
+        }
+    }
+
+    private int parseSyncLimit(String limitParam) {
+        if (limitParam == null || limitParam.isBlank()) {
+            return DEFAULT_SYNC_LIMIT;
+        }
+        try {
+            int limit = Integer.parseInt(limitParam.trim());
+            if (limit <= 0) {
+                throw new IllegalArgumentException("limit must be a positive integer");
+            }
+            return Math.min(limit, MAX_SYNC_LIMIT);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit must be a positive integer");
+        }
+    }
+
     /**
      * Calculates the start time for time-based report filtering.
      * Supports predefined time ranges: today, week, month, year.
@@ -679,119 +1277,79 @@ public class ReportHandler implements RequestHandler<APIGatewayProxyRequestEvent
             .withStatusCode(404)
             .withBody("Not Found");
     }
-    private void createLandmarkFromReport(Report report) {
-        Category category = report.getCategory();
-        if (category != null && 
-            (category.getCategoryType().equalsIgnoreCase("SHELTER") ||
-             category.getCategoryType().equalsIgnoreCase("MEDICAL_HELP") ||
-             category.getCategoryType().equalsIgnoreCase("FOOD_WATER") ||
-             category.getCategoryType().equalsIgnoreCase("RESCUE"))) {
-            
-            // Create request payload
-            Map<String, Object> payload = new HashMap<>();
-            String landmarkCategory = convertCategoryType(category.getCategoryType());
-            
-            // Use a user-friendly name based on category
-            String landmarkName = getCategoryDisplayName(category.getCategoryType());
-            
-            payload.put("name", landmarkName);
-            payload.put("description", report.getDescription() != null ? report.getDescription() : "");
-            payload.put("location", report.getLocation() != null ? report.getLocation() : 
-                       "Location at " + report.getLatitude() + ", " + report.getLongitude());
-            payload.put("category", landmarkCategory);
-            payload.put("reportId", report.getReportId());
-            payload.put("createdBy", report.getUser().getUserId());
-            payload.put("latitude", report.getLatitude());
-            payload.put("longitude", report.getLongitude());
-            
-            // Invoke Lambda function
-            invokeLandmarkLambda(payload);
-        }
+
+    private APIGatewayProxyResponseEvent reportNotFound() {
+        return new APIGatewayProxyResponseEvent()
+            .withStatusCode(404)
+            .withBody("Report not found");
     }
-    
+
+    private APIGatewayProxyResponseEvent versionConflict(VersionConflictException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Report was modified by someone else");
+        body.put("currentVersion", e.getCurrentVersion());
+        return new APIGatewayProxyResponseEvent()
+            .withStatusCode(409)
+            .withBody(gson.toJson(body));
+    }
+
     /**
-     * Get a user-friendly display name for the landmark based on category
+     * Reads the optional "version" field of an update body.
+     *
+     * @param body The parsed request body
+     * @return The version the client last read, or null if it did not send one
+     * @throws IllegalArgumentException if the version is not a whole number
      */
-    private String getCategoryDisplayName(String categoryType) {
-        return switch (categoryType.toUpperCase()) {
-            case "RESCUE" -> "Emergency Rescue Needed";
-            case "MEDICAL_HELP" -> "Medical Assistance Needed";
-            case "SHELTER" -> "Shelter Needed";
-            case "FOOD_WATER" -> "Food & Water Needed";
-            default -> "Emergency " + categoryType;
-        };
+    private Long expectedVersion(Map<String, Object> body) {
+        Object version = body.get("version");
+        if (version == null) {
+            return null;
+        }
+        if (!(version instanceof Number) || ((Number) version).doubleValue() % 1 != 0) {
+            throw new IllegalArgumentException("version must be a whole number");
+        }
+        return ((Number) version).longValue();
     }
 
     /**
-     * Invokes the Landmark Lambda function with the given payload
-     * This is a simplified method that directly saves to the repository instead of invoking Lambda
-     * since we currently have issues with AWS SDK imports
-     *
-     * @param payload The payload to send to the Lambda function
+     * Publishes an outbox message after the report is saved. Failures are logged and never
+     * fail the request, since the report itself is already saved.
      */
-    private void invokeLandmarkLambda(Map<String, Object> payload) {
+    private void publish(OutboxMessage message) {
         try {
-            // Create Landmark object from payload
-            com.seismiq.common.model.Landmark landmark = new com.seismiq.common.model.Landmark();
-            landmark.setLandmarkId(UUID.randomUUID().toString());
-            landmark.setName((String) payload.get("name"));
-            landmark.setDescription((String) payload.get("description"));
-            landmark.setLocation((String) payload.get("location"));
-            landmark.setCreatedBy((String) payload.get("createdBy"));
-            
-            // Set coordinates
-            if (payload.get("latitude") != null) {
-                landmark.setLatitude(((Number) payload.get("latitude")).doubleValue());
-            }
-            if (payload.get("longitude") != null) {
-                landmark.setLongitude(((Number) payload.get("longitude")).doubleValue());
-            }
-            
-            // Create Category object
-            String categoryStr = (String) payload.get("category");
-            Category landmarkCategory = Category.valueOf(categoryStr);
-            landmark.setCategory(landmarkCategory);
-            
-            // Set reportId if available
-            if (payload.get("reportId") != null) {
-                landmark.setReportId((String) payload.get("reportId"));
-            }
-            
-            // Timestamps and status are set by Landmark constructor
-            // landmark.createdAt and lastUpdated are set in constructor
-            // landmark.isActive is set to true in constructor
-            // landmark.status is set to "ACTIVE" in constructor
-            
-            // Save to DynamoDB via LandmarkRepository
-            com.seismiq.landmark.LandmarkRepository landmarkRepository = new com.seismiq.landmark.LandmarkRepository();
-            landmarkRepository.saveLandmark(landmark);
-            
-            System.out.println("Successfully created landmark: " + landmark.getLandmarkId() + " from report " + payload.get("reportId"));
-            
+            outbox.publish(message);
         } catch (Exception e) {
-            // Log error but don't fail the report creation
-            System.err.println("Failed to create landmark: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("Failed to queue " + message.getTopic() + " for report " + message.getKey() + ": " + e.getMessage());
+        }
+    }
+
+    // Locally no table stream triggers the consumers, so messages are handed to them in-process
+    private static Outbox defaultOutbox(ReportRepository reportRepository, GeoNamesGeocodingService geocodingService) {
+        if ("true".equals(System.getenv("AWS_SAM_LOCAL"))) {
+            InMemoryOutbox local = new InMemoryOutbox(OUTBOX_BATCH_SIZE);
+            local.subscribe(new LandmarkOutboxConsumer(new LandmarkRepository()));
+            local.subscribe(new ReportLocationEnricher(reportRepository, geocodingService, local));
+            return local;
+        }
+        return new DynamoDbOutbox();
+    }
+
+    // Locally the reports table stream triggers nothing either, so its writes feed the index consumers in-process
+    private void recordLocalChanges() {
+        if ("true".equals(System.getenv("AWS_SAM_LOCAL"))) {
+            reportRepository.setChangeStream(new InMemoryChangeStream(CHANGE_BATCH_SIZE)
+                .subscribe(new SyncIndexConsumer(new SyncIndexRepository()))
+                .subscribe(new SearchIndexConsumer(new SearchIndexRepository())));
         }
     }
 
     /**
-     * Convert a report category type to a landmark category type
-     * 
-     * @param categoryType The report category type
-     * @return The corresponding landmark category type
+     * Signals a report body that is missing required fields.
+     * Its message is returned to the client as is.
      */
-    private String convertCategoryType(String categoryType) {
-        if (categoryType == null) {
-            return "OTHER";
+    private static class InvalidReportException extends IllegalArgumentException {
+        InvalidReportException(String message) {
+            super(message);
         }
-        
-        return switch (categoryType.toUpperCase()) {
-            case "SHELTER" -> "SHELTER";
-            case "MEDICAL_HELP" -> "MEDICAL_STATION";
-            case "FOOD_WATER" -> "FOOD_DISTRIBUTION";
-            case "RESCUE" -> "EMERGENCY_RESCUE";
-            default -> "OTHER";
-        };
     }
 }
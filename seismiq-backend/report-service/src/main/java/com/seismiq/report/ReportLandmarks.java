@@ -0,0 +1,81 @@
+package com.seismiq.report;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.seismiq.common.model.Category;
+import com.seismiq.common.model.Report;
+import com.seismiq.common.outbox.OutboxMessage;
+import com.seismiq.landmark.LandmarkOutboxConsumer;
+
+/**
+ * Decides which reports call for a landmark (rescue, shelter, medical help, food and water)
+ * and builds the outbox message that LandmarkOutboxConsumer turns into one.
+ */
+final class ReportLandmarks {
+    private static final Gson GSON = new Gson();
+
+    private ReportLandmarks() {}
+
+    /**
+     * @param report A saved report
+     * @return The landmark request for the report, or null if its category needs no landmark
+     */
+    static OutboxMessage requestFor(Report report) {
+        Category category = report.getCategory();
+        if (category == null || category.getCategoryType() == null ||
+            !(category.getCategoryType().equalsIgnoreCase("SHELTER") ||
+              category.getCategoryType().equalsIgnoreCase("MEDICAL_HELP") ||
+              category.getCategoryType().equalsIgnoreCase("FOOD_WATER") ||
+              category.getCategoryType().equalsIgnoreCase("RESCUE"))) {
+            return null;
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("name", getCategoryDisplayName(category.getCategoryType()));
+        payload.put("description", report.getDescription() != null ? report.getDescription() : "");
+        payload.put("location", report.getLocation() != null ? report.getLocation() :
+                   "Location at " + report.getLatitude() + ", " + report.getLongitude());
+        payload.put("category", convertCategoryType(category.getCategoryType()));
+        payload.put("reportId", report.getReportId());
+        payload.put("createdBy", report.getUser() != null ? report.getUser().getUserId() : null);
+        payload.put("latitude", report.getLatitude());
+        payload.put("longitude", report.getLongitude());
+
+        return OutboxMessage.create(LandmarkOutboxConsumer.TOPIC, report.getReportId(), GSON.toJson(payload));
+    }
+
+    /**
+     * Get a user-friendly display name for the landmark based on category
+     */
+    private static String getCategoryDisplayName(String categoryType) {
+        return switch (categoryType.toUpperCase()) {
+            case "RESCUE" -> "Emergency Rescue Needed";
+            case "MEDICAL_HELP" -> "Medical Assistance Needed";
+            case "SHELTER" -> "Shelter Needed";
+            case "FOOD_WATER" -> "Food & Water Needed";
+            default -> "Emergency " + categoryType;
+        };
+    }
+
+    /**
+     * Convert a report category type to a landmark category type
+     *
+     * @param categoryType The report category type
+     * @return The corresponding landmark category type
+     */
+    private static String convertCategoryType(String categoryType) {
+        if (categoryType == null) {
+            return "OTHER";
+        }
+
+        return switch (categoryType.toUpperCase()) {
+            case "SHELTER" -> "SHELTER";
+            case "MEDICAL_HELP" -> "MEDICAL_STATION";
+            case "FOOD_WATER" -> "FOOD_DISTRIBUTION";
+            case "RESCUE" -> "EMERGENCY_RESCUE";
+            default -> "OTHER";
+        };
+    }
+}
@@ -0,0 +1,258 @@
+package com.seismiq.report;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.seismiq.common.model.Report;
+import com.seismiq.common.outbox.Outbox;
+import com.seismiq.common.outbox.OutboxConsumer;
+import com.seismiq.common.outbox.OutboxMessage;
+import com.seismiq.common.service.GeoNamesGeocodingService;
+import com.seismiq.common.service.GeoNamesGeocodingService.GeocodingResult;
+
+/**
+ * Fills in what a report's location is missing: city and province from client coordinates
+ * (reverse geocoding), or coordinates from a city and province (forward geocoding).
+ *
+ * <p>Geocoding runs a Python subprocess that can take many seconds, so besides resolving
+ * inline ({@link #enrich}) it can run in the background: the report is saved with
+ * geocodeStatus PENDING and a "report.geocode" outbox message, and {@link #accept} later
+ * stores the result with {@link ReportRepository#completeGeocoding}. Reports that only
+ * get their coordinates this way request their landmark once they have them. A batch of
+ * messages is geocoded with one call per direction ({@link #enrichAll}).</p>
+ */
+public class ReportLocationEnricher implements OutboxConsumer {
+    public static final String TOPIC = "report.geocode";
+
+    private static final Logger LOGGER = Logger.getLogger(ReportLocationEnricher.class.getName());
+    private static final Gson GSON = new Gson();
+
+    private final ReportRepository reportRepository;
+    private final GeoNamesGeocodingService geocodingService;
+    private final Outbox outbox;
+
+    /**
+     * @param reportRepository Stores background results
+     * @param geocodingService Resolves locations
+     * @param outbox Receives the landmark requests of reports geocoded in the background
+     */
+    public ReportLocationEnricher(ReportRepository reportRepository, GeoNamesGeocodingService geocodingService,
+                                  Outbox outbox) {
+        this.reportRepository = reportRepository;
+        this.geocodingService = geocodingService;
+        this.outbox = outbox;
+    }
+
+    /**
+     * @return Whether geocoding would add anything: coordinates without a city or province, or the reverse
+     */
+    public static boolean needsGeocoding(Report report) {
+        boolean hasCityProvince = report.getCity() != null || report.getProvince() != null;
+        return report.hasCoordinates() != hasCityProvince;
+    }
+
+    /**
+     * Resolves a report's missing location fields in place. Failures are logged and
+     * leave the report as it was.
+     *
+     * @param report The report to complete
+     * @return true if something was resolved
+     */
+    public boolean enrich(Report report) {
+        boolean hasCityProvince = report.getCity() != null || report.getProvince() != null;
+
+        if (report.hasCoordinates()) {
+            // User provided coordinates - use them and optionally find city/province
+            if (!hasCityProvince) {
+                try {
+                    GeocodingResult geocodingResult = geocodingService.findLocationFromCoordinates(
+                        report.getLatitude(), report.getLongitude());
+                    if (geocodingResult != null) {
+                        report.setCity(geocodingResult.getCity());
+                        report.setProvince(geocodingResult.getProvince());
+                        return true;
+                    }
+                } catch (Exception e) {
+                    // Log warning but continue - coordinates are more important
+                    System.err.println("Failed to reverse geocode coordinates: " + e.getMessage());
+                }
+            }
+        } else if (hasCityProvince) {
+            // User provided city/province but no coordinates - find coordinates
+            String city = report.getCity();
+            String province = report.getProvince();
+
+            try {
+                // Falls back to the province itself when the city is missing or not found
+                GeocodingResult geocodingResult = geocodingService.findCoordinatesFromName(city, province);
+                if (geocodingResult != null) {
+                    report.setLatitude(geocodingResult.getLatitude());
+                    report.setLongitude(geocodingResult.getLongitude());
+                    return true;
+                }
+            } catch (Exception e) {
+                // Log warning but continue - city/province info is still valuable
+                System.err.println("Failed to geocode city/province: " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the missing location fields of many reports in place, with one batch call of
+     * the geocoder per direction instead of one lookup per report. Failures are logged and
+     * leave the reports as they were.
+     *
+     * @param reports The reports to complete
+     * @return Whether something was resolved, per report in input order
+     */
+    public boolean[] enrichAll(List<Report> reports) {
+        boolean[] resolved = new boolean[reports.size()];
+        List<Integer> reverse = new ArrayList<>();
+        List<Integer> forward = new ArrayList<>();
+        for (int i = 0; i < reports.size(); i++) {
+            Report report = reports.get(i);
+            if (needsGeocoding(report)) {
+                (report.hasCoordinates() ? reverse : forward).add(i);
+            }
+        }
+
+        if (!reverse.isEmpty()) {
+            try {
+                List<double[]> coordinates = new ArrayList<>(reverse.size());
+                for (int i : reverse) {
+                    coordinates.add(new double[] {reports.get(i).getLatitude(), reports.get(i).getLongitude()});
+                }
+                List<GeocodingResult> results = geocodingService.findLocationsFromCoordinates(coordinates);
+                for (int r = 0; r < reverse.size(); r++) {
+                    GeocodingResult geocodingResult = results.get(r);
+                    if (geocodingResult != null) {
+                        Report report = reports.get(reverse.get(r));
+                        report.setCity(geocodingResult.getCity());
+                        report.setProvince(geocodingResult.getProvince());
+                        resolved[reverse.get(r)] = true;
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to reverse geocode " + reverse.size() + " reports", e);
+            }
+        }
+
+        if (!forward.isEmpty()) {
+            try {
+                List<String[]> names = new ArrayList<>(forward.size());
+                for (int i : forward) {
+                    names.add(new String[] {reports.get(i).getCity(), reports.get(i).getProvince()});
+                }
+                List<GeocodingResult> results = geocodingService.findCoordinatesFromNames(names);
+                for (int f = 0; f < forward.size(); f++) {
+                    GeocodingResult geocodingResult = results.get(f);
+                    if (geocodingResult != null) {
+                        Report report = reports.get(forward.get(f));
+                        report.setLatitude(geocodingResult.getLatitude());
+                        report.setLongitude(geocodingResult.getLongitude());
+                        resolved[forward.get(f)] = true;
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to geocode " + forward.size() + " reports by city/province", e);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Builds the background geocoding request for a report saved with geocodeStatus PENDING.
+     * Carries the location fields so the consumer does not have to read the report.
+     */
+    public static OutboxMessage requestFor(Report report) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("reportId", report.getReportId());
+        if (report.hasCoordinates()) {
+            payload.put("latitude", report.getLatitude());
+            payload.put("longitude", report.getLongitude());
+        }
+        if (report.getCity() != null) {
+            payload.put("city", report.getCity());
+        }
+        if (report.getProvince() != null) {
+            payload.put("province", report.getProvince());
+        }
+        return OutboxMessage.create(TOPIC, report.getReportId(), GSON.toJson(payload));
+    }
+
+    @Override
+    public void accept(List<OutboxMessage> messages) {
+        List<Report> reports = new ArrayList<>();
+        for (OutboxMessage message : messages) {
+            if (!TOPIC.equals(message.getTopic())) {
+                continue;
+            }
+            Report report;
+            try {
+                report = fromPayload(message.getPayload());
+            } catch (JsonSyntaxException | IllegalArgumentException | ClassCastException e) {
+                LOGGER.warning("Skipping malformed geocode message " + message.getMessageId() + ": " + e.getMessage());
+                continue;
+            }
+            reports.add(report);
+        }
+
+        boolean[] hadCoordinates = new boolean[reports.size()];
+        for (int i = 0; i < reports.size(); i++) {
+            hadCoordinates[i] = reports.get(i).hasCoordinates();
+        }
+        boolean[] resolved = enrichAll(reports);
+        for (int i = 0; i < reports.size(); i++) {
+            complete(reports.get(i), hadCoordinates[i], resolved[i]);
+        }
+    }
+
+    // Repository failures propagate so the batch is delivered again; completeGeocoding only applies once
+    private void complete(Report report, boolean hadCoordinates, boolean resolved) {
+        Report.GeocodeStatus status = resolved ? Report.GeocodeStatus.RESOLVED : Report.GeocodeStatus.FAILED;
+
+        Report updated = hadCoordinates
+            ? reportRepository.completeGeocoding(report.getReportId(), status, null, null,
+                resolved ? report.getCity() : null, resolved ? report.getProvince() : null)
+            : reportRepository.completeGeocoding(report.getReportId(), status,
+                resolved ? report.getLatitude() : null, resolved ? report.getLongitude() : null, null, null);
+
+        if (updated == null) {
+            return;     // deleted, or the user set the location in the meantime
+        }
+        if (!hadCoordinates && updated.hasCoordinates()) {
+            OutboxMessage landmarkRequest = ReportLandmarks.requestFor(updated);
+            if (landmarkRequest != null) {
+                try {
+                    outbox.publish(landmarkRequest);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Failed to queue landmark for report " + updated.getReportId(), e);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Report fromPayload(String payload) {
+        Map<String, Object> fields = GSON.fromJson(payload, Map.class);
+        if (fields == null || !(fields.get("reportId") instanceof String)) {
+            throw new IllegalArgumentException("reportId is missing");
+        }
+        Report report = new Report();
+        report.setReportId((String) fields.get("reportId"));
+        if (fields.get("latitude") != null && fields.get("longitude") != null) {
+            report.setLatitude(((Number) fields.get("latitude")).doubleValue());
+            report.setLongitude(((Number) fields.get("longitude")).doubleValue());
+        }
+        report.setCity((String) fields.get("city"));
+        report.setProvince((String) fields.get("province"));
+        return report;
+    }
+}
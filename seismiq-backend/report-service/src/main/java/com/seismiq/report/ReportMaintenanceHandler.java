@@ -0,0 +1,84 @@
+package com.seismiq.report;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.seismiq.common.repository.ScanCheckpoint;
+
+/**
+ * AWS Lambda handler for report maintenance jobs. It has no API route; operators invoke it
+ * directly, so only principals allowed to invoke the function (IAM) can run it:
+ * <pre>
+ *   aws lambda invoke --function-name &lt;ReportMaintenanceFunction&gt; \
+ *       --payload '{"action":"reindex"}' out.json
+ * </pre>
+ *
+ * <p>Actions:</p>
+ * <ul>
+ *   <li>"reindex": rewrites stale derived index attributes ({@link ReportRepository#reindexReports}).
+ *       Stops shortly before the function times out and returns a "checkpoint"; invoke again
+ *       with {"action":"reindex","checkpoint":"..."} until "done" is true.</li>
+ *   <li>"statistics": recounts every report and replaces the statistics counters
+ *       ({@link ReportRepository#rebuildStatistics}), to backfill them or repair drift.
+ *       Nothing is written until the recount is complete, so a failed run can simply be repeated.</li>
+ * </ul>
+ */
+public class ReportMaintenanceHandler implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+    // Time kept back for the last page of every segment and the response
+    static final long SAFETY_MARGIN_MILLIS = 60_000;
+
+    private final ReportRepository reportRepository;
+
+    public ReportMaintenanceHandler() {
+        this(new ReportRepository());
+    }
+
+    public ReportMaintenanceHandler(ReportRepository reportRepository) {
+        this.reportRepository = reportRepository;
+    }
+
+    @Override
+    public Map<String, Object> handleRequest(Map<String, Object> input, Context context) {
+        Object action = input != null ? input.get("action") : null;
+        if ("reindex".equals(action)) {
+            return reindex(input, context);
+        }
+        if ("statistics".equals(action)) {
+            return rebuildStatistics(context);
+        }
+        throw new IllegalArgumentException("Unknown maintenance action: " + action);
+    }
+
+    private Map<String, Object> reindex(Map<String, Object> input, Context context) {
+        Object token = input.get("checkpoint");
+        ScanCheckpoint checkpoint = token instanceof String text && !text.isBlank() ? ScanCheckpoint.decode(text) : null;
+        long remaining = context.getRemainingTimeInMillis();
+        long deadline = System.currentTimeMillis() + Math.max(remaining - SAFETY_MARGIN_MILLIS, remaining / 2);
+
+        AtomicLong updated = new AtomicLong();
+        ScanCheckpoint next = reportRepository.reindexReports(checkpoint, deadline, updated);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("action", "reindex");
+        result.put("updated", updated.get());
+        result.put("done", next.isDone());
+        if (!next.isDone()) {
+            result.put("checkpoint", next.encode());
+        }
+        context.getLogger().log("Reindexed " + updated.get() + " reports" + (next.isDone() ? ", done" : ", resume from checkpoint"));
+        return result;
+    }
+
+    private Map<String, Object> rebuildStatistics(Context context) {
+        long counters = reportRepository.rebuildStatistics();
+        context.getLogger().log("Rebuilt report statistics: " + counters + " counters");
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("action", "statistics");
+        result.put("counters", counters);
+        return result;
+    }
+}
@@ -1,96 +1,260 @@
 package com.seismiq.report;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
-import com.seismiq.common.model.Category;
+import com.seismiq.common.cdc.ChangeEvent;
+import com.seismiq.common.cdc.InMemoryChangeStream;
+import com.seismiq.common.codec.ModelCodecs;
 import com.seismiq.common.model.Report;
-import com.seismiq.common.model.User;
 import com.seismiq.common.repository.DynamoDBRepository;
+import com.seismiq.common.repository.Page;
+import com.seismiq.common.repository.PageCursor;
+import com.seismiq.common.repository.ScanCheckpoint;
+import com.seismiq.common.repository.VersionConflictException;
+import com.seismiq.common.util.FieldSelection;
+import com.seismiq.common.util.GeoUtils;
+import com.seismiq.common.util.TimeBuckets;
+import com.seismiq.common.util.TurkishText;
 
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 public class ReportRepository extends DynamoDBRepository {
     private static final String USER_REPORTS_INDEX = "UserReportsIndex";
     private static final String CATEGORY_STATUS_INDEX = "CategoryStatusIndex";
-    private static final String TIMESTAMP_INDEX = "TimestampIndex";
+    private static final String TIME_BUCKET_INDEX = "TimeBucketIndex";
+    private static final int TIME_BUCKET_SHARDS = 8;     // changing this requires a reindex
+    private static final String CITY_INDEX = "CityTimestampIndex";
+    private static final String PROVINCE_INDEX = "ProvinceTimestampIndex";
+    private static final String GEOHASH_INDEX = "GeohashIndex";
+    private static final String GEO_REGION_INDEX = "GeoRegionIndex";
+    private static final int GEOHASH_PRECISION = 9;      // ~5m, stored on every report
+    private static final int GEO_CELL_PRECISION = 4;     // ~20-40km, partition key of GeohashIndex
+    private static final int GEO_REGION_PRECISION = 3;   // ~150km, partition key of GeoRegionIndex
+    private static final int MAX_SEARCH_PRECISION = 7;   // ~150m, finest prefix used for near queries
+    private static final int MAX_BOX_QUERIES = 64;       // larger boxes are read per region
+    private static final int MAX_REGION_QUERIES = 256;   // larger boxes are rejected
+    private static final int BATCH_WRITE_SIZE = 25;         // BatchWriteItem limit
+    static final int MAX_STORED_DUPLICATES = 50;     // duplicates kept in full on a report, the rest are counted
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+    private static final Logger LOGGER = Logger.getLogger(ReportRepository.class.getName());
+    // JSON fields that can be requested with fields=, mapped to the attributes they are stored in
+    private static final Map<String, String> FIELD_ATTRIBUTES = Map.ofEntries(
+        Map.entry("reportId", "reportId"),
+        Map.entry("user", "user"),
+        Map.entry("category", "category"),
+        Map.entry("description", "description"),
+        Map.entry("location", "location"),
+        Map.entry("currentLocation", "isCurrentLocation"),
+        Map.entry("latitude", "latitude"),
+        Map.entry("longitude", "longitude"),
+        Map.entry("locationDescription", "locationDescription"),
+        Map.entry("status", "status"),
+        Map.entry("timestamp", "timestamp"),
+        Map.entry("lastUpdated", "lastUpdated"),
+        Map.entry("city", "city"),
+        Map.entry("province", "province"),
+        Map.entry("version", "version"),
+        Map.entry("duplicateCount", "duplicateCount"),
+        Map.entry("geocodeStatus", "geocodeStatus")
+    );
+    // Optional attributes a full replace removes when the new report leaves them out
+    private static final List<String> REPLACEABLE_ATTRIBUTES = List.of(
+        "user", "userId", "category", "description", "location", "locationDescription",
+        "city", "province", "cityKey", "provinceKey", "geohash", "geoCell", "geoRegion", "geocodeStatus");
+    private static final Comparator<Report> NEWEST_FIRST = Comparator
+        .comparing(Report::getTimestamp)
+        .thenComparing(Report::getReportId)
+        .reversed();
+
+    // Shared pool for fanning out DynamoDB calls (time bucket shards, geohash cells, batch write chunks)
+    private static final int QUERY_THREADS = 16;
+    private static final ExecutorService QUERY_EXECUTOR = Executors.newFixedThreadPool(QUERY_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "report-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Day buckets read per round of a time range query, so one request uses at most the whole pool
+    private static final int DAYS_PER_ROUND = Math.max(1, QUERY_THREADS / TIME_BUCKET_SHARDS);
+
+    private final ReportStatisticsRepository statistics;
+    // Only set where the table has no stream to feed the change consumers (SAM local)
+    private volatile InMemoryChangeStream changeStream;
 
     public ReportRepository() {
         super("seismiq-Reports"); // Use the service-specific Reports table
+        this.statistics = new ReportStatisticsRepository();
+    }
+
+    /**
+     * Records every report write on a process-local change stream, standing in for the table's
+     * DynamoDB stream where there is none. Each recorded write reads the item after it (and
+     * before it, where the write does not return the old item), so never set this when deployed.
+     *
+     * @param changeStream The stream to record on, or null to stop recording
+     */
+    public void setChangeStream(InMemoryChangeStream changeStream) {
+        this.changeStream = changeStream;
     }
 
     public void saveReport(Report report) {
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put("reportId", AttributeValue.builder().s(report.getReportId()).build());
-        
-        // Save user details as a nested map
-        Map<String, AttributeValue> userMap = new HashMap<>();
-        User user = report.getUser();
-        if (user != null) {
-            item.put("userId", AttributeValue.builder().s(user.getUserId()).build());
-            userMap.put("userId", AttributeValue.builder().s(user.getUserId()).build());
-            userMap.put("name", AttributeValue.builder().s(user.getName()).build());
-            if (user.getAddress() != null) {
-                userMap.put("address", AttributeValue.builder().s(user.getAddress()).build());
+        putItem(toItem(report));
+        recordChange(report.getReportId(), null);
+    }
+
+    /**
+     * Saves many reports with BatchWriteItem.
+     * Reports are written in chunks of 25, chunks run in parallel, and unprocessed items
+     * are retried with exponential backoff and jitter. Reports that still could not be
+     * written are returned with the reason.
+     *
+     * @param reports The reports to save
+     * @return The failed reports as reportId to error message, empty if everything was written
+     */
+    public Map<String, String> saveReports(List<Report> reports) {
+        List<Callable<Map<String, String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < reports.size(); from += BATCH_WRITE_SIZE) {
+            List<Report> chunk = reports.subList(from, Math.min(from + BATCH_WRITE_SIZE, reports.size()));
+            chunks.add(() -> writeChunk(chunk));
+        }
+
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (Map<String, String> chunkFailures : fanOut(chunks)) {
+            failures.putAll(chunkFailures);
+        }
+
+        // BatchWriteItem cannot carry the counter updates, so count the written reports afterwards
+        ReportStatisticsRepository.Deltas deltas = new ReportStatisticsRepository.Deltas();
+        for (Report report : reports) {
+            if (!failures.containsKey(report.getReportId())) {
+                deltas.add(report, 1);
+                recordChange(report.getReportId(), null);
             }
-            userMap.put("isVolunteer", AttributeValue.builder().bool(user.isVolunteer()).build());
-            userMap.put("isSocialWorker", AttributeValue.builder().bool(user.isSocialWorker()).build());
-            item.put("user", AttributeValue.builder().m(userMap).build());
         }
-        
-        if (report.getCategory() != null) {
-            Map<String, AttributeValue> categoryMap = Map.of(
-                "categoryID", AttributeValue.builder().s(report.getCategory().getCategoryID()).build(),
-                "categoryType", AttributeValue.builder().s(report.getCategory().getCategoryType()).build()
-            );
-            item.put("category", AttributeValue.builder().m(categoryMap).build());
+        try {
+            statistics.apply(deltas);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Report statistics not updated for a batch; rebuild them to repair", e);
         }
-        if (report.getDescription() != null) {
-            item.put("description", AttributeValue.builder().s(report.getDescription()).build());
+        return failures;
+    }
+
+    private Map<String, String> writeChunk(List<Report> chunk) {
+        List<WriteRequest> pending = new ArrayList<>();
+        for (Report report : chunk) {
+            pending.add(WriteRequest.builder()
+                .putRequest(PutRequest.builder().item(toItem(report)).build())
+                .build());
         }
-        if (report.getLocation() != null) {
-            item.put("location", AttributeValue.builder().s(report.getLocation()).build());
+
+        Map<String, String> failures = new LinkedHashMap<>();
+        try {
+            pending = batchWriteWithRetry(pending);
+            String error = Thread.currentThread().isInterrupted()
+                ? "Write interrupted"
+                : "Write throttled, retries exhausted";
+            for (WriteRequest request : pending) {
+                failures.put(request.putRequest().item().get("reportId").s(), error);
+            }
+        } catch (RuntimeException e) {
+            for (WriteRequest request : pending) {
+                failures.put(request.putRequest().item().get("reportId").s(), e.getMessage());
+            }
         }
-        item.put("isCurrentLocation", AttributeValue.builder().bool(report.isCurrentLocation()).build());
-        
-        // Add location coordinates and description
-        item.put("latitude", AttributeValue.builder().n(String.valueOf(report.getLatitude())).build());
-        item.put("longitude", AttributeValue.builder().n(String.valueOf(report.getLongitude())).build());
-        if (report.getLocationDescription() != null) {
-            item.put("locationDescription", AttributeValue.builder().s(report.getLocationDescription()).build());
+        return failures;
+    }
+
+    private Map<String, AttributeValue> toItem(Report report) {
+        // New reports start at version 1, every update bumps it
+        if (report.getVersion() == null) {
+            report.setVersion(1L);
         }
-        
-        if (report.getStatus() != null) {
-            item.put("status", AttributeValue.builder().s(report.getStatus().name()).build());
+        return attributesOf(report);
+    }
+
+    private Map<String, AttributeValue> attributesOf(Report report) {
+        Map<String, AttributeValue> item = ModelCodecs.REPORT.encode(report);
+        if (report.getUser() != null) {
+            item.put("userId", AttributeValue.builder().s(report.getUser().getUserId()).build());
         }
-        if (report.getTimestamp() != null) {
-            item.put("timestamp", AttributeValue.builder().s(report.getTimestamp().format(DATE_FORMATTER)).build());
+        item.putAll(derivedKeys(report));
+
+        return item;
+    }
+
+    /**
+     * Builds the attributes that are derived from other report fields and only exist to feed indexes.
+     *
+     * @param report The report
+     * @return The derived attributes, keyed by attribute name
+     */
+    private Map<String, AttributeValue> derivedKeys(Report report) {
+        Map<String, AttributeValue> keys = new HashMap<>();
+
+        // Normalized keys for the city/province indexes
+        String cityKey = TurkishText.normalizeKey(report.getCity());
+        if (cityKey != null) {
+            keys.put("cityKey", AttributeValue.builder().s(cityKey).build());
         }
-        if (report.getLastUpdated() != null) {
-            item.put("lastUpdated", AttributeValue.builder().s(report.getLastUpdated().format(DATE_FORMATTER)).build());
+        String provinceKey = TurkishText.normalizeKey(report.getProvince());
+        if (provinceKey != null) {
+            keys.put("provinceKey", AttributeValue.builder().s(provinceKey).build());
         }
-        if (report.getCity() != null) {
-            item.put("city", AttributeValue.builder().s(report.getCity()).build());
+
+        // Sharded day bucket for the time index
+        if (report.getTimestamp() != null && report.getReportId() != null) {
+            keys.put("timeBucket", AttributeValue.builder()
+                .s(TimeBuckets.bucketKey(report.getTimestamp(), report.getReportId(), TIME_BUCKET_SHARDS))
+                .build());
         }
-        if (report.getProvince() != null) {
-            item.put("province", AttributeValue.builder().s(report.getProvince()).build());
+
+        // Geohash and its coarse cell for the near-me index
+        if (report.hasCoordinates()) {
+            keys.putAll(geohashKeys(report.getLatitude(), report.getLongitude()));
         }
-        
-        putItem(item);
+
+        return keys;
     }
 
     public Report getReport(String reportId) {
@@ -122,48 +286,554 @@ public class ReportRepository extends DynamoDBRepository {
         return reports;
     }
 
+    /**
+     * Saves a new report, then counts it in the statistics.
+     *
+     * @param report The report to create
+     * @return The saved report
+     * @see #createReport(Report, List)
+     */
     public Report createReport(Report report) {
-        saveReport(report);
+        return createReport(report, List.of());
+    }
+
+    /**
+     * Saves a new report together with other writes in one transaction, then counts it in the
+     * statistics. The counters are shared by every write, so they are kept out of the transaction
+     * and a failed counter update is only logged; a rebuild of the statistics repairs the drift.
+     *
+     * @param report The report to create
+     * @param alsoWrite Writes that must happen if and only if the report is saved, such as its
+     *                  outbox messages; may be empty
+     * @return The saved report
+     */
+    public Report createReport(Report report, List<TransactWriteItem> alsoWrite) {
+        if (alsoWrite.isEmpty()) {
+            dynamoDbClient.putItem(PutItemRequest.builder()
+                .tableName(this.tableName)
+                .item(toItem(report))
+                .conditionExpression("attribute_not_exists(reportId)")
+                .build());
+        } else {
+            List<TransactWriteItem> items = new ArrayList<>();
+            items.add(TransactWriteItem.builder()
+                .put(Put.builder()
+                    .tableName(this.tableName)
+                    .item(toItem(report))
+                    .conditionExpression("attribute_not_exists(reportId)")
+                    .build())
+                .build());
+            items.addAll(alsoWrite);
+            dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                .transactItems(items)
+                .build());
+        }
+        recordChange(report.getReportId(), null);
+
+        try {
+            statistics.apply(new ReportStatisticsRepository.Deltas().add(report, 1));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Report statistics not updated for creation of " + report.getReportId(), e);
+        }
         return report;
     }
 
     public Report updateReportStatus(String reportId, Report.ReportStatus status) {
-        Map<String, AttributeValue> key = new HashMap<>();
-        key.put("reportId", AttributeValue.builder().s(reportId).build());
+        return updateReportStatus(reportId, status, null);
+    }
 
-        Map<String, AttributeValue> attributeValues = new HashMap<>();
-        attributeValues.put(":status", AttributeValue.builder().s(status.name()).build());
-        attributeValues.put(":lastUpdated", AttributeValue.builder().s(LocalDateTime.now().format(DATE_FORMATTER)).build());
+    /**
+     * Changes a report's status in a single conditional UpdateItem.
+     *
+     * @param reportId The report to update
+     * @param status The new status
+     * @param expectedVersion The version the caller last read, or null to skip the version check
+     * @return The updated report, or null if the report does not exist
+     * @throws VersionConflictException if the report was changed since expectedVersion
+     */
+    public Report updateReportStatus(String reportId, Report.ReportStatus status, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, String> names = new HashMap<>();
+        names.put("#status", "status");
 
-        UpdateItemRequest request = UpdateItemRequest.builder()
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":status", AttributeValue.builder().s(status.name()).build());
+        values.put(":lastUpdated", AttributeValue.builder().s(now.format(DATE_FORMATTER)).build());
+
+        // ALL_OLD gives the previous status for the statistics; the new report is that plus this change
+        Map<String, AttributeValue> oldItem = conditionalUpdate(reportId, expectedVersion,
+            "SET #status = :status, lastUpdated = :lastUpdated", names, values, ReturnValue.ALL_OLD);
+        if (oldItem == null) {
+            return null;
+        }
+        recordChange(reportId, oldItem);
+
+        Report previous = mapToReport(oldItem);
+        Report updated = mapToReport(oldItem);
+        updated.setStatus(status);
+        updated.setLastUpdated(now);
+        updated.setVersion((previous.getVersion() == null ? 0 : previous.getVersion()) + 1);
+
+        if (previous.getStatus() != status) {
+            try {
+                statistics.apply(new ReportStatisticsRepository.Deltas().add(previous, -1).add(updated, 1));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Report statistics not updated for status change of " + reportId, e);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Replaces a report's stored fields in a single conditional UpdateItem, keeping its id,
+     * creation timestamp (unless a new one is given) and version history.
+     * Optional fields missing from the report are removed from the item, as a full replace would;
+     * the duplicate count, reporters and stored duplicates are kept.
+     *
+     * @param report The new report contents, with the reportId of the report to replace
+     * @param expectedVersion The version the caller last read, or null to skip the version check
+     * @return The report before and after the update, or null if the report does not exist
+     * @throws VersionConflictException if the report was changed since expectedVersion
+     */
+    public Change replaceReport(Report report, Long expectedVersion) {
+        Map<String, AttributeValue> attributes = attributesOf(report);
+        attributes.remove("reportId");
+        attributes.remove("version");
+        // Maintained by attachDuplicate; a client body never carries the current values
+        attributes.remove("duplicateCount");
+        attributes.remove("duplicateReporters");
+        attributes.remove("duplicates");
+
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> assignments = new ArrayList<>();
+        for (Map.Entry<String, AttributeValue> attribute : attributes.entrySet()) {
+            String placeholder = "a" + assignments.size();
+            names.put("#" + placeholder, attribute.getKey());
+            values.put(":" + placeholder, attribute.getValue());
+            assignments.add("#" + placeholder + " = :" + placeholder);
+        }
+        StringBuilder updateExpression = new StringBuilder("SET ").append(String.join(", ", assignments));
+
+        List<String> removals = new ArrayList<>();
+        for (String attribute : REPLACEABLE_ATTRIBUTES) {
+            if (!attributes.containsKey(attribute)) {
+                String placeholder = "#r" + removals.size();
+                names.put(placeholder, attribute);
+                removals.add(placeholder);
+            }
+        }
+        if (!removals.isEmpty()) {
+            updateExpression.append(" REMOVE ").append(String.join(", ", removals));
+        }
+
+        // ALL_OLD gives the previous counted fields; the new report is that item with this update applied
+        Map<String, AttributeValue> oldItem = conditionalUpdate(report.getReportId(), expectedVersion,
+            updateExpression.toString(), names, values, ReturnValue.ALL_OLD);
+        if (oldItem == null) {
+            return null;
+        }
+        recordChange(report.getReportId(), oldItem);
+
+        Map<String, AttributeValue> newItem = new HashMap<>(oldItem);
+        newItem.keySet().removeAll(REPLACEABLE_ATTRIBUTES);
+        newItem.putAll(attributes);
+        Report previous = mapToReport(oldItem);
+        Report updated = mapToReport(newItem);
+        updated.setVersion((previous.getVersion() == null ? 0 : previous.getVersion()) + 1);
+
+        ReportStatisticsRepository.Deltas deltas = new ReportStatisticsRepository.Deltas().add(previous, -1).add(updated, 1);
+        if (!deltas.isEmpty()) {
+            try {
+                statistics.apply(deltas);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Report statistics not updated for replacement of " + report.getReportId(), e);
+            }
+        }
+        return new Change(previous, updated);
+    }
+
+    /**
+     * Records a near-duplicate report on the report it duplicates instead of saving it:
+     * duplicateCount is incremented, the duplicate's user is added to duplicateReporters and
+     * its description, location and time are appended to the duplicates list, so what the
+     * other reporters saw is kept. The list stops growing at {@value #MAX_STORED_DUPLICATES}
+     * entries to keep the item small; later duplicates are only counted.
+     * The version is left alone, since this does not change anything a responder edits.
+     *
+     * @param reportId The existing report
+     * @param duplicate The incoming report that duplicates it
+     * @return The updated existing report, or null if it no longer exists
+     */
+    public Report attachDuplicate(String reportId, Report duplicate) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":one", AttributeValue.builder().n("1").build());
+        values.put(":lastUpdated", AttributeValue.builder().s(LocalDateTime.now().format(DATE_FORMATTER)).build());
+        String counters = " ADD duplicateCount :one";
+        if (duplicate.getUser() != null && duplicate.getUser().getUserId() != null) {
+            values.put(":reporter", AttributeValue.builder().ss(duplicate.getUser().getUserId()).build());
+            counters += ", duplicateReporters :reporter";
+        }
+
+        Map<String, AttributeValue> stored = new HashMap<>(values);
+        stored.put(":duplicate", AttributeValue.builder().l(AttributeValue.builder().m(duplicateEntry(duplicate)).build()).build());
+        stored.put(":none", AttributeValue.builder().l(List.of()).build());
+        stored.put(":maxDuplicates", AttributeValue.builder().n(String.valueOf(MAX_STORED_DUPLICATES)).build());
+        Map<String, AttributeValue> before = imageBefore(reportId);
+        try {
+            return mapToReport(updateDuplicate(reportId,
+                "SET lastUpdated = :lastUpdated, duplicates = list_append(if_not_exists(duplicates, :none), :duplicate)" + counters,
+                "attribute_exists(reportId) AND (attribute_not_exists(duplicates) OR size(duplicates) < :maxDuplicates)",
+                stored, before));
+        } catch (ConditionalCheckFailedException e) {
+            if (!e.hasItem() || e.item().isEmpty()) {
+                return null;
+            }
+        }
+
+        // The list is full: count the duplicate without storing it
+        try {
+            return mapToReport(updateDuplicate(reportId, "SET lastUpdated = :lastUpdated" + counters, "attribute_exists(reportId)", values, before));
+        } catch (ConditionalCheckFailedException e) {
+            return null;
+        }
+    }
+
+    private Map<String, AttributeValue> updateDuplicate(String reportId, String updateExpression, String condition,
+                                                        Map<String, AttributeValue> values, Map<String, AttributeValue> before) {
+        Map<String, AttributeValue> updated = dynamoDbClient.updateItem(UpdateItemRequest.builder()
             .tableName(this.tableName)
-            .key(key)
-            .updateExpression("SET status = :status, lastUpdated = :lastUpdated")
-            .expressionAttributeValues(attributeValues)
+            .key(Map.of("reportId", AttributeValue.builder().s(reportId).build()))
+            .updateExpression(updateExpression)
+            .conditionExpression(condition)
+            .expressionAttributeValues(values)
             .returnValues(ReturnValue.ALL_NEW)
+            .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+            .build()).attributes();
+        recordChange(reportId, before);
+        return updated;
+    }
+
+    // What is kept of a duplicate: who reported what, where and when
+    private static Map<String, AttributeValue> duplicateEntry(Report duplicate) {
+        Map<String, AttributeValue> entry = new HashMap<>();
+        if (duplicate.getUser() != null && duplicate.getUser().getUserId() != null) {
+            entry.put("userId", AttributeValue.builder().s(duplicate.getUser().getUserId()).build());
+        }
+        if (duplicate.getDescription() != null && !duplicate.getDescription().isBlank()) {
+            entry.put("description", AttributeValue.builder().s(duplicate.getDescription()).build());
+        }
+        if (duplicate.getLocation() != null && !duplicate.getLocation().isBlank()) {
+            entry.put("location", AttributeValue.builder().s(duplicate.getLocation()).build());
+        }
+        if (duplicate.getLocationDescription() != null && !duplicate.getLocationDescription().isBlank()) {
+            entry.put("locationDescription", AttributeValue.builder().s(duplicate.getLocationDescription()).build());
+        }
+        entry.put("latitude", AttributeValue.builder().n(String.valueOf(duplicate.getLatitude())).build());
+        entry.put("longitude", AttributeValue.builder().n(String.valueOf(duplicate.getLongitude())).build());
+        LocalDateTime reportedAt = duplicate.getTimestamp() != null ? duplicate.getTimestamp() : LocalDateTime.now();
+        entry.put("timestamp", AttributeValue.builder().s(reportedAt.format(DATE_FORMATTER)).build());
+        return entry;
+    }
+
+    /**
+     * Stores the outcome of background geocoding with a single UpdateItem.
+     * Applies only while the report is still waiting for it, so a location the user set in
+     * the meantime is never overwritten. Null arguments leave the attribute untouched.
+     *
+     * @param reportId The report ID
+     * @param status RESOLVED or FAILED
+     * @param latitude The resolved latitude, or null
+     * @param longitude The resolved longitude, or null
+     * @param city The resolved city, or null
+     * @param province The resolved province, or null
+     * @return The updated report, or null if it is gone or no longer waiting for geocoding
+     */
+    public Report completeGeocoding(String reportId, Report.GeocodeStatus status, Double latitude, Double longitude,
+                                    String city, String province) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":status", AttributeValue.builder().s(status.name()).build());
+        values.put(":pending", AttributeValue.builder().s(Report.GeocodeStatus.PENDING.name()).build());
+        values.put(":lastUpdated", AttributeValue.builder().s(LocalDateTime.now().format(DATE_FORMATTER)).build());
+        values.put(":one", AttributeValue.builder().n("1").build());
+        StringBuilder updateExpression = new StringBuilder("SET geocodeStatus = :status, lastUpdated = :lastUpdated");
+
+        if (latitude != null && longitude != null) {
+            values.put(":latitude", AttributeValue.builder().n(String.valueOf(latitude)).build());
+            values.put(":longitude", AttributeValue.builder().n(String.valueOf(longitude)).build());
+            Map<String, AttributeValue> geohashKeys = geohashKeys(latitude, longitude);
+            values.put(":geohash", geohashKeys.get("geohash"));
+            values.put(":geoCell", geohashKeys.get("geoCell"));
+            values.put(":geoRegion", geohashKeys.get("geoRegion"));
+            updateExpression.append(", latitude = :latitude, longitude = :longitude, geohash = :geohash, geoCell = :geoCell"
+                + ", geoRegion = :geoRegion");
+        }
+        if (city != null) {
+            values.put(":city", AttributeValue.builder().s(city).build());
+            updateExpression.append(", city = :city");
+            String cityKey = TurkishText.normalizeKey(city);
+            if (cityKey != null) {
+                values.put(":cityKey", AttributeValue.builder().s(cityKey).build());
+                updateExpression.append(", cityKey = :cityKey");
+            }
+        }
+        if (province != null) {
+            values.put(":province", AttributeValue.builder().s(province).build());
+            updateExpression.append(", province = :province");
+            String provinceKey = TurkishText.normalizeKey(province);
+            if (provinceKey != null) {
+                values.put(":provinceKey", AttributeValue.builder().s(provinceKey).build());
+                updateExpression.append(", provinceKey = :provinceKey");
+            }
+        }
+
+        Map<String, AttributeValue> oldImage = imageBefore(reportId);
+        Report updated;
+        try {
+            UpdateItemResponse response = dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                .tableName(this.tableName)
+                .key(Map.of("reportId", AttributeValue.builder().s(reportId).build()))
+                .updateExpression(updateExpression + " ADD #version :one")
+                .conditionExpression("attribute_exists(reportId) AND geocodeStatus = :pending")
+                .expressionAttributeNames(Map.of("#version", "version"))
+                .expressionAttributeValues(values)
+                .returnValues(ReturnValue.ALL_NEW)
+                .build());
+            updated = mapToReport(response.attributes());
+        } catch (ConditionalCheckFailedException e) {
+            return null;
+        }
+        recordChange(reportId, oldImage);
+
+        // The report was counted under an unknown province when it was created
+        if (province != null) {
+            Report before = new Report(updated);
+            before.setProvince(null);
+            try {
+                statistics.apply(new ReportStatisticsRepository.Deltas().add(before, -1).add(updated, 1));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to move report " + reportId + " to its geocoded province counters", e);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Runs an UpdateItem that only applies to an existing report and, when expectedVersion is set,
+     * only while the stored version still matches. The version is bumped in the same request and
+     * the item comes back in the same response, so an update is a single round trip with no prior read.
+     * Items written before versioning have no version attribute and count as version 0.
+     *
+     * @param updateExpression The SET/REMOVE clauses; "ADD #version :one" is appended
+     * @param returnValue ALL_NEW for the updated item or ALL_OLD for the item before the update
+     * @return The returned item, or null if the report does not exist
+     * @throws VersionConflictException if the stored version differs from expectedVersion
+     */
+    private Map<String, AttributeValue> conditionalUpdate(String reportId, Long expectedVersion, String updateExpression,
+                                                          Map<String, String> names, Map<String, AttributeValue> values,
+                                                          ReturnValue returnValue) {
+        names.put("#version", "version");
+        values.put(":one", AttributeValue.builder().n("1").build());
+
+        String condition = "attribute_exists(reportId)";
+        if (expectedVersion != null) {
+            values.put(":expectedVersion", AttributeValue.builder().n(String.valueOf(expectedVersion)).build());
+            condition += expectedVersion == 0
+                ? " AND (attribute_not_exists(#version) OR #version = :expectedVersion)"
+                : " AND #version = :expectedVersion";
+        }
+
+        UpdateItemRequest request = UpdateItemRequest.builder()
+            .tableName(this.tableName)
+            .key(Map.of("reportId", AttributeValue.builder().s(reportId).build()))
+            .updateExpression(updateExpression + " ADD #version :one")
+            .conditionExpression(condition)
+            .expressionAttributeNames(names)
+            .expressionAttributeValues(values)
+            .returnValues(returnValue)
+            .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
             .build();
 
-        UpdateItemResponse response = dynamoDbClient.updateItem(request);
-        return mapToReport(response.attributes());
+        try {
+            UpdateItemResponse response = dynamoDbClient.updateItem(request);
+            return response.attributes();
+        } catch (ConditionalCheckFailedException e) {
+            // With ALL_OLD the failure carries the stored item; no item means the report does not exist
+            if (!e.hasItem() || e.item().isEmpty()) {
+                return null;
+            }
+            Long currentVersion = mapToReport(e.item()).getVersion();
+            throw new VersionConflictException(reportId, expectedVersion == null ? 0 : expectedVersion,
+                currentVersion == null ? 0 : currentVersion);
+        }
     }
 
-    public void deleteReport(String reportId) {
+    /**
+     * Deletes a report and takes it out of the statistics.
+     *
+     * @param reportId The report to delete
+     * @return The deleted report, or null if it did not exist
+     */
+    public Report deleteReport(String reportId) {
         Map<String, AttributeValue> key = new HashMap<>();
         key.put("reportId", AttributeValue.builder().s(reportId).build());
 
         DeleteItemRequest request = DeleteItemRequest.builder()
             .tableName(this.tableName)
             .key(key)
+            .returnValues(ReturnValue.ALL_OLD)
             .build();
 
-        dynamoDbClient.deleteItem(request);
+        DeleteItemResponse response = dynamoDbClient.deleteItem(request);
+        if (!response.hasAttributes() || response.attributes().isEmpty()) {
+            return null;
+        }
+        recordChange(reportId, response.attributes());
+
+        Report deleted = mapToReport(response.attributes());
+        try {
+            statistics.apply(new ReportStatisticsRepository.Deltas().add(deleted, -1));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Report statistics not updated for deletion of " + reportId, e);
+        }
+        return deleted;
+    }
+
+    /**
+     * Reads the live report counters.
+     *
+     * @param province A province to narrow the totals to, or null for the overall totals
+     * @return The totals, ready to serialize
+     */
+    public Map<String, Object> getStatistics(String province) {
+        return province == null ? statistics.getStatistics() : statistics.getProvinceStatistics(province);
+    }
+
+    /**
+     * Recounts every report and replaces the statistics counters with the result.
+     * Used to backfill the counters for reports written before they existed and to repair drift.
+     *
+     * @return The number of counters written
+     */
+    public long rebuildStatistics() {
+        ReportStatisticsRepository.Deltas counts = new ReportStatisticsRepository.Deltas();
+        scanAllReports(report -> {
+            synchronized (counts) {
+                counts.add(report, 1);
+            }
+        });
+        return statistics.replaceAll(counts);
+    }
+
+    /**
+     * Parses a fields= parameter for report reads.
+     * The key, timestamp and coordinates are always read because paging and distance filtering need them.
+     *
+     * @param fieldsParam The comma-separated report fields, may be null
+     * @return The selection, or null to read all fields
+     * @throws IllegalArgumentException if a field does not exist
+     */
+    public static FieldSelection selectFields(String fieldsParam) {
+        return FieldSelection.parse(fieldsParam, FIELD_ATTRIBUTES, "reportId", "timestamp", "latitude", "longitude");
     }
 
     public List<Report> getAllReports() {
+        return getAllReports(null);
+    }
+
+    /**
+     * Retrieves every report, reading only the selected fields.
+     *
+     * @param fields The fields to read, or null for all fields
+     * @return All reports, in no particular order
+     */
+    public List<Report> getAllReports(FieldSelection fields) {
+        Queue<Report> reports = new ConcurrentLinkedQueue<>();
+        ScanRequest scanRequest = project(ScanRequest.builder()
+            .tableName(this.tableName)
+            .build(), fields);
+
+        parallelScan(scanRequest, item -> reports.add(mapToReport(item)));
+        return new ArrayList<>(reports);
+    }
+
+    /**
+     * Streams every report in the table to the consumer using a parallel segmented scan.
+     * Reports arrive in no particular order and the consumer is called from several threads.
+     *
+     * @param consumer Receives every report
+     * @return The number of reports scanned
+     */
+    public long scanAllReports(Consumer<Report> consumer) {
+        ScanRequest scanRequest = ScanRequest.builder()
+            .tableName(this.tableName)
+            .build();
+
+        return parallelScan(scanRequest, item -> consumer.accept(mapToReport(item)));
+    }
+
+    /**
+     * Recomputes the derived index attributes (such as cityKey and provinceKey) for every report
+     * and rewrites the ones that are missing or stale. Used to backfill indexes added after
+     * reports were written. Runs until the deadline and returns where it stopped, so a large
+     * table is reindexed over several calls; rewriting a report twice is harmless.
+     *
+     * @param checkpoint Where the previous call stopped, or null to start
+     * @param deadlineMillis The wall-clock time, in epoch milliseconds, to stop at
+     * @param updated Counts the reports that were updated
+     * @return Where this call stopped
+     */
+    public ScanCheckpoint reindexReports(ScanCheckpoint checkpoint, long deadlineMillis, AtomicLong updated) {
         ScanRequest scanRequest = ScanRequest.builder()
             .tableName(this.tableName)
             .build();
 
+        return parallelScan(scanRequest, checkpoint, deadlineMillis, item -> {
+            Map<String, AttributeValue> keys = derivedKeys(mapToReport(item));
+            Map<String, String> names = new HashMap<>();
+            Map<String, AttributeValue> values = new HashMap<>();
+            List<String> assignments = new ArrayList<>();
+
+            for (Map.Entry<String, AttributeValue> entry : keys.entrySet()) {
+                if (entry.getValue().equals(item.get(entry.getKey()))) {
+                    continue;
+                }
+                String index = String.valueOf(assignments.size());
+                names.put("#k" + index, entry.getKey());
+                values.put(":v" + index, entry.getValue());
+                assignments.add("#k" + index + " = :v" + index);
+            }
+            if (assignments.isEmpty()) {
+                return;
+            }
+
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                .tableName(this.tableName)
+                .key(Map.of("reportId", item.get("reportId")))
+                .updateExpression("SET " + String.join(", ", assignments))
+                .conditionExpression("attribute_exists(reportId)")
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build());
+            updated.incrementAndGet();
+        });
+    }
+
+    /**
+     * Reads one page of reports from the table.
+     *
+     * @param limit The maximum number of items to evaluate for this page
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param fields The fields to read, or null for all fields
+     * @return The page of reports and the cursor for the next page
+     */
+    public Page<Report> getReportsPage(int limit, String cursor, FieldSelection fields) {
+        ScanRequest scanRequest = project(ScanRequest.builder()
+            .tableName(this.tableName)
+            .limit(limit)
+            .exclusiveStartKey(PageCursor.decode(cursor))
+            .build(), fields);
+
         ScanResponse response = dynamoDbClient.scan(scanRequest);
         List<Report> reports = new ArrayList<>();
 
@@ -171,7 +841,7 @@ public class ReportRepository extends DynamoDBRepository {
             reports.add(mapToReport(item));
         }
 
-        return reports;
+        return new Page<>(reports, PageCursor.encode(response.lastEvaluatedKey()));
     }
 
     public List<Report> getReportsByCategory(String category) {
@@ -210,172 +880,584 @@ public class ReportRepository extends DynamoDBRepository {
         return reports;
     }
 
+    /**
+     * Retrieves all reports created within the given time range, newest first.
+     * Day buckets are read newest first, a few days per round; within a round every shard
+     * of every day is queried in parallel and the already-sorted shard results are merged.
+     *
+     * @param startTime The start of the time range (inclusive)
+     * @param endTime The end of the time range (inclusive)
+     * @return The reports in the time range
+     */
     public List<Report> getReportsByTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
+        return getReportsByTimeRange(startTime, endTime, null);
+    }
+
+    /**
+     * Retrieves all reports created within the given time range, newest first, reading only the selected fields.
+     *
+     * @param startTime The start of the time range (inclusive)
+     * @param endTime The end of the time range (inclusive)
+     * @param fields The fields to read, or null for all fields
+     * @return The reports in the time range
+     */
+    public List<Report> getReportsByTimeRange(LocalDateTime startTime, LocalDateTime endTime, FieldSelection fields) {
+        String lower = startTime.format(DATE_FORMATTER);
+        String upper = endTime.format(DATE_FORMATTER);
+
+        List<Report> reports = new ArrayList<>();
+        for (List<LocalDate> round : rounds(TimeBuckets.daysNewestFirst(startTime, endTime))) {
+            List<Callable<List<Report>>> queries = new ArrayList<>();
+            for (LocalDate day : round) {
+                for (int shard = 0; shard < TIME_BUCKET_SHARDS; shard++) {
+                    QueryRequest request = timeBucketQuery(TimeBuckets.bucketKey(day, shard), lower, upper, fields);
+                    queries.add(() -> queryAllReports(request));
+                }
+            }
+            // Every round is older than the one before, so merged rounds can be appended
+            reports.addAll(mergeNewestFirst(fanOut(queries), Integer.MAX_VALUE));
+        }
+        return reports;
+    }
+
+    private static List<List<LocalDate>> rounds(List<LocalDate> days) {
+        List<List<LocalDate>> rounds = new ArrayList<>();
+        for (int from = 0; from < days.size(); from += DAYS_PER_ROUND) {
+            rounds.add(days.subList(from, Math.min(from + DAYS_PER_ROUND, days.size())));
+        }
+        return rounds;
+    }
+
+    /**
+     * Reads one page of reports created within the given time range, newest first.
+     * Day buckets are read from newest to oldest, a few days per round, and reading stops as
+     * soon as the page is full; within a round all shards are queried in parallel and merged.
+     * The cursor holds the timestamp and id of the last returned report.
+     *
+     * @param startTime The start of the time range (inclusive)
+     * @param endTime The end of the time range (inclusive)
+     * @param limit The maximum number of reports to return
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param fields The fields to read, or null for all fields
+     * @return The page of reports and the cursor for the next page
+     */
+    public Page<Report> getReportsByTimeRangePage(LocalDateTime startTime, LocalDateTime endTime, int limit, String cursor,
+                                                  FieldSelection fields) {
+        String lower = startTime.format(DATE_FORMATTER);
+        String upper = endTime.format(DATE_FORMATTER);
+        LocalDateTime upperTime = endTime;
+        String afterReportId = null;
+
+        Map<String, AttributeValue> after = PageCursor.decode(cursor);
+        if (after != null) {
+            if (after.get("timestamp") == null || after.get("reportId") == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            upper = after.get("timestamp").s();
+            afterReportId = after.get("reportId").s();
+            try {
+                upperTime = LocalDateTime.parse(upper, DATE_FORMATTER);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<Report> reports = new ArrayList<>();
+        for (List<LocalDate> round : rounds(TimeBuckets.daysNewestFirst(startTime, upperTime))) {
+            int remaining = limit - reports.size();
+            List<Callable<List<Report>>> queries = new ArrayList<>();
+            for (LocalDate day : round) {
+                for (int shard = 0; shard < TIME_BUCKET_SHARDS; shard++) {
+                    QueryRequest request = timeBucketQuery(TimeBuckets.bucketKey(day, shard), lower, upper, fields);
+                    String upperBound = upper;
+                    String afterId = afterReportId;
+                    queries.add(() -> queryNewest(request, remaining, upperBound, afterId));
+                }
+            }
+
+            reports.addAll(mergeNewestFirst(fanOut(queries), remaining));
+            if (reports.size() >= limit) {
+                break;
+            }
+        }
+
+        String nextCursor = null;
+        if (reports.size() >= limit) {
+            Report last = reports.get(reports.size() - 1);
+            nextCursor = PageCursor.encode(Map.of(
+                "timestamp", AttributeValue.builder().s(last.getTimestamp().format(DATE_FORMATTER)).build(),
+                "reportId", AttributeValue.builder().s(last.getReportId()).build()
+            ));
+        }
+        return new Page<>(reports, nextCursor);
+    }
+
+    private QueryRequest timeBucketQuery(String bucketKey, String lower, String upper, FieldSelection fields) {
         Map<String, AttributeValue> expressionValues = new HashMap<>();
-        expressionValues.put(":startTime", AttributeValue.builder().s(startTime.format(DATE_FORMATTER)).build());
-        expressionValues.put(":endTime", AttributeValue.builder().s(endTime.format(DATE_FORMATTER)).build());
+        expressionValues.put(":bucket", AttributeValue.builder().s(bucketKey).build());
+        expressionValues.put(":startTime", AttributeValue.builder().s(lower).build());
+        expressionValues.put(":endTime", AttributeValue.builder().s(upper).build());
 
-        QueryRequest request = QueryRequest.builder()
+        return project(QueryRequest.builder()
             .tableName(this.tableName)
-            .indexName(TIMESTAMP_INDEX)
-            .keyConditionExpression("timestamp BETWEEN :startTime AND :endTime")
+            .indexName(TIME_BUCKET_INDEX)
+            .keyConditionExpression("timeBucket = :bucket AND #ts BETWEEN :startTime AND :endTime")
+            .expressionAttributeNames(Map.of("#ts", "timestamp"))
             .expressionAttributeValues(expressionValues)
-            .build();
+            .scanIndexForward(false)
+            .build(), fields);
+    }
 
-        QueryResponse response = dynamoDbClient.query(request);
+    /**
+     * Reads up to max reports from a newest-first query, skipping reports at or before the
+     * page cursor (same timestamp and a reportId not lower than the cursor's).
+     */
+    private List<Report> queryNewest(QueryRequest request, int max, String afterTimestamp, String afterReportId) {
         List<Report> reports = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+
+        do {
+            QueryResponse response = dynamoDbClient.query(request.toBuilder()
+                .limit(max)
+                .exclusiveStartKey(startKey)
+                .build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                if (afterReportId != null && item.get("timestamp") != null
+                    && afterTimestamp.equals(item.get("timestamp").s())
+                    && item.get("reportId").s().compareTo(afterReportId) >= 0) {
+                    continue;
+                }
+                reports.add(mapToReport(item));
+                if (reports.size() >= max) {
+                    return reports;
+                }
+            }
+            startKey = response.lastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty());
 
-        for (Map<String, AttributeValue> item : response.items()) {
-            reports.add(mapToReport(item));
-        }
-        
         return reports;
     }
 
-    public List<Report> getReportsByCity(String city) {
-        ScanRequest request = ScanRequest.builder()
-            .tableName(this.tableName)
-            .filterExpression("city = :city")
-            .expressionAttributeValues(Map.of(":city", AttributeValue.builder().s(city).build()))
-            .build();
+    /**
+     * Merges lists that are each sorted newest first into one newest-first list.
+     *
+     * @param sortedLists The lists to merge
+     * @param max The maximum number of reports to return
+     * @return The merged reports
+     */
+    private List<Report> mergeNewestFirst(List<List<Report>> sortedLists, int max) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> NEWEST_FIRST.compare(
+            sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1])));
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
 
-        ScanResponse response = dynamoDbClient.scan(request);
-        List<Report> reports = new ArrayList<>();
+        List<Report> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < max) {
+            int[] head = heads.poll();
+            List<Report> list = sortedLists.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (head[1] + 1 < list.size()) {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
 
-        for (Map<String, AttributeValue> item : response.items()) {
-            reports.add(mapToReport(item));
+    /**
+     * Runs independent index queries on the shared query pool and returns their results in task order.
+     */
+    private <T> List<T> fanOut(List<Callable<T>> tasks) {
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : QUERY_EXECUTOR.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Report query interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Report query failed", e.getCause());
         }
+    }
 
-        return reports;
+    /**
+     * Retrieves all reports for a city (ilçe), newest first.
+     * The city is matched on its normalized key, so casing and Turkish characters do not matter.
+     *
+     * @param city The city name
+     * @return The reports in the city
+     */
+    public List<Report> getReportsByCity(String city) {
+        return getReportsByCity(city, null);
+    }
+
+    /**
+     * Retrieves all reports for a city (ilçe), newest first, reading only the selected fields.
+     *
+     * @param city The city name
+     * @param fields The fields to read, or null for all fields
+     * @return The reports in the city
+     */
+    public List<Report> getReportsByCity(String city, FieldSelection fields) {
+        return queryAllReports(locationQuery(CITY_INDEX, "cityKey", city, fields));
     }
 
+    /**
+     * Reads one page of reports for a city (ilçe), newest first.
+     *
+     * @param city The city name
+     * @param limit The maximum number of items to read for this page
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param fields The fields to read, or null for all fields
+     * @return The page of reports and the cursor for the next page
+     */
+    public Page<Report> getReportsByCityPage(String city, int limit, String cursor, FieldSelection fields) {
+        return queryReportsPage(locationQuery(CITY_INDEX, "cityKey", city, fields), limit, cursor);
+    }
+
+    /**
+     * Retrieves all reports for a province (il), newest first.
+     * The province is matched on its normalized key, so casing and Turkish characters do not matter.
+     *
+     * @param province The province name
+     * @return The reports in the province
+     */
     public List<Report> getReportsByProvince(String province) {
-        ScanRequest request = ScanRequest.builder()
+        return getReportsByProvince(province, null);
+    }
+
+    /**
+     * Retrieves all reports for a province (il), newest first, reading only the selected fields.
+     *
+     * @param province The province name
+     * @param fields The fields to read, or null for all fields
+     * @return The reports in the province
+     */
+    public List<Report> getReportsByProvince(String province, FieldSelection fields) {
+        return queryAllReports(locationQuery(PROVINCE_INDEX, "provinceKey", province, fields));
+    }
+
+    /**
+     * Reads one page of reports for a province (il), newest first.
+     *
+     * @param province The province name
+     * @param limit The maximum number of items to read for this page
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param fields The fields to read, or null for all fields
+     * @return The page of reports and the cursor for the next page
+     */
+    public Page<Report> getReportsByProvincePage(String province, int limit, String cursor, FieldSelection fields) {
+        return queryReportsPage(locationQuery(PROVINCE_INDEX, "provinceKey", province, fields), limit, cursor);
+    }
+
+    private QueryRequest locationQuery(String indexName, String keyAttribute, String name, FieldSelection fields) {
+        String key = TurkishText.normalizeKey(name);
+        if (key == null) {
+            throw new IllegalArgumentException("Location name cannot be empty");
+        }
+
+        return project(QueryRequest.builder()
             .tableName(this.tableName)
-            .filterExpression("province = :province")
-            .expressionAttributeValues(Map.of(":province", AttributeValue.builder().s(province).build()))
-            .build();
+            .indexName(indexName)
+            .keyConditionExpression(keyAttribute + " = :key")
+            .expressionAttributeValues(Map.of(":key", AttributeValue.builder().s(key).build()))
+            .scanIndexForward(false)
+            .build(), fields);
+    }
 
-        ScanResponse response = dynamoDbClient.scan(request);
-        List<Report> reports = new ArrayList<>();
+    private Map<String, AttributeValue> geohashKeys(double latitude, double longitude) {
+        String geohash = GeoUtils.geohash(latitude, longitude, GEOHASH_PRECISION);
+        return Map.of(
+            "geohash", AttributeValue.builder().s(geohash).build(),
+            "geoCell", AttributeValue.builder().s(geohash.substring(0, GEO_CELL_PRECISION)).build(),
+            "geoRegion", AttributeValue.builder().s(geohash.substring(0, GEO_REGION_PRECISION)).build()
+        );
+    }
 
-        for (Map<String, AttributeValue> item : response.items()) {
-            reports.add(mapToReport(item));
+    /**
+     * Finds reports within a radius of a point, nearest first.
+     * Queries the geohash cells covering the circle on GeohashIndex and keeps only
+     * the candidates whose exact distance is within the radius.
+     *
+     * @param latitude The latitude of the center
+     * @param longitude The longitude of the center
+     * @param radiusKm The search radius in kilometers
+     * @return The reports within the radius, sorted by distance
+     */
+    public List<Report> findReportsNear(double latitude, double longitude, double radiusKm) {
+        return findReportsNear(latitude, longitude, radiusKm, null);
+    }
+
+    /**
+     * Finds reports within a radius of a point, nearest first, reading only the selected fields.
+     *
+     * @param latitude The latitude of the center
+     * @param longitude The longitude of the center
+     * @param radiusKm The search radius in kilometers
+     * @param fields The fields to read, or null for all fields
+     * @return The reports within the radius, sorted by distance
+     */
+    public List<Report> findReportsNear(double latitude, double longitude, double radiusKm, FieldSelection fields) {
+        int precision = GeoUtils.precisionForRadius(radiusKm, GEO_CELL_PRECISION, MAX_SEARCH_PRECISION);
+        List<String> cells = GeoUtils.coveringCells(latitude, longitude, radiusKm, precision);
+
+        List<Callable<List<Report>>> queries = new ArrayList<>();
+        for (String cell : cells) {
+            QueryRequest request = geohashQuery(cell, fields);
+            queries.add(() -> queryAllReports(request));
         }
 
-        return reports;
+        return fanOut(queries).stream()
+            .flatMap(List::stream)
+            .filter(report -> GeoUtils.haversineKm(latitude, longitude,
+                report.getLatitude(), report.getLongitude()) <= radiusKm)
+            .sorted(Comparator.comparingDouble(report -> GeoUtils.haversineKm(latitude, longitude,
+                report.getLatitude(), report.getLongitude())))
+            .collect(Collectors.toList());
     }
 
-    public Report updateReportLocation(String reportId, double latitude, double longitude, String description) {
-        Map<String, AttributeValue> key = new HashMap<>();
-        key.put("reportId", AttributeValue.builder().s(reportId).build());
+    /**
+     * Finds the reports inside a bounding box, reading only the selected fields.
+     * Boxes covered by a few GeohashIndex partitions are read with one Query per partition;
+     * larger boxes (a whole country at low zoom) are read per GeoRegionIndex partition instead,
+     * so the cost follows the reports near the box and never the size of the table.
+     *
+     * @param minLat The southern edge in degrees
+     * @param minLon The western edge in degrees
+     * @param maxLat The northern edge in degrees
+     * @param maxLon The eastern edge in degrees
+     * @param fields The fields to read, or null for all fields
+     * @return The reports inside the box, in no particular order
+     * @throws IllegalArgumentException if the box spans more than {@link #MAX_REGION_QUERIES} regions
+     */
+    public List<Report> findReportsInBox(double minLat, double minLon, double maxLat, double maxLon, FieldSelection fields) {
+        Map<String, AttributeValue> bounds = Map.of(
+            ":minLat", AttributeValue.builder().n(String.valueOf(minLat)).build(),
+            ":maxLat", AttributeValue.builder().n(String.valueOf(maxLat)).build(),
+            ":minLon", AttributeValue.builder().n(String.valueOf(minLon)).build(),
+            ":maxLon", AttributeValue.builder().n(String.valueOf(maxLon)).build());
+        String filter = "latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLon AND :maxLon";
+
+        boolean byRegion =
+            GeoUtils.countCoveringCells(minLat, minLon, maxLat, maxLon, GEO_CELL_PRECISION) > MAX_BOX_QUERIES;
+        if (byRegion
+                && GeoUtils.countCoveringCells(minLat, minLon, maxLat, maxLon, GEO_REGION_PRECISION) > MAX_REGION_QUERIES) {
+            throw new IllegalArgumentException("bounding box is too large, zoom in");
+        }
+
+        List<Callable<List<Report>>> queries = new ArrayList<>();
+        int precision = byRegion ? GEO_REGION_PRECISION : GEO_CELL_PRECISION;
+        for (String cell : GeoUtils.coveringCells(minLat, minLon, maxLat, maxLon, precision)) {
+            QueryRequest request = byRegion ? regionQuery(cell, fields) : geohashQuery(cell, fields);
+            Map<String, AttributeValue> values = new HashMap<>(request.expressionAttributeValues());
+            values.putAll(bounds);
+            QueryRequest filtered = request.toBuilder()
+                .filterExpression(filter)
+                .expressionAttributeValues(values)
+                .build();
+            queries.add(() -> queryAllReports(filtered));
+        }
+
+        return fanOut(queries).stream()
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
+    }
 
+    private QueryRequest regionQuery(String region, FieldSelection fields) {
+        return project(QueryRequest.builder()
+            .tableName(this.tableName)
+            .indexName(GEO_REGION_INDEX)
+            .keyConditionExpression("geoRegion = :region")
+            .expressionAttributeValues(Map.of(":region", AttributeValue.builder().s(region).build()))
+            .build(), fields);
+    }
+
+    private QueryRequest geohashQuery(String cell, FieldSelection fields) {
         Map<String, AttributeValue> values = new HashMap<>();
-        values.put(":latitude", AttributeValue.builder().n(String.valueOf(latitude)).build());
-        values.put(":longitude", AttributeValue.builder().n(String.valueOf(longitude)).build());
-        values.put(":lastUpdated", AttributeValue.builder().s(LocalDateTime.now().format(DATE_FORMATTER)).build());
+        values.put(":cell", AttributeValue.builder().s(cell.substring(0, GEO_CELL_PRECISION)).build());
+        String keyCondition = "geoCell = :cell";
 
-        StringBuilder updateExpression = new StringBuilder("SET latitude = :latitude, longitude = :longitude, lastUpdated = :lastUpdated");
-        
-        if (description != null) {
-            values.put(":description", AttributeValue.builder().s(description).build());
-            updateExpression.append(", locationDescription = :description");
+        if (cell.length() > GEO_CELL_PRECISION) {
+            values.put(":prefix", AttributeValue.builder().s(cell).build());
+            keyCondition += " AND begins_with(geohash, :prefix)";
         }
 
-        UpdateItemRequest request = UpdateItemRequest.builder()
+        return project(QueryRequest.builder()
             .tableName(this.tableName)
-            .key(key)
-            .updateExpression(updateExpression.toString())
+            .indexName(GEOHASH_INDEX)
+            .keyConditionExpression(keyCondition)
             .expressionAttributeValues(values)
-            .returnValues(ReturnValue.ALL_NEW)
+            .build(), fields);
+    }
+
+    private QueryRequest project(QueryRequest request, FieldSelection fields) {
+        if (fields == null) {
+            return request;
+        }
+        return request.toBuilder()
+            .projectionExpression(fields.projectionExpression())
+            .expressionAttributeNames(fields.mergeAttributeNames(request.expressionAttributeNames()))
             .build();
+    }
 
-        UpdateItemResponse response = dynamoDbClient.updateItem(request);
-        return mapToReport(response.attributes());
+    private ScanRequest project(ScanRequest request, FieldSelection fields) {
+        if (fields == null) {
+            return request;
+        }
+        return request.toBuilder()
+            .projectionExpression(fields.projectionExpression())
+            .expressionAttributeNames(fields.mergeAttributeNames(request.expressionAttributeNames()))
+            .build();
     }
 
-    private Report mapToReport(Map<String, AttributeValue> item) {
-        // Create a user from the nested map first
-        User user = null;
-        if (item.containsKey("user") && item.get("user").m() != null) {
-            Map<String, AttributeValue> userMap = item.get("user").m();
-            user = new User();
-            if (userMap.containsKey("userId") && userMap.get("userId") != null) {
-                user.setUserId(userMap.get("userId").s());
-            }
-            if (userMap.containsKey("name") && userMap.get("name") != null) {
-                user.setName(userMap.get("name").s());
-            }
-            if (userMap.containsKey("address") && userMap.get("address") != null) {
-                user.setAddress(userMap.get("address").s());
-            }
-            if (userMap.containsKey("isVolunteer") && userMap.get("isVolunteer") != null) {
-                user.setVolunteer(userMap.get("isVolunteer").bool());
-            }
-            if (userMap.containsKey("isSocialWorker") && userMap.get("isSocialWorker") != null) {
-                user.setSocialWorker(userMap.get("isSocialWorker").bool());
+    private List<Report> queryAllReports(QueryRequest request) {
+        List<Report> reports = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+
+        do {
+            QueryResponse response = dynamoDbClient.query(request.toBuilder().exclusiveStartKey(startKey).build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                reports.add(mapToReport(item));
             }
+            startKey = response.lastEvaluatedKey();
+        } while (startKey != null && !startKey.isEmpty());
+
+        return reports;
+    }
+
+    private Page<Report> queryReportsPage(QueryRequest request, int limit, String cursor) {
+        QueryResponse response = dynamoDbClient.query(request.toBuilder()
+            .limit(limit)
+            .exclusiveStartKey(PageCursor.decode(cursor))
+            .build());
+        List<Report> reports = new ArrayList<>();
+
+        for (Map<String, AttributeValue> item : response.items()) {
+            reports.add(mapToReport(item));
         }
 
-        Category category = null;
-        if(item.containsKey("category") && item.get("category").m() != null){
-            Map<String, AttributeValue> categoryMap = item.get("category").m();
-            if (categoryMap.containsKey("categoryID") && categoryMap.get("categoryID") != null &&
-                categoryMap.containsKey("categoryType") && categoryMap.get("categoryType") != null) {
-                category = new Category(
-                    categoryMap.get("categoryID").s(),
-                    categoryMap.get("categoryType").s()
-                );
-            }
+        return new Page<>(reports, PageCursor.encode(response.lastEvaluatedKey()));
+    }
+
+    public Change updateReportLocation(String reportId, double latitude, double longitude, String description) {
+        return updateReportLocation(reportId, latitude, longitude, description, null);
+    }
+
+    /**
+     * Moves a report in a single conditional UpdateItem, keeping the near-me index keys in sync.
+     * Cancels pending background geocoding, since the user's coordinates take precedence.
+     *
+     * @param reportId The report to update
+     * @param latitude The new latitude
+     * @param longitude The new longitude
+     * @param description The new location description, or null to keep the current one
+     * @param expectedVersion The version the caller last read, or null to skip the version check
+     * @return The report before and after the move, or null if the report does not exist
+     * @throws VersionConflictException if the report was changed since expectedVersion
+     */
+    public Change updateReportLocation(String reportId, double latitude, double longitude, String description,
+                                       Long expectedVersion) {
+        Map<String, AttributeValue> assigned = new HashMap<>();
+        assigned.put("latitude", AttributeValue.builder().n(String.valueOf(latitude)).build());
+        assigned.put("longitude", AttributeValue.builder().n(String.valueOf(longitude)).build());
+        assigned.put("lastUpdated", AttributeValue.builder().s(LocalDateTime.now().format(DATE_FORMATTER)).build());
+        // Keep the near-me index in sync with the new coordinates
+        assigned.putAll(geohashKeys(latitude, longitude));
+        if (description != null) {
+            assigned.put("locationDescription", AttributeValue.builder().s(description).build());
         }
 
-        // Create the report with all required fields
-        LocalDateTime timestamp = LocalDateTime.now(); // Default to now if not present
-        if (item.containsKey("timestamp") && item.get("timestamp") != null) {
-            try {
-                timestamp = LocalDateTime.parse(item.get("timestamp").s(), DATE_FORMATTER);
-            } catch (Exception e) {
-                // If parsing fails, use current time
-                timestamp = LocalDateTime.now();
-            }
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> assignments = new ArrayList<>();
+        for (Map.Entry<String, AttributeValue> attribute : assigned.entrySet()) {
+            values.put(":" + attribute.getKey(), attribute.getValue());
+            assignments.add(attribute.getKey() + " = :" + attribute.getKey());
         }
-        
-        Report report = new Report(
-            item.get("reportId").s(),
-            user,
-            category,
-            item.containsKey("description") && item.get("description") != null ? item.get("description").s() : null,
-            item.containsKey("location") && item.get("location") != null ? item.get("location").s() : null,
-            item.containsKey("isCurrentLocation") && item.get("isCurrentLocation") != null && item.get("isCurrentLocation").bool(),
-            item.containsKey("status") && item.get("status") != null ? Report.ReportStatus.valueOf(item.get("status").s()) : Report.ReportStatus.PENDING,
-            timestamp
-        );
+        String updateExpression = "SET " + String.join(", ", assignments) + " REMOVE geocodeStatus";
 
-        // Set location coordinates and description with null safety
-        if (item.containsKey("latitude") && item.get("latitude") != null) {
-            try {
-                report.setLatitude(Double.parseDouble(item.get("latitude").n()));
-            } catch (Exception e) {
-                // If parsing fails, leave as default 0.0
-            }
+        // ALL_OLD gives the previous coordinates; the moved report is that item with this update applied
+        Map<String, AttributeValue> oldItem = conditionalUpdate(reportId, expectedVersion, updateExpression,
+            new HashMap<>(), values, ReturnValue.ALL_OLD);
+        if (oldItem == null) {
+            return null;
         }
-        if (item.containsKey("longitude") && item.get("longitude") != null) {
-            try {
-                report.setLongitude(Double.parseDouble(item.get("longitude").n()));
-            } catch (Exception e) {
-                // If parsing fails, leave as default 0.0
-            }
+        recordChange(reportId, oldItem);
+
+        Map<String, AttributeValue> newItem = new HashMap<>(oldItem);
+        newItem.remove("geocodeStatus");
+        newItem.putAll(assigned);
+        Report previous = mapToReport(oldItem);
+        Report updated = mapToReport(newItem);
+        updated.setVersion((previous.getVersion() == null ? 0 : previous.getVersion()) + 1);
+        return new Change(previous, updated);
+    }
+
+    // The item before a write that does not return it, for recordChange; null without a change stream
+    private Map<String, AttributeValue> imageBefore(String reportId) {
+        return changeStream != null ? currentImage(reportId) : null;
+    }
+
+    /**
+     * Records a write on the change stream, if one is set, with the item as it is now.
+     *
+     * @param reportId The written report
+     * @param oldImage The item before the write, or null if it did not exist
+     */
+    private void recordChange(String reportId, Map<String, AttributeValue> oldImage) {
+        InMemoryChangeStream stream = changeStream;
+        if (stream == null) {
+            return;
         }
-        if (item.containsKey("locationDescription") && item.get("locationDescription") != null) {
-            report.setLocationDescription(item.get("locationDescription").s());
+        try {
+            Map<String, AttributeValue> newImage = currentImage(reportId);
+            ChangeEvent.Type type = newImage == null ? ChangeEvent.Type.REMOVE
+                : oldImage == null ? ChangeEvent.Type.INSERT : ChangeEvent.Type.MODIFY;
+            stream.record(this.tableName, type, Map.of("reportId", AttributeValue.builder().s(reportId).build()),
+                oldImage, newImage);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Change of report " + reportId + " not recorded", e);
         }
-        if (item.containsKey("city") && item.get("city") != null) {
-            report.setCity(item.get("city").s());
+    }
+
+    private Map<String, AttributeValue> currentImage(String reportId) {
+        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder()
+            .tableName(this.tableName)
+            .key(Map.of("reportId", AttributeValue.builder().s(reportId).build()))
+            .consistentRead(true)
+            .build());
+        return response.hasItem() && !response.item().isEmpty() ? response.item() : null;
+    }
+
+    private Report mapToReport(Map<String, AttributeValue> item) {
+        return ModelCodecs.REPORT.decode(item);
+    }
+
+    /**
+     * A report as it was before a write and as the write left it, for callers that
+     * maintain something derived from both (such as the heatmap tiles at the old and new location).
+     */
+    public static final class Change {
+        private final Report previous;
+        private final Report current;
+
+        Change(Report previous, Report current) {
+            this.previous = previous;
+            this.current = current;
         }
-        if (item.containsKey("province") && item.get("province") != null) {
-            report.setProvince(item.get("province").s());
+
+        public Report getPrevious() {
+            return previous;
         }
 
-        return report;
+        public Report getCurrent() {
+            return current;
+        }
     }
 }
\ No newline at end of file
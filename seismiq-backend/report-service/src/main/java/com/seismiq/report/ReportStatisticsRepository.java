@@ -0,0 +1,261 @@
+package com.seismiq.report;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.seismiq.common.model.Report;
+import com.seismiq.common.repository.DynamoDBRepository;
+import com.seismiq.common.util.TurkishText;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+/**
+ * Live report counters, stored as one item per (dimension, bucket) in their own table:
+ * <pre>
+ *   total                    all
+ *   category                 MEDICAL_HELP
+ *   status                   PENDING
+ *   province                 kahramanmaras
+ *   category|status          MEDICAL_HELP|PENDING
+ *   province|category|status kahramanmaras|MEDICAL_HELP|PENDING
+ * </pre>
+ * Counters only change through ADD updates, so concurrent writers never lose increments,
+ * and a dashboard reads a whole dimension with a single Query instead of counting reports.
+ * Provinces are grouped by their normalized key (see {@link TurkishText#normalizeKey}).
+ */
+public class ReportStatisticsRepository extends DynamoDBRepository {
+    static final String TOTAL = "total";
+    static final String CATEGORY = "category";
+    static final String STATUS = "status";
+    static final String PROVINCE = "province";
+    static final String CATEGORY_STATUS = "category|status";
+    static final String PROVINCE_CATEGORY_STATUS = "province|category|status";
+
+    private static final String ALL = "all";
+    private static final String UNKNOWN = "unknown";
+
+    public ReportStatisticsRepository() {
+        super("seismiq-ReportStatistics");
+    }
+
+    /**
+     * Counter changes to apply together, as dimension to bucket to delta.
+     * Not thread-safe; synchronize externally when adding from several threads.
+     */
+    public static final class Deltas {
+        private final Map<String, Map<String, Long>> counters = new LinkedHashMap<>();
+
+        /**
+         * Adds a report to (positive delta) or removes it from (negative delta) every counter it belongs to.
+         */
+        public Deltas add(Report report, long delta) {
+            String category = report.getCategoryType() != null ? report.getCategoryType() : UNKNOWN;
+            String status = report.getStatus() != null ? report.getStatus().name() : Report.ReportStatus.PENDING.name();
+            String province = TurkishText.normalizeKey(report.getProvince());
+            if (province == null) {
+                province = UNKNOWN;
+            }
+
+            add(TOTAL, ALL, delta);
+            add(CATEGORY, category, delta);
+            add(STATUS, status, delta);
+            add(PROVINCE, province, delta);
+            add(CATEGORY_STATUS, category + "|" + status, delta);
+            add(PROVINCE_CATEGORY_STATUS, province + "|" + category + "|" + status, delta);
+            return this;
+        }
+
+        private void add(String dimension, String bucket, long delta) {
+            counters.computeIfAbsent(dimension, d -> new LinkedHashMap<>()).merge(bucket, delta, Long::sum);
+        }
+
+        boolean isEmpty() {
+            return counters.values().stream().allMatch(buckets -> buckets.values().stream().allMatch(d -> d == 0));
+        }
+    }
+
+    /**
+     * Applies counter changes. Changes that cancel out are skipped; the rest are written as one
+     * UpdateItem with ADD per counter. Each update is atomic on its own, so concurrent writers
+     * never conflict on the shared counters (a transaction over them would be cancelled when
+     * another one touches the same item, and costs twice the write capacity). Every counter is
+     * attempted even if one fails; the first failure is rethrown afterwards.
+     *
+     * @param deltas The changes to apply
+     */
+    public void apply(Deltas deltas) {
+        RuntimeException failure = null;
+        for (Map.Entry<String, Map<String, Long>> dimension : deltas.counters.entrySet()) {
+            for (Map.Entry<String, Long> bucket : dimension.getValue().entrySet()) {
+                if (bucket.getValue() == 0) {
+                    continue;
+                }
+                try {
+                    dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(this.tableName)
+                        .key(key(dimension.getKey(), bucket.getKey()))
+                        .updateExpression("ADD #count :delta")
+                        .expressionAttributeNames(Map.of("#count", "count"))
+                        .expressionAttributeValues(Map.of(":delta",
+                            AttributeValue.builder().n(String.valueOf(bucket.getValue())).build()))
+                        .build());
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Reads the live totals: overall, per category, per status, per province and per category and status.
+     *
+     * @return The totals, ready to serialize
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("total", readDimension(TOTAL, null).getOrDefault(ALL, 0L));
+        statistics.put("byCategory", readDimension(CATEGORY, null));
+        statistics.put("byStatus", readDimension(STATUS, null));
+        statistics.put("byProvince", readDimension(PROVINCE, null));
+        statistics.put("byCategoryAndStatus", nest(readDimension(CATEGORY_STATUS, null)));
+        return statistics;
+    }
+
+    /**
+     * Reads the live totals of one province with a single Query of its category and status counters.
+     *
+     * @param province The province name, in any casing
+     * @return The province totals, ready to serialize
+     */
+    public Map<String, Object> getProvinceStatistics(String province) {
+        String provinceKey = TurkishText.normalizeKey(province);
+        if (provinceKey == null) {
+            throw new IllegalArgumentException("Province cannot be empty");
+        }
+
+        Map<String, Long> cells = readDimension(PROVINCE_CATEGORY_STATUS, provinceKey + "|");
+        long total = 0;
+        Map<String, Long> byCategory = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byCategoryAndStatus = new TreeMap<>();
+        for (Map.Entry<String, Long> cell : cells.entrySet()) {
+            String[] parts = cell.getKey().split("\\|", 3);
+            long count = cell.getValue();
+            total += count;
+            byCategory.merge(parts[1], count, Long::sum);
+            byStatus.merge(parts[2], count, Long::sum);
+            byCategoryAndStatus.put(parts[1] + "|" + parts[2], count);
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("province", provinceKey);
+        statistics.put("total", total);
+        statistics.put("byCategory", byCategory);
+        statistics.put("byStatus", byStatus);
+        statistics.put("byCategoryAndStatus", nest(byCategoryAndStatus));
+        return statistics;
+    }
+
+    /**
+     * Replaces every counter with freshly computed values, removing counters that no longer
+     * have reports. Used to backfill the table and to repair drift; writes that land while it
+     * runs may be counted twice or not at all, so run it when traffic is low.
+     *
+     * @param deltas The full counts, as computed from all reports
+     * @return The number of counters written
+     */
+    public long replaceAll(Deltas deltas) {
+        Set<Map<String, AttributeValue>> stale = new HashSet<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ScanResponse response = dynamoDbClient.scan(ScanRequest.builder()
+                .tableName(this.tableName)
+                .projectionExpression("#dimension, #bucket")
+                .expressionAttributeNames(Map.of("#dimension", "dimension", "#bucket", "bucket"))
+                .exclusiveStartKey(startKey)
+                .build());
+            stale.addAll(response.items());
+            startKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+        } while (startKey != null && !startKey.isEmpty());
+
+        long written = 0;
+        for (Map.Entry<String, Map<String, Long>> dimension : deltas.counters.entrySet()) {
+            for (Map.Entry<String, Long> bucket : dimension.getValue().entrySet()) {
+                Map<String, AttributeValue> item = new HashMap<>(key(dimension.getKey(), bucket.getKey()));
+                stale.remove(key(dimension.getKey(), bucket.getKey()));
+                item.put("count", AttributeValue.builder().n(String.valueOf(bucket.getValue())).build());
+                dynamoDbClient.putItem(PutItemRequest.builder().tableName(this.tableName).item(item).build());
+                written++;
+            }
+        }
+        for (Map<String, AttributeValue> key : stale) {
+            dynamoDbClient.deleteItem(DeleteItemRequest.builder().tableName(this.tableName).key(key).build());
+        }
+        return written;
+    }
+
+    private Map<String, Long> readDimension(String dimension, String bucketPrefix) {
+        Map<String, String> names = new HashMap<>();
+        names.put("#dimension", "dimension");
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":dimension", AttributeValue.builder().s(dimension).build());
+        String keyCondition = "#dimension = :dimension";
+        if (bucketPrefix != null) {
+            names.put("#bucket", "bucket");
+            values.put(":prefix", AttributeValue.builder().s(bucketPrefix).build());
+            keyCondition += " AND begins_with(#bucket, :prefix)";
+        }
+
+        Map<String, Long> counts = new TreeMap<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(this.tableName)
+                .keyConditionExpression(keyCondition)
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .exclusiveStartKey(startKey)
+                .build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                long count = item.containsKey("count") ? Long.parseLong(item.get("count").n()) : 0;
+                if (count != 0) {
+                    counts.put(item.get("bucket").s(), count);
+                }
+            }
+            startKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+        } while (startKey != null && !startKey.isEmpty());
+        return counts;
+    }
+
+    // Turns "A|B" -> n entries into A -> {B -> n}
+    private static Map<String, Map<String, Long>> nest(Map<String, Long> pairs) {
+        Map<String, Map<String, Long>> nested = new TreeMap<>();
+        for (Map.Entry<String, Long> pair : pairs.entrySet()) {
+            String[] parts = pair.getKey().split("\\|", 2);
+            nested.computeIfAbsent(parts[0], k -> new TreeMap<>()).put(parts[1], pair.getValue());
+        }
+        return nested;
+    }
+
+    private static Map<String, AttributeValue> key(String dimension, String bucket) {
+        return Map.of(
+            "dimension", AttributeValue.builder().s(dimension).build(),
+            "bucket", AttributeValue.builder().s(bucket).build());
+    }
+}
@@ -0,0 +1,30 @@
+package com.seismiq.report;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.seismiq.common.cdc.DynamoDbChangeStream;
+import com.seismiq.common.search.SearchIndexConsumer;
+import com.seismiq.common.search.SearchIndexRepository;
+
+/**
+ * AWS Lambda handler for the reports and landmarks table streams. Text changes are applied
+ * to the search index that GET /search reads.
+ */
+public class SearchIndexHandler implements RequestHandler<DynamodbEvent, StreamsEventResponse> {
+    private final SearchIndexConsumer consumer;
+
+    public SearchIndexHandler() {
+        this(new SearchIndexConsumer(new SearchIndexRepository()));
+    }
+
+    public SearchIndexHandler(SearchIndexConsumer consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public StreamsEventResponse handleRequest(DynamodbEvent event, Context context) {
+        return DynamoDbChangeStream.deliver(event, consumer, context.getLogger()::log);
+    }
+}
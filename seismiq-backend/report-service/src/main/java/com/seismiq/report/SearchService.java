@@ -0,0 +1,164 @@
+package com.seismiq.report;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.seismiq.common.codec.ModelCodecs;
+import com.seismiq.common.search.SearchIndexRepository;
+import com.seismiq.common.search.SearchPosting;
+import com.seismiq.common.search.SearchSource;
+import com.seismiq.common.search.TurkishAnalyzer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Full-text search over report and landmark descriptions, answered from the search index.
+ *
+ * <p>Documents are ranked by how many of the query's terms they contain, then by BM25 score,
+ * so a report mentioning "enkaz" and "altında" comes before one that only says "enkaz" many
+ * times. Pages are cut from the ranked list by offset; only the documents of the requested
+ * page are loaded from their tables.</p>
+ */
+public class SearchService {
+    static final int MAX_QUERY_TERMS = 8;
+    static final int MAX_POSTINGS_PER_TERM = 5000;
+
+    // BM25 parameters: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+    private final SearchIndexRepository searchIndex;
+
+    public SearchService(SearchIndexRepository searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * @param query The search text
+     * @param limit The most results to return
+     * @param cursor The cursor of the previous page, or null for the first page
+     * @return The response body: query, total, items (type, score and the report or landmark) and nextCursor
+     * @throws IllegalArgumentException if the query has no searchable words or the cursor is malformed
+     */
+    public Map<String, Object> search(String query, int limit, String cursor) {
+        Set<String> terms = new LinkedHashSet<>(TurkishAnalyzer.terms(query));
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("q must contain at least one searchable word");
+        }
+        int offset = decodeCursor(cursor);
+
+        List<Hit> ranked = rank(terms);
+        List<Hit> page = ranked.subList(Math.min(offset, ranked.size()), Math.min(offset + limit, ranked.size()));
+        List<String> docKeys = new ArrayList<>();
+        for (Hit hit : page) {
+            docKeys.add(hit.docKey);
+        }
+        Map<String, Map<String, AttributeValue>> documents = searchIndex.getDocuments(docKeys);
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Hit hit : page) {
+            Map<String, AttributeValue> document = documents.get(hit.docKey);
+            if (document == null) {
+                continue;   // deleted; the index has not caught up yet
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            if (SearchSource.ofDocKey(hit.docKey) == SearchSource.REPORTS) {
+                item.put("type", "report");
+                item.put("score", hit.score);
+                item.put("report", ModelCodecs.REPORT.decode(document));
+            } else {
+                item.put("type", "landmark");
+                item.put("score", hit.score);
+                item.put("landmark", ModelCodecs.LANDMARK.decode(document));
+            }
+            items.add(item);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query);
+        body.put("total", ranked.size());
+        body.put("items", items);
+        if (offset + limit < ranked.size()) {
+            body.put("nextCursor", encodeCursor(offset + limit));
+        }
+        return body;
+    }
+
+    private List<Hit> rank(Set<String> terms) {
+        SearchIndexRepository.Stats stats = searchIndex.stats();
+        double averageLength = stats.getAverageLength();
+        Map<String, Hit> hits = new HashMap<>();
+        int used = 0;
+        for (String term : terms) {
+            if (used++ == MAX_QUERY_TERMS) {
+                break;
+            }
+            List<SearchPosting> postings = searchIndex.postings(term, MAX_POSTINGS_PER_TERM);
+            if (postings.isEmpty()) {
+                continue;
+            }
+            // Never let a lagging document count make a term's weight negative
+            long documents = Math.max(stats.getDocuments(), postings.size());
+            double idf = Math.log(1 + (documents - postings.size() + 0.5) / (postings.size() + 0.5));
+            for (SearchPosting posting : postings) {
+                double tf = posting.getTermFrequency();
+                double norm = K1 * (1 - B + B * posting.getDocLength() / averageLength);
+                Hit hit = hits.computeIfAbsent(posting.getDocKey(), Hit::new);
+                hit.matchedTerms++;
+                hit.score += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(hits.values());
+        ranked.sort(Comparator.comparingInt((Hit hit) -> hit.matchedTerms).reversed()
+            .thenComparing(Comparator.comparingDouble((Hit hit) -> hit.score).reversed())
+            .thenComparing(hit -> hit.docKey));
+        for (Hit hit : ranked) {
+            hit.score = Math.round(hit.score * 1000) / 1000.0;
+        }
+        return ranked;
+    }
+
+    private static String encodeCursor(int offset) {
+        return CURSOR_ENCODER.encodeToString(("o:" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(CURSOR_DECODER.decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (decoded.startsWith("o:")) {
+                int offset = Integer.parseInt(decoded.substring(2));
+                if (offset >= 0) {
+                    return offset;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below, like a cursor with the wrong prefix
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    private static final class Hit {
+        private final String docKey;
+        private int matchedTerms;
+        private double score;
+
+        Hit(String docKey) {
+            this.docKey = docKey;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.seismiq.report;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.seismiq.common.cdc.DynamoDbChangeStream;
+import com.seismiq.common.sync.SyncIndexConsumer;
+import com.seismiq.common.sync.SyncIndexRepository;
+
+/**
+ * AWS Lambda handler for the reports, earthquakes and landmarks table streams. Every change
+ * is written to the sync index that GET /sync reads.
+ */
+public class SyncIndexHandler implements RequestHandler<DynamodbEvent, StreamsEventResponse> {
+    private final SyncIndexConsumer consumer;
+
+    public SyncIndexHandler() {
+        this(new SyncIndexConsumer(new SyncIndexRepository()));
+    }
+
+    public SyncIndexHandler(SyncIndexConsumer consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public StreamsEventResponse handleRequest(DynamodbEvent event, Context context) {
+        return DynamoDbChangeStream.deliver(event, consumer, context.getLogger()::log);
+    }
+}
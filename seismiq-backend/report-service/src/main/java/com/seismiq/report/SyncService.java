@@ -0,0 +1,95 @@
+package com.seismiq.report;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.seismiq.common.codec.ItemCodec;
+import com.seismiq.common.codec.ModelCodecs;
+import com.seismiq.common.repository.Page;
+import com.seismiq.common.sync.SyncChange;
+import com.seismiq.common.sync.SyncIndexRepository;
+import com.seismiq.common.sync.SyncToken;
+
+/**
+ * Answers delta sync requests from the sync index: the reports, earthquakes and landmarks
+ * created or updated since a client's token, the ids of those deleted, and a new token.
+ *
+ * <p>A client without a token, or with one older than the index keeps entries, gets
+ * reset = true and a token only; it loads the full lists from the regular endpoints and
+ * syncs from that token onwards. Tokens trail the clock by {@link #SAFETY_LAG}, so a change
+ * indexed concurrently with a sync is returned by the next one too, rather than by neither.</p>
+ */
+public class SyncService {
+    static final Duration SAFETY_LAG = Duration.ofSeconds(5);
+
+    private static final Map<String, ItemCodec<?>> CODECS = Map.of(
+        "reports", ModelCodecs.REPORT,
+        "earthquakes", ModelCodecs.EARTHQUAKE,
+        "landmarks", ModelCodecs.LANDMARK);
+
+    private final SyncIndexRepository syncIndex;
+
+    public SyncService(SyncIndexRepository syncIndex) {
+        this.syncIndex = syncIndex;
+    }
+
+    /**
+     * @param token The token of the client's previous sync, or null for a first sync
+     * @param limit The most changes to return
+     * @return The response body: token, reset, hasMore, the changed items per entity and deleted ids per entity
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public Map<String, Object> sync(String token, int limit) {
+        String position = SyncToken.decode(token);
+        Instant now = Instant.now();
+        String resumeAt = SyncIndexRepository.position(now.minus(SAFETY_LAG));
+
+        if (position == null || SyncIndexRepository.instantOf(position).isBefore(now.minus(SyncIndexRepository.RETENTION))) {
+            return response(resumeAt, true, false, List.of());
+        }
+
+        Page<SyncChange> page = syncIndex.changesSince(position, limit);
+        // Changes are oldest first; a later entry for the same item replaces the earlier one
+        Map<String, SyncChange> latest = new LinkedHashMap<>();
+        for (SyncChange change : page.getItems()) {
+            String itemKey = change.getEntity() + "#" + change.getItemId();
+            latest.remove(itemKey);
+            latest.put(itemKey, change);
+        }
+        String next = page.hasMore() ? page.getNextCursor() : resumeAt;
+        return response(next, false, page.hasMore(), latest.values());
+    }
+
+    private static Map<String, Object> response(String position, boolean reset, boolean hasMore,
+                                                Iterable<SyncChange> changes) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("token", SyncToken.encode(position));
+        body.put("reset", reset);
+        body.put("hasMore", hasMore);
+
+        Map<String, List<String>> deleted = new LinkedHashMap<>();
+        for (String entity : List.of("reports", "earthquakes", "landmarks")) {
+            body.put(entity, new ArrayList<>());
+            deleted.put(entity, new ArrayList<>());
+        }
+        for (SyncChange change : changes) {
+            ItemCodec<?> codec = CODECS.get(change.getEntity());
+            if (codec == null) {
+                continue;
+            }
+            if (change.isDeleted()) {
+                deleted.get(change.getEntity()).add(change.getItemId());
+            } else {
+                @SuppressWarnings("unchecked")
+                List<Object> items = (List<Object>) body.get(change.getEntity());
+                items.add(codec.decode(change.getItem()));
+            }
+        }
+        body.put("deleted", deleted);
+        return body;
+    }
+}
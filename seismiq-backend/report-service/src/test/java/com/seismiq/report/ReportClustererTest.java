@@ -0,0 +1,92 @@
+package com.seismiq.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.seismiq.common.model.Category;
+import com.seismiq.common.model.Report;
+
+class ReportClustererTest {
+    private final ReportClusterer clusterer = new ReportClusterer();
+
+    private static Report report(String id, double lat, double lon, String category) {
+        Report report = new Report();
+        report.setReportId(id);
+        report.setLatitude(lat);
+        report.setLongitude(lon);
+        report.setCategory(category != null ? new Category(category, category) : null);
+        return report;
+    }
+
+    @Test
+    void nearbyReportsFormOneClusterAndFarOnesStandAlone() {
+        List<Report> reports = List.of(
+            report("a", 41.0082, 28.9784, "FIRE"),
+            report("b", 41.0085, 28.9788, "FIRE"),
+            report("c", 41.0079, 28.9781, "COLLAPSE"),
+            report("d", 39.9334, 32.8597, "FLOOD"));
+
+        List<ReportCluster> clusters = clusterer.cluster(reports, 14);
+
+        assertEquals(2, clusters.size());
+        ReportCluster hotspot = clusters.get(0);
+        assertEquals(3, hotspot.getCount());
+        assertEquals("FIRE", hotspot.getDominantCategory());
+        assertEquals(Map.of("FIRE", 2, "COLLAPSE", 1), hotspot.getCategories());
+        assertNull(hotspot.getReportId());
+        assertTrue(hotspot.getMinLatitude() <= 41.0079 && hotspot.getMaxLatitude() >= 41.0085);
+        assertEquals((41.0082 + 41.0085 + 41.0079) / 3, hotspot.getLatitude(), 1e-9);
+
+        ReportCluster single = clusters.get(1);
+        assertEquals(1, single.getCount());
+        assertEquals("d", single.getReportId());
+        assertEquals(39.9334, single.getLatitude(), 1e-9);
+    }
+
+    @Test
+    void zoomingOutMergesTowns() {
+        List<Report> reports = List.of(
+            report("a", 41.0082, 28.9784, "FIRE"),
+            report("b", 41.0300, 28.9900, "FIRE"),
+            report("c", 41.0500, 29.0100, "FIRE"));
+
+        assertEquals(3, clusterer.cluster(reports, 16).size());
+        assertEquals(1, clusterer.cluster(reports, 8).size());
+    }
+
+    @Test
+    void reportsWithoutCoordinatesOrCategoryAreHandled() {
+        List<Report> reports = List.of(
+            report("a", 0, 0, "FIRE"),
+            report("b", 41.0082, 28.9784, null));
+
+        List<ReportCluster> clusters = clusterer.cluster(reports, 10);
+
+        assertEquals(1, clusters.size());
+        assertEquals("unknown", clusters.get(0).getDominantCategory());
+        assertEquals("b", clusters.get(0).getReportId());
+    }
+
+    @Test
+    void noReportsGiveNoClusters() {
+        assertTrue(clusterer.cluster(List.of(), 10).isEmpty());
+    }
+
+    @Test
+    void zoomOutsideTheMapRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> clusterer.cluster(List.of(), -1));
+        assertThrows(IllegalArgumentException.class, () -> clusterer.cluster(List.of(), 21));
+    }
+
+    @Test
+    void radiusHalvesWithEachZoomLevel() {
+        assertEquals(ReportClusterer.clusterRadiusKm(5) / 2, ReportClusterer.clusterRadiusKm(6), 1e-9);
+    }
+}
@@ -0,0 +1,49 @@
+package com.seismiq.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ReportDeduplicatorTest {
+
+    @Test
+    void trigramsArePaddedAndFolded() {
+        assertEquals(Set.of(" ev", "ev "), ReportDeduplicator.trigrams("ev"));
+        assertEquals(Set.of(" ya", "yan", "ang", "ngi", "gin", "in "), ReportDeduplicator.trigrams("Yangın"));
+    }
+
+    @Test
+    void trigramsIgnoreCaseAndPunctuation() {
+        assertEquals(ReportDeduplicator.trigrams("bina çöktü"), ReportDeduplicator.trigrams("  BİNA, çöktü!  "));
+    }
+
+    @Test
+    void trigramsOfBlankTextAreEmpty() {
+        assertTrue(ReportDeduplicator.trigrams(null).isEmpty());
+        assertTrue(ReportDeduplicator.trigrams("   ").isEmpty());
+    }
+
+    @Test
+    void similarityIsTheDiceCoefficient() {
+        assertEquals(1.0, ReportDeduplicator.similarity(Set.of("abc", "bcd"), Set.of("abc", "bcd")), 1e-9);
+        assertEquals(0.5, ReportDeduplicator.similarity(Set.of("abc", "bcd"), Set.of("abc", "xyz")), 1e-9);
+        assertEquals(0.0, ReportDeduplicator.similarity(Set.of("abc"), Set.of("xyz")), 1e-9);
+    }
+
+    @Test
+    void similarityWithAnEmptySideIsZero() {
+        assertEquals(0.0, ReportDeduplicator.similarity(Set.of(), Set.of()), 1e-9);
+        assertEquals(0.0, ReportDeduplicator.similarity(Set.of("abc"), Set.of()), 1e-9);
+    }
+
+    @Test
+    void rewordedDescriptionsScoreAboveTheThreshold() {
+        double score = ReportDeduplicator.similarity(
+            ReportDeduplicator.trigrams("Binanın duvarı çöktü, enkaz altında insanlar var"),
+            ReportDeduplicator.trigrams("binanin duvari coktu enkaz altinda insanlar var"));
+        assertTrue(score >= ReportDeduplicator.MIN_SIMILARITY, "score " + score);
+    }
+}
@@ -0,0 +1,171 @@
+package com.seismiq.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.seismiq.common.model.Landmark;
+import com.seismiq.common.model.Report;
+import com.seismiq.common.search.SearchIndexRepository;
+import com.seismiq.common.search.SearchPosting;
+import com.seismiq.common.search.SearchSource;
+import com.seismiq.common.search.TurkishAnalyzer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+class SearchServiceTest {
+    private final FakeIndex index = new FakeIndex();
+    private final SearchService service = new SearchService(index);
+
+    SearchServiceTest() {
+        index.addReport("r1", "Enkaz altında insanlar var");
+        index.addReport("r2", "enkaz enkaz enkaz, yardım");
+        index.addReport("r3", "Su baskını");
+        index.addLandmark("l1", "Toplanma alanı enkaz yakınında");
+    }
+
+    @Test
+    void documentsMatchingMoreTermsRankFirstThenByScore() {
+        Map<String, Object> body = service.search("enkaz altında", 10, null);
+
+        assertEquals(3, body.get("total"));
+        assertEquals(List.of("report:r1", "report:r2", "landmark:l1"), ids(body));
+        assertFalse(body.containsKey("nextCursor"));
+        List<Map<String, Object>> items = items(body);
+        assertTrue((double) items.get(1).get("score") > (double) items.get(2).get("score"));
+    }
+
+    @Test
+    void cursorsPageThroughTheRanking() {
+        Map<String, Object> first = service.search("enkaz altında", 2, null);
+        assertEquals(List.of("report:r1", "report:r2"), ids(first));
+        String cursor = (String) first.get("nextCursor");
+        assertEquals("o:2", new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+
+        Map<String, Object> second = service.search("enkaz altında", 2, cursor);
+        assertEquals(List.of("landmark:l1"), ids(second));
+        assertFalse(second.containsKey("nextCursor"));
+        assertEquals(3, second.get("total"));
+    }
+
+    @Test
+    void onlyThePageIsLoaded() {
+        service.search("enkaz", 1, null);
+
+        assertEquals(List.of(List.of(SearchSource.REPORTS.docKey("r2"))), index.loaded);
+    }
+
+    @Test
+    void deletedDocumentsAreSkipped() {
+        index.documents.remove(SearchSource.REPORTS.docKey("r2"));
+
+        Map<String, Object> body = service.search("enkaz", 10, null);
+
+        assertEquals(List.of("landmark:l1", "report:r1"), ids(body));
+        assertEquals(3, body.get("total"));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.search("enkaz", 10, "not a cursor!"));
+        String wrongPrefix = Base64.getUrlEncoder().encodeToString("x:2".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> service.search("enkaz", 10, wrongPrefix));
+        String negative = Base64.getUrlEncoder().encodeToString("o:-1".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> service.search("enkaz", 10, negative));
+    }
+
+    @Test
+    void queriesWithoutSearchableWordsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.search("ve de", 10, null));
+    }
+
+    @Test
+    void cursorPastTheEndGivesAnEmptyPage() {
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString("o:50".getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> body = service.search("enkaz", 10, cursor);
+
+        assertTrue(items(body).isEmpty());
+        assertFalse(body.containsKey("nextCursor"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> items(Map<String, Object> body) {
+        return (List<Map<String, Object>>) body.get("items");
+    }
+
+    private static List<String> ids(Map<String, Object> body) {
+        List<String> ids = new ArrayList<>();
+        for (Map<String, Object> item : items(body)) {
+            if ("report".equals(item.get("type"))) {
+                ids.add("report:" + ((Report) item.get("report")).getReportId());
+            } else {
+                ids.add("landmark:" + ((Landmark) item.get("landmark")).getLandmarkId());
+            }
+        }
+        return ids;
+    }
+
+    // An in-memory index, with postings built the way the indexer builds them
+    private static final class FakeIndex extends SearchIndexRepository {
+        private final Map<String, List<SearchPosting>> postings = new HashMap<>();
+        private final Map<String, Map<String, AttributeValue>> documents = new HashMap<>();
+        private final List<List<String>> loaded = new ArrayList<>();
+        private long documentCount;
+        private long totalLength;
+
+        void addReport(String reportId, String description) {
+            add(SearchSource.REPORTS, "reportId", reportId, description);
+        }
+
+        void addLandmark(String landmarkId, String description) {
+            add(SearchSource.LANDMARKS, "landmarkId", landmarkId, description);
+        }
+
+        private void add(SearchSource source, String keyAttribute, String id, String description) {
+            String docKey = source.docKey(id);
+            Map<String, Integer> terms = TurkishAnalyzer.termFrequencies(List.of(description));
+            int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+            terms.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new ArrayList<>())
+                .add(new SearchPosting(term, docKey, tf, length)));
+            documents.put(docKey, Map.of(
+                keyAttribute, AttributeValue.builder().s(id).build(),
+                "description", AttributeValue.builder().s(description).build()));
+            documentCount++;
+            totalLength += length;
+        }
+
+        @Override
+        public Stats stats() {
+            return new Stats(documentCount, totalLength);
+        }
+
+        @Override
+        public List<SearchPosting> postings(String term, int max) {
+            List<SearchPosting> matches = postings.getOrDefault(term, List.of());
+            return matches.subList(0, Math.min(max, matches.size()));
+        }
+
+        @Override
+        public Map<String, Map<String, AttributeValue>> getDocuments(List<String> docKeys) {
+            loaded.add(List.copyOf(docKeys));
+            Map<String, Map<String, AttributeValue>> found = new HashMap<>();
+            for (String docKey : docKeys) {
+                if (documents.containsKey(docKey)) {
+                    found.put(docKey, documents.get(docKey));
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.seismiq.test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.seismiq.common.codec.ModelCodecs;
+import com.seismiq.common.model.Category;
+import com.seismiq.common.model.Report;
+import com.seismiq.common.model.User;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Measures report decoding throughput (items/sec) of the hand-written mapper the report
+ * repository used before the codecs, against ModelCodecs.REPORT.
+ * Run with the common-lib jar and the AWS SDK on the classpath:
+ * java com.seismiq.test.CodecBenchmark [items] [rounds]
+ */
+public class CodecBenchmark {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+
+    public static void main(String[] args) {
+        int itemCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        List<Map<String, AttributeValue>> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(sampleItem(i));
+        }
+
+        // Warm up both paths so the JIT has compiled them before measuring
+        for (int i = 0; i < 3; i++) {
+            decodeLegacy(items);
+            decodeCodec(items);
+        }
+
+        double legacy = 0;
+        double codec = 0;
+        for (int round = 0; round < rounds; round++) {
+            legacy += decodeLegacy(items);
+            codec += decodeCodec(items);
+        }
+        legacy /= rounds;
+        codec /= rounds;
+
+        System.out.printf("hand-written mapper: %,.0f items/sec%n", legacy);
+        System.out.printf("ModelCodecs.REPORT:  %,.0f items/sec%n", codec);
+        System.out.printf("speedup:             %.2fx%n", codec / legacy);
+    }
+
+    private static double decodeLegacy(List<Map<String, AttributeValue>> items) {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (Map<String, AttributeValue> item : items) {
+            checksum += legacyMapToReport(item).getReportId().length();
+        }
+        return rate(items.size(), start, checksum);
+    }
+
+    private static double decodeCodec(List<Map<String, AttributeValue>> items) {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (Map<String, AttributeValue> item : items) {
+            checksum += ModelCodecs.REPORT.decode(item).getReportId().length();
+        }
+        return rate(items.size(), start, checksum);
+    }
+
+    private static double rate(int count, long startNanos, long checksum) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        if (checksum == 0) {
+            throw new IllegalStateException("Nothing decoded");
+        }
+        return count / seconds;
+    }
+
+    private static Map<String, AttributeValue> sampleItem(int i) {
+        Map<String, AttributeValue> user = new HashMap<>();
+        user.put("userId", s("user-" + (i % 1000)));
+        user.put("name", s("Kullanıcı " + i));
+        user.put("isVolunteer", AttributeValue.builder().bool(i % 2 == 0).build());
+        user.put("isSocialWorker", AttributeValue.builder().bool(false).build());
+
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("reportId", s("report-" + i));
+        item.put("userId", s("user-" + (i % 1000)));
+        item.put("user", AttributeValue.builder().m(user).build());
+        item.put("category", AttributeValue.builder().m(Map.of(
+            "categoryID", s("medical_help"),
+            "categoryType", s("MEDICAL_HELP"))).build());
+        item.put("description", s("Enkaz altında yardım bekleyen kişiler var " + i));
+        item.put("location", s("Kahramanmaraş, Pazarcık"));
+        item.put("isCurrentLocation", AttributeValue.builder().bool(true).build());
+        item.put("latitude", AttributeValue.builder().n(String.valueOf(37.0 + (i % 1000) / 1000.0)).build());
+        item.put("longitude", AttributeValue.builder().n(String.valueOf(37.0 + (i % 997) / 1000.0)).build());
+        item.put("status", s("PENDING"));
+        String timestamp = LocalDateTime.of(2025, 2, 6, 4, 17).plusSeconds(i).format(DATE_FORMATTER);
+        item.put("timestamp", s(timestamp));
+        item.put("lastUpdated", s(timestamp));
+        item.put("city", s("Pazarcık"));
+        item.put("province", s("Kahramanmaraş"));
+        return item;
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    // The report repository's mapper before ModelCodecs, kept verbatim as the baseline
+    private static Report legacyMapToReport(Map<String, AttributeValue> item) {
+        User user = null;
+        if (item.containsKey("user") && item.get("user").m() != null) {
+            Map<String, AttributeValue> userMap = item.get("user").m();
+            user = new User();
+            if (userMap.containsKey("userId") && userMap.get("userId") != null) {
+                user.setUserId(userMap.get("userId").s());
+            }
+            if (userMap.containsKey("name") && userMap.get("name") != null) {
+                user.setName(userMap.get("name").s());
+            }
+            if (userMap.containsKey("address") && userMap.get("address") != null) {
+                user.setAddress(userMap.get("address").s());
+            }
+            if (userMap.containsKey("isVolunteer") && userMap.get("isVolunteer") != null) {
+                user.setVolunteer(userMap.get("isVolunteer").bool());
+            }
+            if (userMap.containsKey("isSocialWorker") && userMap.get("isSocialWorker") != null) {
+                user.setSocialWorker(userMap.get("isSocialWorker").bool());
+            }
+        }
+
+        Category category = null;
+        if (item.containsKey("category") && item.get("category").m() != null) {
+            Map<String, AttributeValue> categoryMap = item.get("category").m();
+            if (categoryMap.containsKey("categoryID") && categoryMap.get("categoryID") != null &&
+                categoryMap.containsKey("categoryType") && categoryMap.get("categoryType") != null) {
+                category = new Category(
+                    categoryMap.get("categoryID").s(),
+                    categoryMap.get("categoryType").s()
+                );
+            }
+        }
+
+        LocalDateTime timestamp = LocalDateTime.now();
+        if (item.containsKey("timestamp") && item.get("timestamp") != null) {
+            try {
+                timestamp = LocalDateTime.parse(item.get("timestamp").s(), DATE_FORMATTER);
+            } catch (Exception e) {
+                timestamp = LocalDateTime.now();
+            }
+        }
+
+        Report report = new Report(
+            item.get("reportId").s(),
+            user,
+            category,
+            item.containsKey("description") && item.get("description") != null ? item.get("description").s() : null,
+            item.containsKey("location") && item.get("location") != null ? item.get("location").s() : null,
+            item.containsKey("isCurrentLocation") && item.get("isCurrentLocation") != null && item.get("isCurrentLocation").bool(),
+            item.containsKey("status") && item.get("status") != null ? Report.ReportStatus.valueOf(item.get("status").s()) : Report.ReportStatus.PENDING,
+            timestamp
+        );
+
+        if (item.containsKey("latitude") && item.get("latitude") != null) {
+            try {
+                report.setLatitude(Double.parseDouble(item.get("latitude").n()));
+            } catch (Exception e) {
+                // Leave as default 0.0
+            }
+        }
+        if (item.containsKey("longitude") && item.get("longitude") != null) {
+            try {
+                report.setLongitude(Double.parseDouble(item.get("longitude").n()));
+            } catch (Exception e) {
+                // Leave as default 0.0
+            }
+        }
+        if (item.containsKey("locationDescription") && item.get("locationDescription") != null) {
+            report.setLocationDescription(item.get("locationDescription").s());
+        }
+        if (item.containsKey("city") && item.get("city") != null) {
+            report.setCity(item.get("city").s());
+        }
+        if (item.containsKey("province") && item.get("province") != null) {
+            report.setProvince(item.get("province").s());
+        }
+
+        return report;
+    }
+}
@@ -8,6 +8,7 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.gson.Gson;
+import com.seismiq.common.http.ApiGatewayRequests;
 import com.seismiq.common.model.User;
 
 /**
@@ -28,6 +29,7 @@ public class UserHandler implements RequestHandler<APIGatewayProxyRequestEvent,
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        ApiGatewayRequests.decodeBody(input);
         String path = input.getPath();
         String httpMethod = input.getHttpMethod();
 
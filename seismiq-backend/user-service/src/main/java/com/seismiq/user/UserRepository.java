@@ -3,6 +3,7 @@ package com.seismiq.user;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.seismiq.common.codec.ModelCodecs;
 import com.seismiq.common.model.User;
 import com.seismiq.common.repository.DynamoDBRepository;
 
@@ -27,17 +28,7 @@ public class UserRepository extends DynamoDBRepository {
     }
 
     public void saveUser(User user) {
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put("userId", AttributeValue.builder().s(user.getUserId()).build());
-        item.put("name", AttributeValue.builder().s(user.getName()).build());
-        item.put("address", AttributeValue.builder().s(user.getAddress()).build());
-        item.put("isVolunteer", AttributeValue.builder().bool(user.isVolunteer()).build());
-        item.put("isSocialWorker", AttributeValue.builder().bool(user.isSocialWorker()).build());
-        if (user.getEmail() != null) 
-            item.put("email", AttributeValue.builder().s(user.getEmail()).build());
-        if (user.getPasswordHash() != null) 
-            item.put("passwordHash", AttributeValue.builder().s(user.getPasswordHash()).build());
-        putItem(item);
+        putItem(ModelCodecs.USER.encode(user));
     }
 
     public User getUser(String userId) {
@@ -49,36 +40,11 @@ public class UserRepository extends DynamoDBRepository {
             return null;
         }
 
-        Map<String, AttributeValue> item = response.item();
-        User user = new User();
-        user.setUserId(item.get("userId").s());
-        user.setName(item.get("name").s());
-        user.setAddress(item.get("address").s());
-        user.setVolunteer(item.get("isVolunteer").bool());
-        user.setSocialWorker(item.get("isSocialWorker").bool());
-
-        if (item.containsKey("email")) 
-            user.setEmail(item.get("email").s());
-        if (item.containsKey("passwordHash")) 
-            user.setPasswordHash(item.get("passwordHash").s());
-        
-        return user;
+        return ModelCodecs.USER.decode(response.item());
     }
 
     public void updateUser(User user){
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put("userId", AttributeValue.builder().s(user.getUserId()).build());
-        item.put("name", AttributeValue.builder().s(user.getName()).build());
-        item.put("address", AttributeValue.builder().s(user.getAddress()).build());
-        item.put("isVolunteer", AttributeValue.builder().bool(user.isVolunteer()).build());
-        item.put("isSocialWorker", AttributeValue.builder().bool(user.isSocialWorker()).build());
-
-        if (user.getEmail() != null) 
-            item.put("email", AttributeValue.builder().s(user.getEmail()).build());
-        if (user.getPasswordHash() != null) 
-            item.put("passwordHash", AttributeValue.builder().s(user.getPasswordHash()).build());
-        
-        putItem(item);
+        putItem(ModelCodecs.USER.encode(user));
     } 
 
     public void deleteUser(String userId){
@@ -102,17 +68,7 @@ public class UserRepository extends DynamoDBRepository {
 
         if (result.count() == 0) return null;
 
-        Map<String, AttributeValue> item = result.items().get(0);
-        User user = new User();
-        user.setUserId(item.get("userId").s());
-        user.setName(item.get("name").s());
-        user.setAddress(item.get("address").s());
-        user.setVolunteer(item.get("isVolunteer").bool());
-        user.setSocialWorker(item.get("isSocialWorker").bool());
-        if (item.containsKey("email")) user.setEmail(item.get("email").s());
-        if (item.containsKey("passwordHash")) user.setPasswordHash(item.get("passwordHash").s());
-
-        return user;
+        return ModelCodecs.USER.decode(result.items().get(0));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.seismiq.app.api;
+
+import com.seismiq.app.model.SyncResponse;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+
+public interface SyncApiService {
+
+    /**
+     * Reports, earthquakes and landmarks changed since the token of the previous sync.
+     * Pass a null token to get a starting token.
+     */
+    @GET("sync")
+    Call<SyncResponse> sync(@Query("since") String since);
+}
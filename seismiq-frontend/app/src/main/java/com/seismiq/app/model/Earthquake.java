@@ -11,6 +11,7 @@ public class Earthquake {
     private String location;
     private int depth;
     private String description;
+    private boolean isActive = true;  // false once the server retires it (after 6 months)
 
     // Default constructor for Gson
     public Earthquake() {
@@ -92,4 +93,12 @@ public class Earthquake {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public boolean isActive() {
+        return isActive;
+    }
+
+    public void setActive(boolean active) {
+        isActive = active;
+    }
 }
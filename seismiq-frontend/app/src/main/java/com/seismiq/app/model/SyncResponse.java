@@ -0,0 +1,71 @@
+package com.seismiq.app.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changes returned by GET /sync. When reset is true the lists are empty and the
+ * full lists must be loaded again before syncing from the new token.
+ */
+public class SyncResponse {
+    private String token;
+    private boolean reset;
+    private boolean hasMore;
+    private List<Report> reports = new ArrayList<>();
+    private List<Earthquake> earthquakes = new ArrayList<>();
+    private List<Landmark> landmarks = new ArrayList<>();
+    private Deleted deleted = new Deleted();
+
+    // Default constructor for Gson
+    public SyncResponse() {
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public List<Report> getReports() {
+        return reports != null ? reports : new ArrayList<>();
+    }
+
+    public List<Earthquake> getEarthquakes() {
+        return earthquakes != null ? earthquakes : new ArrayList<>();
+    }
+
+    public List<Landmark> getLandmarks() {
+        return landmarks != null ? landmarks : new ArrayList<>();
+    }
+
+    public Deleted getDeleted() {
+        return deleted != null ? deleted : new Deleted();
+    }
+
+    /**
+     * Ids of the items deleted since the previous sync.
+     */
+    public static class Deleted {
+        private List<String> reports = new ArrayList<>();
+        private List<String> earthquakes = new ArrayList<>();
+        private List<String> landmarks = new ArrayList<>();
+
+        public List<String> getReports() {
+            return reports != null ? reports : new ArrayList<>();
+        }
+
+        public List<String> getEarthquakes() {
+            return earthquakes != null ? earthquakes : new ArrayList<>();
+        }
+
+        public List<String> getLandmarks() {
+            return landmarks != null ? landmarks : new ArrayList<>();
+        }
+    }
+}
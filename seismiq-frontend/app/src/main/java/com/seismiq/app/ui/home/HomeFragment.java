@@ -21,11 +21,13 @@ import com.seismiq.app.api.EarthquakeApiService;
 import com.seismiq.app.api.LandmarkApiService;
 import com.seismiq.app.api.ReportApiService;
 import com.seismiq.app.api.RetrofitClient;
+import com.seismiq.app.api.SyncApiService;
 import com.seismiq.app.auth.AuthService;
 import com.seismiq.app.model.Earthquake;
 import com.seismiq.app.model.Landmark;
 import com.seismiq.app.model.MyPost;
 import com.seismiq.app.model.Report;
+import com.seismiq.app.model.SyncResponse;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -136,9 +138,14 @@ public class HomeFragment extends Fragment {
                     ReportApiService reportService = RetrofitClient.getClient(token)
                             .create(ReportApiService.class);
 
-                    // Fetch both reports and earthquakes
-                    loadReports(reportService);
-                    loadEarthquakes(earthquakeService);
+                    SyncApiService syncService = RetrofitClient.getClient(token)
+                            .create(SyncApiService.class);
+
+                    if (syncToken == null) {
+                        loadFullFeed(syncService, reportService, earthquakeService);
+                    } else {
+                        syncFeed(syncService, reportService, earthquakeService);
+                    }
                 })
                 .exceptionally(error -> {
                     if (getActivity() != null) {
@@ -156,6 +163,102 @@ public class HomeFragment extends Fragment {
 
     private final List<Report> reports = new ArrayList<>();
     private final List<Earthquake> earthquakes = new ArrayList<>();
+    // Token of the last sync; null until the feed has been loaded in full
+    private String syncToken;
+
+    /**
+     * Takes a sync token first, then fetches both lists in full; later refreshes
+     * only fetch what changed after the token.
+     */
+    private void loadFullFeed(SyncApiService syncService, ReportApiService reportService,
+                              EarthquakeApiService earthquakeService) {
+        syncService.sync(null).enqueue(new Callback<SyncResponse>() {
+            @Override
+            public void onResponse(Call<SyncResponse> call, Response<SyncResponse> response) {
+                if (getActivity() == null) return;
+
+                getActivity().runOnUiThread(() -> {
+                    syncToken = response.isSuccessful() && response.body() != null
+                            ? response.body().getToken()
+                            : null;
+                    loadReports(reportService);
+                    loadEarthquakes(earthquakeService);
+                });
+            }
+
+            @Override
+            public void onFailure(Call<SyncResponse> call, Throwable t) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        syncToken = null;
+                        loadReports(reportService);
+                        loadEarthquakes(earthquakeService);
+                    });
+                }
+            }
+        });
+    }
+
+    private void syncFeed(SyncApiService syncService, ReportApiService reportService,
+                          EarthquakeApiService earthquakeService) {
+        syncService.sync(syncToken).enqueue(new Callback<SyncResponse>() {
+            @Override
+            public void onResponse(Call<SyncResponse> call, Response<SyncResponse> response) {
+                if (getActivity() == null) return;
+
+                getActivity().runOnUiThread(() -> {
+                    SyncResponse changes = response.body();
+                    if (!response.isSuccessful() || changes == null || changes.isReset()) {
+                        // Token expired or unusable: start over from a full load
+                        syncToken = null;
+                        loadFullFeed(syncService, reportService, earthquakeService);
+                        return;
+                    }
+
+                    applyChanges(changes);
+                    syncToken = changes.getToken();
+                    combineFeed();
+                    if (changes.hasMore()) {
+                        syncFeed(syncService, reportService, earthquakeService);
+                    } else {
+                        progressBar.setVisibility(View.GONE);
+                        swipeRefreshLayout.setRefreshing(false);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Call<SyncResponse> call, Throwable t) {
+                if (getActivity() != null) {
+                    getActivity().runOnUiThread(() -> {
+                        progressBar.setVisibility(View.GONE);
+                        swipeRefreshLayout.setRefreshing(false);
+                        Toast.makeText(requireContext(),
+                                "Error refreshing feed: " + t.getMessage(),
+                                Toast.LENGTH_SHORT).show();
+                    });
+                }
+            }
+        });
+    }
+
+    private void applyChanges(SyncResponse changes) {
+        SyncResponse.Deleted deleted = changes.getDeleted();
+        for (Report report : changes.getReports()) {
+            reports.removeIf(existing -> report.getReportId().equals(existing.getReportId()));
+            reports.add(report);
+        }
+        reports.removeIf(existing -> deleted.getReports().contains(existing.getReportId()));
+
+        for (Earthquake earthquake : changes.getEarthquakes()) {
+            earthquakes.removeIf(existing -> earthquake.getEarthquakeId().equals(existing.getEarthquakeId()));
+            // Retired earthquakes arrive as updates, not deletions; the full list only has active ones
+            if (earthquake.isActive()) {
+                earthquakes.add(earthquake);
+            }
+        }
+        earthquakes.removeIf(existing -> deleted.getEarthquakes().contains(existing.getEarthquakeId()));
+    }
 
     private void loadReports(ReportApiService service) {
         service.getReports().enqueue(new Callback<List<Report>>() {
@@ -168,6 +271,8 @@ public class HomeFragment extends Fragment {
                         reports.clear();
                         reports.addAll(response.body());
                         combineFeed();
+                    } else {
+                        syncToken = null;
                     }
                     progressBar.setVisibility(View.GONE);
                     swipeRefreshLayout.setRefreshing(false);
@@ -178,6 +283,7 @@ public class HomeFragment extends Fragment {
             public void onFailure(Call<List<Report>> call, Throwable t) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
+                        syncToken = null; // the next refresh has to load the full list again
                         progressBar.setVisibility(View.GONE);
                         swipeRefreshLayout.setRefreshing(false);
                         combineFeed(); // Still show earthquakes if reports fail
@@ -198,6 +304,8 @@ public class HomeFragment extends Fragment {
                         earthquakes.clear();
                         earthquakes.addAll(response.body());
                         combineFeed();
+                    } else {
+                        syncToken = null;
                     }
                 });
             }
@@ -206,6 +314,7 @@ public class HomeFragment extends Fragment {
             public void onFailure(Call<List<Earthquake>> call, Throwable t) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
+                        syncToken = null; // the next refresh has to load the full list again
                         combineFeed(); // Still show reports if earthquakes fail
                     });
                 }